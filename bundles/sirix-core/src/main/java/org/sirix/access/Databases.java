@@ -5,17 +5,17 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.api.Database;
 import org.sirix.api.ResourceManager;
 import org.sirix.exception.SirixIOException;
 import org.sirix.exception.SirixUsageException;
 import org.sirix.utils.SirixFiles;
+import com.google.common.util.concurrent.Striped;
 
 /**
  * Utility methods for {@link Database} handling.
@@ -26,13 +26,20 @@ import org.sirix.utils.SirixFiles;
  */
 public final class Databases {
 
+  /** Number of lock stripes used to guard the creation, opening and removal of databases. */
+  private static final int LOCK_STRIPES = 64;
+
+  /**
+   * Locks striped by the database path, such that operations on independent databases don't
+   * contend.
+   */
+  private static final Striped<Lock> DATABASE_LOCKS = Striped.lazyWeakLock(LOCK_STRIPES);
+
   /** Central repository of all running databases. */
-  private static final ConcurrentMap<Path, Set<Database>> DATABASE_SESSIONS =
-      new ConcurrentHashMap<>();
+  private static final PathBasedPool<Database> DATABASE_SESSIONS = new PathBasedPool<>();
 
   /** Central repository of all running resource managers. */
-  private static final ConcurrentMap<Path, Set<ResourceManager>> RESOURCE_MANAGERS =
-      new ConcurrentHashMap<>();
+  private static final PathBasedPool<ResourceManager> RESOURCE_MANAGERS = new PathBasedPool<>();
 
   /** Central repository of all resource {@code <=>} read semaphore mappings. */
   private static final ConcurrentMap<Path, Semaphore> RESOURCE_READ_SEMAPHORES =
@@ -44,12 +51,12 @@ public final class Databases {
 
   public static Semaphore computeReadSempahoreIfAbsent(Path resourcePath, int numberOfPermits) {
     return RESOURCE_READ_SEMAPHORES.computeIfAbsent(
-        resourcePath, res -> new Semaphore(numberOfPermits));
+        resourcePath, res -> new Semaphore(numberOfPermits, true));
   }
 
   public static Semaphore computeWriteSempahoreIfAbsent(Path resourcePath, int numberOfPermits) {
     return RESOURCE_WRITE_SEMAPHORES.computeIfAbsent(
-        resourcePath, res -> new Semaphore(numberOfPermits));
+        resourcePath, res -> new Semaphore(numberOfPermits, true));
   }
 
   /**
@@ -60,8 +67,18 @@ public final class Databases {
    * @return true if creation is valid, false otherwise
    * @throws SirixIOException if something odd happens within the creation process.
    */
-  public static synchronized boolean createDatabase(final DatabaseConfiguration dbConfig)
+  public static boolean createDatabase(final DatabaseConfiguration dbConfig)
       throws SirixIOException {
+    final Lock lock = DATABASE_LOCKS.get(dbConfig.getFile());
+    lock.lock();
+    try {
+      return createDatabaseStructure(dbConfig);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static boolean createDatabaseStructure(final DatabaseConfiguration dbConfig) {
     boolean returnVal = true;
     // if file is existing, skipping
     if (Files.exists(dbConfig.getFile())) {
@@ -119,16 +136,22 @@ public final class Databases {
    * @param dbFile the database at this path should be deleted
    * @throws SirixIOException if Sirix fails to delete the database
    */
-  public static synchronized void removeDatabase(final Path dbFile) throws SirixIOException {
-    // check that database must be closed beforehand
-    if (!DATABASE_SESSIONS.containsKey(dbFile)) {
-      // if file is existing and folder is a sirix-database, delete it
-      if (Files.exists(dbFile)) {
-        // && DatabaseConfiguration.Paths.compareStructure(pConf.getFile()) ==
-        // 0) {
-        // instantiate the database for deletion
-        SirixFiles.recursiveRemove(dbFile);
+  public static void removeDatabase(final Path dbFile) throws SirixIOException {
+    final Lock lock = DATABASE_LOCKS.get(dbFile);
+    lock.lock();
+    try {
+      // check that database must be closed beforehand
+      if (!DATABASE_SESSIONS.containsAny(dbFile)) {
+        // if file is existing and folder is a sirix-database, delete it
+        if (Files.exists(dbFile)) {
+          // && DatabaseConfiguration.Paths.compareStructure(pConf.getFile()) ==
+          // 0) {
+          // instantiate the database for deletion
+          SirixFiles.recursiveRemove(dbFile);
+        }
       }
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -143,20 +166,26 @@ public final class Databases {
    * @throws SirixUsageException if Sirix is not used properly
    * @throws NullPointerException if {@code file} is {@code null}
    */
-  public static synchronized Database openDatabase(final Path file)
+  public static Database openDatabase(final Path file)
       throws SirixUsageException, SirixIOException {
     checkNotNull(file);
-    if (!Files.exists(file)) {
-      throw new SirixUsageException(
-          "DB could not be opened (since it was not created?) at location", file.toString());
-    }
-    final DatabaseConfiguration config = DatabaseConfiguration.deserialize(file);
-    if (config == null) {
-      throw new IllegalStateException("Configuration may not be null!");
+    final Lock lock = DATABASE_LOCKS.get(file);
+    lock.lock();
+    try {
+      if (!Files.exists(file)) {
+        throw new SirixUsageException(
+            "DB could not be opened (since it was not created?) at location", file.toString());
+      }
+      final DatabaseConfiguration config = DatabaseConfiguration.deserialize(file);
+      if (config == null) {
+        throw new IllegalStateException("Configuration may not be null!");
+      }
+      final Database database = new LocalDatabase(config);
+      putDatabase(file, database);
+      return database;
+    } finally {
+      lock.unlock();
     }
-    final Database database = new LocalDatabase(config);
-    putDatabase(file, database);
-    return database;
   }
 
   /**
@@ -165,7 +194,7 @@ public final class Databases {
    * @param dbPath database path
    * @return {@code true}, if database exists, {@code false} otherwise
    */
-  public static synchronized boolean existsDatabase(final Path dbPath) {
+  public static boolean existsDatabase(final Path dbPath) {
     return Files.exists(dbPath) && DatabaseConfiguration.DatabasePaths.compareStructure(dbPath) == 0
         ? true
         : false;
@@ -177,10 +206,8 @@ public final class Databases {
    * @param file database file to put into the map
    * @param database database handle to put into the map
    */
-  static synchronized void putDatabase(final Path file, final Database database) {
-    final Set<Database> databases = DATABASE_SESSIONS.getOrDefault(file, new HashSet<>());
-    databases.add(database);
-    DATABASE_SESSIONS.put(file, databases);
+  static void putDatabase(final Path file, final Database database) {
+    DATABASE_SESSIONS.put(file, database);
   }
 
   /**
@@ -188,12 +215,8 @@ public final class Databases {
    *
    * @param file database file to remove
    */
-  static synchronized void removeDatabase(final Path file, final Database database) {
-    final Set<Database> databases = DATABASE_SESSIONS.get(file);
-    databases.remove(database);
-
-    if (databases.isEmpty())
-      DATABASE_SESSIONS.remove(file);
+  static void removeDatabase(final Path file, final Database database) {
+    DATABASE_SESSIONS.remove(file, database);
   }
 
   /**
@@ -202,12 +225,9 @@ public final class Databases {
    * @param file resource file to put into the map
    * @param resourceManager resourceManager handle to put into the map
    */
-  public static synchronized void putResourceManager(final Path file,
+  public static void putResourceManager(final Path file,
       final ResourceManager resourceManager) {
-    final Set<ResourceManager> resourceManagers =
-        RESOURCE_MANAGERS.getOrDefault(file, new HashSet<>());
-    resourceManagers.add(resourceManager);
-    RESOURCE_MANAGERS.put(file, resourceManagers);
+    RESOURCE_MANAGERS.put(file, resourceManager);
   }
 
   /**
@@ -215,18 +235,9 @@ public final class Databases {
    *
    * @param resource manager to remove
    */
-  public static synchronized void removeResourceManager(final Path file,
+  public static void removeResourceManager(final Path file,
       final ResourceManager resourceManager) {
-    final Set<ResourceManager> resourceManagers = RESOURCE_MANAGERS.get(file);
-
-    if (resourceManagers == null) {
-      return;
-    }
-
-    resourceManagers.remove(resourceManager);
-
-    if (resourceManagers.isEmpty())
-      RESOURCE_MANAGERS.remove(file);
+    RESOURCE_MANAGERS.remove(file, resourceManager);
   }
 
   /**
@@ -235,13 +246,7 @@ public final class Databases {
    * @param file the resource file
    * @return {@code true}, if there are any open resource managers, {@code false} otherwise.
    */
-  public static synchronized boolean hasOpenResourceManagers(Path file) {
-    final Set<ResourceManager> resourceManagers = RESOURCE_MANAGERS.get(file);
-
-    if (resourceManagers == null || resourceManagers.isEmpty()) {
-      return false;
-    }
-
-    return true;
+  public static boolean hasOpenResourceManagers(Path file) {
+    return RESOURCE_MANAGERS.containsAny(file);
   }
 }
@@ -93,7 +93,7 @@ public final class LocalDatabase implements Database {
   private final TransactionManager mTransactionManager;
 
   /** Determines if the database instance is in the closed state or not. */
-  private boolean mClosed;
+  private volatile boolean mClosed;
 
   /**
    * Package private constructor.
@@ -114,7 +114,7 @@ public final class LocalDatabase implements Database {
   // //////////////////////////////////////////////////////////
 
   @Override
-  public synchronized boolean createResource(final ResourceConfiguration resConfig) {
+  public boolean createResource(final ResourceConfiguration resConfig) {
     assertNotClosed();
 
     boolean returnVal = true;
@@ -158,11 +158,14 @@ public final class LocalDatabase implements Database {
     if (returnVal) {
       // If everything was correct so far, initialize storage.
 
-      // Serialization of the config.
-      mResourceID.set(mDBConfig.getMaxResourceID());
-      ResourceConfiguration.serialize(resConfig.setID(mResourceID.getAndIncrement()));
-      mDBConfig.setMaximumResourceID(mResourceID.get());
-      mResources.forcePut(mResourceID.get(), resConfig.getResource().getFileName().toString());
+      // Serialization of the config. Only the allocation of the resource-ID is serialized, the
+      // directory creation above already fails for concurrent creations of the same resource.
+      synchronized (mResourceID) {
+        mResourceID.set(mDBConfig.getMaxResourceID());
+        ResourceConfiguration.serialize(resConfig.setID(mResourceID.getAndIncrement()));
+        mDBConfig.setMaximumResourceID(mResourceID.get());
+        mResources.forcePut(mResourceID.get(), resConfig.getResource().getFileName().toString());
+      }
 
       try (
           final ResourceManager resourceTrxManager =
@@ -234,14 +237,14 @@ public final class LocalDatabase implements Database {
   // //////////////////////////////////////////////////////////
 
   @Override
-  public synchronized String getResourceName(final @Nonnegative long id) {
+  public String getResourceName(final @Nonnegative long id) {
     assertNotClosed();
     checkArgument(id >= 0, "The ID must be >= 0!");
     return mResources.get(id);
   }
 
   @Override
-  public synchronized long getResourceID(final String name) {
+  public long getResourceID(final String name) {
     assertNotClosed();
     return mResources.inverse().get(checkNotNull(name));
   }
@@ -255,7 +258,7 @@ public final class LocalDatabase implements Database {
   // //////////////////////////////////////////////////////////
 
   @Override
-  public synchronized ResourceManager getResourceManager(final String resource)
+  public ResourceManager getResourceManager(final String resource)
       throws SirixException {
     assertNotClosed();
 
@@ -269,8 +272,9 @@ public final class LocalDatabase implements Database {
           resourceFile.toString());
     }
 
-    if (mResourceStore.hasOpenResourceManager(resourceFile))
-      return mResourceStore.getOpenResourceManager(resourceFile);
+    final ResourceManager openResourceManager = mResourceStore.getOpenResourceManager(resourceFile);
+    if (openResourceManager != null)
+      return openResourceManager;
 
     final ResourceConfiguration resourceConfig = ResourceConfiguration.deserialize(resourceFile);
 
@@ -281,11 +285,11 @@ public final class LocalDatabase implements Database {
     mResources.forcePut(
         resourceConfig.getID(), resourceConfig.getResource().getFileName().toString());
 
-    if (!mBufferManagers.containsKey(resourceFile))
-      mBufferManagers.put(resourceFile, new BufferManagerImpl());
+    final BufferManager bufferManager =
+        mBufferManagers.computeIfAbsent(resourceFile, path -> new BufferManagerImpl());
 
-    final ResourceManager resourceManager = mResourceStore.openResource(
-        this, resourceConfig, mBufferManagers.get(resourceFile), resourceFile);
+    final ResourceManager resourceManager =
+        mResourceStore.openResource(this, resourceConfig, bufferManager, resourceFile);
 
     return resourceManager;
   }
@@ -320,7 +324,7 @@ public final class LocalDatabase implements Database {
   }
 
   @Override
-  public synchronized boolean existsResource(final String resourceName) {
+  public boolean existsResource(final String resourceName) {
     assertNotClosed();
     final Path resourceFile =
         mDBConfig.getFile().resolve(DatabaseConfiguration.DatabasePaths.DATA.getFile()).resolve(
@@ -0,0 +1,75 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A registry of open handles per path. Adding and removing handles is atomic per path (the sets are
+ * only modified within {@link ConcurrentMap#compute}) without a global lock, thus handles of
+ * independent paths are registered and unregistered in parallel. The
+ * entry of a path is removed as soon as its last handle has been removed, such that the set of
+ * handles acts as a reference count.
+ *
+ * @author Johannes Lichtenberger
+ *
+ * @param <E> the type of the handles
+ */
+final class PathBasedPool<E> {
+
+  /** The open handles per path. */
+  private final ConcurrentMap<Path, Set<E>> mHandles;
+
+  /**
+   * Constructor.
+   */
+  PathBasedPool() {
+    mHandles = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Register a handle.
+   *
+   * @param file the path of the handle
+   * @param handle the handle to register
+   * @throws NullPointerException if one of the arguments is {@code null}
+   */
+  void put(final Path file, final E handle) {
+    checkNotNull(handle);
+    mHandles.compute(checkNotNull(file), (path, handles) -> {
+      final Set<E> newHandles = handles == null
+          ? new HashSet<>()
+          : handles;
+      newHandles.add(handle);
+      return newHandles;
+    });
+  }
+
+  /**
+   * Unregister a handle.
+   *
+   * @param file the path of the handle
+   * @param handle the handle to unregister
+   */
+  void remove(final Path file, final E handle) {
+    mHandles.computeIfPresent(checkNotNull(file), (path, handles) -> {
+      handles.remove(handle);
+      return handles.isEmpty()
+          ? null
+          : handles;
+    });
+  }
+
+  /**
+   * Determines if any handle is registered for the path.
+   *
+   * @param file the path
+   * @return {@code true}, if at least one handle is registered, {@code false} otherwise
+   */
+  boolean containsAny(final Path file) {
+    return mHandles.containsKey(checkNotNull(file));
+  }
+}
@@ -76,7 +76,7 @@ public final class ResourceStore implements AutoCloseable {
 
       // Create the resource manager instance.
       final ResourceManager resourceManager = new XdmResourceManager(database, this, resourceConfig,
-          bufferManager, StorageType.getStorage(resourceConfig), uberPage, readSem, writeSem);
+          bufferManager, storage, uberPage, readSem, writeSem);
 
       // Put it in the databases cache.
       Databases.putResourceManager(resourceFile, resourceManager);
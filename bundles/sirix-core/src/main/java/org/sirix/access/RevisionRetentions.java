@@ -0,0 +1,81 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import javax.annotation.Nonnegative;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.RevisionRetention;
+
+/**
+ * Common {@link RevisionRetention} policies, which are used to compact a resource through
+ * {@link ResourceManager#compact(RevisionRetention)}.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class RevisionRetentions {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private RevisionRetentions() {
+    throw new AssertionError("May not be instantiated!");
+  }
+
+  /**
+   * Retain all revisions.
+   *
+   * @return the retention policy
+   */
+  public static RevisionRetention all() {
+    return (revision, timestamp, mostRecentRevision) -> true;
+  }
+
+  /**
+   * Retain the last {@code count} revisions.
+   *
+   * @param count the number of revisions to retain
+   * @return the retention policy
+   * @throws IllegalArgumentException if {@code count < 1}
+   */
+  public static RevisionRetention keepLast(final @Nonnegative int count) {
+    checkArgument(count > 0, "count must be > 0!");
+    return (revision, timestamp, mostRecentRevision) -> mostRecentRevision - revision < count;
+  }
+
+  /**
+   * Retain all revisions, which have been committed within the given period of time, and the first
+   * revision of each (UTC) day for older revisions.
+   *
+   * @param period the period of time, in which all revisions are retained
+   * @return the retention policy, which must only be used for a single compaction, as it relies on
+   *         the ascending order of the revisions
+   * @throws IllegalArgumentException if {@code period} is negative
+   */
+  public static RevisionRetention onePerDayOlderThan(final Duration period) {
+    checkArgument(!checkNotNull(period).isNegative(), "period must not be negative!");
+    final Instant threshold = Instant.now().minus(period);
+    return new RevisionRetention() {
+      /** The day of the last retained revision. */
+      private LocalDate mLastDay;
+
+      @Override
+      public boolean retain(final int revision, final Instant timestamp,
+          final int mostRecentRevision) {
+        if (!timestamp.isBefore(threshold)) {
+          return true;
+        }
+        final LocalDate day = timestamp.atOffset(ZoneOffset.UTC).toLocalDate();
+        if (day.equals(mLastDay)) {
+          return false;
+        }
+        mLastDay = day;
+        return true;
+      }
+    };
+  }
+}
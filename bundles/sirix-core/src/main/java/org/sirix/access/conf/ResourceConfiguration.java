@@ -34,6 +34,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nonnegative;
+import org.sirix.access.trx.node.HashFunctionType;
 import org.sirix.access.trx.node.HashType;
 import org.sirix.access.trx.node.XdmResourceManager;
 import org.sirix.exception.SirixIOException;
@@ -148,9 +149,18 @@ public final class ResourceConfiguration {
   /** Type of hashing. */
   private static final HashType HASHKIND = HashType.ROLLING;
 
+  /** Hash function for node hashes. */
+  private static final HashFunctionType NODE_HASH_FUNCTION = HashFunctionType.SHA256;
+
+  /** Hash function for page checksums. */
+  private static final HashFunctionType PAGE_HASH_FUNCTION = HashFunctionType.SHA256;
+
   /** Versions to restore. */
   private static final int VERSIONSTORESTORE = 3;
 
+  /** Memory of the transaction intent log in bytes. */
+  private static final long TRANSACTION_INTENT_LOG_MEMORY = 1L << 26;
+
   /** Persistenter for records. */
   private static final RecordPersister PERSISTENTER = new NodePersistenterImpl();
 
@@ -166,9 +176,18 @@ public final class ResourceConfiguration {
   /** Kind of integrity hash (rolling, postorder). */
   public final HashType hashType;
 
+  /** Hash function used to hash the nodes. */
+  public final HashFunctionType nodeHashFunction;
+
+  /** Hash function used to compute the checksums of the pages. */
+  public final HashFunctionType pageHashFunction;
+
   /** Number of revisions to restore a complete set of data. */
   public final int numberOfRevisionsToRestore;
 
+  /** Number of bytes the transaction intent log may use in memory before pages are spilled. */
+  public final long transactionIntentLogMemory;
+
   /** Byte handler pipeline. */
   public final ByteHandlePipeline byteHandlePipeline;
 
@@ -217,7 +236,10 @@ public final class ResourceConfiguration {
     byteHandlePipeline = builder.mByteHandler;
     revisioningType = builder.mRevisionKind;
     hashType = builder.mHashKind;
+    nodeHashFunction = builder.mNodeHashFunction;
+    pageHashFunction = builder.mPageHashFunction;
     numberOfRevisionsToRestore = builder.mRevisionsToRestore;
+    transactionIntentLogMemory = builder.mTransactionIntentLogMemory;
     databaseConfig = builder.mDBConfig;
     useTextCompression = builder.mCompression;
     pathSummary = builder.mPathSummary;
@@ -274,6 +296,9 @@ public final class ResourceConfiguration {
                       .add("Type", storageType)
                       .add("Revision", revisioningType)
                       .add("HashKind", hashType)
+                      .add("NodeHashFunction", nodeHashFunction)
+                      .add("PageHashFunction", pageHashFunction)
+                      .add("TransactionIntentLogMemory", transactionIntentLogMemory)
                       .toString();
   }
 
@@ -300,7 +325,8 @@ public final class ResourceConfiguration {
    */
   private static final String[] JSONNAMES = {"revisioning", "revisioningClass",
       "numbersOfRevisiontoRestore", "byteHandlerClasses", "storageKind", "hashKind", "compression",
-      "pathSummary", "resourceID", "deweyIDsStored", "persistenter"};
+      "pathSummary", "resourceID", "deweyIDsStored", "persistenter", "nodeHashFunction",
+      "pageHashFunction", "transactionIntentLogMemory"};
 
   /**
    * Serialize the configuration.
@@ -341,6 +367,11 @@ public final class ResourceConfiguration {
       jsonWriter.name(JSONNAMES[9]).value(config.areDeweyIDsStored);
       // Persistenter.
       jsonWriter.name(JSONNAMES[10]).value(config.recordPersister.getClass().getName());
+      // Hash functions.
+      jsonWriter.name(JSONNAMES[11]).value(config.nodeHashFunction.name());
+      jsonWriter.name(JSONNAMES[12]).value(config.pageHashFunction.name());
+      // Memory of the transaction intent log.
+      jsonWriter.name(JSONNAMES[13]).value(config.transactionIntentLogMemory);
       jsonWriter.endObject();
     } catch (final IOException e) {
       throw new SirixIOException(e);
@@ -418,6 +449,23 @@ public final class ResourceConfiguration {
       final Class<?> persistenterClazz = Class.forName(jsonReader.nextString());
       final Constructor<?> persistenterConstr = persistenterClazz.getConstructors()[0];
       final RecordPersister persistenter = (RecordPersister) persistenterConstr.newInstance();
+      // Hash functions (resources created by older versions always use SHA-256).
+      HashFunctionType nodeHashFunction = HashFunctionType.SHA256;
+      HashFunctionType pageHashFunction = HashFunctionType.SHA256;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[11]);
+        nodeHashFunction = HashFunctionType.valueOf(jsonReader.nextString());
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[12]);
+        pageHashFunction = HashFunctionType.valueOf(jsonReader.nextString());
+      }
+      long transactionIntentLogMemory = TRANSACTION_INTENT_LOG_MEMORY;
+      if (jsonReader.hasNext()) {
+        name = jsonReader.nextName();
+        assert name.equals(JSONNAMES[13]);
+        transactionIntentLogMemory = jsonReader.nextLong();
+      }
       jsonReader.endObject();
       jsonReader.close();
       fileReader.close();
@@ -431,6 +479,9 @@ public final class ResourceConfiguration {
           new ResourceConfiguration.Builder(file.getFileName().toString(), dbConfig);
       builder.byteHandlerPipeline(pipeline)
              .hashKind(hashing)
+             .nodeHashFunction(nodeHashFunction)
+             .pageHashFunction(pageHashFunction)
+             .transactionIntentLogMemory(transactionIntentLogMemory)
              .versioningApproach(revisioning)
              .revisionsToRestore(revisionToRestore)
              .storageType(storage)
@@ -462,9 +513,18 @@ public final class ResourceConfiguration {
     /** Kind of integrity hash (rolling, postorder). */
     private HashType mHashKind = HASHKIND;
 
+    /** Hash function for node hashes. */
+    private HashFunctionType mNodeHashFunction = NODE_HASH_FUNCTION;
+
+    /** Hash function for page checksums. */
+    private HashFunctionType mPageHashFunction = PAGE_HASH_FUNCTION;
+
     /** Number of revisions to restore a complete set of data. */
     private int mRevisionsToRestore = VERSIONSTORESTORE;
 
+    /** Memory of the transaction intent log in bytes. */
+    private long mTransactionIntentLogMemory = TRANSACTION_INTENT_LOG_MEMORY;
+
     /** Record/Node persistenter. */
     private RecordPersister mPersistenter = PERSISTENTER;
 
@@ -543,6 +603,44 @@ public final class ResourceConfiguration {
       return this;
     }
 
+    /**
+     * Set the hash function to hash the nodes.
+     *
+     * @param hashFunction hash function to use, which must produce at least 64 bits
+     * @return reference to the builder object
+     * @throws IllegalArgumentException if the hash function produces less than 64 bits
+     */
+    public Builder nodeHashFunction(final HashFunctionType hashFunction) {
+      checkArgument(checkNotNull(hashFunction).isNodeHashFunction(),
+          "The node hash function must produce at least 64 bits!");
+      mNodeHashFunction = hashFunction;
+      return this;
+    }
+
+    /**
+     * Set the hash function to compute the checksums of the pages.
+     *
+     * @param hashFunction hash function to use
+     * @return reference to the builder object
+     */
+    public Builder pageHashFunction(final HashFunctionType hashFunction) {
+      mPageHashFunction = checkNotNull(hashFunction);
+      return this;
+    }
+
+    /**
+     * Set the number of bytes the transaction intent log may use in memory. Three quarters are used
+     * for deserialized pages, one quarter for serialized pages. Further pages are spilled to a file.
+     *
+     * @param bytes number of bytes
+     * @return reference to the builder object
+     */
+    public Builder transactionIntentLogMemory(final @Nonnegative long bytes) {
+      checkArgument(bytes >= 0, "The memory of the transaction intent log must be >= 0!");
+      mTransactionIntentLogMemory = bytes;
+      return this;
+    }
+
     /**
      * Set the byte handler pipeline.
      *
@@ -603,6 +701,9 @@ public final class ResourceConfiguration {
                         .add("Type", mType)
                         .add("RevisionKind", mRevisionKind)
                         .add("HashKind", mHashKind)
+                        .add("NodeHashFunction", mNodeHashFunction)
+                        .add("PageHashFunction", mPageHashFunction)
+                        .add("TransactionIntentLogMemory", mTransactionIntentLogMemory)
                         .toString();
     }
 
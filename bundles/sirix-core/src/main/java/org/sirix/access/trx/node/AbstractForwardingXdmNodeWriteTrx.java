@@ -37,6 +37,11 @@ public abstract class AbstractForwardingXdmNodeWriteTrx extends AbstractForwardi
     return delegate().commit();
   }
 
+  @Override
+  public XdmNodeWriteTrx deferHashUpdates(final boolean defer) {
+    return delegate().deferHashUpdates(defer);
+  }
+
   @Override
   public XdmNodeWriteTrx moveSubtreeToLeftSibling(long fromKey) throws SirixException {
     return delegate().moveSubtreeToLeftSibling(fromKey);
@@ -118,6 +123,21 @@ public abstract class AbstractForwardingXdmNodeWriteTrx extends AbstractForwardi
     return delegate().insertSubtreeAsLeftSibling(reader);
   }
 
+  @Override
+  public XdmNodeWriteTrx insertSubtreeAsFirstChild(XMLEventReader reader, Commit commit) {
+    return delegate().insertSubtreeAsFirstChild(reader, commit);
+  }
+
+  @Override
+  public XdmNodeWriteTrx insertSubtreeAsRightSibling(XMLEventReader reader, Commit commit) {
+    return delegate().insertSubtreeAsRightSibling(reader, commit);
+  }
+
+  @Override
+  public XdmNodeWriteTrx insertSubtreeAsLeftSibling(XMLEventReader reader, Commit commit) {
+    return delegate().insertSubtreeAsLeftSibling(reader, commit);
+  }
+
   @Override
   public XdmNodeWriteTrx insertTextAsFirstChild(String value) throws SirixException {
     return delegate().insertTextAsFirstChild(value);
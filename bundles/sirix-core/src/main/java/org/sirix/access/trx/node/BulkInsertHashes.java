@@ -0,0 +1,154 @@
+package org.sirix.access.trx.node;
+
+import java.util.Arrays;
+import org.sirix.api.PageWriteTrx;
+import org.sirix.node.interfaces.Node;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.StructNode;
+import org.sirix.node.interfaces.immutable.ImmutableNode;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+import com.google.common.hash.HashFunction;
+
+/**
+ * Computes the rolling hashes and descendant counts of a subtree bottom-up while it is inserted,
+ * such that every inserted node is only modified once.
+ *
+ * <p>
+ * Structural nodes are pushed on a stack when they are inserted. A node is complete once its right
+ * sibling is inserted or once its parent is complete. Then its hash is computed and added to the
+ * partial hash of its parent on the stack, together with its descendant count. Attributes and
+ * namespaces are complete right after insertion.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ */
+final class BulkInsertHashes {
+
+  /** The hash function. */
+  private final HashFunction mHashFunction;
+
+  /** The prime the hashes of children are multiplied with. */
+  private final long mPrime;
+
+  /** Node keys of the nodes on the stack. */
+  private long[] mNodeKeys;
+
+  /** Partial hashes of the nodes on the stack. */
+  private long[] mHashes;
+
+  /** Partial descendant counts of the nodes on the stack. */
+  private long[] mDescendantCounts;
+
+  /** Number of nodes on the stack. */
+  private int mSize;
+
+  /**
+   * Constructor.
+   *
+   * @param hashFunction the hash function
+   * @param prime the prime the hashes of children are multiplied with
+   */
+  BulkInsertHashes(final HashFunction hashFunction, final long prime) {
+    mHashFunction = hashFunction;
+    mPrime = prime;
+    mNodeKeys = new long[32];
+    mHashes = new long[32];
+    mDescendantCounts = new long[32];
+  }
+
+  /**
+   * Add an inserted node.
+   *
+   * @param pageTrx the page transaction to modify the nodes
+   * @param node the inserted node
+   */
+  void add(final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageTrx,
+      final ImmutableNode node) {
+    if (node instanceof StructNode) {
+      // The left sibling is complete if it is part of the subtree.
+      final long leftSiblingKey = ((StructNode) node).getLeftSiblingKey();
+      if (((StructNode) node).hasLeftSibling()) {
+        for (int i = mSize - 1; i >= 0; i--) {
+          if (mNodeKeys[i] == leftSiblingKey) {
+            while (mSize > i) {
+              completeTop(pageTrx);
+            }
+            break;
+          }
+        }
+      }
+      push(node.getNodeKey());
+    } else {
+      final Node modifiedNode =
+          (Node) pageTrx.prepareEntryForModification(node.getNodeKey(), PageKind.RECORDPAGE, -1);
+      final long hash = mHashFunction.hashLong(modifiedNode.hashCode()).asLong();
+      modifiedNode.setHash(hash);
+      addToParent(pageTrx, modifiedNode, hash, 0);
+    }
+  }
+
+  /**
+   * Complete all nodes on the stack.
+   *
+   * @param pageTrx the page transaction to modify the nodes
+   */
+  void completeAll(final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageTrx) {
+    while (mSize > 0) {
+      completeTop(pageTrx);
+    }
+  }
+
+  /**
+   * Discard all nodes on the stack.
+   */
+  void clear() {
+    mSize = 0;
+  }
+
+  private void push(final long nodeKey) {
+    if (mSize == mNodeKeys.length) {
+      final int capacity = mSize << 1;
+      mNodeKeys = Arrays.copyOf(mNodeKeys, capacity);
+      mHashes = Arrays.copyOf(mHashes, capacity);
+      mDescendantCounts = Arrays.copyOf(mDescendantCounts, capacity);
+    }
+    mNodeKeys[mSize] = nodeKey;
+    mHashes[mSize] = 0;
+    mDescendantCounts[mSize] = 0;
+    mSize++;
+  }
+
+  private void completeTop(final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageTrx) {
+    mSize--;
+    final StructNode node = (StructNode) pageTrx.prepareEntryForModification(mNodeKeys[mSize],
+        PageKind.RECORDPAGE, -1);
+
+    // The hash code includes the partial hash and the descendant count.
+    node.setHash(node.getHash() + mHashes[mSize]);
+    if (mDescendantCounts[mSize] != 0) {
+      node.setDescendantCount(node.getDescendantCount() + mDescendantCounts[mSize]);
+    }
+    final long hash = mHashFunction.hashLong(node.hashCode()).asLong();
+    node.setHash(hash);
+
+    addToParent(pageTrx, node, hash, node.getDescendantCount() + 1);
+  }
+
+  private void addToParent(final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageTrx,
+      final Node node, final long hash, final long descendantCount) {
+    if (mSize > 0 && mNodeKeys[mSize - 1] == node.getParentKey()) {
+      mHashes[mSize - 1] += hash * mPrime;
+      mDescendantCounts[mSize - 1] += descendantCount;
+    } else if (node.hasParent()) {
+      // The parent is not part of the subtree.
+      final Node parent = (Node) pageTrx.prepareEntryForModification(node.getParentKey(),
+          PageKind.RECORDPAGE, -1);
+      parent.setHash(parent.getHash() + hash * mPrime);
+      if (parent instanceof StructNode) {
+        final StructNode structParent = (StructNode) parent;
+        structParent.setDescendantCount(structParent.getDescendantCount() + descendantCount);
+      }
+    }
+  }
+}
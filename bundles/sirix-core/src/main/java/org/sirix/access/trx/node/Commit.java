@@ -0,0 +1,15 @@
+package org.sirix.access.trx.node;
+
+/**
+ * Determines if changes are committed after bulk insertions of subtrees.
+ */
+public enum Commit {
+  /** Commit right after the subtree has been inserted. */
+  IMPLICIT,
+
+  /**
+   * Do not commit, such that several subtrees can be inserted in one revision. Intermediate commits
+   * are not issued either, modified pages are spilled to the transaction intent log instead.
+   */
+  NO
+}
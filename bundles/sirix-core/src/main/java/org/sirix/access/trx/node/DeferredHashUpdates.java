@@ -0,0 +1,217 @@
+package org.sirix.access.trx.node;
+
+import java.util.Arrays;
+import org.sirix.api.PageWriteTrx;
+import org.sirix.node.interfaces.Node;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.StructNode;
+import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Fixed;
+import org.sirix.utils.LongIntHashMap;
+
+/**
+ * Collects the changes of the rolling hashes and descendant counts of ancestors, which are applied
+ * at once instead of walking up to the document root for each modification.
+ *
+ * <p>
+ * The rolling hash of a node is its own hash plus the sum of the hashes of its children multiplied
+ * by a prime. A change {@code d} of a node's hash thus changes the hash of its parent by
+ * {@code d * prime}, whereas an update of a node value changes the hashes of all ancestors by the
+ * same amount. Both kinds of deltas as well as the descendant count deltas are accumulated per node
+ * and propagated bottom-up once, such that every ancestor is modified only once.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ */
+final class DeferredHashUpdates {
+
+  /** Maps node keys to slots of the arrays. */
+  private final LongIntHashMap mSlots;
+
+  /** The node keys. */
+  private long[] mNodeKeys;
+
+  /** Hash deltas, which are multiplied by the prime for each level. */
+  private long[] mHashDeltas;
+
+  /** Hash deltas, which are the same for all ancestors. */
+  private long[] mConstantHashDeltas;
+
+  /** Descendant count deltas. */
+  private long[] mDescendantCountDeltas;
+
+  /** Number of used slots. */
+  private int mSize;
+
+  /**
+   * Constructor.
+   */
+  DeferredHashUpdates() {
+    mSlots = new LongIntHashMap();
+    allocate(16);
+  }
+
+  private void allocate(final int capacity) {
+    mNodeKeys = new long[capacity];
+    mHashDeltas = new long[capacity];
+    mConstantHashDeltas = new long[capacity];
+    mDescendantCountDeltas = new long[capacity];
+  }
+
+  /**
+   * Add changes of a node.
+   *
+   * @param nodeKey the key of the node to change
+   * @param hashDelta hash delta, which is multiplied by the prime for each ancestor level
+   * @param constantHashDelta hash delta, which is added as is to all ancestors
+   * @param descendantCountDelta the descendant count delta
+   */
+  void add(final long nodeKey, final long hashDelta, final long constantHashDelta,
+      final long descendantCountDelta) {
+    final int slot = slot(nodeKey);
+    mHashDeltas[slot] += hashDelta;
+    mConstantHashDeltas[slot] += constantHashDelta;
+    mDescendantCountDeltas[slot] += descendantCountDelta;
+  }
+
+  private int slot(final long nodeKey) {
+    int slot = mSlots.get(nodeKey);
+    if (slot == LongIntHashMap.NO_VALUE) {
+      slot = mSize++;
+      if (slot == mNodeKeys.length) {
+        final int capacity = mNodeKeys.length << 1;
+        mNodeKeys = Arrays.copyOf(mNodeKeys, capacity);
+        mHashDeltas = Arrays.copyOf(mHashDeltas, capacity);
+        mConstantHashDeltas = Arrays.copyOf(mConstantHashDeltas, capacity);
+        mDescendantCountDeltas = Arrays.copyOf(mDescendantCountDeltas, capacity);
+      }
+      mNodeKeys[slot] = nodeKey;
+      mSlots.put(nodeKey, slot);
+    }
+    return slot;
+  }
+
+  /**
+   * Determines if changes of a node are pending.
+   *
+   * @param nodeKey the node key
+   * @return {@code true}, if changes are pending, {@code false} otherwise
+   */
+  boolean contains(final long nodeKey) {
+    return mSlots.containsKey(nodeKey);
+  }
+
+  /**
+   * Determines if no changes are pending.
+   *
+   * @return {@code true}, if no changes are pending, {@code false} otherwise
+   */
+  boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /**
+   * Discard all pending changes.
+   */
+  void clear() {
+    mSlots.clear();
+    Arrays.fill(mHashDeltas, 0, mSize, 0);
+    Arrays.fill(mConstantHashDeltas, 0, mSize, 0);
+    Arrays.fill(mDescendantCountDeltas, 0, mSize, 0);
+    mSize = 0;
+  }
+
+  /**
+   * Apply all pending changes bottom-up and propagate them to the ancestors.
+   *
+   * @param pageTrx the page transaction to read and modify the nodes
+   * @param prime the prime the hashes of children are multiplied with
+   */
+  void apply(final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageTrx, final long prime) {
+    if (mSize == 0) {
+      return;
+    }
+
+    // Add all ancestors, as every ancestor is affected.
+    long[] parentKeys = new long[mNodeKeys.length];
+    for (int slot = 0; slot < mSize; slot++) {
+      final Node node =
+          (Node) pageTrx.getRecord(mNodeKeys[slot], PageKind.RECORDPAGE, -1)
+                        .orElseThrow(() -> new IllegalStateException("Node not found."));
+      final long parentKey = node.getParentKey();
+      if (parentKey != Fixed.NULL_NODE_KEY.getStandardProperty()) {
+        slot(parentKey);
+        if (parentKeys.length < mNodeKeys.length) {
+          parentKeys = Arrays.copyOf(parentKeys, mNodeKeys.length);
+        }
+      }
+      parentKeys[slot] = parentKey;
+    }
+
+    // Sort the nodes by their depth (deepest first) to process children before their parents.
+    final int[] depths = computeDepths(parentKeys);
+    final long[] order = new long[mSize];
+    for (int slot = 0; slot < mSize; slot++) {
+      order[slot] = ((long) -depths[slot] << 32) | slot;
+    }
+    Arrays.sort(order);
+
+    for (final long entry : order) {
+      final int slot = (int) entry;
+      final long hashDelta = mHashDeltas[slot];
+      final long constantHashDelta = mConstantHashDeltas[slot];
+      final long descendantCountDelta = mDescendantCountDeltas[slot];
+
+      if (hashDelta == 0 && constantHashDelta == 0 && descendantCountDelta == 0) {
+        continue;
+      }
+
+      final Node node =
+          (Node) pageTrx.prepareEntryForModification(mNodeKeys[slot], PageKind.RECORDPAGE, -1);
+      node.setHash(node.getHash() + hashDelta + constantHashDelta);
+      if (descendantCountDelta != 0 && node instanceof StructNode) {
+        final StructNode structNode = (StructNode) node;
+        structNode.setDescendantCount(structNode.getDescendantCount() + descendantCountDelta);
+      }
+
+      final long parentKey = parentKeys[slot];
+      if (parentKey != Fixed.NULL_NODE_KEY.getStandardProperty()) {
+        add(parentKey, hashDelta * prime, constantHashDelta, descendantCountDelta);
+      }
+    }
+
+    clear();
+  }
+
+  private int[] computeDepths(final long[] parentKeys) {
+    final int[] depths = new int[mSize];
+    Arrays.fill(depths, -1);
+    final int[] path = new int[mSize];
+
+    for (int slot = 0; slot < mSize; slot++) {
+      // Walk up until a node with a known depth or the document root is reached.
+      int length = 0;
+      int current = slot;
+      int depth = -1;
+      while (depths[current] == -1) {
+        path[length++] = current;
+        final long parentKey = parentKeys[current];
+        if (parentKey == Fixed.NULL_NODE_KEY.getStandardProperty()) {
+          break;
+        }
+        current = mSlots.get(parentKey);
+      }
+      if (depths[current] != -1) {
+        depth = depths[current];
+      }
+
+      // Assign the depths top-down.
+      for (int i = length - 1; i >= 0; i--) {
+        depths[path[i]] = ++depth;
+      }
+    }
+
+    return depths;
+  }
+}
@@ -0,0 +1,54 @@
+package org.sirix.access.trx.node;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Hash functions used for node hashes and page checksums. Node hashes as well as page checksums
+ * are only used to detect changes and corrupted pages, thus a fast non-cryptographic hash function
+ * usually suffices.
+ */
+public enum HashFunctionType {
+  /** SHA-256, a cryptographic hash function (256 bits). */
+  SHA256(Hashing.sha256()),
+
+  /** MurmurHash3 (128 bits). */
+  MURMUR3_128(Hashing.murmur3_128()),
+
+  /** FarmHash Fingerprint64 (64 bits). */
+  FARMHASH_FINGERPRINT_64(Hashing.farmHashFingerprint64()),
+
+  /** CRC32C checksum (32 bits), not suitable for node hashes. */
+  CRC32C(Hashing.crc32c());
+
+  /** The hash function. */
+  private final HashFunction mHashFunction;
+
+  /**
+   * Constructor.
+   *
+   * @param hashFunction the hash function
+   */
+  private HashFunctionType(final HashFunction hashFunction) {
+    mHashFunction = hashFunction;
+  }
+
+  /**
+   * Get the hash function.
+   *
+   * @return the hash function
+   */
+  public HashFunction getHashFunction() {
+    return mHashFunction;
+  }
+
+  /**
+   * Determines if the hash function is suitable for node hashes, that is if it produces at least
+   * 64 bits.
+   *
+   * @return {@code true}, if it can be used to hash nodes, {@code false} otherwise
+   */
+  public boolean isNodeHashFunction() {
+    return mHashFunction.bits() >= Long.SIZE;
+  }
+}
@@ -296,6 +296,28 @@ public final class IndexController {
     return this;
   }
 
+  /**
+   * Replace the index listeners with listeners for all index definitions, which are bound to the
+   * current page transaction of the {@link XdmNodeWriteTrx}.
+   *
+   * @param nodeWriteTrx the {@link XdmNodeWriteTrx}
+   *
+   * @return this {@link IndexController} instance
+   */
+  IndexController recreateIndexListeners(final XdmNodeWriteTrx nodeWriteTrx) {
+    mListeners.clear();
+    return createIndexListeners(mIndexes.getIndexDefs(), nodeWriteTrx);
+  }
+
+  /**
+   * Get the number of index listeners.
+   *
+   * @return the number of index listeners
+   */
+  int getListenerCount() {
+    return mListeners.size();
+  }
+
   private ChangeListener createPathIndexListener(
       final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
       final PathSummaryReader pathSummaryReader, final IndexDef indexDef) {
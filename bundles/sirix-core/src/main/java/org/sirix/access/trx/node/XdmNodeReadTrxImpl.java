@@ -32,13 +32,16 @@ import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.trx.page.PageReadTrxImpl;
 import org.sirix.api.ItemList;
 import org.sirix.api.PageReadTrx;
+import org.sirix.api.PageWriteTrx;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.Visitor;
+import org.sirix.cache.IndexLogKey;
 import org.sirix.exception.SirixIOException;
 import org.sirix.node.AttributeNode;
 import org.sirix.node.CommentNode;
+import org.sirix.node.DeletedNode;
 import org.sirix.node.DocumentRootNode;
 import org.sirix.node.ElementNode;
 import org.sirix.node.Kind;
@@ -63,6 +66,7 @@ import org.sirix.node.interfaces.immutable.ImmutableNameNode;
 import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.node.interfaces.immutable.ImmutableValueNode;
 import org.sirix.page.PageKind;
+import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.service.xml.xpath.AtomicValue;
 import org.sirix.service.xml.xpath.ItemListImpl;
 import org.sirix.settings.Constants;
@@ -99,6 +103,12 @@ public final class XdmNodeReadTrxImpl implements XdmNodeReadTrx {
   /** Read-transaction-exclusive item list. */
   private final ItemList<AtomicValue> mItemList;
 
+  /** Record page of the last record, which has been read, or {@code null}. */
+  private UnorderedKeyValuePage mRecordPage;
+
+  /** Key of the record page of the last record, which has been read. */
+  private long mRecordPageKey;
+
   /**
    * Constructor.
    *
@@ -186,26 +196,24 @@ public final class XdmNodeReadTrxImpl implements XdmNodeReadTrx {
 
     // Remember old node and fetch new one.
     final ImmutableNode oldNode = mCurrentNode;
-    Optional<? extends Record> newNode;
+    Record newNode;
     try {
       // Immediately return node from item list if node key negative.
       if (nodeKey < 0) {
         if (mItemList.size() > 0) {
-          newNode = mItemList.getItem(nodeKey);
+          newNode = mItemList.getItem(nodeKey).orElse(null);
         } else {
-          newNode = Optional.empty();
+          newNode = null;
         }
       } else {
-        final Optional<? extends Record> node =
-            mPageReadTrx.getRecord(nodeKey, PageKind.RECORDPAGE, -1);
-        newNode = node;
+        newNode = getRecord(nodeKey);
       }
     } catch (final SirixIOException e) {
-      newNode = Optional.empty();
+      newNode = null;
     }
 
-    if (newNode.isPresent()) {
-      mCurrentNode = (Node) newNode.get();
+    if (newNode != null) {
+      mCurrentNode = (Node) newNode;
       return Move.moved(this);
     } else {
       mCurrentNode = oldNode;
@@ -213,6 +221,34 @@ public final class XdmNodeReadTrxImpl implements XdmNodeReadTrx {
     }
   }
 
+  /**
+   * Get a record. The record page of the last record is kept, such that moves within the same page
+   * neither go through the page cache nor allocate. As the pages of a write transaction are
+   * modified, its records are always fetched from the page transaction.
+   *
+   * @param nodeKey the key of the record
+   * @return the record, or {@code null} if it doesn't exist or is deleted
+   */
+  private Record getRecord(final @Nonnegative long nodeKey) {
+    final long recordPageKey = nodeKey >> Constants.NDP_NODE_COUNT_EXPONENT;
+    if (mRecordPage == null || recordPageKey != mRecordPageKey) {
+      if (mPageReadTrx instanceof PageWriteTrx) {
+        return mPageReadTrx.getRecord(nodeKey, PageKind.RECORDPAGE, -1).orElse(null);
+      }
+      mRecordPage = mPageReadTrx.getRecordPage(
+          new IndexLogKey(PageKind.RECORDPAGE, recordPageKey, -1)).orElse(null);
+      if (mRecordPage == null) {
+        return null;
+      }
+      mRecordPageKey = recordPageKey;
+    }
+
+    final Record record = mRecordPage.getValue(nodeKey, mPageReadTrx);
+    return record instanceof DeletedNode
+        ? null
+        : record;
+  }
+
   @Override
   public Move<? extends XdmNodeReadTrx> moveToDocumentRoot() {
     assertNotClosed();
@@ -305,17 +341,9 @@ public final class XdmNodeReadTrxImpl implements XdmNodeReadTrx {
   public QNm getName() {
     assertNotClosed();
     if (mCurrentNode instanceof NameNode) {
-      final String uri =
-          mPageReadTrx.getName(((NameNode) mCurrentNode).getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = ((NameNode) mCurrentNode).getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : mPageReadTrx.getName(prefixKey, mCurrentNode.getKind());
-      final int localNameKey = ((NameNode) mCurrentNode).getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : mPageReadTrx.getName(localNameKey, mCurrentNode.getKind());
-      return new QNm(uri, prefix, localName);
+      final NameNode node = (NameNode) mCurrentNode;
+      return mPageReadTrx.getQName(node.getURIKey(), node.getPrefixKey(), node.getLocalNameKey(),
+          node.getKind());
     } else {
       return null;
     }
@@ -446,6 +474,7 @@ public final class XdmNodeReadTrxImpl implements XdmNodeReadTrx {
   final void setPageReadTransaction(@Nullable final PageReadTrx pageReadTransaction) {
     assertNotClosed();
     mPageReadTrx = pageReadTransaction;
+    mRecordPage = null;
   }
 
   /**
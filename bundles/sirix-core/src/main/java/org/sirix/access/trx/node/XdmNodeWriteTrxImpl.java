@@ -85,7 +85,6 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
 
 /**
  * <h1>NodeWriteTrxImpl</h1>
@@ -111,7 +110,10 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     implements XdmNodeWriteTrx {
 
   /** Hash-function. */
-  private final HashFunction mHash = Hashing.sha256();
+  private final HashFunction mHash;
+
+  /** Computes the hashes of a subtree while it is inserted. */
+  private final BulkInsertHashes mBulkInsertHashes;
 
   /** Prime for computing the hash. */
   private static final int PRIME = 77081;
@@ -135,6 +137,24 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
   /** Determines if a bulk insert operation is done. */
   private boolean mBulkInsert;
 
+  /**
+   * Determines if a subtree is inserted without committing, in which case no intermediate commits
+   * are issued.
+   */
+  private boolean mBulkInsertWithoutCommit;
+
+  /**
+   * Determines if the rolling hashes of an inserted subtree are computed while it is inserted
+   * (through {@link BulkInsertHashes}) or in a postorder traversal afterwards.
+   */
+  private boolean mHashesWhileInserting = true;
+
+  /** Determines if the adaptation of ancestor hashes and descendant counts is deferred. */
+  private boolean mDeferHashUpdates;
+
+  /** Pending changes of ancestor hashes and descendant counts, if they are deferred. */
+  private final DeferredHashUpdates mDeferredHashUpdates = new DeferredHashUpdates();
+
   /** Collection holding pre-commit hooks. */
   private final List<PreCommitHook> mPreCommitHooks = new ArrayList<>();
 
@@ -208,11 +228,16 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
           PathSummaryWriter.getInstance(pageWriteTrx, resourceManager, mNodeFactory, mNodeReadTrx);
     }
 
+    // Index listeners for the index definitions of the last stored revision.
+    mIndexController.recreateIndexListeners(this);
+
     if (maxTime > 0) {
       mPool.scheduleAtFixedRate(() -> commit(), maxTime, maxTime, timeUnit);
     }
 
     mHashKind = resourceManager.getResourceConfig().hashType;
+    mHash = resourceManager.getResourceConfig().nodeHashFunction.getHashFunction();
+    mBulkInsertHashes = new BulkInsertHashes(mHash, PRIME);
 
     // Synchronize commit and other public methods if needed.
     mLock = maxTime > 0
@@ -764,27 +789,59 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
 
   @Override
   public XdmNodeWriteTrx insertSubtreeAsFirstChild(final XMLEventReader reader) {
-    return insertSubtree(reader, Insert.ASFIRSTCHILD);
+    return insertSubtree(reader, Insert.ASFIRSTCHILD, Commit.IMPLICIT);
   }
 
   @Override
   public XdmNodeWriteTrx insertSubtreeAsRightSibling(final XMLEventReader reader) {
-    return insertSubtree(reader, Insert.ASRIGHTSIBLING);
+    return insertSubtree(reader, Insert.ASRIGHTSIBLING, Commit.IMPLICIT);
   }
 
   @Override
   public XdmNodeWriteTrx insertSubtreeAsLeftSibling(final XMLEventReader reader) {
-    return insertSubtree(reader, Insert.ASLEFTSIBLING);
+    return insertSubtree(reader, Insert.ASLEFTSIBLING, Commit.IMPLICIT);
   }
 
-  private XdmNodeWriteTrx insertSubtree(final XMLEventReader reader, final Insert insert) {
+  @Override
+  public XdmNodeWriteTrx insertSubtreeAsFirstChild(final XMLEventReader reader,
+      final Commit commit) {
+    return insertSubtree(reader, Insert.ASFIRSTCHILD, commit);
+  }
+
+  @Override
+  public XdmNodeWriteTrx insertSubtreeAsRightSibling(final XMLEventReader reader,
+      final Commit commit) {
+    return insertSubtree(reader, Insert.ASRIGHTSIBLING, commit);
+  }
+
+  @Override
+  public XdmNodeWriteTrx insertSubtreeAsLeftSibling(final XMLEventReader reader,
+      final Commit commit) {
+    return insertSubtree(reader, Insert.ASLEFTSIBLING, commit);
+  }
+
+  /**
+   * Determines if the rolling hashes of inserted subtrees are computed while they are inserted (the
+   * default) or in a postorder traversal afterwards. Both compute the same hashes.
+   *
+   * @param hashesWhileInserting {@code true} to compute the hashes while inserting
+   */
+  void setHashesWhileInserting(final boolean hashesWhileInserting) {
+    mHashesWhileInserting = hashesWhileInserting;
+  }
+
+  private XdmNodeWriteTrx insertSubtree(final XMLEventReader reader, final Insert insert,
+      final Commit commit) {
     checkNotNull(reader);
+    checkNotNull(commit);
     assert insert != null;
     acquireLock();
     try {
       if (getCurrentNode() instanceof StructNode) {
+        mBulkInsertWithoutCommit = commit == Commit.NO;
         checkAccessAndCommit();
         mBulkInsert = true;
+        mBulkInsertHashes.clear();
         long nodeKey = getCurrentNode().getNodeKey();
         final XMLShredder shredder = new XMLShredder.Builder(this, reader, insert).build();
         shredder.call();
@@ -803,7 +860,13 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
             // May not happen.
         }
         nodeKey = getCurrentNode().getNodeKey();
-        postOrderTraversalHashes();
+        if (mHashKind == HashType.ROLLING && mHashesWhileInserting) {
+          // Hashes of the inserted nodes have been computed while shredding.
+          mBulkInsertHashes.completeAll(getPageTransaction());
+          moveTo(nodeKey);
+        } else {
+          postOrderTraversalHashes();
+        }
         final ImmutableNode startNode = getCurrentNode();
         moveToParent();
         while (getCurrentNode().hasParent()) {
@@ -811,10 +874,13 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
           addParentHash(startNode);
         }
         moveTo(nodeKey);
-        commit();
-        mBulkInsert = false;
+        if (commit == Commit.IMPLICIT) {
+          commit();
+        }
       }
     } finally {
+      mBulkInsert = false;
+      mBulkInsertWithoutCommit = false;
       unLock();
     }
     return this;
@@ -1446,6 +1512,9 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
       if (getCurrentNode().getKind() == Kind.DOCUMENT) {
         throw new SirixUsageException("Document root can not be removed.");
       } else if (getCurrentNode() instanceof StructNode) {
+        // Pending hash changes of nodes in the subtree must be applied beforehand.
+        applyDeferredHashUpdatesForSubtree(getCurrentNode());
+
         final StructNode node = (StructNode) mNodeReadTrx.getCurrentNode();
 
         // Remove subtree.
@@ -1582,6 +1651,13 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
         if (!getName().equals(name)) {
           checkAccessAndCommit();
 
+          // The hash code includes the stored hash, which therefore must be up to date.
+          if (mDeferredHashUpdates.contains(getCurrentNode().getNodeKey())) {
+            final long nodeKey = getCurrentNode().getNodeKey();
+            applyDeferredHashUpdates();
+            moveTo(nodeKey);
+          }
+
           NameNode node = (NameNode) mNodeReadTrx.getCurrentNode();
           final long oldHash = node.hashCode();
 
@@ -1712,6 +1788,9 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
       // Reset modification counter.
       mModificationCount = 0L;
 
+      // Discard pending hash changes.
+      mDeferredHashUpdates.clear();
+
       // Move to document root.
       moveToDocumentRoot();
 
@@ -1761,6 +1840,9 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
       // Reset modification counter.
       mModificationCount = 0L;
 
+      // Discard pending hash changes.
+      mDeferredHashUpdates.clear();
+
       // Close current page transaction.
       final long trxID = getId();
       final int revision = getRevisionNumber();
@@ -1850,7 +1932,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     }
 
     // Recreate index listeners.
-    mIndexController.createIndexListeners(mIndexController.getIndexes().getIndexDefs(), this);
+    mIndexController.recreateIndexListeners(this);
   }
 
   /**
@@ -2104,7 +2186,8 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
    */
   private void intermediateCommitIfRequired() {
     mNodeReadTrx.assertNotClosed();
-    if ((mMaxNodeCount > 0) && (mModificationCount > mMaxNodeCount)) {
+    // Modified pages are spilled to the transaction intent log during non-committing bulk inserts.
+    if ((mMaxNodeCount > 0) && (mModificationCount > mMaxNodeCount) && !mBulkInsertWithoutCommit) {
       commit();
     }
   }
@@ -2131,6 +2214,10 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     if (!mBulkInsert) {
       switch (mHashKind) {
         case ROLLING:
+          // The hash of an existing (moved) subtree must be up to date.
+          if (getCurrentNode().getHash() != 0) {
+            applyDeferredHashUpdatesForSubtree(getCurrentNode());
+          }
           rollingAdd();
           break;
         case POSTORDER:
@@ -2139,6 +2226,8 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
         case NONE:
         default:
       }
+    } else if (mHashKind == HashType.ROLLING && mHashesWhileInserting) {
+      mBulkInsertHashes.add(getPageTransaction(), getCurrentNode());
     }
   }
 
@@ -2151,6 +2240,7 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     if (!mBulkInsert) {
       switch (mHashKind) {
         case ROLLING:
+          applyDeferredHashUpdatesForSubtree(getCurrentNode());
           rollingRemove();
           break;
         case POSTORDER:
@@ -2183,6 +2273,44 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     }
   }
 
+  /**
+   * Apply the pending changes of ancestor hashes and descendant counts.
+   */
+  private void applyDeferredHashUpdates() {
+    mDeferredHashUpdates.apply(getPageTransaction(), PRIME);
+  }
+
+  /**
+   * Apply the pending changes of ancestor hashes and descendant counts, if the hash or the
+   * descendant count of the given node might be outdated, that is if changes of the node itself or
+   * of nodes in its subtree are pending.
+   *
+   * @param node the root of the subtree
+   */
+  private void applyDeferredHashUpdatesForSubtree(final ImmutableNode node) {
+    if (!mDeferredHashUpdates.isEmpty() && (mDeferredHashUpdates.contains(node.getNodeKey())
+        || (node instanceof StructNode && ((StructNode) node).getDescendantCount() > 0))) {
+      final long nodeKey = getCurrentNode().getNodeKey();
+      applyDeferredHashUpdates();
+      moveTo(nodeKey);
+    }
+  }
+
+  @Override
+  public XdmNodeWriteTrx deferHashUpdates(final boolean defer) {
+    acquireLock();
+    try {
+      mNodeReadTrx.assertNotClosed();
+      if (!defer) {
+        applyDeferredHashUpdates();
+      }
+      mDeferHashUpdates = defer;
+      return this;
+    } finally {
+      unLock();
+    }
+  }
+
   /**
    * Removal operation for postorder hash computation.
    *
@@ -2261,6 +2389,17 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     final long newNodeHash = hash;
     long resultNew = hash;
 
+    if (mDeferHashUpdates) {
+      final Node node = (Node) getPageTransaction().prepareEntryForModification(
+          newNode.getNodeKey(), PageKind.RECORDPAGE, -1);
+      node.setHash(node.getHash() - oldHash + newNodeHash);
+      if (newNode.hasParent()) {
+        mDeferredHashUpdates.add(
+            newNode.getParentKey(), 0, (newNodeHash - oldHash) * PRIME, 0);
+      }
+      return;
+    }
+
     // go the path to the root
     do {
       final Node node = (Node) getPageTransaction().prepareEntryForModification(
@@ -2288,6 +2427,19 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     long hashToRemove = startNode.getHash();
     long hashToAdd = 0;
     long newHash = 0;
+
+    if (mDeferHashUpdates) {
+      final Node node = (Node) getPageTransaction().prepareEntryForModification(
+          startNode.getNodeKey(), PageKind.RECORDPAGE, -1);
+      node.setHash(0);
+      if (startNode.hasParent()) {
+        mDeferredHashUpdates.add(startNode.getParentKey(), -hashToRemove * PRIME, 0,
+            startNode instanceof StructNode
+                ? -((StructNode) startNode).getDescendantCount() - 1
+                : 0);
+      }
+      return;
+    }
     // go the path to the root
     do {
       final Node node = (Node) getPageTransaction().prepareEntryForModification(
@@ -2345,6 +2497,19 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
         : startNode.getHash();
     long newHash = 0;
     long possibleOldHash = 0;
+
+    if (mDeferHashUpdates) {
+      final Node node = (Node) getPageTransaction().prepareEntryForModification(
+          startNode.getNodeKey(), PageKind.RECORDPAGE, -1);
+      node.setHash(hashToAdd);
+      if (startNode.hasParent()) {
+        mDeferredHashUpdates.add(startNode.getParentKey(), hashToAdd * PRIME, 0,
+            startNode instanceof StructNode
+                ? descendantCount
+                : 0);
+      }
+      return;
+    }
     // go the path to the root
     do {
       final Node node = (Node) getPageTransaction().prepareEntryForModification(
@@ -2753,6 +2918,9 @@ final class XdmNodeWriteTrxImpl extends AbstractForwardingXdmNodeReadTrx
     // Optionally lock while commiting and assigning new instances.
     acquireLock();
     try {
+      // Apply pending hash changes.
+      applyDeferredHashUpdates();
+
       // Execute pre-commit hooks.
       for (final PreCommitHook hook : mPreCommitHooks) {
         hook.preCommit(this);
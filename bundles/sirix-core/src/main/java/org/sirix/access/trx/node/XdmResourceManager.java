@@ -25,36 +25,44 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import org.sirix.access.LocalDatabase;
 import org.sirix.access.ResourceStore;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.trx.page.PageCompactor;
 import org.sirix.access.trx.page.PageReadTrxImpl;
 import org.sirix.access.trx.page.PageWriteTrxFactory;
 import org.sirix.api.Database;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.api.ResourceManager;
+import org.sirix.api.RevisionRetention;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.cache.BufferManager;
+import org.sirix.cache.BufferManagerImpl;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.exception.SirixThreadedException;
 import org.sirix.exception.SirixUsageException;
 import org.sirix.index.path.summary.PathSummaryReader;
+import org.sirix.io.Reader;
 import org.sirix.io.Storage;
+import org.sirix.io.StorageType;
 import org.sirix.io.Writer;
 import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.Record;
@@ -101,7 +109,7 @@ public final class XdmResourceManager implements ResourceManager {
   private final ResourceConfiguration mResourceConfig;
 
   /** Factory for all interactions with the storage. */
-  private final Storage mFac;
+  private volatile Storage mFac;
 
   /** Atomic counter for concurrent generation of node transaction id. */
   private final AtomicLong mNodeTrxIDCounter;
@@ -119,7 +127,19 @@ public final class XdmResourceManager implements ResourceManager {
   private volatile boolean mClosed;
 
   /** The cache of in-memory pages shared amongst all manager / resource transactions. */
-  private final BufferManager mBufferManager;
+  private volatile BufferManager mBufferManager;
+
+  /** The buffer manager of the database, which is used until the resource has been compacted. */
+  private final BufferManager mDatabaseBufferManager;
+
+  /** Storages, which have been replaced by a compaction, but might still be read. */
+  private final List<Storage> mRetiredStorages;
+
+  /**
+   * Guards the last committed uber page, the storage and the buffer manager against a concurrent
+   * compaction.
+   */
+  private final StampedLock mStorageLock;
 
   /** The resource store with which this manager has been created. */
   private final ResourceStore mResourceStore;
@@ -152,7 +172,10 @@ public final class XdmResourceManager implements ResourceManager {
     mResourceStore = checkNotNull(resourceStore);
     mResourceConfig = checkNotNull(resourceConf);
     mBufferManager = checkNotNull(bufferManager);
+    mDatabaseBufferManager = bufferManager;
     mFac = checkNotNull(storage);
+    mRetiredStorages = new CopyOnWriteArrayList<>();
+    mStorageLock = new StampedLock();
 
     mNodeReaderMap = new ConcurrentHashMap<>();
     mPageTrxMap = new ConcurrentHashMap<>();
@@ -187,35 +210,108 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized XdmNodeReadTrx beginNodeReadTrx(@Nonnegative final int revisionKey) {
-    assertAccess(revisionKey);
+  public XdmNodeReadTrx beginNodeReadTrx(@Nonnegative final int revisionKey) {
+    final StorageSnapshot snapshot = getStorageSnapshot();
+    assertAccess(revisionKey, snapshot.mUberPage);
 
     // Make sure not to exceed available number of read transactions.
+    acquire(mReadSemaphore,
+        "No read transactions available, please close at least one read transaction at first!");
+
+    final XdmNodeReadTrx reader;
     try {
-      if (!mReadSemaphore.tryAcquire(20, TimeUnit.SECONDS)) {
-        throw new SirixUsageException(
-            "No read transactions available, please close at least one read transaction at first!");
-      }
-    } catch (final InterruptedException e) {
-      throw new SirixThreadedException(e);
+      final PageReadTrx pageReadTrx = beginPageReadTrx(revisionKey, snapshot);
+      final Node documentNode = getDocumentNode(pageReadTrx);
+
+      // Create new reader.
+      reader = new XdmNodeReadTrxImpl(this, mNodeTrxIDCounter.incrementAndGet(), pageReadTrx,
+          documentNode);
+    } catch (final RuntimeException e) {
+      // For instance, if the revision has been removed by a compaction or the manager has been
+      // closed concurrently.
+      mReadSemaphore.release();
+      throw closedOr(e);
     }
 
-    final PageReadTrx pageReadTrx = beginPageReadTrx(revisionKey);
-
-    final Node documentNode = getDocumentNode(pageReadTrx);
-
-    // Create new reader.
-    final XdmNodeReadTrx reader = new XdmNodeReadTrxImpl(this, mNodeTrxIDCounter.incrementAndGet(),
-        pageReadTrx, documentNode);
-
     // Remember reader for debugging and safe close.
     if (mNodeReaderMap.put(reader.getId(), reader) != null) {
       throw new SirixUsageException("ID generation is bogus because of duplicate ID.");
     }
 
+    // The manager might have been closed concurrently. The one, which removes the reader, closes it.
+    if (mClosed) {
+      if (mNodeReaderMap.remove(reader.getId(), reader)) {
+        reader.close();
+      }
+      throw new IllegalStateException("Resource manager is already closed!");
+    }
+
     return reader;
   }
 
+  /**
+   * Get a consistent snapshot of the last committed {@link UberPage}, the storage and the buffer
+   * manager, which only changes with a compaction.
+   *
+   * @return the snapshot
+   */
+  private StorageSnapshot getStorageSnapshot() {
+    long stamp = mStorageLock.tryOptimisticRead();
+    StorageSnapshot snapshot =
+        new StorageSnapshot(mLastCommittedUberPage.get(), mFac, mBufferManager);
+    if (!mStorageLock.validate(stamp)) {
+      stamp = mStorageLock.readLock();
+      try {
+        snapshot = new StorageSnapshot(mLastCommittedUberPage.get(), mFac, mBufferManager);
+      } finally {
+        mStorageLock.unlockRead(stamp);
+      }
+    }
+    return snapshot;
+  }
+
+  /** The last committed {@link UberPage}, the storage and the buffer manager to read it. */
+  private static final class StorageSnapshot {
+    /** The last committed {@link UberPage}. */
+    private final UberPage mUberPage;
+
+    /** The storage. */
+    private final Storage mStorage;
+
+    /** The buffer manager. */
+    private final BufferManager mBufferManager;
+
+    private StorageSnapshot(final UberPage uberPage, final Storage storage,
+        final BufferManager bufferManager) {
+      mUberPage = uberPage;
+      mStorage = storage;
+      mBufferManager = bufferManager;
+    }
+  }
+
+  /**
+   * Acquire a permit of a semaphore. Permits, which are available, are acquired without blocking.
+   * Otherwise the transaction is queued and waits at most 20 seconds.
+   *
+   * @param semaphore the semaphore
+   * @param message the message of the exception, if no permit has been acquired
+   * @throws SirixUsageException if no permit has been acquired
+   * @throws SirixThreadedException if the thread has been interrupted
+   */
+  private static void acquire(final Semaphore semaphore, final String message) {
+    if (semaphore.tryAcquire()) {
+      return;
+    }
+
+    try {
+      if (!semaphore.tryAcquire(20, TimeUnit.SECONDS)) {
+        throw new SirixUsageException(message);
+      }
+    } catch (final InterruptedException e) {
+      throw new SirixThreadedException(e);
+    }
+  }
+
   static Node getDocumentNode(final PageReadTrx pageReadTrx) {
     final Node documentNode;
 
@@ -258,7 +354,7 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized XdmNodeWriteTrx beginNodeWriteTrx(final @Nonnegative int maxNodeCount,
+  public XdmNodeWriteTrx beginNodeWriteTrx(final @Nonnegative int maxNodeCount,
       final @Nonnull TimeUnit timeUnit, final @Nonnegative int maxTime) {
     // Checks.
     assertAccess(mLastCommittedUberPage.get().getRevision());
@@ -267,15 +363,10 @@ public final class XdmResourceManager implements ResourceManager {
     }
     checkNotNull(timeUnit);
 
-    // Make sure not to exceed available number of write transactions.
-    try {
-      if (!mWriteSemaphore.tryAcquire(20, TimeUnit.SECONDS)) {
-        throw new SirixUsageException(
-            "No write transaction available, please close the write transaction first.");
-      }
-    } catch (final InterruptedException e) {
-      throw new SirixThreadedException(e);
-    }
+    // Make sure not to exceed available number of write transactions. The write transaction is
+    // exclusive, thus no further synchronization is needed.
+    acquire(mWriteSemaphore,
+        "No write transaction available, please close the write transaction first.");
 
     assert mWriteSemaphore.availablePermits() == 0;
 
@@ -297,6 +388,14 @@ public final class XdmResourceManager implements ResourceManager {
       throw new SirixThreadedException("ID generation is bogus because of duplicate ID.");
     }
 
+    // The manager might have been closed concurrently.
+    if (mClosed) {
+      if (mNodeReaderMap.remove(currentTrxID, wtx)) {
+        wtx.close();
+      }
+      throw new IllegalStateException("Resource manager is already closed!");
+    }
+
     return wtx;
   }
 
@@ -330,13 +429,19 @@ public final class XdmResourceManager implements ResourceManager {
   @Override
   public synchronized void close() {
     if (!mClosed) {
+      // Transactions, which are begun from now on, close themselves. Transactions are removed
+      // before they are closed, such that a transaction is only closed by one thread.
+      mClosed = true;
+
       // Close all open node transactions.
-      for (XdmNodeReadTrx rtx : mNodeReaderMap.values()) {
-        if (rtx instanceof XdmNodeWriteTrx) {
-          ((XdmNodeWriteTrx) rtx).rollback();
+      for (final Long id : mNodeReaderMap.keySet()) {
+        final XdmNodeReadTrx rtx = mNodeReaderMap.remove(id);
+        if (rtx != null) {
+          if (rtx instanceof XdmNodeWriteTrx) {
+            ((XdmNodeWriteTrx) rtx).rollback();
+          }
+          rtx.close();
         }
-        rtx.close();
-        rtx = null;
       }
       // Close all open node page transactions.
       for (PageReadTrx rtx : mNodePageTrxMap.values()) {
@@ -344,9 +449,11 @@ public final class XdmResourceManager implements ResourceManager {
         rtx = null;
       }
       // Close all open page transactions.
-      for (PageReadTrx rtx : mPageTrxMap.values()) {
-        rtx.close();
-        rtx = null;
+      for (final Long id : mPageTrxMap.keySet()) {
+        final PageReadTrx rtx = mPageTrxMap.remove(id);
+        if (rtx != null) {
+          rtx.close();
+        }
       }
 
       // Immediately release all ressources.
@@ -356,7 +463,15 @@ public final class XdmResourceManager implements ResourceManager {
       mResourceStore.closeResource(mResourceConfig.getResource());
 
       mFac.close();
-      mClosed = true;
+      for (final Storage storage : mRetiredStorages) {
+        storage.close();
+      }
+      if (!mRetiredStorages.isEmpty()) {
+        // The pages cached by the database belong to the replaced storage.
+        mDatabaseBufferManager.getPageCache().clear();
+        mDatabaseBufferManager.getRecordPageCache().clear();
+        mDatabaseBufferManager.getRevisionRootPageCache().clear();
+      }
     }
   }
 
@@ -368,15 +483,27 @@ public final class XdmResourceManager implements ResourceManager {
    * @throws IllegalArgumentException if revision isn't valid
    */
   void assertAccess(final @Nonnegative long revision) {
+    assertAccess(revision, mLastCommittedUberPage.get());
+  }
+
+  /**
+   * Checks for valid revision.
+   *
+   * @param revision revision number to check
+   * @param uberPage the snapshot of the last committed {@link UberPage}
+   * @throws IllegalStateException if {@link XdmResourceManager} is already closed
+   * @throws IllegalArgumentException if revision isn't valid
+   */
+  private void assertAccess(final @Nonnegative long revision, final UberPage uberPage) {
     if (mClosed) {
       throw new IllegalStateException("Resource manager is already closed!");
     }
     if (revision < 0) {
       throw new IllegalArgumentException("Revision must be at least 0!");
-    } else if (revision > mLastCommittedUberPage.get().getRevision()) {
+    } else if (revision > uberPage.getRevision()) {
       throw new IllegalArgumentException(
           new StringBuilder("Revision must not be bigger than ").append(
-              Long.toString(mLastCommittedUberPage.get().getRevision())).append("!").toString());
+              Long.toString(uberPage.getRevision())).append("!").toString());
     }
   }
 
@@ -455,7 +582,7 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized boolean isClosed() {
+  public boolean isClosed() {
     return mClosed;
   }
 
@@ -484,9 +611,7 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized PathSummaryReader openPathSummary(final @Nonnegative int revision) {
-    assertAccess(revision);
-
+  public PathSummaryReader openPathSummary(final @Nonnegative int revision) {
     final PageReadTrx pageReadTrx = beginPageReadTrx(revision);
     return PathSummaryReader.getInstance(pageReadTrx, this);
   }
@@ -502,21 +627,60 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized PageReadTrx beginPageReadTrx(final @Nonnegative int revision) {
-    assertAccess(revision);
+  public PageReadTrx beginPageReadTrx(final @Nonnegative int revision) {
+    final StorageSnapshot snapshot = getStorageSnapshot();
+    assertAccess(revision, snapshot.mUberPage);
+    return beginPageReadTrx(revision, snapshot);
+  }
 
+  /**
+   * Begin a page read transaction without synchronization.
+   *
+   * @param revision the revision, which has already been checked against the uber page
+   * @param snapshot the snapshot of the last committed {@link UberPage} and its storage
+   * @return a new {@link PageReadTrx} instance
+   */
+  private PageReadTrx beginPageReadTrx(final @Nonnegative int revision,
+      final StorageSnapshot snapshot) {
     final long currentPageTrxID = mPageTrxIDCounter.incrementAndGet();
-    final PageReadTrx pageReadTrx = new PageReadTrxImpl(currentPageTrxID, this,
-        mLastCommittedUberPage.get(), revision, mFac.createReader(), null, null, mBufferManager);
+    final PageReadTrx pageReadTrx;
+    try {
+      pageReadTrx = new PageReadTrxImpl(currentPageTrxID, this, snapshot.mUberPage, revision,
+          snapshot.mStorage.createReader(), null, null, snapshot.mBufferManager);
+    } catch (final RuntimeException e) {
+      // The storage might have been closed concurrently.
+      throw closedOr(e);
+    }
 
     // Remember page transaction for debugging and safe close.
     if (mPageTrxMap.put(currentPageTrxID, pageReadTrx) != null) {
       throw new SirixThreadedException("ID generation is bogus because of duplicate ID.");
     }
 
+    // The manager might have been closed concurrently.
+    if (mClosed) {
+      if (mPageTrxMap.remove(currentPageTrxID, pageReadTrx)) {
+        pageReadTrx.close();
+      }
+      throw new IllegalStateException("Resource manager is already closed!");
+    }
+
     return pageReadTrx;
   }
 
+  /**
+   * Get the exception to throw, if beginning a transaction failed.
+   *
+   * @param e the exception, which has been thrown while beginning the transaction
+   * @return an {@link IllegalStateException}, if the manager has been closed concurrently,
+   *         {@code e} otherwise
+   */
+  private RuntimeException closedOr(final RuntimeException e) {
+    return mClosed
+        ? new IllegalStateException("Resource manager is already closed!", e)
+        : e;
+  }
+
   @Override
   public PageWriteTrx<Long, Record, UnorderedKeyValuePage> beginPageWriteTrx()
       throws SirixException {
@@ -524,19 +688,13 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized PageWriteTrx<Long, Record, UnorderedKeyValuePage> beginPageWriteTrx(
+  public PageWriteTrx<Long, Record, UnorderedKeyValuePage> beginPageWriteTrx(
       final @Nonnegative int revision) throws SirixException {
     assertAccess(revision);
 
     // Make sure not to exceed available number of write transactions.
-    try {
-      if (!mWriteSemaphore.tryAcquire(20, TimeUnit.SECONDS)) {
-        throw new SirixUsageException(
-            "No write transaction available, please close the write transaction first.");
-      }
-    } catch (final InterruptedException e) {
-      throw new SirixThreadedException(e);
-    }
+    acquire(mWriteSemaphore,
+        "No write transaction available, please close the write transaction first.");
 
     final long currentPageTrxID = mPageTrxIDCounter.incrementAndGet();
     final int lastRev = mLastCommittedUberPage.get().getRevisionNumber();
@@ -548,32 +706,31 @@ public final class XdmResourceManager implements ResourceManager {
       throw new SirixThreadedException("ID generation is bogus because of duplicate ID.");
     }
 
+    // The manager might have been closed concurrently.
+    if (mClosed) {
+      if (mPageTrxMap.remove(currentPageTrxID, pageWtx)) {
+        pageWtx.close();
+        mWriteSemaphore.release();
+      }
+      throw new IllegalStateException("Resource manager is already closed!");
+    }
+
     return pageWtx;
   }
 
   @Override
-  public synchronized Database getDatabase() {
+  public Database getDatabase() {
     return mDatabase;
   }
 
   @Override
-  public synchronized IndexController getRtxIndexController(final int revision) {
-    IndexController controller = mRtxIndexControllers.get(revision);
-    if (controller == null) {
-      controller = new IndexController();
-      mRtxIndexControllers.put(revision, controller);
-    }
-    return controller;
+  public IndexController getRtxIndexController(final int revision) {
+    return mRtxIndexControllers.computeIfAbsent(revision, rev -> new IndexController());
   }
 
   @Override
-  public synchronized IndexController getWtxIndexController(final int revision) {
-    IndexController controller = mWtxIndexControllers.get(revision);
-    if (controller == null) {
-      controller = new IndexController();
-      mWtxIndexControllers.put(revision, controller);
-    }
-    return controller;
+  public IndexController getWtxIndexController(final int revision) {
+    return mWtxIndexControllers.computeIfAbsent(revision, rev -> new IndexController());
   }
 
   @Override
@@ -582,7 +739,7 @@ public final class XdmResourceManager implements ResourceManager {
   }
 
   @Override
-  public synchronized Optional<XdmNodeWriteTrx> getXdmNodeWriteTrx() {
+  public Optional<XdmNodeWriteTrx> getXdmNodeWriteTrx() {
     return mNodeReaderMap.values()
                          .stream()
                          .filter(rtx -> rtx instanceof XdmNodeWriteTrx)
@@ -592,31 +749,50 @@ public final class XdmResourceManager implements ResourceManager {
 
   @Override
   public XdmNodeReadTrx beginNodeReadTrx(final Instant pointInTime) {
-    checkNotNull(pointInTime);
-
-    final long timestamp = pointInTime.toEpochMilli();
+    return beginNodeReadTrx(getRevisionNumber(pointInTime));
+  }
 
-    int revision = binarySearch(timestamp);
+  @Override
+  public void compact(final RevisionRetention retention) {
+    checkNotNull(retention);
+    assertAccess(0);
 
-    if (revision < 0) {
-      revision = -revision - 1;
+    // In-memory storages keep all revisions, as a new storage instance wouldn't contain any data.
+    if (mResourceConfig.storageType == StorageType.IN_MEMORY) {
+      return;
     }
 
-    if (revision == 0)
-      return beginNodeReadTrx(0);
-    else if (revision == getMostRecentRevisionNumber() + 1)
-      return beginNodeReadTrx();
+    // The compaction copies the last committed revision, thus it waits for the write transaction.
+    acquire(mWriteSemaphore,
+        "No write transaction available, please close the write transaction first.");
+    mCommitLock.lock();
+    try {
+      final Storage storage = mFac;
+      try (final PageReadTrx pageReadTrx = beginPageReadTrx(getMostRecentRevisionNumber());
+          final Reader reader = storage.createReader()) {
+        storage.compact(
+            writer -> new PageCompactor(reader, writer, pageReadTrx, retention).compact());
+      }
 
-    final XdmNodeReadTrx rtxRevisionMinus1 = beginNodeReadTrx(revision - 1);
-    final XdmNodeReadTrx rtxRevision = beginNodeReadTrx(revision);
+      final Storage compactedStorage = StorageType.getStorage(mResourceConfig);
+      final UberPage uberPage;
+      try (final Reader reader = compactedStorage.createReader()) {
+        uberPage = (UberPage) reader.readUberPageReference().getPage();
+      }
 
-    if (timeDiff(timestamp, rtxRevisionMinus1.getRevisionTimestamp()) < timeDiff(
-        timestamp, rtxRevision.getRevisionTimestamp())) {
-      rtxRevision.close();
-      return rtxRevisionMinus1;
-    } else {
-      rtxRevisionMinus1.close();
-      return rtxRevision;
+      // The keys of the pages have changed, thus the cached pages must not be used anymore.
+      final long stamp = mStorageLock.writeLock();
+      try {
+        mRetiredStorages.add(storage);
+        mFac = compactedStorage;
+        mBufferManager = new BufferManagerImpl();
+        mLastCommittedUberPage.set(uberPage);
+      } finally {
+        mStorageLock.unlockWrite(stamp);
+      }
+    } finally {
+      mCommitLock.unlock();
+      mWriteSemaphore.release();
     }
   }
 
@@ -624,58 +800,87 @@ public final class XdmResourceManager implements ResourceManager {
     return Math.abs(lhs - rhs);
   }
 
-  private int binarySearch(final long timestamp) {
+  /**
+   * Search the stored revision, which has been committed at the given point in time. Revisions,
+   * which have been removed by a compaction, are skipped.
+   *
+   * @param reader reader of the storage
+   * @param timestamp the point in time
+   * @return the revision, if it has been found, {@code -(insertion point) - 1} otherwise
+   */
+  private int binarySearch(final Reader reader, final long timestamp) {
     int low = 0;
     int high = getMostRecentRevisionNumber();
 
     while (low <= high) {
       final int mid = (low + high) >>> 1;
 
-      try (final PageReadTrx trx = beginPageReadTrx(mid)) {
-        final long midVal = trx.getActualRevisionRootPage().getRevisionTimestamp();
-        final int cmp = Instant.ofEpochMilli(midVal).compareTo(Instant.ofEpochMilli(timestamp));
-
-        if (cmp < 0)
-          low = mid + 1;
-        else if (cmp > 0)
-          high = mid - 1;
-        else
-          return mid; // key found
+      // The revisions from mid to the next stored revision have been removed.
+      int revision = mid;
+      while (revision <= high && !reader.hasRevisionRootPage(revision)) {
+        revision++;
       }
+      if (revision > high) {
+        high = mid - 1;
+        continue;
+      }
+
+      final long revisionVal = getRevisionTimestamp(revision);
+      final int cmp =
+          Instant.ofEpochMilli(revisionVal).compareTo(Instant.ofEpochMilli(timestamp));
+
+      if (cmp < 0)
+        low = revision + 1;
+      else if (cmp > 0)
+        high = mid - 1;
+      else
+        return revision; // key found
     }
 
     return -(low + 1); // key not found
   }
 
+  private long getRevisionTimestamp(final int revision) {
+    try (final PageReadTrx trx = beginPageReadTrx(revision)) {
+      return trx.getActualRevisionRootPage().getRevisionTimestamp();
+    }
+  }
+
   @Override
   public int getRevisionNumber(Instant pointInTime) {
     checkNotNull(pointInTime);
 
     final long timestamp = pointInTime.toEpochMilli();
 
-    int revision = binarySearch(timestamp);
+    try (final Reader reader = getStorageSnapshot().mStorage.createReader()) {
+      int revision = binarySearch(reader, timestamp);
 
-    if (revision < 0) {
+      if (revision >= 0) {
+        return revision;
+      }
       revision = -revision - 1;
-    }
 
-    if (revision == 0)
-      return 0;
-    else if (revision == getMostRecentRevisionNumber() + 1)
-      return getMostRecentRevisionNumber();
+      // The closest stored revisions before and after the point in time.
+      int previous = revision - 1;
+      while (previous >= 0 && !reader.hasRevisionRootPage(previous)) {
+        previous--;
+      }
+      int next = revision;
+      while (next <= getMostRecentRevisionNumber() && !reader.hasRevisionRootPage(next)) {
+        next++;
+      }
 
-    try (final XdmNodeReadTrx rtxRevisionMinus1 = beginNodeReadTrx(revision - 1);
-        final XdmNodeReadTrx rtxRevision = beginNodeReadTrx(revision)) {
-      final int revisionNumber;
+      if (previous < 0)
+        return next;
+      else if (next > getMostRecentRevisionNumber())
+        return previous;
 
-      if (timeDiff(timestamp, rtxRevisionMinus1.getRevisionTimestamp()) < timeDiff(
-          timestamp, rtxRevision.getRevisionTimestamp())) {
-        revisionNumber = rtxRevisionMinus1.getRevisionNumber();
+      if (timeDiff(timestamp, getRevisionTimestamp(previous)) < timeDiff(
+          timestamp, getRevisionTimestamp(next))) {
+        return previous;
       } else {
-        revisionNumber = rtxRevision.getRevisionNumber();
+        return next;
       }
-
-      return revisionNumber;
     }
   }
 }
@@ -3,8 +3,10 @@ package org.sirix.access.trx.page;
 import java.util.Optional;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.ResourceManager;
+import org.sirix.cache.IndexLogKey;
 import org.sirix.cache.PageContainer;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.Reader;
@@ -19,6 +21,7 @@ import org.sirix.page.PathPage;
 import org.sirix.page.PathSummaryPage;
 import org.sirix.page.RevisionRootPage;
 import org.sirix.page.UberPage;
+import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.page.interfaces.KeyValuePage;
 import com.google.common.collect.ForwardingObject;
 
@@ -92,6 +95,12 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
     return delegate().getRecord(key, page, index);
   }
 
+  @Override
+  public Optional<UnorderedKeyValuePage> getRecordPage(@Nonnull IndexLogKey indexLogKey)
+      throws SirixIOException {
+    return delegate().getRecordPage(indexLogKey);
+  }
+
   @Override
   public long pageKey(@Nonnegative long recordKey) {
     return delegate().pageKey(recordKey);
@@ -107,6 +116,11 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
     return delegate().getName(nameKey, kind);
   }
 
+  @Override
+  public QNm getQName(int uriKey, int prefixKey, int localNameKey, @Nonnull Kind kind) {
+    return delegate().getQName(uriKey, prefixKey, localNameKey, kind);
+  }
+
   @Override
   public int getNameCount(int nameKey, @Nonnull Kind kind) {
     return delegate().getNameCount(nameKey, kind);
@@ -0,0 +1,248 @@
+package org.sirix.access.trx.page;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.RevisionRetention;
+import org.sirix.io.Reader;
+import org.sirix.io.Writer;
+import org.sirix.page.OverflowPage;
+import org.sirix.page.PageReference;
+import org.sirix.page.RevisionRootPage;
+import org.sirix.page.UberPage;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+import org.sirix.settings.VersioningType;
+
+/**
+ * Copies the pages of the retained revisions of a resource into a new storage.
+ *
+ * <p>
+ * Pages, which are shared between revisions, are copied once. Record page fragments are copied as
+ * far as they are read to reconstruct the record pages of a retained revision, the references to
+ * older fragments are removed. Revisions, which are not retained, keep their revision number, but
+ * their revision root pages are removed.
+ * </p>
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+public final class PageCompactor {
+
+  /** Reader of the storage to compact. */
+  private final Reader mReader;
+
+  /** Writer of the new storage. */
+  private final Writer mWriter;
+
+  /** The page read transaction, which is used to deserialize the pages. */
+  private final PageReadTrx mPageReadTrx;
+
+  /** Determines the revisions to retain. */
+  private final RevisionRetention mRetention;
+
+  /** The versioning approach of the resource. */
+  private final VersioningType mVersioning;
+
+  /** The number of revisions to restore a record page. */
+  private final int mRevsToRestore;
+
+  /** Maps the keys of the copied pages to their copies. */
+  private final Map<Long, Copy> mCopies;
+
+  /**
+   * Constructor.
+   *
+   * @param reader reader of the storage to compact
+   * @param writer writer of the new storage
+   * @param pageReadTrx the page read transaction, which is used to deserialize the pages
+   * @param retention determines the revisions to retain
+   */
+  public PageCompactor(final Reader reader, final Writer writer, final PageReadTrx pageReadTrx,
+      final RevisionRetention retention) {
+    mReader = checkNotNull(reader);
+    mWriter = checkNotNull(writer);
+    mPageReadTrx = checkNotNull(pageReadTrx);
+    mRetention = checkNotNull(retention);
+    final ResourceConfiguration config = pageReadTrx.getResourceManager().getResourceConfig();
+    mVersioning = config.revisioningType;
+    mRevsToRestore = config.numberOfRevisionsToRestore;
+    mCopies = new HashMap<>();
+  }
+
+  /**
+   * Copy the pages of the retained revisions.
+   */
+  public void compact() {
+    final PageReference uberPageReference = mReader.readUberPageReference();
+    final UberPage uberPage = (UberPage) uberPageReference.getPage();
+    final int mostRecentRevision = uberPage.getRevisionNumber();
+
+    // The indirect pages of the revision tree are kept in memory, until the revision root pages
+    // have been copied.
+    final List<PageReference> revisionRoots = new ArrayList<>();
+    readRevisionTree(uberPage.getIndirectPageReference(), mostRecentRevision, revisionRoots);
+
+    // The most recent revisions usually restore the longest chains of record page fragments.
+    for (int i = revisionRoots.size() - 1; i >= 0; i--) {
+      final PageReference reference = revisionRoots.get(i);
+      final RevisionRootPage revisionRoot =
+          (RevisionRootPage) mReader.read(reference, mPageReadTrx);
+      final int fragments =
+          mVersioning.getRevisionRoots(revisionRoot.getRevision(), mRevsToRestore).length;
+      copyReferences(revisionRoot, fragments);
+      write(reference, revisionRoot);
+    }
+
+    writeRevisionTree(uberPage.getIndirectPageReference());
+    uberPage.setPreviousUberPageKey(-1);
+    uberPageReference.setPage(uberPage);
+    mWriter.writeUberPageReference(uberPageReference);
+  }
+
+  /**
+   * Read the revision tree and collect the references to the retained revision root pages in
+   * ascending order. The references to the removed revision root pages are cleared.
+   *
+   * @param reference reference to a page of the revision tree
+   * @param mostRecentRevision the most recent revision, which is always retained
+   * @param revisionRoots the references to the retained revision root pages
+   */
+  private void readRevisionTree(final PageReference reference, final int mostRecentRevision,
+      final List<PageReference> revisionRoots) {
+    final Page page = mReader.read(reference, mPageReadTrx);
+    if (page instanceof RevisionRootPage) {
+      final RevisionRootPage revisionRoot = (RevisionRootPage) page;
+      final int revision = revisionRoot.getRevision();
+      if (revision == mostRecentRevision || mRetention.retain(revision,
+          Instant.ofEpochMilli(revisionRoot.getRevisionTimestamp()), mostRecentRevision)) {
+        revisionRoots.add(reference);
+      } else {
+        reference.setKey(Constants.NULL_ID_LONG);
+        reference.setHash(null);
+      }
+    } else {
+      reference.setPage(page);
+      for (final PageReference child : page.getReferences()) {
+        if (child.getKey() != Constants.NULL_ID_LONG) {
+          readRevisionTree(child, mostRecentRevision, revisionRoots);
+        }
+      }
+    }
+  }
+
+  /**
+   * Write the indirect pages of the revision tree, which have been kept in memory.
+   *
+   * @param reference reference to a page of the revision tree
+   */
+  private void writeRevisionTree(final PageReference reference) {
+    final Page page = reference.getPage();
+    if (page != null) {
+      for (final PageReference child : page.getReferences()) {
+        writeRevisionTree(child);
+      }
+      write(reference, page);
+    }
+  }
+
+  /**
+   * Copy the pages referenced by a page.
+   *
+   * @param page the page
+   * @param fragments the number of record page fragments, which are read to reconstruct a record
+   *        page of the revision
+   */
+  private void copyReferences(final Page page, final int fragments) {
+    for (final PageReference reference : page.getReferences()) {
+      if (reference.getKey() != Constants.NULL_ID_LONG) {
+        copy(reference, fragments);
+      }
+    }
+  }
+
+  /**
+   * Copy a page and all pages referenced by the page, if it hasn't been copied before. The
+   * reference is updated to point to the copy.
+   *
+   * @param reference reference to the page
+   * @param fragments the number of record page fragments, which are read to reconstruct a record
+   *        page of the revision
+   */
+  private void copy(final PageReference reference, final int fragments) {
+    final long key = reference.getKey();
+    final Copy copy = mCopies.get(key);
+    if (copy != null && copy.mFragments >= fragments) {
+      reference.setKey(copy.mKey);
+      reference.setHash(copy.mHash);
+      return;
+    }
+
+    final Page page = mReader.read(reference, mPageReadTrx);
+    if (page instanceof UnorderedKeyValuePage) {
+      copyRecordPage((UnorderedKeyValuePage) page, fragments);
+    } else if (!(page instanceof OverflowPage)) {
+      copyReferences(page, fragments);
+    }
+    write(reference, page);
+    mCopies.put(key, new Copy(reference.getKey(), reference.getHash(), fragments));
+  }
+
+  /**
+   * Copy the overflow pages and the older fragments of a record page.
+   *
+   * @param page the record page fragment
+   * @param fragments the number of fragments, which are read starting with this fragment
+   */
+  private void copyRecordPage(final UnorderedKeyValuePage page, final int fragments) {
+    for (final Entry<Long, PageReference> entry : page.referenceEntrySet()) {
+      final PageReference reference = entry.getValue();
+      if (reference.getKey() != Constants.NULL_ID_LONG) {
+        copy(reference, 1);
+      }
+    }
+
+    final long previousKey = page.getPreviousReferenceKey();
+    if (previousKey != Constants.NULL_ID_LONG) {
+      // Older fragments aren't read, once a fragment is full.
+      if (fragments > 1 && page.size() < Constants.NDP_NODE_COUNT) {
+        final PageReference previous = new PageReference().setKey(previousKey);
+        copy(previous, fragments - 1);
+        page.setPreviousReferenceKey(previous.getKey());
+      } else {
+        page.setPreviousReferenceKey(Constants.NULL_ID_LONG);
+      }
+    }
+  }
+
+  private void write(final PageReference reference, final Page page) {
+    reference.setPage(page);
+    mWriter.write(reference);
+    reference.setPage(null);
+  }
+
+  /** A copied page. */
+  private static final class Copy {
+    /** Key of the copy. */
+    private final long mKey;
+
+    /** Hash of the copy. */
+    private final byte[] mHash;
+
+    /** Number of record page fragments, which have been copied. */
+    private final int mFragments;
+
+    private Copy(final long key, final byte[] hash, final int fragments) {
+      mKey = key;
+      mHash = hash;
+      mFragments = fragments;
+    }
+  }
+}
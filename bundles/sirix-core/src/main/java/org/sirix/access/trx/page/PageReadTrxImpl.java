@@ -36,6 +36,7 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.brackit.xquery.atomic.QNm;
 import org.brackit.xquery.xdm.DocumentException;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.CommitCredentials;
@@ -284,10 +285,29 @@ public final class PageReadTrxImpl implements PageReadTrx {
       return Optional.empty();
     }
 
-    final Record retVal = ((UnorderedKeyValuePage) cont.getComplete()).getValue(nodeKey);
+    final Record retVal = ((UnorderedKeyValuePage) cont.getComplete()).getValue(nodeKey, this);
     return checkItemIfDeleted(retVal);
   }
 
+  @Override
+  public Optional<UnorderedKeyValuePage> getRecordPage(final IndexLogKey indexLogKey) {
+    checkNotNull(indexLogKey);
+    assertNotClosed();
+
+    final PageContainer cont;
+    try {
+      cont = mNodeCache.get(indexLogKey);
+    } catch (final ExecutionException | UncheckedExecutionException e) {
+      throw new SirixIOException(e.getCause());
+    }
+
+    if (PageContainer.emptyInstance().equals(cont)) {
+      return Optional.empty();
+    }
+
+    return Optional.of((UnorderedKeyValuePage) cont.getComplete());
+  }
+
   /**
    * Method to check if an {@link Record} is deleted.
    *
@@ -308,6 +328,13 @@ public final class PageReadTrxImpl implements PageReadTrx {
     return mNamePage.getName(nameKey, nodeKind);
   }
 
+  @Override
+  public QNm getQName(final int uriKey, final int prefixKey, final int localNameKey,
+      final Kind nodeKind) {
+    assertNotClosed();
+    return mNamePage.getQName(uriKey, prefixKey, localNameKey, nodeKind);
+  }
+
   @Override
   public final byte[] getRawName(final int pNameKey, final Kind pNodeKind) {
     assertNotClosed();
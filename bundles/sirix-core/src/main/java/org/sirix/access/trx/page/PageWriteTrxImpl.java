@@ -33,6 +33,7 @@ import java.util.Optional;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.CommitCredentials;
 import org.sirix.access.trx.node.IndexController;
@@ -243,6 +244,21 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
         : currentNamePage.getName(nameKey, nodeKind);
   }
 
+  @Override
+  public QNm getQName(final int uriKey, final int prefixKey, final int localNameKey,
+      final Kind nodeKind) {
+    mPageRtx.assertNotClosed();
+    // Names might still be missing in the name page of the new revision.
+    final String uri = getName(uriKey, Kind.NAMESPACE);
+    final String prefix = prefixKey == -1
+        ? ""
+        : getName(prefixKey, nodeKind);
+    final String localName = localNameKey == -1
+        ? ""
+        : getName(localNameKey, nodeKind);
+    return new QNm(uri, prefix, localName);
+  }
+
   @Override
   public int createNameKey(final @Nullable String name, final Kind nodeKind) {
     mPageRtx.assertNotClosed();
@@ -273,6 +289,12 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
       return;
     }
 
+    if (page instanceof UnorderedKeyValuePage && container.getComplete() != page) {
+      // The versioning algorithm might write a full snapshot instead.
+      page = mPageRtx.mResourceManager.getResourceConfig().revisioningType.getPageToWrite(
+          (UnorderedKeyValuePage) container.getComplete(), (UnorderedKeyValuePage) page, mPageRtx);
+    }
+
     reference.setPage(page);
 
     // Recursively commit indirectly referenced pages and then write self.
@@ -311,6 +333,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx
     final int revision = uberPage.getRevisionNumber();
 
     // Recursively write indirectly referenced pages.
+    mLog.beginCommit();
     if (commitMessage == null)
       uberPage.commit(this);
     else
@@ -68,11 +68,13 @@ final class TransactionIntentLogFactoryImpl implements TransactionIntentLogFacto
 
       final FileWriter fileWriter =
           new FileWriter(file, null, new ByteHandlePipeline(resourceConfig.byteHandlePipeline),
+              resourceConfig.pageHashFunction.getHashFunction(),
               SerializationType.TRANSACTION_INTENT_LOG, new PagePersister());
 
       final PersistentFileCache persistentFileCache = new PersistentFileCache(fileWriter);
 
-      return new TransactionIntentLog(persistentFileCache);
+      return new TransactionIntentLog(persistentFileCache,
+          resourceConfig.transactionIntentLogMemory);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     }
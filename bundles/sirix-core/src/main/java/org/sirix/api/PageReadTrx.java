@@ -3,7 +3,9 @@ package org.sirix.api;
 import java.util.Optional;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.trx.node.CommitCredentials;
+import org.sirix.cache.IndexLogKey;
 import org.sirix.cache.PageContainer;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.Reader;
@@ -18,6 +20,7 @@ import org.sirix.page.PathPage;
 import org.sirix.page.PathSummaryPage;
 import org.sirix.page.RevisionRootPage;
 import org.sirix.page.UberPage;
+import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.page.interfaces.KeyValuePage;
 
 /**
@@ -68,6 +71,16 @@ public interface PageReadTrx extends AutoCloseable {
   Optional<? extends Record> getRecord(final @Nonnegative long key, final PageKind pageKind,
       final int index) throws SirixIOException;
 
+  /**
+   * Get a record page of the revision the transaction is bound to from the page cache.
+   *
+   * @param indexLogKey the key of the record page
+   * @return an {@link Optional} reference usually containing the record page
+   * @throws SirixIOException if an I/O error occured
+   */
+  Optional<UnorderedKeyValuePage> getRecordPage(final IndexLogKey indexLogKey)
+      throws SirixIOException;
+
   /**
    * Current reference to actual revision-root page.
    *
@@ -85,6 +98,19 @@ public interface PageReadTrx extends AutoCloseable {
    */
   String getName(int nameKey, @Nonnull Kind recordKind);
 
+  /**
+   * Get the qualified name corresponding to the given keys. Qualified names are shared by all
+   * records with the same keys.
+   *
+   * @param uriKey the key of the namespace URI
+   * @param prefixKey the key of the prefix, or {@code -1} if there is no prefix
+   * @param localNameKey the key of the local name, or {@code -1} if there is no local name
+   * @param recordKind kind of record
+   * @return the qualified name
+   * @throws NullPointerException if {@code kind} is {@code null}
+   */
+  QNm getQName(int uriKey, int prefixKey, int localNameKey, @Nonnull Kind recordKind);
+
   /**
    * Get the number of references for a name.
    *
@@ -30,6 +30,7 @@ import javax.annotation.Nonnull;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.IndexController;
 import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
 import org.sirix.exception.SirixThreadedException;
 import org.sirix.exception.SirixUsageException;
 import org.sirix.index.path.summary.PathSummaryReader;
@@ -158,6 +159,23 @@ public interface ResourceManager extends AutoCloseable {
    */
   int getRevisionNumber(@Nonnull Instant pointInTime);
 
+  /**
+   * Compact the resource, that is copy the pages of the retained revisions into new files, which
+   * replace the current files. Read transactions, which have been started before, keep reading the
+   * replaced files. Revisions, which are not retained, can't be opened anymore.
+   *
+   * <p>
+   * The compaction blocks until it is done and waits for the write transaction, thus it is usually
+   * scheduled in the background. Resources, which are stored in memory, retain all revisions.
+   * </p>
+   *
+   * @param retention determines the revisions to retain, the most recent revision is always
+   *        retained
+   * @throws SirixUsageException if the write transaction hasn't been closed in time
+   * @throws SirixIOException if an I/O error occurs
+   */
+  void compact(RevisionRetention retention);
+
   /**
    * Begin exclusive read/write transaction with auto commit.
    *
@@ -0,0 +1,25 @@
+package org.sirix.api;
+
+import java.time.Instant;
+import javax.annotation.Nonnegative;
+
+/**
+ * Determines which revisions of a resource are retained, once it is compacted.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+@FunctionalInterface
+public interface RevisionRetention {
+
+  /**
+   * Determines if a revision is retained. The revisions are passed in ascending order, the most
+   * recent revision is always retained.
+   *
+   * @param revision the revision number
+   * @param timestamp the commit timestamp of the revision
+   * @param mostRecentRevision the most recent revision number of the resource
+   * @return {@code true}, if the revision is retained, {@code false} otherwise
+   */
+  boolean retain(@Nonnegative int revision, Instant timestamp, @Nonnegative int mostRecentRevision);
+}
@@ -27,6 +27,7 @@ import javax.annotation.Nonnull;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
 import org.brackit.xquery.atomic.QNm;
+import org.sirix.access.trx.node.Commit;
 import org.sirix.access.trx.node.Movement;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
@@ -417,6 +418,18 @@ public interface XdmNodeWriteTrx extends XdmNodeReadTrx {
    */
   XdmNodeWriteTrx insertSubtreeAsFirstChild(XMLEventReader reader);
 
+  /**
+   * Insert a subtree as a first child.
+   *
+   * @param reader {@link XMLEventReader} instance
+   * @param commit determines if the changes are committed afterwards, or if further subtrees are
+   *        going to be inserted in the same revision
+   * @return the current transaction located at the root of the subtree which has been inserted
+   * @throws SirixException if an I/O error occurs or another sirix internal error occurs
+   * @throws NullPointerException if {@code reader} or {@code commit} is {@code null}
+   */
+  XdmNodeWriteTrx insertSubtreeAsFirstChild(XMLEventReader reader, Commit commit);
+
   /**
    * Insert a subtree as a right sibling.
    *
@@ -432,6 +445,20 @@ public interface XdmNodeWriteTrx extends XdmNodeReadTrx {
    */
   XdmNodeWriteTrx insertSubtreeAsRightSibling(XMLEventReader reader);
 
+  /**
+   * Insert a subtree as a right sibling.
+   *
+   * @param reader {@link XMLEventReader} instance
+   * @param commit determines if the changes are committed afterwards, or if further subtrees are
+   *        going to be inserted in the same revision
+   * @return the current transaction located at the root of the subtree which has been inserted
+   * @throws SirixException if an I/O error occurs or another sirix internal error occurs
+   * @throws IllegalStateException if subtree is inserted as right sibling of a root-node or
+   *         document-node
+   * @throws NullPointerException if {@code reader} or {@code commit} is {@code null}
+   */
+  XdmNodeWriteTrx insertSubtreeAsRightSibling(XMLEventReader reader, Commit commit);
+
   /**
    * Insert a subtree as a left sibling.
    *
@@ -447,6 +474,20 @@ public interface XdmNodeWriteTrx extends XdmNodeReadTrx {
    */
   XdmNodeWriteTrx insertSubtreeAsLeftSibling(XMLEventReader reader);
 
+  /**
+   * Insert a subtree as a left sibling.
+   *
+   * @param reader {@link XMLEventReader} instance
+   * @param commit determines if the changes are committed afterwards, or if further subtrees are
+   *        going to be inserted in the same revision
+   * @return the current transaction located at the root of the subtree which has been inserted
+   * @throws SirixException if an I/O error occurs or another sirix internal error occurs
+   * @throws IllegalStateException if subtree is inserted as left sibling of a root-node or
+   *         document-node
+   * @throws NullPointerException if {@code reader} or {@code commit} is {@code null}
+   */
+  XdmNodeWriteTrx insertSubtreeAsLeftSibling(XMLEventReader reader, Commit commit);
+
   /**
    * Remove currently selected node. This does automatically remove descendants. If two adjacent
    * {@link TextNode}s would be the result after the remove, the value of the former right sibling
@@ -523,6 +564,19 @@ public interface XdmNodeWriteTrx extends XdmNodeReadTrx {
   @Override
   void close();
 
+  /**
+   * Determines if the hashes and descendant counts of the ancestors of modified nodes are adapted
+   * immediately (the default) or once during the next commit. Deferring the adaptation only has an
+   * effect for rolling hashes. Every ancestor is then modified once per commit instead of once per
+   * modification, but the hashes and descendant counts of ancestors read before the commit might
+   * be outdated. Disabling the deferral applies all pending changes.
+   *
+   * @param defer {@code true} to defer the adaptation until the next commit, {@code false}
+   *        otherwise
+   * @return this write transaction instance
+   */
+  XdmNodeWriteTrx deferHashUpdates(boolean defer);
+
   /**
    * Add pre commit hook.
    *
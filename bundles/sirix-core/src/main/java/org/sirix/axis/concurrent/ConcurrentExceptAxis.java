@@ -34,13 +34,16 @@ import org.sirix.settings.Fixed;
  * nodes that occur in the first, but not in the second operand. Document order is preserved.
  * </p>
  */
-public final class ConcurrentExceptAxis extends AbstractAxis {
+public final class ConcurrentExceptAxis extends AbstractAxis implements AutoCloseable {
+
+  /** Marks the end of the results of an operand. */
+  private static final long NULL = Fixed.NULL_NODE_KEY.getStandardProperty();
 
   /** First operand sequence. */
-  private final ConcurrentAxis mOp1;
+  private final OperandBuffer mOp1;
 
   /** Second operand sequence. */
-  private final ConcurrentAxis mOp2;
+  private final OperandBuffer mOp2;
 
   /** Is axis called for the first time? */
   private boolean mFirst;
@@ -62,8 +65,8 @@ public final class ConcurrentExceptAxis extends AbstractAxis {
    */
   public ConcurrentExceptAxis(final XdmNodeReadTrx rtx, final Axis operand1, final Axis operand2) {
     super(rtx);
-    mOp1 = new ConcurrentAxis(rtx, operand1);
-    mOp2 = new ConcurrentAxis(rtx, operand2);
+    mOp1 = new OperandBuffer(rtx, operand1);
+    mOp2 = new OperandBuffer(rtx, operand2);
     mFirst = true;
     mCurrentResult1 = Fixed.NULL_NODE_KEY.getStandardProperty();
     mCurrentResult2 = Fixed.NULL_NODE_KEY.getStandardProperty();
@@ -85,62 +88,51 @@ public final class ConcurrentExceptAxis extends AbstractAxis {
     mCurrentResult2 = Fixed.NULL_NODE_KEY.getStandardProperty();
   }
 
+  /**
+   * Stop computing the operands, if the axis is abandoned before it is exhausted. Afterwards, the
+   * axis has no results left until it is reset.
+   */
+  @Override
+  public void close() {
+    mOp1.close();
+    mOp2.close();
+    mFirst = false;
+    mCurrentResult1 = NULL;
+    mCurrentResult2 = NULL;
+  }
+
   @Override
   protected long nextKey() {
     if (mFirst) {
       mFirst = false;
-      mCurrentResult1 = Util.getNext(mOp1);
-      mCurrentResult2 = Util.getNext(mOp2);
+      mCurrentResult1 = mOp1.next();
+      mCurrentResult2 = mOp2.next();
     }
 
-    final long nodeKey;
-
-    // if 1st axis has a result left that is not contained in the 2nd it is
-    // returned
-    while (!mOp1.isFinished()) {
-      while (!mOp2.isFinished()) {
-        if (mOp1.isFinished())
-          break;
-
-        while (mCurrentResult1 >= mCurrentResult2 && !mOp1.isFinished() && !mOp2.isFinished()) {
-
-          // don't return if equal
-          while (mCurrentResult1 == mCurrentResult2 && !mOp1.isFinished() && !mOp2.isFinished()) {
-            mCurrentResult1 = Util.getNext(mOp1);
-            mCurrentResult2 = Util.getNext(mOp2);
-          }
-
-          // a1 has to be smaller than a2 to check for equality
-          while (mCurrentResult1 > mCurrentResult2 && !mOp1.isFinished() && !mOp2.isFinished()) {
-            mCurrentResult2 = Util.getNext(mOp2);
-          }
-        }
-
-        if (!mOp1.isFinished() && !mOp2.isFinished()) {
-          // as long as a1 is smaller than a2 it can be returned
-          assert (mCurrentResult1 < mCurrentResult2);
-          nodeKey = mCurrentResult1;
-          if (Util.isValid(nodeKey)) {
-            mCurrentResult1 = Util.getNext(mOp1);
-            return nodeKey;
-          }
-          // should never come here!
-          throw new IllegalStateException(nodeKey + " is not valid!");
-        }
+    while (mCurrentResult1 != NULL) {
+      // Skip the smaller values of the 2nd operand.
+      while (mCurrentResult2 != NULL && mCurrentResult2 < mCurrentResult1) {
+        mCurrentResult2 = mOp2.next();
       }
 
-      if (!mOp1.isFinished()) {
-        // only operand1 has results left, so return all of them
-        nodeKey = mCurrentResult1;
+      // As long as the value of the 1st operand is smaller, it can be returned.
+      if (mCurrentResult2 == NULL || mCurrentResult1 < mCurrentResult2) {
+        final long nodeKey = mCurrentResult1;
         if (Util.isValid(nodeKey)) {
-          mCurrentResult1 = Util.getNext(mOp1);
+          mCurrentResult1 = mOp1.next();
           return nodeKey;
         }
         // should never come here!
         throw new IllegalStateException(nodeKey + " is not valid!");
       }
+
+      // Don't return, if equal.
+      mCurrentResult1 = mOp1.next();
+      mCurrentResult2 = mOp2.next();
     }
 
+    // The other operand might still be computed.
+    close();
     return done();
   }
 }
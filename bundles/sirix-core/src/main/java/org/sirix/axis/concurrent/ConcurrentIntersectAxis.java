@@ -34,13 +34,16 @@ import org.sirix.settings.Fixed;
  * operands. The result is in doc order and duplicate free.
  * </p>
  */
-public final class ConcurrentIntersectAxis extends AbstractAxis {
+public final class ConcurrentIntersectAxis extends AbstractAxis implements AutoCloseable {
+
+  /** Marks the end of the results of an operand. */
+  private static final long NULL = Fixed.NULL_NODE_KEY.getStandardProperty();
 
   /** First operand sequence. */
-  private final ConcurrentAxis mOp1;
+  private final OperandBuffer mOp1;
 
   /** Second operand sequence. */
-  private final ConcurrentAxis mOp2;
+  private final OperandBuffer mOp2;
 
   /** Is axis called for the first time? */
   private boolean mFirst;
@@ -63,8 +66,8 @@ public final class ConcurrentIntersectAxis extends AbstractAxis {
   public ConcurrentIntersectAxis(final XdmNodeReadTrx rtx, final Axis operand1,
       final Axis operand2) {
     super(rtx);
-    mOp1 = new ConcurrentAxis(rtx, operand1);
-    mOp2 = new ConcurrentAxis(rtx, operand2);
+    mOp1 = new OperandBuffer(rtx, operand1);
+    mOp2 = new OperandBuffer(rtx, operand2);
     mFirst = true;
     mCurrentResult1 = Fixed.NULL_NODE_KEY.getStandardProperty();
     mCurrentResult2 = Fixed.NULL_NODE_KEY.getStandardProperty();
@@ -86,55 +89,47 @@ public final class ConcurrentIntersectAxis extends AbstractAxis {
     mCurrentResult2 = Fixed.NULL_NODE_KEY.getStandardProperty();
   }
 
+  /**
+   * Stop computing the operands, if the axis is abandoned before it is exhausted. Afterwards, the
+   * axis has no results left until it is reset.
+   */
+  @Override
+  public void close() {
+    mOp1.close();
+    mOp2.close();
+    mFirst = false;
+    mCurrentResult1 = NULL;
+    mCurrentResult2 = NULL;
+  }
+
   @Override
   protected long nextKey() {
     if (mFirst) {
       mFirst = false;
-      mCurrentResult1 = Util.getNext(mOp1);
-      mCurrentResult2 = Util.getNext(mOp2);
+      mCurrentResult1 = mOp1.next();
+      mCurrentResult2 = mOp2.next();
     }
 
-    final long nodeKey;
-
-    // if 1st axis has a result left that is not contained in the 2nd it is
-    // returned
-    while (!mOp1.isFinished()) {
-      while (!mOp2.isFinished()) {
-        // if both results are not equal get next values
-        while (mCurrentResult1 != mCurrentResult2 && !mOp1.isFinished() && !mOp2.isFinished()) {
-
-          // get next result from 1st axis, if current is smaller than
-          // 2nd
-          while (mCurrentResult1 < mCurrentResult2 && !mOp1.isFinished() && !mOp2.isFinished()) {
-            mCurrentResult1 = Util.getNext(mOp1);
-          }
-
-          // get next result from 2nd axis if current is smaller than
-          // 1st
-          while (mCurrentResult1 > mCurrentResult2 && !mOp1.isFinished() && !mOp2.isFinished()) {
-            mCurrentResult2 = Util.getNext(mOp2);
-          }
+    // Skip the smaller value until both values are equal.
+    while (mCurrentResult1 != NULL && mCurrentResult2 != NULL) {
+      if (mCurrentResult1 < mCurrentResult2) {
+        mCurrentResult1 = mOp1.next();
+      } else if (mCurrentResult1 > mCurrentResult2) {
+        mCurrentResult2 = mOp2.next();
+      } else {
+        final long nodeKey = mCurrentResult1;
+        if (Util.isValid(nodeKey)) {
+          mCurrentResult1 = mOp1.next();
+          mCurrentResult2 = mOp2.next();
+          return nodeKey;
         }
-
-        if (!mOp1.isFinished() && !mOp2.isFinished()) {
-          // if both results are equal return it
-          assert (mCurrentResult1 == mCurrentResult2);
-          nodeKey = mCurrentResult1;
-          if (Util.isValid(nodeKey)) {
-            mCurrentResult1 = Util.getNext(mOp1);
-            mCurrentResult2 = Util.getNext(mOp2);
-            return nodeKey;
-          }
-          // should never come here!
-          throw new IllegalStateException(nodeKey + " is not valid!");
-
-        }
-        break;
-
+        // should never come here!
+        throw new IllegalStateException(nodeKey + " is not valid!");
       }
-      break;
     }
 
+    // The other operand might still be computed.
+    close();
     return done();
   }
 }
@@ -24,8 +24,7 @@ package org.sirix.axis.concurrent;
 import org.sirix.api.Axis;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.axis.AbstractAxis;
-import org.sirix.exception.SirixXPathException;
-import org.sirix.service.xml.xpath.EXPathError;
+import org.sirix.settings.Fixed;
 
 /**
  * <h1>ConcurrentUnionAxis</h1>
@@ -36,13 +35,16 @@ import org.sirix.service.xml.xpath.EXPathError;
  * by the concept of .... Additionally this guarantees the document order.
  * </p>
  */
-public final class ConcurrentUnionAxis extends AbstractAxis {
+public final class ConcurrentUnionAxis extends AbstractAxis implements AutoCloseable {
+
+  /** Marks the end of the results of an operand. */
+  private static final long NULL = Fixed.NULL_NODE_KEY.getStandardProperty();
 
   /** First operand sequence. */
-  private final ConcurrentAxis mOp1;
+  private final OperandBuffer mOp1;
 
   /** Second operand sequence. */
-  private final ConcurrentAxis mOp2;
+  private final OperandBuffer mOp2;
 
   /** First run. */
   private boolean mFirst;
@@ -64,8 +66,8 @@ public final class ConcurrentUnionAxis extends AbstractAxis {
    */
   public ConcurrentUnionAxis(final XdmNodeReadTrx rtx, final Axis operand1, final Axis operand2) {
     super(rtx);
-    mOp1 = new ConcurrentAxis(rtx, operand1);
-    mOp2 = new ConcurrentAxis(rtx, operand2);
+    mOp1 = new OperandBuffer(rtx, operand1);
+    mOp2 = new OperandBuffer(rtx, operand2);
     mFirst = true;
   }
 
@@ -83,62 +85,51 @@ public final class ConcurrentUnionAxis extends AbstractAxis {
     mFirst = true;
   }
 
+  /**
+   * Stop computing the operands, if the axis is abandoned before it is exhausted. Afterwards, the
+   * axis has no results left until it is reset.
+   */
+  @Override
+  public void close() {
+    mOp1.close();
+    mOp2.close();
+    mFirst = false;
+    mCurrentResult1 = NULL;
+    mCurrentResult2 = NULL;
+  }
+
   @Override
   protected long nextKey() {
     if (mFirst) {
       mFirst = false;
-      mCurrentResult1 = Util.getNext(mOp1);
-      mCurrentResult2 = Util.getNext(mOp2);
+      mCurrentResult1 = mOp1.next();
+      mCurrentResult2 = mOp2.next();
     }
 
     final long nodeKey;
 
-    // if both operands have results left return the smallest value (doc
-    // order)
-    if (!mOp1.isFinished()) {
-      if (!mOp2.isFinished()) {
-        if (mCurrentResult1 < mCurrentResult2) {
-          nodeKey = mCurrentResult1;
-          mCurrentResult1 = Util.getNext(mOp1);
-        } else if (mCurrentResult1 > mCurrentResult2) {
-          nodeKey = mCurrentResult2;
-          mCurrentResult2 = Util.getNext(mOp2);
-        } else {
-          // return only one of the values (prevent duplicates)
-          nodeKey = mCurrentResult2;
-          mCurrentResult1 = Util.getNext(mOp1);
-          mCurrentResult2 = Util.getNext(mOp2);
-        }
-
-        if (nodeKey < 0) {
-          try {
-            throw EXPathError.XPTY0004.getEncapsulatedException();
-          } catch (final SirixXPathException mExp) {
-            mExp.printStackTrace();
-          }
-        }
-        return nodeKey;
-      }
-
-      // only operand1 has results left, so return all of them
+    // Return the smallest value of both operands (document order).
+    if (mCurrentResult1 != NULL
+        && (mCurrentResult2 == NULL || mCurrentResult1 < mCurrentResult2)) {
       nodeKey = mCurrentResult1;
-      if (Util.isValid(nodeKey)) {
-        mCurrentResult1 = Util.getNext(mOp1);
-        return nodeKey;
-      }
-      // should never come here!
-      throw new IllegalStateException(nodeKey + " is not valid!");
-    } else if (!mOp2.isFinished()) {
-      // only operand2 has results left, so return all of them
+      mCurrentResult1 = mOp1.next();
+    } else if (mCurrentResult2 != NULL
+        && (mCurrentResult1 == NULL || mCurrentResult2 < mCurrentResult1)) {
       nodeKey = mCurrentResult2;
-      if (Util.isValid(nodeKey)) {
-        mCurrentResult2 = Util.getNext(mOp2);
-        return nodeKey;
-      }
-      // should never come here!
-      throw new IllegalStateException(nodeKey + " is not valid!");
+      mCurrentResult2 = mOp2.next();
+    } else if (mCurrentResult1 != NULL) {
+      // Return only one of the values (prevent duplicates).
+      nodeKey = mCurrentResult1;
+      mCurrentResult1 = mOp1.next();
+      mCurrentResult2 = mOp2.next();
+    } else {
+      return done();
     }
 
-    return done();
+    if (Util.isValid(nodeKey)) {
+      return nodeKey;
+    }
+    // should never come here!
+    throw new IllegalStateException(nodeKey + " is not valid!");
   }
 }
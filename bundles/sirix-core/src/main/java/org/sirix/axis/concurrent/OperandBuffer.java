@@ -0,0 +1,293 @@
+package org.sirix.axis.concurrent;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.sirix.api.Axis;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.settings.Fixed;
+
+/**
+ * Buffers the node keys of an operand of a set operation in chunks of primitive keys.
+ *
+ * <p>
+ * The first chunk is read by the consumer. Only if the operand has more results, the remaining
+ * results are computed by a producer on a shared executor and exchanged in chunks over a bounded
+ * queue. If all threads of the executor are busy, the operand is read by the consumer, too, such
+ * that nested set operations never wait for a free thread.
+ * </p>
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+final class OperandBuffer {
+
+  /** Number of node keys per chunk. */
+  static final int CHUNK_SIZE = 512;
+
+  /** Number of chunks, which are buffered by the queue. */
+  private static final int CAPACITY = 16;
+
+  /** Marks the end of the results. */
+  private static final long[] END = new long[0];
+
+  /** Executor shared by all producers, which is bounded by the number of processors. */
+  private static final ThreadPoolExecutor EXECUTOR;
+
+  static {
+    final AtomicInteger threads = new AtomicInteger();
+    final int processors = Runtime.getRuntime().availableProcessors();
+    EXECUTOR = new ThreadPoolExecutor(processors, processors, 30, TimeUnit.SECONDS,
+        new SynchronousQueue<>(), runnable -> {
+          final Thread thread =
+              new Thread(runnable, "sirix-set-operation-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    EXECUTOR.allowCoreThreadTimeOut(true);
+  }
+
+  /** The operand. */
+  private final Axis mAxis;
+
+  /** The current chunk. */
+  private long[] mChunk;
+
+  /** Number of node keys in the current chunk. */
+  private int mSize;
+
+  /** Index of the next node key in the current chunk. */
+  private int mIndex;
+
+  /** Determines if the operand is exhausted. */
+  private boolean mExhausted;
+
+  /** Queue of the chunks computed by the producer, or {@code null}. */
+  private BlockingQueue<long[]> mChunks;
+
+  /** The producer or {@code null}. */
+  private Future<?> mProducer;
+
+  /** Determines if the producer has to stop. */
+  private volatile boolean mCancelled;
+
+  /** Failure of the producer. */
+  private volatile RuntimeException mFailure;
+
+  /** Guards the interruption of the producer. */
+  private final Object mLock = new Object();
+
+  /** The thread of the producer, while it waits for space in the queue, or {@code null}. */
+  private Thread mWaitingProducer;
+
+  /**
+   * Constructor.
+   *
+   * @param rtx exclusive (immutable) trx to iterate with
+   * @param axis the operand
+   * @throws IllegalArgumentException if the operand is bound to {@code rtx}
+   */
+  OperandBuffer(final XdmNodeReadTrx rtx, final Axis axis) {
+    mAxis = checkNotNull(axis);
+    if (rtx.equals(axis.getTrx()) && rtx.getId() == axis.getTrx().getId()) {
+      throw new IllegalArgumentException(
+          "The filter must be bound to another transaction but on the same revision/node!");
+    }
+  }
+
+  /**
+   * Get the next node key.
+   *
+   * @return the next node key or {@link Fixed#NULL_NODE_KEY}, if the operand has no results left
+   */
+  long next() {
+    if (mIndex == mSize && !fill()) {
+      return Fixed.NULL_NODE_KEY.getStandardProperty();
+    }
+    return mChunk[mIndex++];
+  }
+
+  /**
+   * Fill the current chunk.
+   *
+   * @return {@code true}, if the chunk contains node keys, {@code false} otherwise
+   */
+  private boolean fill() {
+    if (mExhausted) {
+      return false;
+    }
+
+    mIndex = 0;
+    mSize = 0;
+    if (mChunks == null) {
+      // Read the first chunk (or all chunks, if no thread is available).
+      if (mChunk == null) {
+        mChunk = new long[CHUNK_SIZE];
+      }
+      mSize = read(mChunk);
+      if (mSize < CHUNK_SIZE) {
+        mExhausted = true;
+      } else if (mProducer == null) {
+        startProducer();
+      }
+      return mSize > 0;
+    }
+
+    final long[] chunk;
+    try {
+      chunk = mChunks.take();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+    if (chunk == END) {
+      mExhausted = true;
+      if (mFailure != null) {
+        throw mFailure;
+      }
+      return false;
+    }
+    mChunk = chunk;
+    mSize = chunk.length;
+    return true;
+  }
+
+  /**
+   * Start the producer on the shared executor, if a thread is available.
+   */
+  private void startProducer() {
+    final BlockingQueue<long[]> chunks = new ArrayBlockingQueue<>(CAPACITY);
+    try {
+      mProducer = EXECUTOR.submit(() -> produce(chunks));
+      mChunks = chunks;
+    } catch (final RejectedExecutionException e) {
+      // All threads are busy, the consumer reads the operand.
+    }
+  }
+
+  /**
+   * Compute the remaining results of the operand.
+   *
+   * @param chunks the queue of chunks
+   */
+  private void produce(final BlockingQueue<long[]> chunks) {
+    try {
+      try {
+        long[] chunk = new long[CHUNK_SIZE];
+        int size;
+        while (!mCancelled && (size = read(chunk)) > 0) {
+          put(chunks, size == CHUNK_SIZE
+              ? chunk
+              : Arrays.copyOf(chunk, size));
+          chunk = new long[CHUNK_SIZE];
+        }
+      } catch (final RuntimeException e) {
+        mFailure = e;
+      }
+      put(chunks, END);
+    } catch (final InterruptedException e) {
+      // The producer has been cancelled.
+    }
+  }
+
+  /**
+   * Put a chunk into the queue and wait for space, until the producer is cancelled. Only the wait
+   * is interrupted, not reading the operand, as interrupting I/O would close the storage.
+   *
+   * @param chunks the queue of chunks
+   * @param chunk the chunk
+   * @throws InterruptedException if the producer has been cancelled
+   */
+  private void put(final BlockingQueue<long[]> chunks, final long[] chunk)
+      throws InterruptedException {
+    synchronized (mLock) {
+      if (mCancelled) {
+        throw new InterruptedException();
+      }
+      mWaitingProducer = Thread.currentThread();
+    }
+    try {
+      chunks.put(chunk);
+    } finally {
+      synchronized (mLock) {
+        mWaitingProducer = null;
+        // Clear a pending interrupt, such that it doesn't affect other tasks of the executor.
+        Thread.interrupted();
+      }
+    }
+  }
+
+  /**
+   * Read node keys from the operand.
+   *
+   * @param chunk the chunk to fill
+   * @return number of node keys read
+   */
+  private int read(final long[] chunk) {
+    int size = 0;
+    while (size < chunk.length && mAxis.hasNext()) {
+      chunk[size++] = mAxis.next();
+    }
+    return size;
+  }
+
+  /**
+   * Stop the producer and reset the operand.
+   *
+   * @param nodeKey the node key to reset the operand to
+   */
+  void reset(final long nodeKey) {
+    stop();
+    mAxis.reset(nodeKey);
+    mChunks = null;
+    mProducer = null;
+    mCancelled = false;
+    mFailure = null;
+    mExhausted = false;
+    mIndex = 0;
+    mSize = 0;
+  }
+
+  /**
+   * Stop the producer and release the buffered chunks, if the results of the operand aren't
+   * needed anymore. Afterwards, the operand has no results left until it is reset.
+   */
+  void close() {
+    stop();
+    mChunks = null;
+    mProducer = null;
+    mChunk = null;
+    mExhausted = true;
+    mIndex = 0;
+    mSize = 0;
+  }
+
+  /**
+   * Stop the producer, such that the operand isn't used concurrently anymore.
+   */
+  private void stop() {
+    if (mProducer != null) {
+      synchronized (mLock) {
+        mCancelled = true;
+        if (mWaitingProducer != null) {
+          mWaitingProducer.interrupt();
+        }
+      }
+      try {
+        mProducer.get();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (final ExecutionException e) {
+        // The failure is also stored by the producer.
+      }
+    }
+  }
+}
@@ -0,0 +1,390 @@
+package org.sirix.axis.concurrent;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import javax.annotation.Nonnegative;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.access.trx.node.HashType;
+import org.sirix.axis.AbstractAxis;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
+import org.sirix.exception.SirixException;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <h1>ParallelDescendantAxis</h1>
+ *
+ * <p>
+ * Iterate over all structural descendants starting at a given node, whereas the subtrees are
+ * scanned in parallel. The subtree is partitioned based on the descendant counts of the nodes:
+ * nodes with more than {@link #TASK_SIZE} descendants are split into their children, all other
+ * subtrees are scanned by tasks of a {@link ForkJoinPool}. Each worker thread uses its own read
+ * transaction on the same revision. The results are either returned in document order (preorder)
+ * or in the order in which the subtrees have been scanned.
+ * </p>
+ *
+ * <p>
+ * The transaction of the axis must be a read transaction on a committed revision. The worker
+ * transactions are closed as soon as the axis is finished, reset or closed.
+ * </p>
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+public final class ParallelDescendantAxis extends AbstractAxis implements AutoCloseable {
+
+  /** Logger. */
+  private static final LogWrapper LOGGER =
+      new LogWrapper(LoggerFactory.getLogger(ParallelDescendantAxis.class));
+
+  /** Maximum number of descendants of a subtree, which is scanned by a single task. */
+  public static final int TASK_SIZE = 1_024;
+
+  /** Depth up to which subtrees are split, if the descendant counts aren't maintained. */
+  private static final int SPLIT_DEPTH = 3;
+
+  /** The order of the results. */
+  public enum Order {
+    /** Results are returned in document order. */
+    DOCUMENT,
+
+    /** Results are returned in the order in which the subtrees have been scanned. */
+    UNORDERED
+  }
+
+  /** The pool, which executes the tasks. */
+  private final ForkJoinPool mPool;
+
+  /** The order of the results. */
+  private final Order mOrder;
+
+  /** Determines if the descendant counts are maintained. */
+  private final boolean mDescendantCounts;
+
+  /** The resource manager, which is used to begin the worker transactions. */
+  private final ResourceManager mResourceManager;
+
+  /** The revision to read. */
+  private final int mRevision;
+
+  /** The read transaction per worker thread. */
+  private final ConcurrentMap<Thread, XdmNodeReadTrx> mWorkerTrxs;
+
+  /** Nodes, which are returned without their descendants, or the roots of the scanned subtrees. */
+  private List<Long> mRoots;
+
+  /** The tasks, which scan the subtrees, or {@code null} for nodes without descendants. */
+  private List<ScanTask> mTasks;
+
+  /** The completed tasks, if the results are unordered. */
+  private BlockingQueue<ScanTask> mCompleted;
+
+  /** The index of the current root. */
+  private int mRoot;
+
+  /** The node keys of the current subtree. */
+  private long[] mChunk;
+
+  /** The index in the current subtree. */
+  private int mIndex;
+
+  /** Determines if it's the first call to hasNext(). */
+  private boolean mFirst;
+
+  /**
+   * Constructor initializing internal state.
+   *
+   * @param rtx read transaction to iterate with
+   */
+  public ParallelDescendantAxis(final XdmNodeReadTrx rtx) {
+    this(rtx, IncludeSelf.NO, Order.DOCUMENT);
+  }
+
+  /**
+   * Constructor initializing internal state.
+   *
+   * @param rtx read transaction to iterate with
+   * @param includeSelf determines if current node is included or not
+   */
+  public ParallelDescendantAxis(final XdmNodeReadTrx rtx, final IncludeSelf includeSelf) {
+    this(rtx, includeSelf, Order.DOCUMENT);
+  }
+
+  /**
+   * Constructor initializing internal state.
+   *
+   * @param rtx read transaction to iterate with
+   * @param includeSelf determines if current node is included or not
+   * @param order the order of the results
+   */
+  public ParallelDescendantAxis(final XdmNodeReadTrx rtx, final IncludeSelf includeSelf,
+      final Order order) {
+    this(rtx, includeSelf, order, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructor initializing internal state.
+   *
+   * @param rtx read transaction to iterate with
+   * @param includeSelf determines if current node is included or not
+   * @param order the order of the results
+   * @param pool the pool, which executes the tasks
+   * @throws IllegalArgumentException if {@code rtx} is a write transaction
+   */
+  public ParallelDescendantAxis(final XdmNodeReadTrx rtx, final IncludeSelf includeSelf,
+      final Order order, final ForkJoinPool pool) {
+    super(rtx, includeSelf);
+    checkArgument(!(rtx instanceof XdmNodeWriteTrx),
+        "The subtrees are scanned with read transactions on a committed revision!");
+    mOrder = checkNotNull(order);
+    mPool = checkNotNull(pool);
+    mResourceManager = rtx.getResourceManager();
+    mRevision = rtx.getRevisionNumber();
+    mDescendantCounts = mResourceManager.getResourceConfig().hashType == HashType.ROLLING;
+    mWorkerTrxs = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void reset(final @Nonnegative long nodeKey) {
+    super.reset(nodeKey);
+    // Invoked by the constructor of the super class, before the worker transactions are created.
+    if (mWorkerTrxs != null) {
+      release();
+    }
+    mFirst = true;
+    mRoots = null;
+    mTasks = null;
+    mCompleted = null;
+    mChunk = null;
+  }
+
+  @Override
+  protected long nextKey() {
+    if (mFirst) {
+      mFirst = false;
+      submitTasks();
+    }
+
+    // Return the remaining nodes of the current subtree.
+    if (mChunk != null && mIndex < mChunk.length) {
+      return mChunk[mIndex++];
+    }
+
+    if (mOrder == Order.DOCUMENT) {
+      while (mRoot < mRoots.size()) {
+        final ScanTask task = mTasks.get(mRoot);
+        final long root = mRoots.get(mRoot++);
+        if (task == null) {
+          return root;
+        }
+        mChunk = task.join();
+        mIndex = 0;
+        if (mChunk.length > 0) {
+          return mChunk[mIndex++];
+        }
+      }
+    } else {
+      while (mRoot < mRoots.size()) {
+        final ScanTask task;
+        try {
+          task = mCompleted.take();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+        mRoot++;
+        mChunk = task.join();
+        mIndex = 0;
+        if (mChunk.length > 0) {
+          return mChunk[mIndex++];
+        }
+      }
+    }
+
+    release();
+    return done();
+  }
+
+  /**
+   * Partition the subtree and submit the tasks, which scan the subtrees.
+   */
+  private void submitTasks() {
+    mRoots = new ArrayList<>();
+    mTasks = new ArrayList<>();
+    mCompleted = mOrder == Order.UNORDERED
+        ? new LinkedBlockingQueue<>()
+        : null;
+    mRoot = 0;
+    final XdmNodeReadTrx rtx = getTrx();
+    final long startKey = rtx.getNodeKey();
+    if (isSelfIncluded() == IncludeSelf.YES) {
+      partition(rtx, startKey, 0);
+    } else if (rtx.hasFirstChild()) {
+      partitionChildren(rtx, startKey, 0);
+    }
+    rtx.moveTo(startKey);
+  }
+
+  /**
+   * Partition the subtree of a node.
+   *
+   * @param rtx transaction to read the descendant counts with
+   * @param nodeKey key of the node
+   * @param depth depth of the node relative to the start node
+   */
+  private void partition(final XdmNodeReadTrx rtx, final long nodeKey, final int depth) {
+    rtx.moveTo(nodeKey);
+    if (rtx.hasFirstChild() && (mDescendantCounts
+        ? rtx.getDescendantCount() > TASK_SIZE
+        : depth < SPLIT_DEPTH)) {
+      addRoot(nodeKey, null);
+      partitionChildren(rtx, nodeKey, depth);
+    } else {
+      addRoot(nodeKey, new ScanTask(nodeKey, mDescendantCounts
+          ? (int) rtx.getDescendantCount() + 1
+          : 16, mCompleted));
+    }
+  }
+
+  /**
+   * Partition the subtrees of the children of a node.
+   *
+   * @param rtx transaction to read the descendant counts with
+   * @param nodeKey key of the node
+   * @param depth depth of the node relative to the start node
+   */
+  private void partitionChildren(final XdmNodeReadTrx rtx, final long nodeKey, final int depth) {
+    rtx.moveTo(nodeKey);
+    final List<Long> children = new ArrayList<>();
+    for (boolean moved = rtx.moveToFirstChild().hasMoved(); moved;
+        moved = rtx.moveToRightSibling().hasMoved()) {
+      children.add(rtx.getNodeKey());
+    }
+    for (final long child : children) {
+      partition(rtx, child, depth + 1);
+    }
+  }
+
+  /**
+   * Add a node, which is returned without its descendants, or the root of a scanned subtree.
+   *
+   * @param nodeKey key of the node
+   * @param task the task, which scans the subtree, or {@code null}
+   */
+  private void addRoot(final long nodeKey, final ScanTask task) {
+    mRoots.add(nodeKey);
+    mTasks.add(task);
+    if (task != null) {
+      mPool.execute(task);
+    } else if (mCompleted != null) {
+      final ScanTask root = new ScanTask(nodeKey, 1, null);
+      root.complete(new long[] {nodeKey});
+      mCompleted.add(root);
+    }
+  }
+
+  /**
+   * Get the read transaction of the current worker thread.
+   *
+   * @return the read transaction
+   */
+  private XdmNodeReadTrx getWorkerTrx() {
+    return mWorkerTrxs.computeIfAbsent(
+        Thread.currentThread(), thread -> mResourceManager.beginNodeReadTrx(mRevision));
+  }
+
+  /**
+   * Wait for the submitted tasks and close the worker transactions.
+   */
+  private void release() {
+    if (mTasks != null) {
+      for (final ScanTask task : mTasks) {
+        if (task != null) {
+          task.cancel(false);
+          task.quietlyJoin();
+        }
+      }
+      mTasks = null;
+    }
+    for (final XdmNodeReadTrx rtx : mWorkerTrxs.values()) {
+      try {
+        rtx.close();
+      } catch (final SirixException e) {
+        LOGGER.error(e.getMessage(), e);
+      }
+    }
+    mWorkerTrxs.clear();
+  }
+
+  /**
+   * Closes the worker transactions, if the axis isn't finished.
+   */
+  @Override
+  public void close() {
+    release();
+  }
+
+  /** Scans a subtree with the read transaction of the worker thread. */
+  private final class ScanTask extends RecursiveTask<long[]> {
+    private static final long serialVersionUID = 1L;
+
+    /** Key of the root of the subtree. */
+    private final long mNodeKey;
+
+    /** Expected number of nodes in the subtree. */
+    private final int mSize;
+
+    /** The queue of completed tasks, if the results are unordered, or {@code null}. */
+    private final BlockingQueue<ScanTask> mCompletedTasks;
+
+    /**
+     * Constructor.
+     *
+     * @param nodeKey key of the root of the subtree
+     * @param size expected number of nodes in the subtree
+     * @param completedTasks the queue of completed tasks or {@code null}
+     */
+    private ScanTask(final long nodeKey, final int size,
+        final BlockingQueue<ScanTask> completedTasks) {
+      mNodeKey = nodeKey;
+      mSize = Math.max(size, 1);
+      mCompletedTasks = completedTasks;
+    }
+
+    @Override
+    protected long[] compute() {
+      try {
+        final XdmNodeReadTrx rtx = getWorkerTrx();
+        rtx.moveTo(mNodeKey);
+        long[] keys = new long[mSize];
+        int size = 0;
+        for (final DescendantAxis axis = new DescendantAxis(rtx, IncludeSelf.YES);
+            axis.hasNext();) {
+          if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length << 1);
+          }
+          keys[size++] = axis.next();
+        }
+        return size == keys.length
+            ? keys
+            : Arrays.copyOf(keys, size);
+      } finally {
+        if (mCompletedTasks != null) {
+          mCompletedTasks.add(this);
+        }
+      }
+    }
+  }
+}
@@ -1,17 +1,18 @@
 package org.sirix.cache;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import javax.annotation.Nullable;
 import org.sirix.api.PageReadTrx;
-import org.sirix.io.Writer;
+import org.sirix.io.file.FileWriter;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.KeyValuePage;
 import org.sirix.page.interfaces.Page;
 
 public final class PersistentFileCache implements AutoCloseable {
   /** Write to a persistent file. */
-  private final Writer mWriter;
+  private final FileWriter mWriter;
 
-  public PersistentFileCache(final Writer writer) {
+  public PersistentFileCache(final FileWriter writer) {
     mWriter = checkNotNull(writer);
   }
 
@@ -53,6 +54,51 @@ public final class PersistentFileCache implements AutoCloseable {
     return this;
   }
 
+  /**
+   * Put pages, which are already serialized by {@link #serialize(Page)}.
+   *
+   * @param reference the reference, which is set to the location of the pages in the file
+   * @param modified the serialized modified page
+   * @param complete the serialized complete page, or {@code null} if it's the modified page
+   * @return this cache instance
+   */
+  public PersistentFileCache put(final PageReference reference, final byte[] modified,
+      final @Nullable byte[] complete) {
+    mWriter.write(reference, modified);
+
+    if (complete != null) {
+      final long offset = reference.getPersistentLogKey();
+      int length = reference.getLength();
+      mWriter.write(reference, complete);
+      length += reference.getLength();
+      reference.setPersistentLogKey(offset);
+      reference.setLength(length);
+    }
+
+    return this;
+  }
+
+  /**
+   * Serialize a page in the same format, in which it is stored in the file.
+   *
+   * @param page the page to serialize
+   * @return the serialized page
+   */
+  public byte[] serialize(final Page page) {
+    return mWriter.serializePage(checkNotNull(page));
+  }
+
+  /**
+   * Deserialize a page serialized by {@link #serialize(Page)}.
+   *
+   * @param serializedPage the serialized page
+   * @param pageReadTrx the page read transaction
+   * @return the deserialized page
+   */
+  public Page deserialize(final byte[] serializedPage, final PageReadTrx pageReadTrx) {
+    return mWriter.deserializePage(checkNotNull(serializedPage), checkNotNull(pageReadTrx));
+  }
+
   public PersistentFileCache truncate() {
     mWriter.truncate();
     return this;
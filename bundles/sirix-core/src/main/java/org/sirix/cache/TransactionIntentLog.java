@@ -1,29 +1,67 @@
 package org.sirix.cache;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import javax.annotation.Nullable;
+import javax.annotation.Nonnegative;
 import org.sirix.api.PageReadTrx;
+import org.sirix.page.IndirectPage;
 import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.KeyValuePage;
+import org.sirix.page.interfaces.Page;
 import org.sirix.settings.Constants;
+import org.sirix.utils.LongIntHashMap;
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 
 /**
  * The transaction intent log, used for logging everything a write transaction changes.
  *
+ * <p>
+ * The log consists of three tiers. Pages are kept deserialized as long as their estimated size
+ * fits into three quarters of the memory budget. Afterwards the least recently used indirect and
+ * record pages are serialized and compressed, and kept in memory as long as they fit into the
+ * remaining quarter of the budget. Only then the pages are spilled to the
+ * {@link PersistentFileCache}.
+ * </p>
+ *
+ * <p>
+ * Evicted pages are stored in slots, which are reused once the pages are read back. While the log
+ * is committed, no pages are evicted, as the pages, which are written, are still modified.
+ * </p>
+ *
  * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
  *
  */
 public final class TransactionIntentLog implements AutoCloseable {
   /**
-   * Capacity of the cache. Number of stored pages.
+   * Minimum number of deserialized pages, which are never evicted, as they might still be modified.
+   */
+  private static final int MIN_CACHE_CAPACITY = 16 << 1;
+
+  /**
+   * Estimated size of a page in bytes, regardless of its content.
+   */
+  private static final int PAGE_SIZE = 128;
+
+  /**
+   * Estimated size of a record in a key/value page in bytes.
    */
-  private static final int CACHE_CAPACITY = 16 << 1;
+  private static final int RECORD_SIZE = 128;
+
+  /**
+   * Estimated size of a page reference in bytes.
+   */
+  private static final int REFERENCE_SIZE = 48;
+
+  /**
+   * No slot.
+   */
+  private static final int NO_SLOT = -1;
 
   /**
    * The collection to hold the maps.
@@ -31,9 +69,84 @@ public final class TransactionIntentLog implements AutoCloseable {
   private final Map<PageReference, PageContainer> mMap;
 
   /**
-   * Maps in-memory key to persistent key and vice versa.
+   * Maps the log keys of the deserialized pages to their estimated sizes.
+   */
+  private final LongIntHashMap mEstimatedSizes;
+
+  /**
+   * Maps the log keys of evicted pages to their slots.
+   */
+  private final LongIntHashMap mEvictedSlots;
+
+  /**
+   * Serialized modified pages of the slots, or {@code null} if spilled to the second cache.
+   */
+  private byte[][] mSerializedModified;
+
+  /**
+   * Serialized complete pages of the slots, or {@code null} if the pages are no key/value pages.
+   */
+  private byte[][] mSerializedComplete;
+
+  /**
+   * Keys in the second cache of the slots.
+   */
+  private long[] mPersistentLogKeys;
+
+  /**
+   * Next slots in the list of slots with serialized pages or in the list of free slots.
+   */
+  private int[] mNextSlots;
+
+  /**
+   * Previous slots in the list of slots with serialized pages.
+   */
+  private int[] mPreviousSlots;
+
+  /**
+   * Number of allocated slots.
+   */
+  private int mSlots;
+
+  /**
+   * The first free slot or {@link #NO_SLOT}.
+   */
+  private int mFreeSlot;
+
+  /**
+   * The least recently serialized slot, which still holds serialized pages, or {@link #NO_SLOT}.
+   */
+  private int mFirstSerializedSlot;
+
+  /**
+   * The most recently serialized slot, which still holds serialized pages, or {@link #NO_SLOT}.
+   */
+  private int mLastSerializedSlot;
+
+  /**
+   * Determines if the log is committed.
+   */
+  private boolean mCommitting;
+
+  /**
+   * Maximum estimated size of the deserialized pages in bytes.
+   */
+  private final long mMaxSize;
+
+  /**
+   * Maximum size of the serialized pages in bytes.
    */
-  private final BiMap<Integer, Long> mMapToPersistentLogKey;
+  private final long mMaxSerializedSize;
+
+  /**
+   * Estimated size of the deserialized pages in bytes.
+   */
+  private long mSize;
+
+  /**
+   * Size of the serialized pages in bytes.
+   */
+  private long mSerializedSize;
 
   /**
    * The reference to the second cache.
@@ -46,39 +159,32 @@ public final class TransactionIntentLog implements AutoCloseable {
   private int mLogKey;
 
   /**
-   * Creates a new LRU cache.
+   * Creates a new transaction intent log.
    *
    * @param secondCache the reference to the second {@link Cache} where the data is stored when it
    *        gets removed from the first one.
+   * @param maxMemory the number of bytes the log may use in memory
    */
-  public TransactionIntentLog(final PersistentFileCache secondCache) {
+  public TransactionIntentLog(final PersistentFileCache secondCache,
+      final @Nonnegative long maxMemory) {
     // Assertion instead of checkNotNull(...).
     assert secondCache != null;
+    checkArgument(maxMemory >= 0, "maxMemory must be >= 0!");
     mLogKey = 0;
     mSecondCache = secondCache;
-    mMapToPersistentLogKey = HashBiMap.create();
-    mMap = new LinkedHashMap<>(CACHE_CAPACITY) {
-      private static final long serialVersionUID = 1;
-
-      @Override
-      protected boolean removeEldestEntry(
-          final @Nullable Map.Entry<PageReference, PageContainer> eldest) {
-        boolean returnVal = false;
-        if (size() > CACHE_CAPACITY) {
-          if (eldest != null) {
-            final PageReference key = eldest.getKey();
-            assert key.getLogKey() != Constants.NULL_ID_INT;
-            final PageContainer value = eldest.getValue();
-            if (key != null && value != null) {
-              mSecondCache.put(key, value);
-              mMapToPersistentLogKey.put(key.getLogKey(), key.getPersistentLogKey());
-            }
-          }
-          returnVal = true;
-        }
-        return returnVal;
-      }
-    };
+    mMaxSerializedSize = maxMemory >> 2;
+    mMaxSize = maxMemory - mMaxSerializedSize;
+    mMap = new LinkedHashMap<>(MIN_CACHE_CAPACITY, 0.75f, true);
+    mEstimatedSizes = new LongIntHashMap(MIN_CACHE_CAPACITY);
+    mEvictedSlots = new LongIntHashMap();
+    mSerializedModified = new byte[MIN_CACHE_CAPACITY][];
+    mSerializedComplete = new byte[MIN_CACHE_CAPACITY][];
+    mPersistentLogKeys = new long[MIN_CACHE_CAPACITY];
+    mNextSlots = new int[MIN_CACHE_CAPACITY];
+    mPreviousSlots = new int[MIN_CACHE_CAPACITY];
+    mFreeSlot = NO_SLOT;
+    mFirstSerializedSlot = NO_SLOT;
+    mLastSerializedSlot = NO_SLOT;
   }
 
   /**
@@ -91,25 +197,62 @@ public final class TransactionIntentLog implements AutoCloseable {
    */
   public PageContainer get(final PageReference key, final PageReadTrx pageRtx) {
     PageContainer value = mMap.get(key);
-    if (value == null) {
-      if (key.getLogKey() != Constants.NULL_ID_INT) {
-        final Long persistentKey = mMapToPersistentLogKey.get(key.getLogKey());
-        if (persistentKey != null)
-          key.setPersistentLogKey(persistentKey);
-      }
+    if (value != null) {
+      // The pages might have been modified since they have been added.
+      updateEstimatedSize(key.getLogKey(), value);
+      return value;
+    }
+
+    final int slot = key.getLogKey() == Constants.NULL_ID_INT
+        ? LongIntHashMap.NO_VALUE
+        : mEvictedSlots.get(key.getLogKey());
+    if (slot == LongIntHashMap.NO_VALUE) {
+      return mSecondCache.get(key, pageRtx);
+    }
+
+    final byte[] modified = mSerializedModified[slot];
+    if (modified == null) {
+      key.setPersistentLogKey(mPersistentLogKeys[slot]);
       value = mSecondCache.get(key, pageRtx);
-      if (value != null && !PageContainer.emptyInstance().equals(value)) {
-        key.setPersistentLogKey(Constants.NULL_ID_LONG);
-        put(key, value);
-      }
+      key.setPersistentLogKey(Constants.NULL_ID_LONG);
+    } else {
+      final byte[] complete = mSerializedComplete[slot];
+      final Page modifiedPage = mSecondCache.deserialize(modified, pageRtx);
+      final Page completePage = complete == null || complete == modified
+          ? modifiedPage
+          : mSecondCache.deserialize(complete, pageRtx);
+      value = PageContainer.getInstance(completePage, modifiedPage);
+    }
+
+    // Pages, which are committed, are written once, thus they are not added again.
+    if (mCommitting) {
+      return value;
     }
+
+    if (modified != null) {
+      mSerializedSize -= size(modified, mSerializedComplete[slot]);
+      unlink(slot);
+    }
+    freeSlot(slot);
+
+    // Keep the log key, as copies of the reference (in serialized parent pages) might exist.
+    mEvictedSlots.remove(key.getLogKey());
+    add(key, value);
     return value;
   }
 
+  /**
+   * Start to commit the log. Until the log is truncated or cleared, no pages are evicted, such that
+   * the pages, which are written, are not serialized while they are modified.
+   */
+  public void beginCommit() {
+    mCommitting = true;
+  }
+
   /**
    *
-   * Adds an entry to this cache. If the cache is full, the LRU (least recently used) entry is
-   * dropped.
+   * Adds an entry to this cache. If the estimated size of the pages exceeds the memory budget, the
+   * LRU (least recently used) entries are serialized, or spilled to the second cache.
    *
    * @param key the key with which the specified value is to be associated
    * @param value a value to be associated with the specified key
@@ -117,7 +260,148 @@ public final class TransactionIntentLog implements AutoCloseable {
   public void put(final PageReference key, final PageContainer value) {
     key.setKey(Constants.NULL_ID_LONG);
     key.setLogKey(mLogKey++);
+    add(key, value);
+  }
+
+  private void add(final PageReference key, final PageContainer value) {
     mMap.put(key, value);
+    updateEstimatedSize(key.getLogKey(), value);
+
+    if (mCommitting) {
+      return;
+    }
+
+    final Iterator<Map.Entry<PageReference, PageContainer>> it = mMap.entrySet().iterator();
+    while (mSize > mMaxSize && mMap.size() > MIN_CACHE_CAPACITY && it.hasNext()) {
+      final Map.Entry<PageReference, PageContainer> eldest = it.next();
+      final Page page = eldest.getValue().getModified();
+      // Other pages are referenced directly by the transaction, thus they must not be evicted.
+      if (page instanceof KeyValuePage || page instanceof IndirectPage) {
+        it.remove();
+        evict(eldest.getKey(), eldest.getValue());
+      }
+    }
+  }
+
+  private void evict(final PageReference key, final PageContainer value) {
+    assert key.getLogKey() != Constants.NULL_ID_INT;
+    mSize -= mEstimatedSizes.remove(key.getLogKey());
+
+    final Page modifiedPage = value.getModified();
+    final Page completePage = value.getComplete();
+    final byte[] modified = mSecondCache.serialize(modifiedPage);
+    // The second cache always stores both pages of key/value pages.
+    final byte[] complete;
+    if (modifiedPage instanceof KeyValuePage) {
+      complete = completePage == modifiedPage
+          ? modified
+          : mSecondCache.serialize(completePage);
+    } else {
+      complete = null;
+    }
+    final int slot = allocateSlot();
+    mSerializedModified[slot] = modified;
+    mSerializedComplete[slot] = complete;
+    mPersistentLogKeys[slot] = Constants.NULL_ID_LONG;
+    mSerializedSize += size(modified, complete);
+    linkLast(slot);
+    mEvictedSlots.put(key.getLogKey(), slot);
+
+    // Spill the least recently serialized pages.
+    while (mSerializedSize > mMaxSerializedSize) {
+      final int spilledSlot = mFirstSerializedSlot;
+      unlink(spilledSlot);
+      final byte[] spilledModified = mSerializedModified[spilledSlot];
+      final byte[] spilledComplete = mSerializedComplete[spilledSlot];
+      final PageReference reference = new PageReference();
+      mSecondCache.put(reference, spilledModified, spilledComplete);
+      mPersistentLogKeys[spilledSlot] = reference.getPersistentLogKey();
+      mSerializedSize -= size(spilledModified, spilledComplete);
+      mSerializedModified[spilledSlot] = null;
+      mSerializedComplete[spilledSlot] = null;
+    }
+  }
+
+  private int allocateSlot() {
+    if (mFreeSlot != NO_SLOT) {
+      final int slot = mFreeSlot;
+      mFreeSlot = mNextSlots[slot];
+      return slot;
+    }
+
+    if (mSlots == mPersistentLogKeys.length) {
+      final int capacity = mSlots << 1;
+      mSerializedModified = Arrays.copyOf(mSerializedModified, capacity);
+      mSerializedComplete = Arrays.copyOf(mSerializedComplete, capacity);
+      mPersistentLogKeys = Arrays.copyOf(mPersistentLogKeys, capacity);
+      mNextSlots = Arrays.copyOf(mNextSlots, capacity);
+      mPreviousSlots = Arrays.copyOf(mPreviousSlots, capacity);
+    }
+    return mSlots++;
+  }
+
+  private void freeSlot(final int slot) {
+    mSerializedModified[slot] = null;
+    mSerializedComplete[slot] = null;
+    mNextSlots[slot] = mFreeSlot;
+    mFreeSlot = slot;
+  }
+
+  private void linkLast(final int slot) {
+    mPreviousSlots[slot] = mLastSerializedSlot;
+    mNextSlots[slot] = NO_SLOT;
+    if (mLastSerializedSlot == NO_SLOT) {
+      mFirstSerializedSlot = slot;
+    } else {
+      mNextSlots[mLastSerializedSlot] = slot;
+    }
+    mLastSerializedSlot = slot;
+  }
+
+  private void unlink(final int slot) {
+    final int previous = mPreviousSlots[slot];
+    final int next = mNextSlots[slot];
+    if (previous == NO_SLOT) {
+      mFirstSerializedSlot = next;
+    } else {
+      mNextSlots[previous] = next;
+    }
+    if (next == NO_SLOT) {
+      mLastSerializedSlot = previous;
+    } else {
+      mPreviousSlots[next] = previous;
+    }
+  }
+
+  private void updateEstimatedSize(final int logKey, final PageContainer value) {
+    final int size = estimateSize(value);
+    final int oldSize = mEstimatedSizes.put(logKey, size);
+    mSize += oldSize == LongIntHashMap.NO_VALUE
+        ? size
+        : size - oldSize;
+  }
+
+  private static int estimateSize(final PageContainer value) {
+    final Page modified = value.getModified();
+    final Page complete = value.getComplete();
+    return complete == modified || complete == null
+        ? estimateSize(modified)
+        : estimateSize(modified) + estimateSize(complete);
+  }
+
+  private static int estimateSize(final Page page) {
+    if (page instanceof KeyValuePage) {
+      return PAGE_SIZE + ((KeyValuePage<?, ?>) page).size() * RECORD_SIZE;
+    }
+    return page == null
+        ? 0
+        : PAGE_SIZE + page.getReferences().size() * REFERENCE_SIZE;
+  }
+
+  private static int size(final byte[] modified, final byte[] complete) {
+    return complete == null || complete == modified
+        ? modified.length
+        : modified.length + complete.length;
   }
 
   /**
@@ -126,6 +410,30 @@ public final class TransactionIntentLog implements AutoCloseable {
   public void clear() {
     mLogKey = 0;
     mMap.clear();
+    clearSizes();
+  }
+
+  private void clearSizes() {
+    mEstimatedSizes.clear();
+    mEvictedSlots.clear();
+    Arrays.fill(mSerializedModified, 0, mSlots, null);
+    Arrays.fill(mSerializedComplete, 0, mSlots, null);
+    mSlots = 0;
+    mFreeSlot = NO_SLOT;
+    mFirstSerializedSlot = NO_SLOT;
+    mLastSerializedSlot = NO_SLOT;
+    mSize = 0;
+    mSerializedSize = 0;
+    mCommitting = false;
+  }
+
+  /**
+   * Returns the number of slots, which have been allocated for evicted pages.
+   *
+   * @return the number of allocated slots
+   */
+  int allocatedSlots() {
+    return mSlots;
   }
 
   /**
@@ -150,6 +458,8 @@ public final class TransactionIntentLog implements AutoCloseable {
   public String toString() {
     return MoreObjects.toStringHelper(this)
                       .add("First Cache", mMap)
+                      .add("Estimated Size", mSize)
+                      .add("Serialized Size", mSerializedSize)
                       .add("Second Cache", mSecondCache)
                       .toString();
   }
@@ -165,19 +475,20 @@ public final class TransactionIntentLog implements AutoCloseable {
 
   /**
    * Truncate the log.
-   * 
+   *
    * @return this log instance
    */
   public TransactionIntentLog truncate() {
     mSecondCache.close();
-    mMapToPersistentLogKey.clear();
     mMap.clear();
+    clearSizes();
     return this;
   }
 
   @Override
   public void close() {
     mMap.clear();
+    clearSizes();
     mSecondCache.close();
   }
 }
@@ -21,13 +21,17 @@
 package org.sirix.diff.algorithm.fmse;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 import javax.xml.namespace.QName;
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.Utils;
@@ -49,6 +53,7 @@ import org.sirix.exception.SirixUsageException;
 import org.sirix.node.Kind;
 import org.sirix.node.TextNode;
 import org.sirix.node.interfaces.Node;
+import org.sirix.settings.Fixed;
 import org.sirix.utils.LogWrapper;
 import org.sirix.utils.Pair;
 import org.slf4j.LoggerFactory;
@@ -144,6 +149,18 @@ public final class FMSE implements ImportDiff, AutoCloseable {
    */
   private Map<Long, Long> mDescendantsNewRev;
 
+  /** Values of the nodes on old revision. */
+  private Map<Long, NodeValues> mValuesOldRev;
+
+  /** Values of the nodes on new revision. */
+  private Map<Long, NodeValues> mValuesNewRev;
+
+  /** Hashes of the content of the subtrees on old revision. */
+  private Map<Long, Long> mHashesOldRev;
+
+  /** Hashes of the content of the subtrees on new revision. */
+  private Map<Long, Long> mHashesNewRev;
+
   /** {@link Visitor} implementation on old revision. */
   private Visitor mOldRevVisitor;
 
@@ -179,14 +196,22 @@ public final class FMSE implements ImportDiff, AutoCloseable {
     mInOrderOldRev = new HashMap<>();
     mInOrderNewRev = new HashMap<>();
     mAlreadyInserted = new HashMap<>();
+    mValuesOldRev = new HashMap<>();
+    mValuesNewRev = new HashMap<>();
+    mHashesOldRev = new HashMap<>();
+    mHashesNewRev = new HashMap<>();
 
-    mOldRevVisitor = new FMSEVisitor(mWtx, mInOrderOldRev, mDescendantsOldRev);
-    mNewRevVisitor = new FMSEVisitor(mRtx, mInOrderNewRev, mDescendantsNewRev);
+    mOldRevVisitor = new FMSEVisitor(
+        mWtx, mInOrderOldRev, mDescendantsOldRev, mValuesOldRev, mHashesOldRev);
+    mNewRevVisitor = new FMSEVisitor(
+        mRtx, mInOrderNewRev, mDescendantsNewRev, mValuesNewRev, mHashesNewRev);
 
     mLabelOldRevVisitor = new LabelFMSEVisitor(mWtx);
     mLabelNewRevVisitor = new LabelFMSEVisitor(mRtx);
     init(mWtx, mOldRevVisitor);
     init(mRtx, mNewRevVisitor);
+    addAncestorValues(mWtx, mOldStartKey, mValuesOldRev);
+    addAncestorValues(mRtx, mNewStartKey, mValuesNewRev);
     mFastMatching = fastMatch(mWtx, mRtx);
     mTotalMatching = new Matching(mFastMatching);
     firstFMESStep(mWtx, mRtx);
@@ -332,14 +357,18 @@ public final class FMSE implements ImportDiff, AutoCloseable {
     final List<Long> first = commonChildren(w, x, wtx, rtx, ReverseMap.FALSE);
     final List<Long> second = commonChildren(x, w, rtx, wtx, ReverseMap.TRUE);
     // 3 && 4
-    final List<Pair<Long, Long>> s =
-        Util.longestCommonSubsequence(first, second, (pX, pY) -> mTotalMatching.contains(pX, pY));
+    final long[] firstKeys = toArray(first);
+    final long[] secondKeys = toArray(second);
+    final int[] s =
+        Util.longestCommonSubsequence(firstKeys, secondKeys, mTotalMatching::contains);
     // 5
     final Map<Long, Long> seen = new HashMap<>();
-    for (final Pair<Long, Long> p : s) {
-      mInOrderOldRev.put(p.getFirst(), true);
-      mInOrderNewRev.put(p.getSecond(), true);
-      seen.put(p.getFirst(), p.getSecond());
+    for (int i = 0; i < s.length; i++) {
+      if (s[i] != -1) {
+        mInOrderOldRev.put(firstKeys[i], true);
+        mInOrderNewRev.put(secondKeys[s[i]], true);
+        seen.put(firstKeys[i], secondKeys[s[i]]);
+      }
     }
     // 6
     for (final long a : first) {
@@ -893,18 +922,27 @@ public final class FMSE implements ImportDiff, AutoCloseable {
     getLabels(wtx, mLabelOldRevVisitor);
     getLabels(rtx, mLabelNewRevVisitor);
 
-    // Do the matching job on the leaf nodes.
     final Matching matching = new Matching(wtx, rtx);
     matching.reset();
-    match(
-        mLabelOldRevVisitor.getLeafLabels(), mLabelNewRevVisitor.getLeafLabels(), matching,
-        new LeafEqual());
+
+    // Match identical subtrees and leaf nodes, which are unique in both revisions, such that only
+    // the remaining nodes have to be matched with the longest common subsequences.
+    final Map<Kind, List<Long>> oldLeafLabels = mLabelOldRevVisitor.getLeafLabels();
+    final Map<Kind, List<Long>> newLeafLabels = mLabelNewRevVisitor.getLeafLabels();
+    matchIdenticalSubtrees(matching);
+    removeMatchedNodes(oldLeafLabels, newLeafLabels, matching);
+    matchUniqueLeaves(oldLeafLabels, newLeafLabels, matching);
+    removeMatchedNodes(oldLeafLabels, newLeafLabels, matching);
+
+    // Do the matching job on the leaf nodes.
+    matchLeaves(oldLeafLabels, newLeafLabels, matching);
 
     // Remove roots ('/') from labels and append them to mapping.
     final Map<Kind, List<Long>> oldLabels = mLabelOldRevVisitor.getLabels();
     final Map<Kind, List<Long>> newLabels = mLabelNewRevVisitor.getLabels();
     oldLabels.remove(Kind.DOCUMENT);
     newLabels.remove(Kind.DOCUMENT);
+    removeMatchedNodes(oldLabels, newLabels, matching);
 
     wtx.moveTo(mOldStartKey);
     rtx.moveTo(mNewStartKey);
@@ -917,6 +955,222 @@ public final class FMSE implements ImportDiff, AutoCloseable {
     return matching;
   }
 
+  /**
+   * Match the subtrees, which are identical in both revisions and whose content hashes are unique
+   * in both revisions. The descendants of matched subtrees are matched, too.
+   *
+   * @param matching {@link Matching} reference
+   */
+  private void matchIdenticalSubtrees(final Matching matching) {
+    final Map<Long, Long> oldSubtrees = uniqueSubtrees(mHashesOldRev, mValuesOldRev);
+    final Map<Long, Long> newSubtrees = uniqueSubtrees(mHashesNewRev, mValuesNewRev);
+    final List<Pair<Long, Long>> pairs = new ArrayList<>();
+    final Deque<Long> newKeys = new ArrayDeque<>();
+    newKeys.push(mNewStartKey);
+    while (!newKeys.isEmpty()) {
+      final long newKey = newKeys.pop();
+      final Long hash = mHashesNewRev.get(newKey);
+      if (hash != null && oldSubtrees.containsKey(hash)) {
+        final long oldKey = oldSubtrees.get(hash);
+        if (oldKey != Fixed.NULL_NODE_KEY.getStandardProperty()
+            && newSubtrees.get(hash) == newKey && matching.partner(oldKey) == null) {
+          pairs.clear();
+          if (identicalSubtrees(oldKey, newKey, pairs)) {
+            for (final Pair<Long, Long> pair : pairs) {
+              matching.add(pair.getFirst(), pair.getSecond());
+            }
+            continue;
+          }
+        }
+      }
+
+      mRtx.moveTo(newKey);
+      if (mRtx.hasFirstChild()) {
+        mRtx.moveToFirstChild();
+        do {
+          newKeys.push(mRtx.getNodeKey());
+        } while (mRtx.hasRightSibling() && mRtx.moveToRightSibling().hasMoved());
+      }
+    }
+  }
+
+  /**
+   * Map the content hashes of the subtrees to the keys of their root nodes.
+   *
+   * @param hashes content hashes of the subtrees
+   * @param values the values of the nodes
+   * @return the root node per hash, or {@link Fixed#NULL_NODE_KEY}, if the hash isn't unique
+   */
+  private static Map<Long, Long> uniqueSubtrees(final Map<Long, Long> hashes,
+      final Map<Long, NodeValues> values) {
+    final Map<Long, Long> subtrees = new HashMap<>(hashes.size());
+    for (final Map.Entry<Long, Long> entry : hashes.entrySet()) {
+      final Kind kind = values.get(entry.getKey()).getKind();
+      if (kind != Kind.ATTRIBUTE && kind != Kind.NAMESPACE) {
+        subtrees.merge(
+            entry.getValue(), entry.getKey(),
+            (key, otherKey) -> Fixed.NULL_NODE_KEY.getStandardProperty());
+      }
+    }
+    return subtrees;
+  }
+
+  /**
+   * Compares two subtrees in preorder.
+   *
+   * @param oldKey root of the subtree in the old revision
+   * @param newKey root of the subtree in the new revision
+   * @param pairs the pairs of the nodes, which are identical
+   * @return {@code true}, if the subtrees are identical, {@code false} otherwise
+   */
+  private boolean identicalSubtrees(final long oldKey, final long newKey,
+      final List<Pair<Long, Long>> pairs) {
+    mWtx.moveTo(oldKey);
+    mRtx.moveTo(newKey);
+    final Axis oldAxis = new DescendantAxis(mWtx, IncludeSelf.YES);
+    final Axis newAxis = new DescendantAxis(mRtx, IncludeSelf.YES);
+    while (oldAxis.hasNext()) {
+      if (!newAxis.hasNext()) {
+        return false;
+      }
+      final long oldNode = oldAxis.next();
+      final long newNode = newAxis.next();
+      if (!mValuesOldRev.get(oldNode).isEqual(mValuesNewRev.get(newNode))
+          || mWtx.getChildCount() != mRtx.getChildCount()
+          || !identicalNodes(mWtx.getAttributeKeys(), mRtx.getAttributeKeys(), pairs)
+          || !identicalNodes(mWtx.getNamespaceKeys(), mRtx.getNamespaceKeys(), pairs)) {
+        return false;
+      }
+      pairs.add(new Pair<>(oldNode, newNode));
+    }
+    return !newAxis.hasNext();
+  }
+
+  /**
+   * Compares the attributes or namespaces of two nodes.
+   *
+   * @param oldKeys keys of the nodes in the old revision
+   * @param newKeys keys of the nodes in the new revision
+   * @param pairs the pairs of the nodes, which are identical
+   * @return {@code true}, if the nodes are identical, {@code false} otherwise
+   */
+  private boolean identicalNodes(final List<Long> oldKeys, final List<Long> newKeys,
+      final List<Pair<Long, Long>> pairs) {
+    if (oldKeys.size() != newKeys.size()) {
+      return false;
+    }
+    for (int i = 0, size = oldKeys.size(); i < size; i++) {
+      if (!mValuesOldRev.get(oldKeys.get(i)).isEqual(mValuesNewRev.get(newKeys.get(i)))) {
+        return false;
+      }
+      pairs.add(new Pair<>(oldKeys.get(i), newKeys.get(i)));
+    }
+    return true;
+  }
+
+  /**
+   * Match leaf nodes, which are equal, have equal parent names and are unique with these values
+   * in both revisions.
+   *
+   * @param oldLabels unmatched leaf nodes in tree1, sorted by node type
+   * @param newLabels unmatched leaf nodes in tree2, sorted by node type
+   * @param matching {@link Matching} reference
+   */
+  private void matchUniqueLeaves(final Map<Kind, List<Long>> oldLabels,
+      final Map<Kind, List<Long>> newLabels, final Matching matching) {
+    for (final Map.Entry<Kind, List<Long>> entry : oldLabels.entrySet()) {
+      final List<Long> second = newLabels.get(entry.getKey());
+      if (second == null) {
+        continue;
+      }
+      final Map<Long, Long> oldLeaves = uniqueLeaves(entry.getValue(), mValuesOldRev);
+      final Map<Long, Long> newLeaves = uniqueLeaves(second, mValuesNewRev);
+      for (final Map.Entry<Long, Long> leaf : newLeaves.entrySet()) {
+        final Long oldKey = oldLeaves.get(leaf.getKey());
+        final long newKey = leaf.getValue();
+        if (oldKey != null && oldKey != Fixed.NULL_NODE_KEY.getStandardProperty()
+            && newKey != Fixed.NULL_NODE_KEY.getStandardProperty()) {
+          final NodeValues oldValues = mValuesOldRev.get(oldKey);
+          final NodeValues newValues = mValuesNewRev.get(newKey);
+          if (oldValues.isEqual(newValues)
+              && mValuesOldRev.get(oldValues.getParentKey())
+                              .getNodeValue()
+                              .equals(
+                                  mValuesNewRev.get(newValues.getParentKey()).getNodeValue())) {
+            matching.add(oldKey, newKey);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Map the hashes of the values of leaf nodes and of the names of their parents to the leaf
+   * nodes.
+   *
+   * @param leaves the leaf nodes
+   * @param values the values of the nodes
+   * @return the leaf node per hash, or {@link Fixed#NULL_NODE_KEY}, if the hash isn't unique
+   */
+  private static Map<Long, Long> uniqueLeaves(final List<Long> leaves,
+      final Map<Long, NodeValues> values) {
+    final Map<Long, Long> uniqueLeaves = new HashMap<>(leaves.size());
+    for (final long leaf : leaves) {
+      final NodeValues leafValues = values.get(leaf);
+      final long hash = FMSEVisitor.combine(
+          leafValues.hash(), values.get(leafValues.getParentKey()).getNodeValue().hashCode());
+      uniqueLeaves.merge(
+          hash, leaf, (key, otherKey) -> Fixed.NULL_NODE_KEY.getStandardProperty());
+    }
+    return uniqueLeaves;
+  }
+
+  /**
+   * Remove the nodes, which are already matched, from the labels.
+   *
+   * @param oldLabels nodes in tree1, sorted by node type
+   * @param newLabels nodes in tree2, sorted by node type
+   * @param matching {@link Matching} reference
+   */
+  private static void removeMatchedNodes(final Map<Kind, List<Long>> oldLabels,
+      final Map<Kind, List<Long>> newLabels, final Matching matching) {
+    for (final List<Long> first : oldLabels.values()) {
+      first.removeIf(node -> matching.partner(node) != null);
+    }
+    for (final List<Long> second : newLabels.values()) {
+      second.removeIf(node -> matching.reversePartner(node) != null);
+    }
+  }
+
+  /**
+   * Match the leaf nodes. The leaf nodes are compared by their values, such that the labels are
+   * matched in parallel.
+   *
+   * @param oldLabels leaf nodes in tree1, sorted by node type
+   * @param newLabels leaf nodes in tree2, sorted by node type
+   * @param matching {@link Matching} reference
+   */
+  private void matchLeaves(final Map<Kind, List<Long>> oldLabels,
+      final Map<Kind, List<Long>> newLabels, final Matching matching) {
+    final Set<Kind> labels = oldLabels.keySet();
+    labels.retainAll(newLabels.keySet()); // intersection
+
+    final NodeComparator cmp = new LeafEqual();
+    final List<List<Pair<Long, Long>>> matches = labels.parallelStream().map(label -> {
+      final List<Pair<Long, Long>> pairs = new ArrayList<>();
+      matchLabel(
+          toArray(oldLabels.get(label)), toArray(newLabels.get(label)), cmp,
+          (first, second) -> pairs.add(new Pair<>(first, second)));
+      return pairs;
+    }).collect(Collectors.toList());
+
+    for (final List<Pair<Long, Long>> pairs : matches) {
+      for (final Pair<Long, Long> pair : pairs) {
+        matching.add(pair.getFirst(), pair.getSecond());
+      }
+    }
+  }
+
   /**
    * Actual matching.
    *
@@ -926,75 +1180,89 @@ public final class FMSE implements ImportDiff, AutoCloseable {
    * @param cmp functional class
    */
   private static void match(final Map<Kind, List<Long>> oldLabels,
-      final Map<Kind, List<Long>> newLabels, final Matching matching, final Comparator<Long> cmp) {
+      final Map<Kind, List<Long>> newLabels, final Matching matching, final NodeComparator cmp) {
     final Set<Kind> labels = oldLabels.keySet();
     labels.retainAll(newLabels.keySet()); // intersection
 
     // 2 - for each label do
     for (final Kind label : labels) {
-      final List<Long> first = oldLabels.get(label); // 2(a)
-      final List<Long> second = newLabels.get(label); // 2(b)
-
-      // 2(c)
-      final List<Pair<Long, Long>> common = Util.longestCommonSubsequence(first, second, cmp);
-      // Used to remove the nodes in common from s1 and s2 in step 2(e).
-      final Map<Long, Boolean> seen = new HashMap<>();
-
-      // 2(d) - for each pair of nodes in the lcs: add to matching.
-      for (final Pair<Long, Long> p : common) {
-        matching.add(p.getFirst(), p.getSecond());
-        seen.put(p.getFirst(), true);
-        seen.put(p.getSecond(), true);
+      matchLabel(
+          toArray(oldLabels.get(label)), toArray(newLabels.get(label)), cmp, matching::add);
+    }
+  }
+
+  /**
+   * Match the nodes of a label.
+   *
+   * @param first nodes of the label in tree1 (2(a))
+   * @param second nodes of the label in tree2 (2(b))
+   * @param cmp functional class
+   * @param matched consumer of the matched pairs of nodes
+   */
+  private static void matchLabel(final long[] first, final long[] second,
+      final NodeComparator cmp, final BiConsumer<Long, Long> matched) {
+    // 2(c)
+    final int[] common = Util.longestCommonSubsequence(first, second, cmp);
+    // Used to remove the nodes in common from s2 in step 2(e).
+    final boolean[] seen = new boolean[second.length];
+
+    // 2(d) - for each pair of nodes in the lcs: add to matching.
+    for (int i = 0; i < first.length; i++) {
+      if (common[i] != -1) {
+        matched.accept(first[i], second[common[i]]);
+        seen[common[i]] = true;
       }
+    }
 
-      // 2(e) (prepare) - remove nodes in common from s1, s2.
-      removeCommonNodes(first, seen);
-      removeCommonNodes(second, seen);
-
-      // 2(e) - For each unmatched node x \in s1.
-      final Iterator<Long> firstIterator = first.iterator();
-      while (firstIterator.hasNext()) {
-        final Long firstItem = firstIterator.next();
-        boolean firstIter = true;
-        // If there is an unmatched node y \in s2.
-        final Iterator<Long> secondIterator = second.iterator();
-        while (secondIterator.hasNext()) {
-          final Long secondItem = secondIterator.next();
-          // Such that equal.
-          if (cmp.isEqual(firstItem, secondItem)) {
-            // 2(e)A
-            matching.add(firstItem, secondItem);
-
-            // 2(e)B
-            if (firstIter) {
-              firstIter = false;
-              firstIterator.remove();
-            }
-            secondIterator.remove();
-            break;
-          }
+    // 2(e) - For each unmatched node x \in s1.
+    int firstUnseen = 0;
+    for (int i = 0; i < first.length; i++) {
+      if (common[i] != -1) {
+        continue;
+      }
+      while (firstUnseen < second.length && seen[firstUnseen]) {
+        firstUnseen++;
+      }
+      // If there is an unmatched node y \in s2.
+      for (int j = firstUnseen; j < second.length; j++) {
+        // Such that equal.
+        if (!seen[j] && cmp.isEqual(first[i], second[j])) {
+          // 2(e)A
+          matched.accept(first[i], second[j]);
+
+          // 2(e)B
+          seen[j] = true;
+          break;
         }
       }
     }
   }
 
   /**
-   * Remove nodes in common.
+   * Convert a list of node keys into an array.
    *
-   * @param list {@link List} of {@link Node}s
-   * @param seen {@link Map} of {@link Node}s
+   * @param nodes the list of node keys
+   * @return the array of node keys
    */
-  private static void removeCommonNodes(final List<Long> list, final Map<Long, Boolean> seen) {
-    assert list != null;
-    assert seen != null;
-
-    final Iterator<Long> iterator = list.iterator();
-    while (iterator.hasNext()) {
-      final Long item = iterator.next();
-      if (seen.containsKey(item)) {
-        iterator.remove();
-      }
-    }
+  private static long[] toArray(final List<Long> nodes) {
+    return nodes.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * Add the values of the start node and its ancestors, which aren't visited by the
+   * {@link FMSEVisitor}.
+   *
+   * @param rtx {@link XdmNodeReadTrx} reference
+   * @param startKey the start key
+   * @param values the values of the nodes
+   */
+  private static void addAncestorValues(final XdmNodeReadTrx rtx, final long startKey,
+      final Map<Long, NodeValues> values) {
+    rtx.moveTo(startKey);
+    do {
+      values.putIfAbsent(rtx.getNodeKey(), new NodeValues(rtx));
+    } while (rtx.hasParent() && rtx.moveToParent().hasMoved());
+    rtx.moveTo(startKey);
   }
 
   /**
@@ -1103,59 +1371,43 @@ public final class FMSE implements ImportDiff, AutoCloseable {
   /**
    * This functional class is used to compare leaf nodes. The comparison is done by comparing the
    * (characteristic) string for two nodes. If the strings are sufficient similar, the nodes are
-   * considered to be equal.
+   * considered to be equal. The values of the nodes have been read beforehand, such that nodes are
+   * compared concurrently.
    */
-  private final class LeafEqual implements Comparator<Long> {
+  private final class LeafEqual implements NodeComparator {
 
     @Override
-    public boolean isEqual(final Long firstNode, final Long secondNode) {
-      assert firstNode != null;
-      assert secondNode != null;
-
+    public boolean isEqual(final long firstNode, final long secondNode) {
       // Old.
-      mWtx.moveTo(firstNode);
+      final NodeValues oldValues = mValuesOldRev.get(firstNode);
 
       // New.
-      mRtx.moveTo(secondNode);
+      final NodeValues newValues = mValuesNewRev.get(secondNode);
 
-      assert mWtx.getKind() == mRtx.getKind();
+      assert oldValues.getKind() == newValues.getKind();
       double ratio = 0;
 
-      if (mWtx.getKind() == Kind.ATTRIBUTE || mWtx.getKind() == Kind.NAMESPACE
-          || mWtx.getKind() == Kind.PROCESSING_INSTRUCTION) {
-        if (mWtx.getName().equals(mRtx.getName())) {
+      final Kind kind = oldValues.getKind();
+      if (kind == Kind.ATTRIBUTE || kind == Kind.NAMESPACE
+          || kind == Kind.PROCESSING_INSTRUCTION) {
+        if (oldValues.getName().equals(newValues.getName())) {
           ratio = 1;
-          if (mWtx.getKind() == Kind.ATTRIBUTE || mWtx.getKind() == Kind.PROCESSING_INSTRUCTION) {
-            ratio = calculateRatio(mWtx.getValue(), mRtx.getValue());
+          if (kind == Kind.ATTRIBUTE || kind == Kind.PROCESSING_INSTRUCTION) {
+            ratio = calculateRatio(oldValues.getValue(), newValues.getValue());
           }
 
-          // Also check QNames of the parents.
           if (ratio > FMESF) {
-            mWtx.moveToParent();
-            mRtx.moveToParent();
-            // final QName oldQName = mWtx.getQNameOfCurrentNode();
-            // final QName newQName = mRtx.getQNameOfCurrentNode();
-            // if (oldQName.equals(newQName) &&
-            // oldQName.getPrefix().equals(newQName.getPrefix())) {
-            // ratio = checkAncestors(mWtx.getItem().getKey(),
-            // mRtx.getItem().getKey()) ? 1 : 0;
-            // } else {
-            ratio = calculateRatio(getNodeValue(firstNode, mWtx), getNodeValue(secondNode, mRtx));
-            // if (ratio > FMESF) {
-            // ratio = checkAncestors(mWtx.getItem().getKey(),
-            // mRtx.getItem().getKey()) ? 1 : 0;
-            // }
-            // }
+            ratio = calculateRatio(oldValues.getNodeValue(), newValues.getNodeValue());
           }
         }
       } else {
-        if (nodeValuesEqual(firstNode, secondNode, mWtx, mRtx)) {
+        if (oldValues.getNodeValue().equals(newValues.getNodeValue())) {
           ratio = 1;
         } else {
-          ratio = calculateRatio(getNodeValue(firstNode, mWtx), getNodeValue(secondNode, mRtx));
+          ratio = calculateRatio(oldValues.getNodeValue(), newValues.getNodeValue());
         }
 
-        if (ratio <= FMESF && checkAncestors(mWtx.getNodeKey(), mRtx.getNodeKey())) {
+        if (ratio <= FMESF && checkAncestors(firstNode, secondNode)) {
           ratio = 1;
         }
       }
@@ -1170,7 +1422,7 @@ public final class FMSE implements ImportDiff, AutoCloseable {
    * common children (i.e. children contained in the matching) in relation to the total number of
    * children.
    */
-  private final class InnerNodeEqual implements Comparator<Long> {
+  private final class InnerNodeEqual implements NodeComparator {
 
     /** {@link Matching} reference. */
     private final Matching mMatching;
@@ -1188,10 +1440,7 @@ public final class FMSE implements ImportDiff, AutoCloseable {
     }
 
     @Override
-    public boolean isEqual(final Long firstNode, final Long secondNode) {
-      assert firstNode != null;
-      assert secondNode != null;
-
+    public boolean isEqual(final long firstNode, final long secondNode) {
       mWtx.moveTo(firstNode);
       mRtx.moveTo(secondNode);
 
@@ -1261,20 +1510,22 @@ public final class FMSE implements ImportDiff, AutoCloseable {
   private boolean checkAncestors(final long oldKey, final long newKey) {
     assert oldKey >= 0;
     assert newKey >= 0;
-    mWtx.moveTo(oldKey);
-    mRtx.moveTo(newKey);
+    NodeValues oldValues = mValuesOldRev.get(oldKey);
+    NodeValues newValues = mValuesNewRev.get(newKey);
     boolean retVal = true;
-    if (mWtx.hasParent() && mRtx.hasParent()) {
+    if (oldValues.hasParent() && newValues.hasParent()) {
+      long oldAncestor;
+      long newAncestor;
       do {
-        mWtx.moveToParent();
-        mRtx.moveToParent();
-      } while (mWtx.getNodeKey() != mOldStartKey && mRtx.getNodeKey() != mNewStartKey
-          && mWtx.hasParent() && mRtx.hasParent()
-          && calculateRatio(
-              getNodeValue(mWtx.getNodeKey(), mWtx),
-              getNodeValue(mRtx.getNodeKey(), mRtx)) >= 0.7f);
-      if ((mWtx.hasParent() && mWtx.getNodeKey() != mOldStartKey)
-          || (mRtx.hasParent() && mRtx.getNodeKey() != mNewStartKey)) {
+        oldAncestor = oldValues.getParentKey();
+        newAncestor = newValues.getParentKey();
+        oldValues = mValuesOldRev.get(oldAncestor);
+        newValues = mValuesNewRev.get(newAncestor);
+      } while (oldAncestor != mOldStartKey && newAncestor != mNewStartKey
+          && oldValues.hasParent() && newValues.hasParent()
+          && calculateRatio(oldValues.getNodeValue(), newValues.getNodeValue()) >= 0.7f);
+      if ((oldValues.hasParent() && oldAncestor != mOldStartKey)
+          || (newValues.hasParent() && newAncestor != mNewStartKey)) {
         retVal = false;
       } else {
         retVal = true;
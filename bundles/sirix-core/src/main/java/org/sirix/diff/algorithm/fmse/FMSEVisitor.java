@@ -51,20 +51,42 @@ public final class FMSEVisitor extends AbstractVisitor {
   /** Descendant count per node. */
   private final Map<Long, Long> mDescendants;
 
+  /** Values per node. */
+  private final Map<Long, NodeValues> mValues;
+
+  /** Hash of the content of the subtree per node, which doesn't depend on the node keys. */
+  private final Map<Long, Long> mHashes;
+
   /**
    * Constructor.
    * 
    * @param pSession {@link ResourceManager} implementation
    * @param inOrder {@link Map} reference to track ordered nodes
    * @param descendants {@link Map} reference to track descendants per node
+   * @param values {@link Map} reference to track the values per node
+   * @param hashes {@link Map} reference to track the hashes of the subtrees per node
    * @throws SirixException if setting up sirix fails
    * @throws NullPointerException if one of the arguments is {@code null}
    */
-  public FMSEVisitor(final XdmNodeReadTrx readTransaction, final Map<Long, Boolean> inOrder,
-      final Map<Long, Long> descendants) throws SirixException {
+  FMSEVisitor(final XdmNodeReadTrx readTransaction, final Map<Long, Boolean> inOrder,
+      final Map<Long, Long> descendants, final Map<Long, NodeValues> values,
+      final Map<Long, Long> hashes) throws SirixException {
     mRtx = checkNotNull(readTransaction);
     mInOrder = checkNotNull(inOrder);
     mDescendants = checkNotNull(descendants);
+    mValues = checkNotNull(values);
+    mHashes = checkNotNull(hashes);
+  }
+
+  /**
+   * Combine a hash with a value.
+   *
+   * @param hash the hash
+   * @param value the value
+   * @return the combined hash
+   */
+  static long combine(final long hash, final long value) {
+    return (hash ^ value) * 0x100000001B3L + (hash >>> 29);
   }
 
   @Override
@@ -91,6 +113,20 @@ public final class FMSEVisitor extends AbstractVisitor {
   private void fillStructuralDataStructures() {
     mInOrder.put(mRtx.getNodeKey(), true);
     mDescendants.put(mRtx.getNodeKey(), 1L);
+    putValues();
+  }
+
+  /**
+   * Put the values and the hash of a node, which has no descendants.
+   *
+   * @return the hash of the node
+   */
+  private long putValues() {
+    final NodeValues values = new NodeValues(mRtx);
+    final long hash = values.hash();
+    mValues.put(mRtx.getNodeKey(), values);
+    mHashes.put(mRtx.getNodeKey(), hash);
+    return hash;
   }
 
   /**
@@ -99,11 +135,19 @@ public final class FMSEVisitor extends AbstractVisitor {
   private void countDescendants() {
     long descendants = 0;
     final long nodeKey = mRtx.getNodeKey();
+    long hash = putValues();
+    for (final long namespaceKey : mRtx.getNamespaceKeys()) {
+      hash = combine(hash, mHashes.get(namespaceKey));
+    }
+    for (final long attributeKey : mRtx.getAttributeKeys()) {
+      hash = combine(hash, mHashes.get(attributeKey));
+    }
     descendants += mRtx.getNamespaceCount();
     descendants += mRtx.getAttributeCount();
     if (mRtx.hasFirstChild()) {
       mRtx.moveToFirstChild();
       do {
+        hash = combine(hash, mHashes.get(mRtx.getNodeKey()));
         descendants += mDescendants.get(mRtx.getNodeKey());
         if (mRtx.getKind() == Kind.ELEMENT) {
           descendants += 1;
@@ -113,6 +157,7 @@ public final class FMSEVisitor extends AbstractVisitor {
     mRtx.moveTo(nodeKey);
     mInOrder.put(mRtx.getNodeKey(), false);
     mDescendants.put(mRtx.getNodeKey(), descendants);
+    mHashes.put(mRtx.getNodeKey(), hash);
   }
 
   @Override
@@ -141,6 +186,7 @@ public final class FMSEVisitor extends AbstractVisitor {
     mRtx.moveTo(nodeKey);
     mInOrder.put(mRtx.getNodeKey(), false);
     mDescendants.put(mRtx.getNodeKey(), 1L);
+    putValues();
     return VisitResultType.CONTINUE;
   }
 }
@@ -31,8 +31,6 @@ package org.sirix.diff.algorithm.fmse;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import javax.annotation.Nonnull;
-import org.sirix.diff.algorithm.fmse.utils.SubCost01;
-import org.sirix.diff.algorithm.fmse.utils.SubstitutionCost;
 
 /**
  * Implements the levenstein distance function.
@@ -54,10 +52,8 @@ public final class Levenshtein {
   /** A constant for calculating the estimated timing cost. */
   private static final float ESTIMATEDTIMINGCONST = 1.8e-4f;
 
-  /**
-   * The private cost function used in the levenstein distance.
-   */
-  private static final SubstitutionCost COSTFUNC = new SubCost01();
+  /** Number of characters, which are looked up in a table of match vectors. */
+  private static final int ASCII = 128;
 
   /**
    * Get the description.
@@ -158,64 +154,120 @@ public final class Levenshtein {
    * d(i,j) is a function whereby d(c,d)=0 if c=d, 1 else.
    * </pre>
    *
+   * The columns of the matrix are computed with the bit-parallel algorithm of G. Myers, "A fast
+   * bit-vector algorithm for approximate string matching based on dynamic programming", J. ACM
+   * 46(3), 1999, in the formulation of H. Hyyr&ouml;, which encodes the vertical differences of a
+   * column in two bit-vectors. If both strings are longer than 64 characters, the matrix is
+   * computed row by row instead.
+   *
    * @param s first string
    * @param t second string to compare
    * @return the levenstein distance between given strings
    */
-  private static float getUnNormalisedSimilarity(final String s, final String t) {
+  static float getUnNormalisedSimilarity(final String s, final String t) {
     assert s != null;
     assert t != null;
-    final float[][] d; // matrix
-    final int n; // length of s
-    final int m; // length of t
-    int i; // iterates through s
-    int j; // iterates through t
-    float cost; // cost
-
-    // Step 1
-    n = s.length();
-    m = t.length();
+    final int n = s.length();
+    final int m = t.length();
     if (n == 0) {
       return m;
     }
     if (m == 0) {
       return n;
     }
-    d = new float[n + 1][m + 1];
-
-    // Step 2
-    for (i = 0; i <= n; i++) {
-      d[i][0] = i;
+    if (n > Long.SIZE) {
+      return m > Long.SIZE
+          ? getRowwiseDistance(s, t)
+          : getUnNormalisedSimilarity(t, s);
     }
-    for (j = 0; j <= m; j++) {
-      d[0][j] = j;
+
+    // Match vectors of the characters of the first string.
+    final long[] asciiMatches = new long[ASCII];
+    final char[] chars = new char[n];
+    final long[] matches = new long[n];
+    int otherChars = 0;
+    for (int i = 0; i < n; i++) {
+      final char c = s.charAt(i);
+      if (c < ASCII) {
+        asciiMatches[c] |= 1L << i;
+      } else {
+        int j = 0;
+        while (j < otherChars && chars[j] != c) {
+          j++;
+        }
+        if (j == otherChars) {
+          chars[otherChars++] = c;
+        }
+        matches[j] |= 1L << i;
+      }
     }
 
-    // Step 3
-    for (i = 1; i <= n; i++) {
-      // Step 4
-      for (j = 1; j <= m; j++) {
-        // Step 5
-        cost = COSTFUNC.getCost(s, i - 1, t, j - 1);
+    final long last = 1L << (n - 1);
+    long positive = -1L;
+    long negative = 0L;
+    int distance = n;
+    for (int j = 0; j < m; j++) {
+      final char c = t.charAt(j);
+      long eq = 0L;
+      if (c < ASCII) {
+        eq = asciiMatches[c];
+      } else {
+        for (int i = 0; i < otherChars; i++) {
+          if (chars[i] == c) {
+            eq = matches[i];
+            break;
+          }
+        }
+      }
 
-        // Step 6
-        d[i][j] = min3(d[i - 1][j] + 1, d[i][j - 1] + 1, d[i - 1][j - 1] + cost);
+      final long vertical = eq | negative;
+      final long horizontal = (((eq & positive) + positive) ^ positive) | eq;
+      long horizontalPositive = negative | ~(horizontal | positive);
+      long horizontalNegative = positive & horizontal;
+      if ((horizontalPositive & last) != 0) {
+        distance++;
+      } else if ((horizontalNegative & last) != 0) {
+        distance--;
       }
+
+      // The distances in the first row increase by one.
+      horizontalPositive = (horizontalPositive << 1) | 1L;
+      horizontalNegative = horizontalNegative << 1;
+      positive = horizontalNegative | ~(vertical | horizontalPositive);
+      negative = horizontalPositive & vertical;
     }
 
-    // Step 7
-    return d[n][m];
+    return distance;
   }
 
   /**
-   * Get the minimum of three numbers.
+   * Computes the levenstein distance row by row, keeping only the previous row.
    *
-   * @param x first number
-   * @param y second number
-   * @param z third number
-   * @return the {@code minimum} of the three specified numbers
+   * @param s first string
+   * @param t second string to compare
+   * @return the levenstein distance between given strings
    */
-  private static float min3(final float x, final float y, final float z) {
-    return Math.min(x, Math.min(y, z));
+  private static int getRowwiseDistance(final String s, final String t) {
+    final int m = t.length();
+    int[] previous = new int[m + 1];
+    int[] current = new int[m + 1];
+    for (int j = 0; j <= m; j++) {
+      previous[j] = j;
+    }
+    for (int i = 1, n = s.length(); i <= n; i++) {
+      current[0] = i;
+      final char c = s.charAt(i - 1);
+      for (int j = 1; j <= m; j++) {
+        final int cost = c == t.charAt(j - 1)
+            ? 0
+            : 1;
+        current[j] =
+            Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+      }
+      final int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[m];
   }
 }
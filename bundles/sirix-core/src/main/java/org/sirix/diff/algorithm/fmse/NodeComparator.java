@@ -0,0 +1,20 @@
+package org.sirix.diff.algorithm.fmse;
+
+/**
+ * Compares two nodes by their node keys for the LCS algorithm in the {@link Util} class, without
+ * boxing the keys.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+@FunctionalInterface
+public interface NodeComparator {
+  /**
+   * Compares two nodes.
+   *
+   * @param firstNode key of the first node
+   * @param secondNode key of the second node
+   * @return true iff the nodes are equal
+   */
+  boolean isEqual(long firstNode, long secondNode);
+}
@@ -0,0 +1,142 @@
+package org.sirix.diff.algorithm.fmse;
+
+import java.util.Objects;
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.access.Utils;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.node.Kind;
+
+/**
+ * The values of a node, which are read once, such that nodes can be compared without moving a
+ * transaction.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+final class NodeValues {
+
+  /** Kind of the node. */
+  private final Kind mKind;
+
+  /** Name of the node or {@code null}, if the node has no name. */
+  private final QNm mName;
+
+  /** Value of the node. */
+  private final String mValue;
+
+  /** Name or value, which characterizes the node. */
+  private final String mNodeValue;
+
+  /** Key of the parent node. */
+  private final long mParentKey;
+
+  /** Whether the node has a parent. */
+  private final boolean mHasParent;
+
+  /**
+   * Constructor.
+   *
+   * @param rtx transaction, which is located at the node
+   */
+  NodeValues(final XdmNodeReadTrx rtx) {
+    mKind = rtx.getKind();
+    mName = rtx.getName();
+    mValue = rtx.getValue();
+    mParentKey = rtx.getParentKey();
+    mHasParent = rtx.hasParent();
+
+    switch (mKind) {
+      case ELEMENT:
+      case NAMESPACE:
+      case ATTRIBUTE:
+        mNodeValue = Utils.buildName(mName);
+        break;
+      case TEXT:
+      case COMMENT:
+        mNodeValue = mValue;
+        break;
+      case PROCESSING_INSTRUCTION:
+        mNodeValue = mName.getLocalName() + " " + mValue;
+        break;
+      // $CASES-OMITTED$
+      default:
+        mNodeValue = "";
+    }
+  }
+
+  /**
+   * Get the kind of the node.
+   *
+   * @return the kind
+   */
+  Kind getKind() {
+    return mKind;
+  }
+
+  /**
+   * Get the name of the node.
+   *
+   * @return the name or {@code null}, if the node has no name
+   */
+  QNm getName() {
+    return mName;
+  }
+
+  /**
+   * Get the value of the node.
+   *
+   * @return the value
+   */
+  String getValue() {
+    return mValue;
+  }
+
+  /**
+   * Get the string representation of the name or the value of the node, which is compared to
+   * match nodes.
+   *
+   * @return the node value
+   */
+  String getNodeValue() {
+    return mNodeValue;
+  }
+
+  /**
+   * Get the key of the parent node.
+   *
+   * @return the parent key
+   */
+  long getParentKey() {
+    return mParentKey;
+  }
+
+  /**
+   * Determines if the node has a parent.
+   *
+   * @return {@code true}, if the node has a parent, {@code false} otherwise
+   */
+  boolean hasParent() {
+    return mHasParent;
+  }
+
+  /**
+   * Determines if the values of two nodes are equal.
+   *
+   * @param other the values of the other node
+   * @return {@code true}, if kind, name and value of both nodes are equal, {@code false} otherwise
+   */
+  boolean isEqual(final NodeValues other) {
+    return mKind == other.mKind && Objects.equals(mName, other.mName)
+        && mNodeValue.equals(other.mNodeValue) && mValue.equals(other.mValue);
+  }
+
+  /**
+   * Get a hash of kind, name and value of the node.
+   *
+   * @return the hash
+   */
+  long hash() {
+    long hash = FMSEVisitor.combine(mKind.ordinal(), mNodeValue.hashCode());
+    return FMSEVisitor.combine(hash, mValue.hashCode());
+  }
+}
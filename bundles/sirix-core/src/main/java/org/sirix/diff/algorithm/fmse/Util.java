@@ -22,6 +22,7 @@ package org.sirix.diff.algorithm.fmse;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.annotation.Nonnull;
 import org.sirix.utils.Pair;
@@ -98,6 +99,148 @@ public final class Util {
     throw new IllegalStateException("We should never get to this point!");
   }
 
+  /**
+   * Longest common subsequence of two arrays of node keys. cf. E. Myers. An O(ND) difference
+   * algorithm and its variations. Algorithmica, 1(2): 251-266, 1986. The linear space refinement
+   * is used, which recursively divides the arrays at the middle snake of an optimal edit script,
+   * such that no common subsequences are copied.
+   *
+   * @param first first array
+   * @param second second array
+   * @param cmp function to compare the items in both arrays (equality)
+   * @return for each item of the first array the index of the equal item of the second array in
+   *         the lcs, or {@code -1}, if the item isn't part of the lcs
+   */
+  public static int[] longestCommonSubsequence(final long[] first, final long[] second,
+      final NodeComparator cmp) {
+    checkNotNull(first);
+    checkNotNull(second);
+    checkNotNull(cmp);
+    final int[] matches = new int[first.length];
+    Arrays.fill(matches, -1);
+    longestCommonSubsequence(first, 0, first.length, second, 0, second.length, cmp, matches);
+    return matches;
+  }
+
+  /**
+   * Longest common subsequence of the ranges {@code [firstStart, firstEnd)} and
+   * {@code [secondStart, secondEnd)}.
+   *
+   * @param first first array
+   * @param firstStart start index in the first array
+   * @param firstEnd end index (exclusive) in the first array
+   * @param second second array
+   * @param secondStart start index in the second array
+   * @param secondEnd end index (exclusive) in the second array
+   * @param cmp function to compare the items in both arrays (equality)
+   * @param matches the matched indexes of the second array per index of the first array
+   */
+  private static void longestCommonSubsequence(final long[] first, int firstStart, int firstEnd,
+      final long[] second, int secondStart, int secondEnd, final NodeComparator cmp,
+      final int[] matches) {
+    // Common prefix and suffix.
+    while (firstStart < firstEnd && secondStart < secondEnd
+        && cmp.isEqual(first[firstStart], second[secondStart])) {
+      matches[firstStart++] = secondStart++;
+    }
+    while (firstStart < firstEnd && secondStart < secondEnd
+        && cmp.isEqual(first[firstEnd - 1], second[secondEnd - 1])) {
+      matches[--firstEnd] = --secondEnd;
+    }
+
+    final int n = firstEnd - firstStart;
+    final int m = secondEnd - secondStart;
+    if (n == 0 || m == 0) {
+      return;
+    }
+
+    // Find the middle snake by extending the furthest reaching paths in the forward and in the
+    // reverse direction until they overlap.
+    final int max = (n + m + 1) / 2;
+    final int offset = max + 1;
+    final int[] forward = new int[2 * offset + 1];
+    final int[] reverse = new int[2 * offset + 1];
+    Arrays.fill(forward, -1);
+    Arrays.fill(reverse, -1);
+    forward[offset + 1] = 0;
+    reverse[offset + 1] = 0;
+    final int delta = n - m;
+    final boolean odd = (delta & 1) != 0;
+    int forwardStart = 0;
+    int forwardEnd = 0;
+    int reverseStart = 0;
+    int reverseEnd = 0;
+    for (int d = 0; d < max; d++) {
+      for (int k = -d + forwardStart; k <= d - forwardEnd; k += 2) {
+        int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])
+            ? forward[offset + k + 1]
+            : forward[offset + k - 1] + 1;
+        int y = x - k;
+        while (x < n && y < m
+            && cmp.isEqual(first[firstStart + x], second[secondStart + y])) {
+          x++;
+          y++;
+        }
+        forward[offset + k] = x;
+        if (x > n) {
+          forwardEnd += 2;
+        } else if (y > m) {
+          forwardStart += 2;
+        } else if (odd) {
+          final int reverseIndex = offset + delta - k;
+          if (reverseIndex >= 0 && reverseIndex < reverse.length && reverse[reverseIndex] != -1
+              && x >= n - reverse[reverseIndex]) {
+            split(first, firstStart, firstEnd, second, secondStart, secondEnd, x, y, cmp, matches);
+            return;
+          }
+        }
+      }
+
+      for (int k = -d + reverseStart; k <= d - reverseEnd; k += 2) {
+        int x = k == -d || (k != d && reverse[offset + k - 1] < reverse[offset + k + 1])
+            ? reverse[offset + k + 1]
+            : reverse[offset + k - 1] + 1;
+        int y = x - k;
+        while (x < n && y < m
+            && cmp.isEqual(first[firstEnd - x - 1], second[secondEnd - y - 1])) {
+          x++;
+          y++;
+        }
+        reverse[offset + k] = x;
+        if (x > n) {
+          reverseEnd += 2;
+        } else if (y > m) {
+          reverseStart += 2;
+        } else if (!odd) {
+          final int forwardIndex = offset + delta - k;
+          if (forwardIndex >= 0 && forwardIndex < forward.length && forward[forwardIndex] != -1) {
+            final int forwardX = forward[forwardIndex];
+            final int forwardY = forwardX - (forwardIndex - offset);
+            if (forwardX >= n - x) {
+              split(first, firstStart, firstEnd, second, secondStart, secondEnd, forwardX,
+                  forwardY, cmp, matches);
+              return;
+            }
+          }
+        }
+      }
+    }
+
+    // No common items.
+  }
+
+  /**
+   * Compute the longest common subsequences of both halves, which are divided by the middle snake.
+   */
+  private static void split(final long[] first, final int firstStart, final int firstEnd,
+      final long[] second, final int secondStart, final int secondEnd, final int x, final int y,
+      final NodeComparator cmp, final int[] matches) {
+    longestCommonSubsequence(first, firstStart, firstStart + x, second, secondStart,
+        secondStart + y, cmp, matches);
+    longestCommonSubsequence(first, firstStart + x, firstEnd, second, secondStart + y, secondEnd,
+        cmp, matches);
+  }
+
   /**
    * Calculates the similarity of two strings. This is done by comparing the frequency of each
    * character occurs in both strings.
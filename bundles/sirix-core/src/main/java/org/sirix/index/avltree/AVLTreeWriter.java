@@ -148,11 +148,11 @@ public final class AVLTreeWriter<K extends Comparable<? super K>, V extends Refe
     while (true) {
       final int c = key.compareTo(node.getKey());
       if (c == 0) {
-        if (!value.equals(node.getValue())) {
-          final AVLNode<K, V> avlNode = (AVLNode<K, V>) mPageWriteTrx.prepareEntryForModification(
-              node.getNodeKey(), mAVLTreeReader.mPageKind, mAVLTreeReader.mIndex);
-          avlNode.setValue(value);
-        }
+        // Always store the value, as the index builders and listeners modify the stored value in
+        // place, such that comparing both values doesn't detect changes.
+        final AVLNode<K, V> avlNode = (AVLNode<K, V>) mPageWriteTrx.prepareEntryForModification(
+            node.getNodeKey(), mAVLTreeReader.mPageKind, mAVLTreeReader.mIndex);
+        avlNode.setValue(value);
         return node.getValue();
       }
 
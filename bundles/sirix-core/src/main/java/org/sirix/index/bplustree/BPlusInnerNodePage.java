@@ -3,6 +3,7 @@ package org.sirix.index.bplustree;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -145,6 +146,12 @@ public class BPlusInnerNodePage<K extends Comparable<? super K> & Record, V exte
     return mRecords.values();
   }
 
+  @Override
+  public Set<K> serializedKeySet() {
+    // All records are deserialized eagerly.
+    return Collections.emptySet();
+  }
+
   @Override
   public long getPageKey() {
     return mRecordPageKey;
@@ -7,6 +7,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.settings.Constants;
 import com.google.common.collect.HashBiMap;
 
@@ -21,15 +24,23 @@ public final class Names {
   /** Map the hash of a name to its name. */
   private final Map<Integer, byte[]> mNameMap;
 
+  /** Map the hash of a name to its decoded name. */
+  private final Map<Integer, String> mNames;
+
   /** Map which is used to count the occurences of a name mapping. */
   private final Map<Integer, Integer> mCountNameMapping;
 
+  /** Map the local name key to the last qualified name created with it. */
+  private final ConcurrentMap<Integer, QNameEntry> mQNames;
+
   /**
    * Constructor creating a new index structure.
    */
   private Names() {
     mNameMap = new HashMap<>();
+    mNames = new HashMap<>();
     mCountNameMapping = new HashMap<>();
+    mQNames = new ConcurrentHashMap<>();
   }
 
   /**
@@ -40,7 +51,9 @@ public final class Names {
   private Names(final DataInput in) throws IOException {
     final int mapSize = in.readInt();
     mNameMap = HashBiMap.create(mapSize);
+    mNames = new HashMap<>(mapSize);
     mCountNameMapping = new HashMap<>(mapSize);
+    mQNames = new ConcurrentHashMap<>();
     for (int i = 0, l = mapSize; i < l; i++) {
       final int key = in.readInt();
       final int valSize = in.readInt();
@@ -49,6 +62,7 @@ public final class Names {
         bytes[j] = in.readByte();
       }
       mNameMap.put(key, bytes);
+      mNames.put(key, new String(bytes, Constants.DEFAULT_ENCODING));
       mCountNameMapping.put(key, in.readInt());
     }
   }
@@ -81,7 +95,9 @@ public final class Names {
     if (prevValue != null) {
       if (prevValue - 1 == 0) {
         mNameMap.remove(key);
+        mNames.remove(key);
         mCountNameMapping.remove(key);
+        mQNames.clear();
       } else {
         mCountNameMapping.put(key, prevValue - 1);
       }
@@ -108,6 +124,7 @@ public final class Names {
     final Integer prevValue = mCountNameMapping.get(pKey);
     if (prevValue == null) {
       mNameMap.put(pKey, checkNotNull(getBytes(name)));
+      mNames.put(pKey, name);
       mCountNameMapping.put(pKey, 1);
     } else {
       mCountNameMapping.put(pKey, prevValue + 1);
@@ -121,11 +138,37 @@ public final class Names {
    * @return the string the key maps to, or {@code null} if no mapping exists
    */
   public String getName(final int key) {
-    final byte[] name = mNameMap.get(key);
-    if (name == null) {
-      return null;
+    return mNames.get(key);
+  }
+
+  /**
+   * Get the qualified name for the keys. The qualified names are shared, such that the names of
+   * nodes with the same keys are only created once.
+   *
+   * @param uri the namespace URI
+   * @param uriKey the key of the namespace URI
+   * @param prefixKey the key of the prefix, or {@code -1} if there is no prefix
+   * @param localNameKey the key of the local name, or {@code -1} if there is no local name
+   * @return the qualified name
+   */
+  public QNm getQName(final String uri, final int uriKey, final int prefixKey,
+      final int localNameKey) {
+    final QNameEntry entry = mQNames.get(localNameKey);
+    // The namespace URI of a key only changes if it has been removed in the meantime.
+    if (entry != null && entry.mUriKey == uriKey && entry.mUri == uri
+        && entry.mPrefixKey == prefixKey) {
+      return entry.mQName;
     }
-    return new String(name, Constants.DEFAULT_ENCODING);
+
+    final String prefix = prefixKey == -1
+        ? ""
+        : getName(prefixKey);
+    final String localName = localNameKey == -1
+        ? ""
+        : getName(localNameKey);
+    final QNm qName = new QNm(uri, prefix, localName);
+    mQNames.put(localNameKey, new QNameEntry(uriKey, uri, prefixKey, qName));
+    return qName;
   }
 
   /**
@@ -152,6 +195,38 @@ public final class Names {
     return mNameMap.get(key);
   }
 
+  /**
+   * A qualified name together with the keys it has been created with.
+   */
+  private static final class QNameEntry {
+    /** The key of the namespace URI. */
+    private final int mUriKey;
+
+    /** The namespace URI. */
+    private final String mUri;
+
+    /** The key of the prefix. */
+    private final int mPrefixKey;
+
+    /** The qualified name. */
+    private final QNm mQName;
+
+    /**
+     * Constructor.
+     *
+     * @param uriKey the key of the namespace URI
+     * @param uri the namespace URI
+     * @param prefixKey the key of the prefix
+     * @param qName the qualified name
+     */
+    QNameEntry(final int uriKey, final String uri, final int prefixKey, final QNm qName) {
+      mUriKey = uriKey;
+      mUri = uri;
+      mPrefixKey = prefixKey;
+      mQName = qName;
+    }
+  }
+
   /**
    * Get a new instance.
    *
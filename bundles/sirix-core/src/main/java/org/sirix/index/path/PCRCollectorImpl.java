@@ -25,11 +25,23 @@ public final class PCRCollectorImpl implements PCRCollector {
 
   @Override
   public PCRValue getPCRsForPaths(Set<Path<QNm>> paths) {
-    try (final PathSummaryReader reader = mRtx instanceof XdmNodeWriteTrx
-        ? ((XdmNodeWriteTrx) mRtx).getPathSummary()
-        : mRtx.getResourceManager().openPathSummary(mRtx.getRevisionNumber())) {
+    // The path summary of a write transaction is owned by the transaction and changes with it, so
+    // it must neither be closed nor be cached.
+    if (mRtx instanceof XdmNodeWriteTrx) {
+      return getPCRsForPaths(((XdmNodeWriteTrx) mRtx).getPathSummary(), paths, false);
+    }
+
+    try (final PathSummaryReader reader =
+        mRtx.getResourceManager().openPathSummary(mRtx.getRevisionNumber())) {
+      return getPCRsForPaths(reader, paths, true);
+    }
+  }
+
+  private static PCRValue getPCRsForPaths(final PathSummaryReader reader,
+      final Set<Path<QNm>> paths, final boolean useCache) {
+    try {
       final long maxPCR = reader.getMaxNodeKey();
-      final Set<Long> pathClassRecords = reader.getPCRsForPaths(paths, true);
+      final Set<Long> pathClassRecords = reader.getPCRsForPaths(paths, useCache);
       return PCRValue.getInstance(maxPCR, pathClassRecords);
     } catch (final PathException e) {
       LOGGER.error(e.getMessage(), e);
@@ -35,6 +35,11 @@ public abstract class AbstractForwardingReader extends ForwardingObject implemen
     return delegate().readRevisionRootPage(revision, pageReadTrx);
   }
 
+  @Override
+  public boolean hasRevisionRootPage(int revision) {
+    return delegate().hasRevisionRootPage(revision);
+  }
+
   @Override
   protected abstract Reader delegate();
 }
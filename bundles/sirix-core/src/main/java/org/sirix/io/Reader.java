@@ -72,4 +72,13 @@ public interface Reader extends AutoCloseable {
    * @return the revision root page
    */
   RevisionRootPage readRevisionRootPage(int revision, PageReadTrx pageReadTrx);
+
+  /**
+   * Determines if the revision root page of a revision is stored, that is if the revision hasn't
+   * been removed by a compaction.
+   *
+   * @param revision the revision
+   * @return {@code true}, if the revision root page is stored, {@code false} otherwise
+   */
+  boolean hasRevisionRootPage(int revision);
 }
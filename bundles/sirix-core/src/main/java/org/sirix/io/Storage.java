@@ -20,6 +20,7 @@
  */
 package org.sirix.io;
 
+import java.util.function.Consumer;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.bytepipe.ByteHandler;
 
@@ -64,6 +65,19 @@ public interface Storage {
    */
   boolean exists() throws SirixIOException;
 
+  /**
+   * Replace the stored data by a compacted copy, which is written through the writer passed to
+   * {@code compaction}. The copy replaces the stored data once {@code compaction} returns. Readers,
+   * which have been created before, keep reading the replaced data, whereas no new readers or
+   * writers are created by this storage afterwards, thus a new storage instance has to be used.
+   * Storages, which don't persist the data, might keep the stored data instead, in which case the
+   * storage remains usable.
+   *
+   * @param compaction writes the compacted copy
+   * @throws SirixIOException if an I/O error occurs
+   */
+  void compact(Consumer<Writer> compaction) throws SirixIOException;
+
   /**
    * Get the byte handler pipeline.
    * 
@@ -24,8 +24,13 @@ package org.sirix.io.file;
 import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.sirix.api.PageReadTrx;
@@ -38,11 +43,13 @@ import org.sirix.page.RevisionRootPage;
 import org.sirix.page.SerializationType;
 import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
 import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
 
 /**
- * File Reader. Used for {@link PageReadTrx} to provide read only access on a RandomAccessFile.
+ * File Reader. Used for {@link PageReadTrx} to provide read only access on a file. Pages are read
+ * with positional reads, thus the underlying {@link FileChannel}s are not modified and might be
+ * shared between readers of several threads.
  *
  * @author Marc Kramis, Seabix
  * @author Sebastian Graf, University of Konstanz
@@ -64,10 +71,10 @@ public final class FileReader implements Reader {
   final HashFunction mHashFunction;
 
   /** Data file. */
-  private final RandomAccessFile mDataFile;
+  private final Supplier<FileChannel> mDataFile;
 
   /** Revisions offset file. */
-  private final RandomAccessFile mRevisionsOffsetFile;
+  private final Supplier<FileChannel> mRevisionsOffsetFile;
 
   /** The type of data to serialize. */
   private final SerializationType mType;
@@ -78,15 +85,18 @@ public final class FileReader implements Reader {
   /**
    * Constructor.
    *
-   * @param dataFile the data file
-   * @param revisionsOffsetFile the file, which holds pointers to the revision root pages
+   * @param dataFile provides the channel of the data file, which is not closed by the reader
+   * @param revisionsOffsetFile provides the channel of the file, which holds pointers to the
+   *        revision root pages, which is not closed by the reader
    * @param handler {@link ByteHandler} instance
+   * @param hashFunction the hash function used to compute the checksums of the pages
    * @throws SirixIOException if something bad happens
    */
-  public FileReader(final RandomAccessFile dataFile, final RandomAccessFile revisionsOffsetFile,
-      final ByteHandler handler, final SerializationType type,
+  public FileReader(final Supplier<FileChannel> dataFile,
+      final Supplier<FileChannel> revisionsOffsetFile,
+      final ByteHandler handler, final HashFunction hashFunction, final SerializationType type,
       final PagePersister pagePersistenter) {
-    mHashFunction = Hashing.sha256();
+    mHashFunction = checkNotNull(hashFunction);
     mDataFile = checkNotNull(dataFile);
     mRevisionsOffsetFile = type == SerializationType.DATA
         ? checkNotNull(revisionsOffsetFile)
@@ -101,22 +111,38 @@ public final class FileReader implements Reader {
       final @Nullable PageReadTrx pageReadTrx) {
     try {
       // Read page from file.
+      final long offset;
       switch (mType) {
         case DATA:
-          mDataFile.seek(reference.getKey());
+          offset = reference.getKey();
           break;
         case TRANSACTION_INTENT_LOG:
-          mDataFile.seek(reference.getPersistentLogKey());
+          offset = reference.getPersistentLogKey();
           break;
         default:
-          // Must not happen.
+          throw new IllegalStateException("Serialization type not supported: " + mType);
       }
 
-      final int dataLength = mDataFile.readInt();
+      final int dataLength = read(mDataFile, offset, OTHER_BEACON).getInt();
       reference.setLength(dataLength + FileReader.OTHER_BEACON);
-      final byte[] page = new byte[dataLength];
-      mDataFile.read(page);
+      final byte[] page = read(mDataFile, offset + OTHER_BEACON, dataLength).array();
 
+      return deserializePage(page, pageReadTrx);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Perform the byte operations on a serialized page and deserialize it.
+   *
+   * @param page the serialized page, as written by {@link FileWriter#serializePage}
+   * @param pageReadTrx the page read transaction
+   * @return the deserialized page
+   * @throws SirixIOException if an I/O error occurs
+   */
+  public Page deserializePage(final byte[] page, final @Nullable PageReadTrx pageReadTrx) {
+    try {
       // Perform byte operations.
       final DataInputStream input =
           new DataInputStream(mByteHandler.deserialize(new ByteArrayInputStream(page)));
@@ -133,8 +159,7 @@ public final class FileReader implements Reader {
     final PageReference uberPageReference = new PageReference();
     try {
       // Read primary beacon.
-      mDataFile.seek(0);
-      uberPageReference.setKey(mDataFile.readLong());
+      uberPageReference.setKey(read(mDataFile, 0, Long.BYTES).getLong());
 
       final UberPage page = (UberPage) read(uberPageReference, null);
       uberPageReference.setPage(page);
@@ -147,12 +172,13 @@ public final class FileReader implements Reader {
   @Override
   public RevisionRootPage readRevisionRootPage(final int revision, final PageReadTrx pageReadTrx) {
     try {
-      mRevisionsOffsetFile.seek(revision * 8);
-      mDataFile.seek(mRevisionsOffsetFile.readLong());
+      final long offset = read(mRevisionsOffsetFile, revision * (long) Long.BYTES, Long.BYTES).getLong();
+      if (offset == Constants.NULL_ID_LONG) {
+        throw new SirixIOException("Revision " + revision + " has been removed by a compaction.");
+      }
 
-      final int dataLength = mDataFile.readInt();
-      final byte[] page = new byte[dataLength];
-      mDataFile.read(page);
+      final int dataLength = read(mDataFile, offset, OTHER_BEACON).getInt();
+      final byte[] page = read(mDataFile, offset + OTHER_BEACON, dataLength).array();
 
       // Perform byte operations.
       final DataInputStream input =
@@ -166,14 +192,52 @@ public final class FileReader implements Reader {
   }
 
   @Override
-  public void close() throws SirixIOException {
+  public boolean hasRevisionRootPage(final int revision) {
     try {
-      if (mRevisionsOffsetFile != null) {
-        mRevisionsOffsetFile.close();
-      }
-      mDataFile.close();
+      final long position = revision * (long) Long.BYTES;
+      return position + Long.BYTES <= mRevisionsOffsetFile.get().size()
+          && read(mRevisionsOffsetFile, position, Long.BYTES).getLong() != Constants.NULL_ID_LONG;
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
   }
+
+  /**
+   * Read {@code length} bytes at the given position.
+   *
+   * @param file provides the channel to read from
+   * @param position the position of the first byte
+   * @param length the number of bytes to read
+   * @return the buffer holding the bytes, flipped for reading
+   * @throws IOException if an I/O error occurs
+   */
+  private static ByteBuffer read(final Supplier<FileChannel> file, final long position,
+      final int length) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    try {
+      readFully(file.get(), buffer, position);
+    } catch (final ClosedByInterruptException e) {
+      throw e;
+    } catch (final ClosedChannelException e) {
+      // Closed due to the interruption of another thread sharing the channel, thus try once more.
+      buffer.clear();
+      readFully(file.get(), buffer, position);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static void readFully(final FileChannel channel, final ByteBuffer buffer,
+      final long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) == -1) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws SirixIOException {
+    // The channels are shared and closed by their owner.
+  }
 }
@@ -21,10 +21,16 @@
 
 package org.sirix.io.file;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.Reader;
@@ -34,6 +40,7 @@ import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersister;
 import org.sirix.page.SerializationType;
+import com.google.common.hash.HashFunction;
 
 /**
  * Factory to provide File access as a backend.
@@ -49,12 +56,30 @@ public final class FileStorage implements Storage {
   /** Revisions file name. */
   private static final String REVISIONS_FILENAME = "sirix.revisions";
 
+  /** Suffix of the files of a compacted copy, before they replace the files. */
+  private static final String COMPACTED_SUFFIX = ".compacted";
+
   /** Instance to storage. */
   private final Path mFile;
 
   /** Byte handler pipeline. */
   private final ByteHandlePipeline mByteHandler;
 
+  /** Hash function used to compute the checksums of the pages. */
+  private final HashFunction mHashFunction;
+
+  /** Channel of the data file, shared by all readers. */
+  private volatile FileChannel mDataFileChannel;
+
+  /** Channel of the revisions offset file, shared by all readers. */
+  private volatile FileChannel mRevisionsFileChannel;
+
+  /** Determines if the files have been replaced by a compacted copy. */
+  private volatile boolean mRetired;
+
+  /** Determines if the storage has been closed. */
+  private volatile boolean mClosed;
+
   /**
    * Constructor.
    *
@@ -65,17 +90,119 @@ public final class FileStorage implements Storage {
     assert resourceConfig != null : "resourceConfig must not be null!";
     mFile = resourceConfig.resourcePath;
     mByteHandler = resourceConfig.byteHandlePipeline;
+    mHashFunction = resourceConfig.pageHashFunction.getHashFunction();
+    recoverCompaction();
+  }
+
+  /**
+   * Complete a compaction, which has been interrupted while replacing the files, or remove the
+   * files of an incomplete compacted copy.
+   */
+  private void recoverCompaction() {
+    final Path dataFile = getDataFilePath();
+    final Path revisionsFile = getRevisionFilePath();
+    final Path compactedDataFile = compacted(dataFile);
+    final Path compactedRevisionsFile = compacted(revisionsFile);
+    try {
+      if (Files.exists(revisionsFile) || !Files.exists(compactedRevisionsFile)) {
+        Files.deleteIfExists(compactedDataFile);
+        Files.deleteIfExists(compactedRevisionsFile);
+      } else {
+        // The revisions file is removed first, once the compacted copy is complete.
+        if (Files.exists(compactedDataFile)) {
+          Files.move(compactedDataFile, dataFile, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(compactedRevisionsFile, revisionsFile, StandardCopyOption.ATOMIC_MOVE);
+      }
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  private static Path compacted(final Path file) {
+    return file.resolveSibling(file.getFileName() + COMPACTED_SUFFIX);
   }
 
   @Override
   public Reader createReader() throws SirixIOException {
     try {
-      final Path dataFilePath = createDirectoriesAndFile();
-      final Path revisionsOffsetFilePath = getRevisionFilePath();
+      createDirectoriesAndFile();
 
-      return new FileReader(new RandomAccessFile(dataFilePath.toFile(), "r"),
-          new RandomAccessFile(revisionsOffsetFilePath.toFile(), "r"),
-          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister());
+      // Open the shared channels eagerly, such that missing files are reported right away.
+      getDataFileChannel();
+      getRevisionsFileChannel();
+
+      return new FileReader(this::getDataFileChannel, this::getRevisionsFileChannel,
+          new ByteHandlePipeline(mByteHandler), mHashFunction, SerializationType.DATA,
+          new PagePersister());
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Get the shared channel of the data file. It is (re)opened if it is not open, as a channel is
+   * closed if a thread reading from it is interrupted, unless the storage has been closed.
+   *
+   * @return the channel of the data file
+   */
+  private FileChannel getDataFileChannel() {
+    final FileChannel channel = mDataFileChannel;
+    if (channel != null && channel.isOpen()) {
+      return channel;
+    }
+    return openDataFileChannel();
+  }
+
+  private synchronized FileChannel openDataFileChannel() {
+    if (mDataFileChannel == null || !mDataFileChannel.isOpen()) {
+      assertNotClosed();
+      assertNotRetired();
+      mDataFileChannel = openChannel(getDataFilePath());
+    }
+    return mDataFileChannel;
+  }
+
+  /**
+   * Get the shared channel of the revisions offset file. It is (re)opened if it is not open,
+   * unless the storage has been closed.
+   *
+   * @return the channel of the revisions offset file
+   */
+  private FileChannel getRevisionsFileChannel() {
+    final FileChannel channel = mRevisionsFileChannel;
+    if (channel != null && channel.isOpen()) {
+      return channel;
+    }
+    return openRevisionsFileChannel();
+  }
+
+  private synchronized FileChannel openRevisionsFileChannel() {
+    if (mRevisionsFileChannel == null || !mRevisionsFileChannel.isOpen()) {
+      assertNotClosed();
+      assertNotRetired();
+      mRevisionsFileChannel = openChannel(getRevisionFilePath());
+    }
+    return mRevisionsFileChannel;
+  }
+
+  // Readers must not reopen the channels, which have been closed with the storage.
+  private void assertNotClosed() {
+    if (mClosed) {
+      throw new SirixIOException("The storage has been closed.");
+    }
+  }
+
+  // The files of the path now belong to the compacted copy.
+  private void assertNotRetired() {
+    if (mRetired) {
+      throw new SirixIOException("The storage has been replaced by a compacted copy.");
+    }
+  }
+
+  private static FileChannel openChannel(final Path file) {
+    try {
+      return FileChannel.open(file, StandardOpenOption.READ);
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
@@ -94,21 +221,75 @@ public final class FileStorage implements Storage {
 
   @Override
   public Writer createWriter() throws SirixIOException {
+    checkState(!mClosed, "The storage has been closed.");
+    checkState(!mRetired, "The storage has been replaced by a compacted copy.");
     try {
       final Path dataFilePath = createDirectoriesAndFile();
       final Path revisionsOffsetFilePath = getRevisionFilePath();
 
       return new FileWriter(new RandomAccessFile(dataFilePath.toFile(), "rw"),
           new RandomAccessFile(revisionsOffsetFilePath.toFile(), "rw"),
-          new ByteHandlePipeline(mByteHandler), SerializationType.DATA, new PagePersister());
+          new ByteHandlePipeline(mByteHandler), mHashFunction, SerializationType.DATA,
+          new PagePersister());
     } catch (final IOException e) {
       throw new SirixIOException(e);
     }
   }
 
   @Override
-  public void close() {
-    // not used over here
+  public synchronized void compact(final Consumer<Writer> compaction) {
+    checkNotNull(compaction);
+    checkState(!mRetired, "The storage has been replaced by a compacted copy.");
+    final Path dataFile = getDataFilePath();
+    final Path revisionsFile = getRevisionFilePath();
+    final Path compactedDataFile = compacted(dataFile);
+    final Path compactedRevisionsFile = compacted(revisionsFile);
+    try {
+      try {
+        final RandomAccessFile data = new RandomAccessFile(compactedDataFile.toFile(), "rw");
+        final RandomAccessFile revisions =
+            new RandomAccessFile(compactedRevisionsFile.toFile(), "rw");
+        try (final Writer writer = new FileWriter(data, revisions,
+            new ByteHandlePipeline(mByteHandler), mHashFunction, SerializationType.DATA,
+            new PagePersister())) {
+          compaction.accept(writer);
+          data.getFD().sync();
+          revisions.getFD().sync();
+        }
+      } catch (final RuntimeException | IOException e) {
+        Files.deleteIfExists(compactedDataFile);
+        Files.deleteIfExists(compactedRevisionsFile);
+        throw e;
+      }
+
+      // Readers keep the channels of the replaced files. Once the revisions file is removed, the
+      // compaction is completed during recovery.
+      getDataFileChannel();
+      getRevisionsFileChannel();
+      mRetired = true;
+      Files.delete(revisionsFile);
+      Files.move(compactedDataFile, dataFile, StandardCopyOption.ATOMIC_MOVE);
+      Files.move(compactedRevisionsFile, revisionsFile, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    mClosed = true;
+    try {
+      if (mDataFileChannel != null) {
+        mDataFileChannel.close();
+        mDataFileChannel = null;
+      }
+      if (mRevisionsFileChannel != null) {
+        mRevisionsFileChannel.close();
+        mRevisionsFileChannel = null;
+      }
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
   }
 
   /**
@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.AbstractForwardingReader;
 import org.sirix.io.Reader;
@@ -39,6 +40,8 @@ import org.sirix.page.RevisionRootPage;
 import org.sirix.page.SerializationType;
 import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
+import org.sirix.settings.Constants;
+import com.google.common.hash.HashFunction;
 
 /**
  * File Writer for providing read/write access for file as a Sirix backend.
@@ -67,36 +70,40 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
    * @param dataFile the data file
    * @param revisionsOffsetFile the file, which holds pointers to the revision root pages
    * @param handler the byte handler
+   * @param hashFunction the hash function used to compute the checksums of the pages
    * @param serializationType the serialization type (for the transaction log or the data file)
    * @param pagePersister transforms in-memory pages into byte-arrays and back
    */
   public FileWriter(final RandomAccessFile dataFile, final RandomAccessFile revisionsOffsetFile,
-      final ByteHandler handler, final SerializationType serializationType,
-      final PagePersister pagePersister) {
+      final ByteHandler handler, final HashFunction hashFunction,
+      final SerializationType serializationType, final PagePersister pagePersister) {
     mDataFile = checkNotNull(dataFile);
     mType = checkNotNull(serializationType);
     mRevisionsOffsetFile = mType == SerializationType.DATA
         ? checkNotNull(revisionsOffsetFile)
         : null;
     mPagePersister = checkNotNull(pagePersister);
-    mReader =
-        new FileReader(dataFile, revisionsOffsetFile, handler, serializationType, pagePersister);
+    mReader = new FileReader(dataFile::getChannel, revisionsOffsetFile == null
+        ? null
+        : revisionsOffsetFile::getChannel, handler, hashFunction, serializationType,
+        pagePersister);
   }
 
   @Override
   public Writer truncateTo(final int revision) {
     UberPage uberPage = (UberPage) mReader.readUberPageReference().getPage();
 
-    while (uberPage.getRevisionNumber() != revision) {
+    // A compaction removes the previous uber pages (key -1), thus the file is truncated at most up
+    // to the compacted revisions.
+    while (uberPage.getRevisionNumber() != revision && uberPage.getPreviousUberPageKey() != -1) {
       uberPage = (UberPage) mReader.read(
           new PageReference().setKey(uberPage.getPreviousUberPageKey()), null);
-      if (uberPage.getRevisionNumber() == revision) {
+      if (uberPage.getRevisionNumber() == revision && uberPage.getPreviousUberPageKey() != -1) {
         try {
           mDataFile.setLength(uberPage.getPreviousUberPageKey());
         } catch (final IOException e) {
           throw new UncheckedIOException(e);
         }
-        break;
       }
     }
 
@@ -111,21 +118,55 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
    */
   @Override
   public FileWriter write(final PageReference pageReference) throws SirixIOException {
-    // Perform byte operations.
-    try {
-      // Serialize page.
-      final Page page = pageReference.getPage();
-      assert page != null;
+    final Page page = pageReference.getPage();
+    assert page != null;
+    return write(pageReference, serializePage(page));
+  }
 
-      final byte[] serializedPage;
+  /**
+   * Serialize a page and perform the byte operations, that is the page is transformed into the
+   * byte-array, which is written by {@link #write(PageReference, byte[])}.
+   *
+   * @param page the page to serialize
+   * @return the serialized page
+   * @throws SirixIOException if errors during serialization occur
+   */
+  public byte[] serializePage(final Page page) throws SirixIOException {
+    try (final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final DataOutputStream dataOutput =
+            new DataOutputStream(mReader.mByteHandler.serialize(output))) {
+      mPagePersister.serializePage(dataOutput, page, mType);
+      dataOutput.flush();
+      return output.toByteArray();
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
 
-      try (final ByteArrayOutputStream output = new ByteArrayOutputStream();
-          final DataOutputStream dataOutput =
-              new DataOutputStream(mReader.mByteHandler.serialize(output))) {
-        mPagePersister.serializePage(dataOutput, page, mType);
-        dataOutput.flush();
-        serializedPage = output.toByteArray();
-      }
+  /**
+   * Deserialize a page serialized by {@link #serializePage(Page)}.
+   *
+   * @param serializedPage the serialized page
+   * @param pageReadTrx the page read transaction
+   * @return the deserialized page
+   * @throws SirixIOException if errors during deserialization occur
+   */
+  public Page deserializePage(final byte[] serializedPage, final PageReadTrx pageReadTrx)
+      throws SirixIOException {
+    return mReader.deserializePage(serializedPage, pageReadTrx);
+  }
+
+  /**
+   * Write an already serialized page to storage and set the coordinates in the page reference.
+   *
+   * @param pageReference page reference of the page
+   * @param serializedPage the page serialized by {@link #serializePage(Page)}
+   * @throws SirixIOException if errors during writing occur
+   */
+  public FileWriter write(final PageReference pageReference, final byte[] serializedPage)
+      throws SirixIOException {
+    try {
+      final Page page = pageReference.getPage();
 
       final byte[] writtenPage = new byte[serializedPage.length + FileReader.OTHER_BEACON];
       final ByteBuffer buffer = ByteBuffer.allocate(writtenPage.length);
@@ -158,7 +199,13 @@ public final class FileWriter extends AbstractForwardingReader implements Writer
       pageReference.setHash(mReader.mHashFunction.hashBytes(writtenPage).asBytes());
 
       if (mType == SerializationType.DATA && page instanceof RevisionRootPage) {
+        // Revisions, which have been removed by a compaction, don't have an offset.
+        final long position = ((RevisionRootPage) page).getRevision() * (long) Long.BYTES;
         mRevisionsOffsetFile.seek(mRevisionsOffsetFile.length());
+        while (mRevisionsOffsetFile.length() < position) {
+          mRevisionsOffsetFile.writeLong(Constants.NULL_ID_LONG);
+        }
+        mRevisionsOffsetFile.seek(position);
         mRevisionsOffsetFile.writeLong(offset);
       }
 
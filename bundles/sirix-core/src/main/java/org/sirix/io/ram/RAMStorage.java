@@ -1,7 +1,9 @@
 package org.sirix.io.ram;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.PageReadTrx;
@@ -93,6 +95,15 @@ public final class RAMStorage implements Storage {
     return mExists;
   }
 
+  /**
+   * The pages are kept in memory and are lost once the storage is closed, thus no compacted copy
+   * is written and all revisions are retained. The storage remains usable.
+   */
+  @Override
+  public void compact(final Consumer<Writer> compaction) {
+    checkNotNull(compaction);
+  }
+
   /** Provides RAM access. */
   public class RAMAccess implements Writer {
 
@@ -164,5 +175,10 @@ public final class RAMStorage implements Storage {
     public RevisionRootPage readRevisionRootPage(int revision, PageReadTrx pageReadTrx) {
       return mResourceRevisionRootsStorage.get(revision);
     }
+
+    @Override
+    public boolean hasRevisionRootPage(int revision) {
+      return mResourceRevisionRootsStorage.containsKey(revision);
+    }
   }
 }
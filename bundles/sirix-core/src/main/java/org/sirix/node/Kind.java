@@ -102,18 +102,10 @@ public enum Kind implements NodePersistenter {
         namespKeys.add(source.readLong());
       }
 
-      final String uri = pageReadTrx.getName(nameDel.getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = nameDel.getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : pageReadTrx.getName(prefixKey, Kind.ELEMENT);
-      final int localNameKey = nameDel.getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : pageReadTrx.getName(localNameKey, Kind.ELEMENT);
+      final QNm name = pageReadTrx.getQName(nameDel.getURIKey(), nameDel.getPrefixKey(),
+          nameDel.getLocalNameKey(), Kind.ELEMENT);
 
-      return new ElementNode(structDel, nameDel, attrKeys, attrs, namespKeys,
-          new QNm(uri, prefix, localName));
+      return new ElementNode(structDel, nameDel, attrKeys, attrs, namespKeys, name);
     }
 
     @Override
@@ -155,17 +147,8 @@ public enum Kind implements NodePersistenter {
       source.readFully(vals, 0, vals.length);
       final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals, isCompressed);
 
-      final String uri = pageReadTrx.getName(nameDel.getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = nameDel.getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : pageReadTrx.getName(prefixKey, Kind.ATTRIBUTE);
-      final int localNameKey = nameDel.getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : pageReadTrx.getName(localNameKey, Kind.ATTRIBUTE);
-
-      final QNm name = new QNm(uri, prefix, localName);
+      final QNm name = pageReadTrx.getQName(nameDel.getURIKey(), nameDel.getPrefixKey(),
+          nameDel.getLocalNameKey(), Kind.ATTRIBUTE);
 
       // Returning an instance.
       return new AttributeNode(nodeDel, nameDel, valDel, name);
@@ -192,17 +175,8 @@ public enum Kind implements NodePersistenter {
       // Name delegate.
       final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
-      final String uri = pageReadTrx.getName(nameDel.getURIKey(), Kind.NAMESPACE);
-      final int prefixKey = nameDel.getPrefixKey();
-      final String prefix = prefixKey == -1
-          ? ""
-          : pageReadTrx.getName(prefixKey, Kind.ELEMENT);
-      final int localNameKey = nameDel.getLocalNameKey();
-      final String localName = localNameKey == -1
-          ? ""
-          : pageReadTrx.getName(localNameKey, Kind.ELEMENT);
-
-      final QNm name = new QNm(uri, prefix, localName);
+      final QNm name = pageReadTrx.getQName(nameDel.getURIKey(), nameDel.getPrefixKey(),
+          nameDel.getLocalNameKey(), Kind.ELEMENT);
 
       return new NamespaceNode(nodeDel, nameDel, name);
     }
@@ -171,14 +171,8 @@ public final class PINode extends AbstractStructForwardingNode implements ValueN
 
   @Override
   public QNm getName() {
-    final String uri = mPageReadTrx.getName(mNameDel.getURIKey(), Kind.NAMESPACE);
-    final int prefixKey = mNameDel.getPrefixKey();
-    final String prefix =
-        prefixKey == -1 ? "" : mPageReadTrx.getName(prefixKey, Kind.PROCESSING_INSTRUCTION);
-    final int localNameKey = mNameDel.getLocalNameKey();
-    final String localName =
-        localNameKey == -1 ? "" : mPageReadTrx.getName(localNameKey, Kind.PROCESSING_INSTRUCTION);
-    return new QNm(uri, prefix, localName);
+    return mPageReadTrx.getQName(mNameDel.getURIKey(), mNameDel.getPrefixKey(),
+        mNameDel.getLocalNameKey(), Kind.PROCESSING_INSTRUCTION);
   }
 
   @Override
@@ -123,7 +123,7 @@ public class ValNodeDelegate extends AbstractForwardingNode implements ValueNode
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mDelegate, mVal);
+    return Objects.hashCode(mDelegate, Arrays.hashCode(mVal));
   }
 
   @Override
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.PageReadTrx;
 import org.sirix.cache.TransactionIntentLog;
 import org.sirix.index.name.Names;
@@ -149,6 +150,39 @@ public final class NamePage extends AbstractForwardingPage {
     return name;
   }
 
+  /**
+   * Get the qualified name belonging to the name keys.
+   *
+   * @param uriKey the key of the namespace URI
+   * @param prefixKey the key of the prefix, or {@code -1} if there is no prefix
+   * @param localNameKey the key of the local name, or {@code -1} if there is no local name
+   * @param nodeKind kind of node
+   * @return the qualified name, which is shared by all nodes with the same keys
+   */
+  public QNm getQName(final int uriKey, final int prefixKey, final int localNameKey,
+      @Nonnull final Kind nodeKind) {
+    final String uri = mNamespaces.getName(uriKey);
+    final QNm qName;
+    switch (nodeKind) {
+      case ELEMENT:
+        qName = mElements.getQName(uri, uriKey, prefixKey, localNameKey);
+        break;
+      case NAMESPACE:
+        qName = mNamespaces.getQName(uri, uriKey, prefixKey, localNameKey);
+        break;
+      case ATTRIBUTE:
+        qName = mAttributes.getQName(uri, uriKey, prefixKey, localNameKey);
+        break;
+      case PROCESSING_INSTRUCTION:
+        qName = mPIs.getQName(uri, uriKey, prefixKey, localNameKey);
+        break;
+      // $CASES-OMITTED$
+      default:
+        throw new IllegalStateException("No other node types supported!");
+    }
+    return qName;
+  }
+
   /**
    * Get number of nodes with the given name key.
    *
@@ -78,6 +78,9 @@ public final class RevisionRootPage extends AbstractForwardingPage {
   /** Optional commit message. */
   private String mCommitMessage;
 
+  /** Determines if the page has been read from the data file, thus it keeps its timestamp. */
+  private final boolean mIsStored;
+
   /**
    * Create revision root page.
    */
@@ -89,6 +92,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     getReference(PATH_REFERENCE_OFFSET).setPage(new PathPage());
     mRevision = Constants.UBP_ROOT_REVISION_NUMBER;
     mMaxNodeKey = -1L;
+    mIsStored = false;
   }
 
   /**
@@ -106,6 +110,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
       in.readFully(commitMessage);
       mCommitMessage = new String(commitMessage, Constants.DEFAULT_ENCODING);
     }
+    mIsStored = type == SerializationType.DATA;
   }
 
   /**
@@ -121,6 +126,7 @@ public final class RevisionRootPage extends AbstractForwardingPage {
     mRevision = representRev;
     mMaxNodeKey = committedRevisionRootPage.mMaxNodeKey;
     mRevisionTimestamp = committedRevisionRootPage.mRevisionTimestamp;
+    mIsStored = false;
   }
 
   /**
@@ -217,7 +223,10 @@ public final class RevisionRootPage extends AbstractForwardingPage {
 
   @Override
   public void serialize(final DataOutput out, final SerializationType type) throws IOException {
-    mRevisionTimestamp = Instant.now().toEpochMilli();
+    // Stored pages are only written once more by a compaction.
+    if (!mIsStored) {
+      mRevisionTimestamp = Instant.now().toEpochMilli();
+    }
     mDelegate.serialize(checkNotNull(out), checkNotNull(type));
     out.writeInt(mRevision);
     out.writeLong(mMaxNodeKey);
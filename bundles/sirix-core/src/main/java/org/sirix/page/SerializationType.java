@@ -55,6 +55,7 @@ public enum SerializationType {
 
         for (final PageReference pageReference : pageReferences) {
           out.writeInt(pageReference.getLogKey());
+          out.writeLong(pageReference.getKey());
         }
       } catch (final IOException e) {
         throw new SirixIOException(e);
@@ -73,9 +74,11 @@ public enum SerializationType {
         final List<PageReference> references = new GapList<>(length);
 
         for (int offset = 0; offset < length; offset++) {
-          final int key = in.readInt();
+          final int logKey = in.readInt();
+          final long key = in.readLong();
           final PageReference reference = new PageReference();
-          reference.setLogKey(key);
+          reference.setLogKey(logKey);
+          reference.setKey(key);
           references.add(offset, reference);
         }
 
@@ -128,6 +128,16 @@ public final class UberPage extends AbstractForwardingPage {
     return mPreviousUberPageKey;
   }
 
+  /**
+   * Set the key of the previous uber page, for instance if the previous uber pages have been
+   * removed by a compaction.
+   *
+   * @param previousUberPageKey key of the previous uber page, or {@code -1}
+   */
+  public void setPreviousUberPageKey(final long previousUberPageKey) {
+    mPreviousUberPageKey = previousUberPageKey;
+  }
+
   /**
    * Get indirect page reference.
    *
@@ -40,6 +40,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
 import org.sirix.access.conf.ResourceConfiguration;
@@ -82,6 +83,18 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   /** Records (must be a {@link LinkedHashMap} to provide consistent iteration order). */
   private final LinkedHashMap<Long, Record> mRecords;
 
+  /**
+   * Records read from the storage, which are deserialized once they are read (must be a
+   * {@link LinkedHashMap} to provide consistent iteration order).
+   */
+  private final Map<Long, byte[]> mSerializedRecords;
+
+  /**
+   * Records of {@link #mSerializedRecords}, which have been deserialized. The map is concurrent, as
+   * pages are shared between reading transactions.
+   */
+  private final Map<Long, Record> mDeserializedRecords;
+
   /** Slots which have to be serialized. */
   private final Map<Long, byte[]> mSlots;
 
@@ -121,6 +134,8 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     mReferences = new LinkedHashMap<>();
     mRecordPageKey = recordPageKey;
     mRecords = new LinkedHashMap<>();
+    mSerializedRecords = Collections.emptyMap();
+    mDeserializedRecords = Collections.emptyMap();
     mSlots = new LinkedHashMap<>();
     mPageReadTrx = pageReadTrx;
     mPageKind = pageKind;
@@ -176,16 +191,20 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
       mRecords = new LinkedHashMap<>();
     }
 
+    // Normal entries are deserialized once they are read, as most of them are usually shadowed by
+    // newer revisions of the page.
     final int normalEntrySize = in.readInt();
+    mSerializedRecords = new LinkedHashMap<>(normalEntrySize);
     for (int index = 0; index < normalEntrySize; index++) {
       final long key = getVarLong(in);
       final int dataSize = in.readInt();
       final byte[] data = new byte[dataSize];
       in.readFully(data);
-      final Record record = mRecordPersister.deserialize(
-          new DataInputStream(new ByteArrayInputStream(data)), key, Optional.empty(), mPageReadTrx);
-      mRecords.put(key, record);
+      mSerializedRecords.put(key, data);
     }
+    mDeserializedRecords = normalEntrySize == 0
+        ? Collections.emptyMap()
+        : new ConcurrentHashMap<>();
     final int overlongEntrySize = in.readInt();
     mReferences = new LinkedHashMap<>(overlongEntrySize);
     for (int index = 0; index < overlongEntrySize; index++) {
@@ -211,8 +230,31 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
   @Override
   public Record getValue(final Long key) {
+    return getValue(key, mPageReadTrx);
+  }
+
+  /**
+   * Get the record with the given key. Records, which have not been deserialized yet, are
+   * deserialized with the given transaction, as the page might have been read by another
+   * transaction, which has been closed since.
+   *
+   * @param key the key of the record
+   * @param pageReadTrx the page reading transaction
+   * @return the record or {@code null}, if the page doesn't contain the record
+   */
+  public Record getValue(final Long key, final PageReadTrx pageReadTrx) {
     assert key != null : "key must not be null!";
     Record record = mRecords.get(key);
+    if (record == null && !mSerializedRecords.isEmpty()) {
+      final byte[] data = mSerializedRecords.get(key);
+      if (data != null) {
+        return mDeserializedRecords.computeIfAbsent(key, recordKey -> {
+          // The record might be modified, thus it has to be serialized again.
+          mAddedReferences = false;
+          return deserialize(recordKey, data, pageReadTrx);
+        });
+      }
+    }
     if (record == null) {
       byte[] data = null;
       try {
@@ -241,6 +283,36 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     assert value != null : "record must not be null!";
     mAddedReferences = false;
     mRecords.put(key, value);
+    if (!mSerializedRecords.isEmpty()) {
+      mSerializedRecords.remove(key);
+      mDeserializedRecords.remove(key);
+    }
+  }
+
+  @Override
+  public Set<Long> serializedKeySet() {
+    return Collections.unmodifiableSet(mSerializedRecords.keySet());
+  }
+
+  private Record deserialize(final long key, final byte[] data, final PageReadTrx pageReadTrx) {
+    try {
+      return mRecordPersister.deserialize(
+          new DataInputStream(new ByteArrayInputStream(data)), key, Optional.empty(), pageReadTrx);
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  // All records, including the ones, which have not been deserialized yet.
+  private Map<Long, Record> allRecords() {
+    if (mSerializedRecords.isEmpty()) {
+      return mRecords;
+    }
+    final Map<Long, Record> records = new LinkedHashMap<>(mRecords);
+    for (final Long key : mSerializedRecords.keySet()) {
+      records.put(key, getValue(key));
+    }
+    return records;
   }
 
   @Override
@@ -273,8 +345,8 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
         id = nextDeweyID;
       }
     }
-    // Write normal entries.
-    out.writeInt(mSlots.size());
+    // Write normal entries (the records, which have never been deserialized, unchanged).
+    out.writeInt(mSlots.size() + mSerializedRecords.size() - mDeserializedRecords.size());
     for (final Entry<Long, byte[]> entry : mSlots.entrySet()) {
       putVarLong(out, entry.getKey());
       final byte[] data = entry.getValue();
@@ -282,6 +354,15 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
       out.writeInt(length);
       out.write(data);
     }
+    for (final Entry<Long, byte[]> entry : mSerializedRecords.entrySet()) {
+      if (mDeserializedRecords.containsKey(entry.getKey())) {
+        continue;
+      }
+      putVarLong(out, entry.getKey());
+      final byte[] data = entry.getValue();
+      out.writeInt(data.length);
+      out.write(data);
+    }
     // Write overlong entries.
     out.writeInt(mReferences.size());
     for (final Map.Entry<Long, PageReference> entry : mReferences.entrySet()) {
@@ -313,7 +394,7 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   public String toString() {
     final MoreObjects.ToStringHelper helper =
         MoreObjects.toStringHelper(this).add("pagekey", mRecordPageKey);
-    for (final Record record : mRecords.values()) {
+    for (final Record record : allRecords().values()) {
       helper.add("record", record);
     }
     for (final PageReference reference : mReferences.values()) {
@@ -329,14 +410,15 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(mRecordPageKey, mRecords, mReferences);
+    return Objects.hashCode(mRecordPageKey, allRecords(), mReferences);
   }
 
   @Override
   public boolean equals(final @Nullable Object obj) {
     if (obj instanceof UnorderedKeyValuePage) {
       final UnorderedKeyValuePage other = (UnorderedKeyValuePage) obj;
-      return mRecordPageKey == other.mRecordPageKey && Objects.equal(mRecords, other.mRecords)
+      return mRecordPageKey == other.mRecordPageKey
+          && Objects.equal(allRecords(), other.allRecords())
           && Objects.equal(mReferences, other.mReferences);
     }
     return false;
@@ -403,6 +485,7 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
   private List<Entry<Long, Record>> sort() {
     // Sort entries which have deweyIDs according to their byte-length.
     final List<Map.Entry<Long, Record>> entries = new ArrayList<>(mRecords.entrySet());
+    entries.addAll(mDeserializedRecords.entrySet());
     final boolean storeDeweyIDs =
         mPageReadTrx.getResourceManager().getResourceConfig().areDeweyIDsStored;
     if (storeDeweyIDs && mRecordPersister instanceof NodePersistenter) {
@@ -464,7 +547,7 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
   @Override
   public int size() {
-    return mRecords.size() + mReferences.size();
+    return mRecords.size() + mSerializedRecords.size() + mReferences.size();
   }
 
   @Override
@@ -489,4 +572,14 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
     return mPreviousPageRefKey;
   }
 
+  /**
+   * Set the reference key of the previous page.
+   *
+   * @param previousPageRefKey the reference key of the previous page, or
+   *        {@link Constants#NULL_ID_LONG}, if the page has no previous page
+   */
+  public void setPreviousReferenceKey(final long previousPageRefKey) {
+    mPreviousPageRefKey = previousPageRefKey;
+  }
+
 }
@@ -18,20 +18,33 @@ import org.sirix.page.PageReference;
  */
 public interface KeyValuePage<K extends Comparable<? super K>, V extends Record> extends Page {
   /**
-   * Entry set of all nodes in the page. Changes to the set are reflected in the internal data
-   * structure
+   * Entry set of the records in the page, which have been deserialized eagerly or which have been
+   * set through {@link #setEntry(Comparable, Record)}. Changes to the set are reflected in the
+   * internal data structure. Records, which are kept in serialized form, are not contained, even
+   * if they have been deserialized through {@link #getValue(Comparable)} in the meantime. Their
+   * keys are returned by {@link #serializedKeySet()}.
    *
    * @return an entry set
    */
   Set<Entry<K, V>> entrySet();
 
   /**
-   * All available records.
+   * The values of {@link #entrySet()}.
    *
-   * @return all records
+   * @return the records, which have been deserialized eagerly or set
    */
   Collection<V> values();
 
+  /**
+   * Keys of all records in the page, which are kept in serialized form, regardless of whether they
+   * have been deserialized through {@link #getValue(Comparable)} already. A key is removed once
+   * the record is replaced through {@link #setEntry(Comparable, Record)}. Pages, which deserialize
+   * all records eagerly, return an empty set.
+   *
+   * @return the keys of the serialized records
+   */
+  Set<K> serializedKeySet();
+
   /**
    * Get the unique page record identifier.
    *
@@ -22,10 +22,9 @@
 package org.sirix.service.xml.serialize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.concurrent.Callable;
 import javax.annotation.Nonnegative;
+import org.magicwerk.brownies.collections.primitive.LongGapList;
 import org.sirix.api.Axis;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeReadTrx;
@@ -46,8 +45,11 @@ public abstract class AbstractSerializer implements Callable<Void> {
   /** Sirix {@link ResourceManager}. */
   protected final ResourceManager mResMgr;
 
-  /** Stack for reading end element. */
-  protected final Deque<Long> mStack;
+  /**
+   * Stack of the node keys of the elements, for which end tags have to be emitted. Subclasses may
+   * push {@link Constants#NULL_ID_LONG} as a barrier.
+   */
+  protected final LongGapList mStack;
 
   /** Array with versions to print. */
   protected final int[] mRevisions;
@@ -64,7 +66,7 @@ public abstract class AbstractSerializer implements Callable<Void> {
    */
   public AbstractSerializer(final ResourceManager resMgr, final @Nonnegative int revision,
       final int... revisions) {
-    mStack = new ArrayDeque<>();
+    mStack = new LongGapList();
     mRevisions = revisions == null
         ? new int[1]
         : new int[revisions.length + 1];
@@ -83,7 +85,7 @@ public abstract class AbstractSerializer implements Callable<Void> {
    */
   public AbstractSerializer(final ResourceManager resMgr, final @Nonnegative long key,
       final @Nonnegative int revision, final int... revisions) {
-    mStack = new ArrayDeque<>();
+    mStack = new LongGapList();
     mRevisions = revisions == null
         ? new int[1]
         : new int[revisions.length + 1];
@@ -117,74 +119,107 @@ public abstract class AbstractSerializer implements Callable<Void> {
   public Void call() throws SirixException {
     emitStartDocument();
 
-    final int nrOfRevisions = mRevisions.length;
-    final int length = (nrOfRevisions == 1 && mRevisions[0] < 0)
+    serializeRevisions(getNumberOfRevisionsToSerialize());
+
+    emitEndDocument();
+
+    return null;
+  }
+
+  /**
+   * Get the number of revisions to serialize.
+   *
+   * @return the number of revisions to serialize
+   */
+  private int getNumberOfRevisionsToSerialize() {
+    return (mRevisions.length == 1 && mRevisions[0] < 0)
         ? (int) mResMgr.getMostRecentRevisionNumber()
-        : nrOfRevisions;
+        : mRevisions.length;
+  }
+
+  /**
+   * Get the revision number to serialize.
+   *
+   * @param index the one-based index of the revision in the sequence of revisions to serialize
+   * @return the revision number
+   */
+  protected int getRevisionToSerialize(final @Nonnegative int index) {
+    return (mRevisions.length == 1 && mRevisions[0] < 0)
+        ? index
+        : mRevisions[index - 1];
+  }
 
+  /**
+   * Serialize the revisions one after the other. Subclasses may override this method to serialize
+   * the revisions concurrently.
+   *
+   * @param length the number of revisions to serialize
+   * @throws SirixException if a revision can't be serialized
+   */
+  protected void serializeRevisions(final @Nonnegative int length) {
     for (int i = 1; i <= length; i++) {
-      try (final XdmNodeReadTrx rtx = mResMgr.beginNodeReadTrx(
-          (nrOfRevisions == 1 && mRevisions[0] < 0)
-              ? i
-              : mRevisions[i - 1])) {
-        emitRevisionStartTag(rtx);
-
-        rtx.moveTo(mNodeKey);
-
-        final Axis descAxis = new DescendantAxis(rtx, IncludeSelf.YES);
-
-        // Setup primitives.
-        boolean closeElements = false;
-        long key = rtx.getNodeKey();
-
-        // Iterate over all nodes of the subtree including self.
-        while (descAxis.hasNext()) {
-          key = descAxis.next();
-
-          // Emit all pending end elements.
-          if (closeElements) {
-            while (!mStack.isEmpty() && mStack.peek() != rtx.getLeftSiblingKey()) {
-              rtx.moveTo(mStack.pop());
-              emitEndTag(rtx);
-              rtx.moveTo(key);
-            }
-            if (!mStack.isEmpty()) {
-              rtx.moveTo(mStack.pop());
-              emitEndTag(rtx);
-            }
-            rtx.moveTo(key);
-            closeElements = false;
-          }
+      serializeRevision(getRevisionToSerialize(i));
+    }
+  }
+
+  /**
+   * Serialize a single revision.
+   *
+   * @param revision the revision to serialize
+   * @throws SirixException if the revision can't be serialized
+   */
+  protected void serializeRevision(final @Nonnegative int revision) {
+    try (final XdmNodeReadTrx rtx = mResMgr.beginNodeReadTrx(revision)) {
+      emitRevisionStartTag(rtx);
 
-          // Emit node.
-          emitNode(rtx);
+      rtx.moveTo(mNodeKey);
 
-          // Push end element to stack if we are a start element with
-          // children.
-          if (rtx.getKind() == Kind.ELEMENT && rtx.hasFirstChild()) {
-            mStack.push(rtx.getNodeKey());
-          }
+      final Axis descAxis = new DescendantAxis(rtx, IncludeSelf.YES);
+
+      // Setup primitives.
+      boolean closeElements = false;
+
+      // Iterate over all nodes of the subtree including self.
+      while (descAxis.hasNext()) {
+        descAxis.next();
 
-          // Remember to emit all pending end elements from stack if
-          // required.
-          if (!rtx.hasFirstChild() && !rtx.hasRightSibling()) {
-            closeElements = true;
+        // Emit all pending end elements.
+        if (closeElements) {
+          while (!mStack.isEmpty() && mStack.getLast() != rtx.getLeftSiblingKey()) {
+            mStack.removeLast();
+            emitEndTag(rtx);
           }
+          if (!mStack.isEmpty()) {
+            mStack.removeLast();
+            emitEndTag(rtx);
+          }
+          closeElements = false;
         }
 
-        // Finally emit all pending end elements.
-        while (!mStack.isEmpty() && mStack.peek() != Constants.NULL_ID_LONG) {
-          rtx.moveTo(mStack.pop());
-          emitEndTag(rtx);
+        // Emit node.
+        emitNode(rtx);
+
+        // Push end element to stack if we are a start element with
+        // children.
+        if (rtx.getKind() == Kind.ELEMENT && rtx.hasFirstChild()) {
+          mStack.add(rtx.getNodeKey());
         }
 
-        emitRevisionEndTag(rtx);
+        // Remember to emit all pending end elements from stack if
+        // required.
+        if (!rtx.hasFirstChild() && !rtx.hasRightSibling()) {
+          closeElements = true;
+        }
       }
-    }
 
-    emitEndDocument();
+      // Finally emit all pending end elements.
+      while (!mStack.isEmpty() && mStack.getLast() != Constants.NULL_ID_LONG) {
+        mStack.removeLast();
+        emitEndTag(rtx);
+      }
 
-    return null;
+      emitRevisionEndTag(rtx);
+    }
   }
 
   /**
@@ -200,9 +235,12 @@ public abstract class AbstractSerializer implements Callable<Void> {
   protected abstract void emitNode(XdmNodeReadTrx rtx);
 
   /**
-   * Emit end tag.
+   * Emit end tag. The transaction is not moved to the element to close, thus implementations have
+   * to remember the name of every element with children emitted by {@link #emitNode}. End tags are
+   * emitted in reverse order of the start tags.
    *
-   * @param rtx Sirix {@link XdmNodeReadTrx}
+   * @param rtx Sirix {@link XdmNodeReadTrx}, located at the node following the element (or at the
+   *        last node of the subtree)
    */
   protected abstract void emitEndTag(XdmNodeReadTrx rtx);
 
@@ -25,6 +25,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import org.brackit.xquery.atomic.QNm;
@@ -69,6 +71,9 @@ public final class SAXSerializer extends AbstractSerializer implements XMLReader
   /** SAX content handler. */
   private ContentHandler mContHandler;
 
+  /** Names of the elements, for which end element events have to be generated. */
+  private final Deque<QNm> mElementNames;
+
   /**
    * Constructor.
    *
@@ -81,6 +86,7 @@ public final class SAXSerializer extends AbstractSerializer implements XMLReader
       final @Nonnegative int revision, final int... revisions) {
     super(resMgr, revision, revisions);
     mContHandler = handler;
+    mElementNames = new ArrayDeque<>();
   }
 
   @Override
@@ -108,7 +114,7 @@ public final class SAXSerializer extends AbstractSerializer implements XMLReader
 
   @Override
   protected void emitEndTag(final XdmNodeReadTrx rtx) {
-    final QNm qName = rtx.getName();
+    final QNm qName = mElementNames.pop();
     final String mURI = qName.getNamespaceURI();
     try {
       mContHandler.endPrefixMapping(qName.getPrefix());
@@ -218,7 +224,9 @@ public final class SAXSerializer extends AbstractSerializer implements XMLReader
           qName.getNamespaceURI(), qName.getLocalName(), Utils.buildName(qName), atts);
 
       // Empty elements.
-      if (!rtx.hasFirstChild()) {
+      if (rtx.hasFirstChild()) {
+        mElementNames.push(qName);
+      } else {
         mContHandler.endElement(
             qName.getNamespaceURI(), qName.getLocalName(), Utils.buildName(qName));
       }
@@ -28,7 +28,7 @@ import static org.sirix.service.xml.serialize.XMLSerializerProperties.S_INDENT;
 import static org.sirix.service.xml.serialize.XMLSerializerProperties.S_INDENT_SPACES;
 import static org.sirix.service.xml.serialize.XMLSerializerProperties.S_REST;
 import static org.sirix.service.xml.serialize.XMLSerializerProperties.S_XMLDECL;
-import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -39,7 +39,14 @@ import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import org.brackit.xquery.util.serialize.Serializer;
@@ -49,11 +56,11 @@ import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.api.Database;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.exception.SirixException;
 import org.sirix.settings.CharsForSerializing;
 import org.sirix.settings.Constants;
 import org.sirix.utils.LogWrapper;
 import org.sirix.utils.SirixFiles;
-import org.sirix.utils.XMLToken;
 import org.slf4j.LoggerFactory;
 
 /**
@@ -61,8 +68,8 @@ import org.slf4j.LoggerFactory;
  *
  * <p>
  * Most efficient way to serialize a subtree into an OutputStream. The encoding always is UTF-8.
- * Note that the OutputStream internally is wrapped by a BufferedOutputStream. There is no need to
- * buffer it again outside of this class.
+ * Note that the output is buffered internally in a reusable byte array. There is no need to buffer
+ * the OutputStream again outside of this class.
  * </p>
  */
 public final class XMLSerializer extends AbstractSerializer {
@@ -74,6 +81,12 @@ public final class XMLSerializer extends AbstractSerializer {
   /** Offset that must be added to digit to make it ASCII. */
   private static final int ASCII_OFFSET = 48;
 
+  /** Size of the internal output buffer. */
+  private static final int BUFFER_SIZE = 8192;
+
+  /** Initial capacity of the element name stack. */
+  private static final int INITIAL_NAME_STACK_SIZE = 32;
+
   /** Precalculated powers of each available long digit. */
   private static final long[] LONG_POWERS =
       {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
@@ -83,6 +96,24 @@ public final class XMLSerializer extends AbstractSerializer {
   /** OutputStream to write to. */
   private final OutputStream mOut;
 
+  /** Output buffer, which is flushed to {@code mOut} whenever it's full. */
+  private final byte[] mBuffer;
+
+  /** Current position in the output buffer. */
+  private int mPosition;
+
+  /**
+   * Prefixes of the elements, for which end tags have to be emitted ({@code null} if an element has
+   * no prefix).
+   */
+  private byte[][] mPrefixStack;
+
+  /** Local names of the elements, for which end tags have to be emitted. */
+  private byte[][] mLocalNameStack;
+
+  /** Number of element names on the name stack. */
+  private int mNameStackSize;
+
   /** Indent output. */
   private final boolean mIndent;
 
@@ -108,6 +139,9 @@ public final class XMLSerializer extends AbstractSerializer {
 
   private final boolean mSerializeTimestamp;
 
+  /** Maximum number of revisions to serialize concurrently. */
+  private final int mMaxParallelism;
+
   /**
    * Initialize XMLStreamReader implementation with transaction. The cursor points to the node the
    * XMLStreamReader starts to read.
@@ -122,7 +156,10 @@ public final class XMLSerializer extends AbstractSerializer {
       final XMLSerializerBuilder builder, final boolean initialIndent,
       final @Nonnegative int revision, final int... revsions) {
     super(resourceMgr, nodeKey, revision, revsions);
-    mOut = new BufferedOutputStream(builder.mStream, 4096);
+    mOut = builder.mStream;
+    mBuffer = new byte[BUFFER_SIZE];
+    mPrefixStack = new byte[INITIAL_NAME_STACK_SIZE][];
+    mLocalNameStack = new byte[INITIAL_NAME_STACK_SIZE][];
     mIndent = builder.mIndent;
     mSerializeXMLDeclaration = builder.mDeclaration;
     mSerializeRest = builder.mREST;
@@ -132,6 +169,85 @@ public final class XMLSerializer extends AbstractSerializer {
     mWithInitialIndent = builder.mInitialIndent;
     mEmitXQueryResultSequence = builder.mEmitXQueryResultSequence;
     mSerializeTimestamp = builder.mSerializeTimestamp;
+    mMaxParallelism = builder.mMaxParallelism;
+  }
+
+  /**
+   * Copy constructor to serialize a single revision into a separate buffer.
+   *
+   * @param serializer the serializer to copy the settings and the state from
+   * @param out the {@link OutputStream} to write to
+   */
+  private XMLSerializer(final XMLSerializer serializer, final OutputStream out) {
+    super(serializer.mResMgr, serializer.mNodeKey, serializer.mRevisions[0],
+        Arrays.copyOfRange(serializer.mRevisions, 1, serializer.mRevisions.length));
+    mOut = checkNotNull(out);
+    mBuffer = new byte[BUFFER_SIZE];
+    mPrefixStack = new byte[INITIAL_NAME_STACK_SIZE][];
+    mLocalNameStack = new byte[INITIAL_NAME_STACK_SIZE][];
+    mIndent = serializer.mIndent;
+    mSerializeXMLDeclaration = serializer.mSerializeXMLDeclaration;
+    mSerializeRest = serializer.mSerializeRest;
+    mSerializeRestSequence = serializer.mSerializeRestSequence;
+    mSerializeId = serializer.mSerializeId;
+    mIndentSpaces = serializer.mIndentSpaces;
+    mWithInitialIndent = serializer.mWithInitialIndent;
+    mEmitXQueryResultSequence = serializer.mEmitXQueryResultSequence;
+    mSerializeTimestamp = serializer.mSerializeTimestamp;
+    mMaxParallelism = 1;
+    mStack.addAll(serializer.mStack);
+  }
+
+  /**
+   * Serialize the revisions concurrently, if a maximum parallelism greater than one is set. Every
+   * revision is serialized by a copy of this serializer into its own buffer and the buffers are
+   * written in order. At most {@code 2 * maxParallelism} revisions are pending at the same time and
+   * a new revision is only scheduled once the buffer of the next revision in order has been
+   * written, such that a slow output stream slows down serialization. As every pending revision is
+   * buffered completely, memory usage is bounded by {@code 2 * maxParallelism} times the size of
+   * the largest serialized revision.
+   *
+   * @param length the number of revisions to serialize
+   * @throws SirixException if serialization of a revision fails or the thread is interrupted
+   */
+  @Override
+  protected void serializeRevisions(final @Nonnegative int length) {
+    if (mMaxParallelism == 1 || length == 1) {
+      super.serializeRevisions(length);
+      return;
+    }
+
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(mMaxParallelism, length));
+    final int maxPendingRevisions = 2 * mMaxParallelism;
+    final Deque<Future<ByteArrayOutputStream>> pendingRevisions =
+        new ArrayDeque<>(maxPendingRevisions);
+
+    try {
+      int next = 1;
+      for (int i = 1; i <= length; i++) {
+        while (next <= length && pendingRevisions.size() < maxPendingRevisions) {
+          final int revision = getRevisionToSerialize(next++);
+          pendingRevisions.add(executor.submit(() -> {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            new XMLSerializer(this, buffer).serializeRevision(revision);
+            return buffer;
+          }));
+        }
+
+        flushBuffer();
+        pendingRevisions.poll().get().writeTo(mOut);
+      }
+    } catch (final IOException e) {
+      LOGWRAPPER.error(e.getMessage(), e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SirixException(e);
+    } catch (final ExecutionException e) {
+      throw new SirixException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
   }
 
   /**
@@ -148,22 +264,26 @@ public final class XMLSerializer extends AbstractSerializer {
         case ELEMENT:
           // Emit start element.
           indent();
-          mOut.write(CharsForSerializing.OPEN.getBytes());
-          writeQName(rtx);
+          write(CharsForSerializing.OPEN.getBytes());
+          final byte[] prefix = rtx.getPrefixKey() == -1
+              ? null
+              : rtx.rawNameForKey(rtx.getPrefixKey());
+          final byte[] localName = rtx.rawNameForKey(rtx.getLocalNameKey());
+          writeQName(prefix, localName);
           final long key = rtx.getNodeKey();
           // Emit namespace declarations.
           for (int index = 0, nspCount = rtx.getNamespaceCount(); index < nspCount; index++) {
             rtx.moveToNamespace(index);
             if (rtx.getPrefixKey() == -1) {
-              mOut.write(CharsForSerializing.XMLNS.getBytes());
-              write(rtx.nameForKey(rtx.getURIKey()));
-              mOut.write(CharsForSerializing.QUOTE.getBytes());
+              write(CharsForSerializing.XMLNS.getBytes());
+              write(rtx.rawNameForKey(rtx.getURIKey()));
+              write(CharsForSerializing.QUOTE.getBytes());
             } else {
-              mOut.write(CharsForSerializing.XMLNS_COLON.getBytes());
-              write(rtx.nameForKey(rtx.getPrefixKey()));
-              mOut.write(CharsForSerializing.EQUAL_QUOTE.getBytes());
-              write(rtx.nameForKey(rtx.getURIKey()));
-              mOut.write(CharsForSerializing.QUOTE.getBytes());
+              write(CharsForSerializing.XMLNS_COLON.getBytes());
+              write(rtx.rawNameForKey(rtx.getPrefixKey()));
+              write(CharsForSerializing.EQUAL_QUOTE.getBytes());
+              write(rtx.rawNameForKey(rtx.getURIKey()));
+              write(CharsForSerializing.QUOTE.getBytes());
             }
             rtx.moveTo(key);
           }
@@ -171,62 +291,62 @@ public final class XMLSerializer extends AbstractSerializer {
           // Add virtual rest:id attribute.
           if (mSerializeId) {
             if (mSerializeRest) {
-              mOut.write(CharsForSerializing.REST_PREFIX.getBytes());
+              write(CharsForSerializing.REST_PREFIX.getBytes());
             } else {
-              mOut.write(CharsForSerializing.SPACE.getBytes());
+              write(CharsForSerializing.SPACE.getBytes());
             }
-            mOut.write(CharsForSerializing.ID.getBytes());
-            mOut.write(CharsForSerializing.EQUAL_QUOTE.getBytes());
+            write(CharsForSerializing.ID.getBytes());
+            write(CharsForSerializing.EQUAL_QUOTE.getBytes());
             write(rtx.getNodeKey());
-            mOut.write(CharsForSerializing.QUOTE.getBytes());
+            write(CharsForSerializing.QUOTE.getBytes());
           }
 
           // Iterate over all persistent attributes.
           for (int index = 0, attCount = rtx.getAttributeCount(); index < attCount; index++) {
             rtx.moveToAttribute(index);
-            mOut.write(CharsForSerializing.SPACE.getBytes());
+            write(CharsForSerializing.SPACE.getBytes());
             writeQName(rtx);
-            mOut.write(CharsForSerializing.EQUAL_QUOTE.getBytes());
-            mOut.write(
-                XMLToken.escapeAttribute(rtx.getValue()).getBytes(Constants.DEFAULT_ENCODING));
-            mOut.write(CharsForSerializing.QUOTE.getBytes());
+            write(CharsForSerializing.EQUAL_QUOTE.getBytes());
+            writeEscaped(rtx.getRawValue(), true);
+            write(CharsForSerializing.QUOTE.getBytes());
             rtx.moveTo(key);
           }
           if (rtx.hasFirstChild()) {
-            mOut.write(CharsForSerializing.CLOSE.getBytes());
+            pushName(prefix, localName);
+            write(CharsForSerializing.CLOSE.getBytes());
           } else {
-            mOut.write(CharsForSerializing.SLASH_CLOSE.getBytes());
+            write(CharsForSerializing.SLASH_CLOSE.getBytes());
           }
           if (mIndent) {
-            mOut.write(CharsForSerializing.NEWLINE.getBytes());
+            write(CharsForSerializing.NEWLINE.getBytes());
           }
           break;
         case COMMENT:
           indent();
-          mOut.write(CharsForSerializing.OPENCOMMENT.getBytes());
-          mOut.write(XMLToken.escapeContent(rtx.getValue()).getBytes(Constants.DEFAULT_ENCODING));
+          write(CharsForSerializing.OPENCOMMENT.getBytes());
+          writeEscaped(rtx.getRawValue(), false);
           if (mIndent) {
-            mOut.write(CharsForSerializing.NEWLINE.getBytes());
+            write(CharsForSerializing.NEWLINE.getBytes());
           }
-          mOut.write(CharsForSerializing.CLOSECOMMENT.getBytes());
+          write(CharsForSerializing.CLOSECOMMENT.getBytes());
           break;
         case TEXT:
           indent();
-          mOut.write(XMLToken.escapeContent(rtx.getValue()).getBytes(Constants.DEFAULT_ENCODING));
+          writeEscaped(rtx.getRawValue(), false);
           if (mIndent) {
-            mOut.write(CharsForSerializing.NEWLINE.getBytes());
+            write(CharsForSerializing.NEWLINE.getBytes());
           }
           break;
         case PROCESSING_INSTRUCTION:
           indent();
-          mOut.write(CharsForSerializing.OPENPI.getBytes());
+          write(CharsForSerializing.OPENPI.getBytes());
           writeQName(rtx);
-          mOut.write(CharsForSerializing.SPACE.getBytes());
-          mOut.write(XMLToken.escapeContent(rtx.getValue()).getBytes(Constants.DEFAULT_ENCODING));
+          write(CharsForSerializing.SPACE.getBytes());
+          writeEscaped(rtx.getRawValue(), false);
           if (mIndent) {
-            mOut.write(CharsForSerializing.NEWLINE.getBytes());
+            write(CharsForSerializing.NEWLINE.getBytes());
           }
-          mOut.write(CharsForSerializing.CLOSEPI.getBytes());
+          write(CharsForSerializing.CLOSEPI.getBytes());
           break;
         // $CASES-OMITTED$
         default:
@@ -238,7 +358,7 @@ public final class XMLSerializer extends AbstractSerializer {
   }
 
   /**
-   * Emit end element.
+   * Emit end element. The name is taken from the name stack, thus the transaction isn't used.
    *
    * @param rtx Sirix {@link XdmNodeReadTrx}
    */
@@ -246,24 +366,48 @@ public final class XMLSerializer extends AbstractSerializer {
   protected void emitEndTag(final XdmNodeReadTrx rtx) {
     try {
       indent();
-      mOut.write(CharsForSerializing.OPEN_SLASH.getBytes());
-      writeQName(rtx);
-      mOut.write(CharsForSerializing.CLOSE.getBytes());
+      write(CharsForSerializing.OPEN_SLASH.getBytes());
+      mNameStackSize--;
+      writeQName(mPrefixStack[mNameStackSize], mLocalNameStack[mNameStackSize]);
+      write(CharsForSerializing.CLOSE.getBytes());
       if (mIndent) {
-        mOut.write(CharsForSerializing.NEWLINE.getBytes());
+        write(CharsForSerializing.NEWLINE.getBytes());
       }
     } catch (final IOException e) {
       LOGWRAPPER.error(e.getMessage(), e);
     }
   }
 
+  /**
+   * Push the name of an element, for which an end tag has to be emitted.
+   *
+   * @param prefix the prefix or {@code null} if the element has no prefix
+   * @param localName the local name
+   */
+  private void pushName(final byte[] prefix, final byte[] localName) {
+    if (mNameStackSize == mLocalNameStack.length) {
+      mPrefixStack = Arrays.copyOf(mPrefixStack, mNameStackSize << 1);
+      mLocalNameStack = Arrays.copyOf(mLocalNameStack, mNameStackSize << 1);
+    }
+    mPrefixStack[mNameStackSize] = prefix;
+    mLocalNameStack[mNameStackSize] = localName;
+    mNameStackSize++;
+  }
+
   // Write a QName.
   private void writeQName(final XdmNodeReadTrx rtx) throws IOException {
-    if (rtx.getPrefixKey() != -1) {
-      mOut.write(rtx.rawNameForKey(rtx.getPrefixKey()));
-      mOut.write(CharsForSerializing.COLON.getBytes());
+    writeQName(rtx.getPrefixKey() == -1
+        ? null
+        : rtx.rawNameForKey(rtx.getPrefixKey()), rtx.rawNameForKey(rtx.getLocalNameKey()));
+  }
+
+  // Write a QName.
+  private void writeQName(final byte[] prefix, final byte[] localName) throws IOException {
+    if (prefix != null) {
+      write(prefix);
+      write(CharsForSerializing.COLON.getBytes());
     }
-    mOut.write(rtx.rawNameForKey(rtx.getLocalNameKey()));
+    write(localName);
   }
 
   @Override
@@ -272,7 +416,7 @@ public final class XMLSerializer extends AbstractSerializer {
       if (mSerializeXMLDeclaration) {
         write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
         if (mIndent) {
-          mOut.write(CharsForSerializing.NEWLINE.getBytes());
+          write(CharsForSerializing.NEWLINE.getBytes());
         }
       }
 
@@ -288,8 +432,8 @@ public final class XMLSerializer extends AbstractSerializer {
         }
 
         if (mIndent) {
-          mOut.write(CharsForSerializing.NEWLINE.getBytes());
-          mStack.push(Constants.NULL_ID_LONG);
+          write(CharsForSerializing.NEWLINE.getBytes());
+          mStack.add(Constants.NULL_ID_LONG);
         }
       }
     } catch (final IOException e) {
@@ -306,7 +450,7 @@ public final class XMLSerializer extends AbstractSerializer {
 
       if (mSerializeRestSequence || length > 1) {
         if (mIndent) {
-          mStack.pop();
+          mStack.removeLast();
         }
         indent();
 
@@ -317,6 +461,7 @@ public final class XMLSerializer extends AbstractSerializer {
         }
       }
 
+      flushBuffer();
       mOut.flush();
     } catch (final IOException e) {
       LOGWRAPPER.error(e.getMessage(), e);
@@ -366,10 +511,10 @@ public final class XMLSerializer extends AbstractSerializer {
         }
 
         if (rtx.hasFirstChild())
-          mStack.push(Constants.NULL_ID_LONG);
+          mStack.add(Constants.NULL_ID_LONG);
 
         if (mIndent) {
-          mOut.write(CharsForSerializing.NEWLINE.getBytes());
+          write(CharsForSerializing.NEWLINE.getBytes());
         }
       }
     } catch (final IOException e) {
@@ -386,7 +531,7 @@ public final class XMLSerializer extends AbstractSerializer {
 
       if (mSerializeRest || length > 1) {
         if (rtx.moveToDocumentRoot().get().hasFirstChild())
-          mStack.pop();
+          mStack.removeLast();
         indent();
         if (mSerializeRest) {
           write("</rest:item>");
@@ -396,8 +541,11 @@ public final class XMLSerializer extends AbstractSerializer {
       }
 
       if (mIndent) {
-        mOut.write(CharsForSerializing.NEWLINE.getBytes());
+        write(CharsForSerializing.NEWLINE.getBytes());
       }
+
+      // Hand over the revision to the output stream.
+      flushBuffer();
     } catch (final IOException e) {
       LOGWRAPPER.error(e.getMessage(), e);
     }
@@ -414,7 +562,7 @@ public final class XMLSerializer extends AbstractSerializer {
           ? (mStack.size() + 1) * mIndentSpaces
           : mStack.size() * mIndentSpaces;
       for (int i = 0; i < indentSpaces; i++) {
-        mOut.write(" ".getBytes(Constants.DEFAULT_ENCODING));
+        write(CharsForSerializing.SPACE.getBytes()[0]);
       }
     }
   }
@@ -427,22 +575,108 @@ public final class XMLSerializer extends AbstractSerializer {
    * @throws UnsupportedEncodingException if unsupport encoding
    */
   protected void write(final String value) throws UnsupportedEncodingException, IOException {
-    mOut.write(value.getBytes(Constants.DEFAULT_ENCODING));
+    write(value.getBytes(Constants.DEFAULT_ENCODING));
   }
 
   /**
-   * Write non-negative non-zero long as UTF-8 bytes.
+   * Write bytes to the output buffer.
+   *
+   * @param bytes bytes to write
+   * @throws IOException if the buffer can't be flushed
+   */
+  private void write(final byte[] bytes) throws IOException {
+    if (bytes.length > mBuffer.length - mPosition) {
+      flushBuffer();
+      if (bytes.length > mBuffer.length) {
+        mOut.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, mBuffer, mPosition, bytes.length);
+    mPosition += bytes.length;
+  }
+
+  /**
+   * Write a single byte to the output buffer.
+   *
+   * @param value byte to write
+   * @throws IOException if the buffer can't be flushed
+   */
+  private void write(final byte value) throws IOException {
+    if (mPosition == mBuffer.length) {
+      flushBuffer();
+    }
+    mBuffer[mPosition++] = value;
+  }
+
+  /**
+   * Write UTF-8 encoded bytes and escape the characters, which aren't allowed in text content or
+   * attribute values. As all of these characters are ASCII characters, escaping on the byte level
+   * is safe.
+   *
+   * @param value UTF-8 encoded value to write
+   * @param isAttribute {@code true}, if the value is an attribute value, {@code false} otherwise
+   * @throws IOException if the buffer can't be flushed
+   */
+  private void writeEscaped(final byte[] value, final boolean isAttribute) throws IOException {
+    for (final byte character : value) {
+      switch (character) {
+        case '&':
+          write(CharsForSerializing.ESCAPED_AMPERSAND.getBytes());
+          break;
+        case '<':
+          write(CharsForSerializing.ESCAPED_LESS_THAN.getBytes());
+          break;
+        case '>':
+          write(CharsForSerializing.ESCAPED_GREATER_THAN.getBytes());
+          break;
+        case '"':
+          if (isAttribute) {
+            write(CharsForSerializing.ESCAPED_QUOTE.getBytes());
+          } else {
+            write(character);
+          }
+          break;
+        case '\'':
+          if (isAttribute) {
+            write(CharsForSerializing.ESCAPED_APOSTROPHE.getBytes());
+          } else {
+            write(character);
+          }
+          break;
+        default:
+          write(character);
+      }
+    }
+  }
+
+  /**
+   * Write the content of the output buffer to the output stream.
+   *
+   * @throws IOException if the output stream can't be written to
+   */
+  private void flushBuffer() throws IOException {
+    if (mPosition > 0) {
+      mOut.write(mBuffer, 0, mPosition);
+      mPosition = 0;
+    }
+  }
+
+  /**
+   * Write non-negative long as UTF-8 bytes.
    *
    * @param value value to write
    * @throws IOException if can't write to string
    */
   private void write(final long value) throws IOException {
-    final int length = (int) Math.log10(value);
-    int digit = 0;
+    int length = 0;
+    while (length < LONG_POWERS.length - 1 && value >= LONG_POWERS[length + 1]) {
+      length++;
+    }
     long remainder = value;
     for (int i = length; i >= 0; i--) {
-      digit = (byte) (remainder / LONG_POWERS[i]);
-      mOut.write((byte) (digit + ASCII_OFFSET));
+      final int digit = (int) (remainder / LONG_POWERS[i]);
+      write((byte) (digit + ASCII_OFFSET));
       remainder -= digit * LONG_POWERS[i];
     }
   }
@@ -561,6 +795,8 @@ public final class XMLSerializer extends AbstractSerializer {
 
     private boolean mSerializeTimestamp;
 
+    private int mMaxParallelism = 1;
+
     /**
      * Constructor, setting the necessary stuff.
      *
@@ -658,6 +894,21 @@ public final class XMLSerializer extends AbstractSerializer {
       return this;
     }
 
+    /**
+     * Sets the maximum number of revisions, which are serialized concurrently into separate buffers.
+     * The buffers are written to the output stream in the order of the revisions. Up to
+     * {@code 2 * maxParallelism} serialized revisions are held in memory at the same time.
+     *
+     * @param maxParallelism the maximum number of revisions to serialize concurrently, {@code 1}
+     *        for sequential serialization (the default)
+     * @return this {@link XMLSerializerBuilder} instance
+     */
+    public XMLSerializerBuilder maxParallelism(final @Nonnegative int maxParallelism) {
+      checkArgument(maxParallelism > 0, "maxParallelism must be > 0!");
+      mMaxParallelism = maxParallelism;
+      return this;
+    }
+
     /**
      * Pretty prints the output.
      *
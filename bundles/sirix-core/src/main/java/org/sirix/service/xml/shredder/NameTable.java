@@ -0,0 +1,102 @@
+package org.sirix.service.xml.shredder;
+
+import org.brackit.xquery.atomic.QNm;
+import com.google.common.base.Strings;
+
+/**
+ * Interns the names reported by a StAX parser, such that every distinct name is created as a
+ * {@link QNm} only once. Names are looked up by their components, thus no intermediate
+ * {@link javax.xml.namespace.QName} or key object has to be created.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+final class NameTable {
+
+  /** Initial capacity, which must be a power of two. */
+  private static final int CAPACITY = 64;
+
+  /** The interned names (open addressing with linear probing). */
+  private QNm[] mNames;
+
+  /** The hashes of the interned names. */
+  private int[] mHashes;
+
+  /** Number of interned names. */
+  private int mSize;
+
+  /**
+   * Constructor.
+   */
+  NameTable() {
+    mNames = new QNm[CAPACITY];
+    mHashes = new int[CAPACITY];
+  }
+
+  /**
+   * Get the interned name.
+   *
+   * @param uri the namespace URI or {@code null}
+   * @param prefix the prefix or {@code null}
+   * @param localName the local name
+   * @return the interned name
+   */
+  QNm intern(final String uri, final String prefix, final String localName) {
+    final String nsURI = Strings.nullToEmpty(uri);
+    final String nsPrefix = Strings.nullToEmpty(prefix);
+    final int hash = hash(nsURI, nsPrefix, localName);
+    final int mask = mNames.length - 1;
+    int index = hash & mask;
+    for (QNm name = mNames[index]; name != null; name = mNames[index]) {
+      if (mHashes[index] == hash && localName.equals(name.getLocalName())
+          && nsPrefix.equals(Strings.nullToEmpty(name.getPrefix()))
+          && nsURI.equals(Strings.nullToEmpty(name.getNamespaceURI()))) {
+        return name;
+      }
+      index = (index + 1) & mask;
+    }
+
+    final QNm name = new QNm(nsURI, nsPrefix, localName);
+    mNames[index] = name;
+    mHashes[index] = hash;
+    if (++mSize > mNames.length >> 1) {
+      resize();
+    }
+    return name;
+  }
+
+  /**
+   * Double the capacity of the table.
+   */
+  private void resize() {
+    final QNm[] names = mNames;
+    final int[] hashes = mHashes;
+    mNames = new QNm[names.length << 1];
+    mHashes = new int[names.length << 1];
+    final int mask = mNames.length - 1;
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        int index = hashes[i] & mask;
+        while (mNames[index] != null) {
+          index = (index + 1) & mask;
+        }
+        mNames[index] = names[i];
+        mHashes[index] = hashes[i];
+      }
+    }
+  }
+
+  /**
+   * Compute the hash of a name.
+   *
+   * @param uri the namespace URI
+   * @param prefix the prefix
+   * @param localName the local name
+   * @return the hash
+   */
+  private static int hash(final String uri, final String prefix, final String localName) {
+    final int hash = (localName.hashCode() * 31 + prefix.hashCode()) * 31 + uri.hashCode();
+    // Spread the higher bits, as the table index is computed from the lower bits.
+    return hash ^ (hash >>> 16);
+  }
+}
@@ -0,0 +1,217 @@
+package org.sirix.service.xml.shredder;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.brackit.xquery.atomic.QNm;
+import com.google.common.base.Strings;
+
+/**
+ * The nodes of a chunk of an XML document in document order, which are parsed independently of the
+ * transaction and inserted afterwards. The nodes are stored in parallel arrays of node kinds, names
+ * and values.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+final class NodeBatch {
+
+  /** Start of an element. */
+  static final byte START_ELEMENT = 0;
+
+  /** End of an element. */
+  static final byte END_ELEMENT = 1;
+
+  /** Namespace of the current element. */
+  static final byte NAMESPACE = 2;
+
+  /** Attribute of the current element. */
+  static final byte ATTRIBUTE = 3;
+
+  /** Text. */
+  static final byte TEXT = 4;
+
+  /** Comment. */
+  static final byte COMMENT = 5;
+
+  /** Processing instruction, whose target is stored as the name. */
+  static final byte PROCESSING_INSTRUCTION = 6;
+
+  /** Initial capacity of the arrays. */
+  private static final int CAPACITY = 256;
+
+  /** Factory of the StAX readers, one per thread. */
+  private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal.withInitial(() -> {
+    final XMLInputFactory factory = XMLInputFactory.newInstance();
+    XMLShredder.setProperties(factory);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
+  });
+
+  /** Node kinds. */
+  private byte[] mKinds;
+
+  /** Names or {@code null}. */
+  private QNm[] mNames;
+
+  /** Values or {@code null}. */
+  private String[] mValues;
+
+  /** Number of nodes. */
+  private int mSize;
+
+  /** Names, which have already been created, such that they are shared. */
+  private final NameTable mNameTable;
+
+  /**
+   * Constructor.
+   */
+  private NodeBatch() {
+    mKinds = new byte[CAPACITY];
+    mNames = new QNm[CAPACITY];
+    mValues = new String[CAPACITY];
+    mNameTable = new NameTable();
+  }
+
+  /**
+   * Parse a chunk. The end of the root element is omitted, as the root element spans all chunks.
+   *
+   * @param xml the chunk, which is a well-formed document
+   * @param skipRoot determines if the start of the root element is omitted, too
+   * @param includeComments determines if comments are included
+   * @param includePIs determines if processing instructions are included
+   * @return the parsed nodes
+   * @throws XMLStreamException if the chunk isn't well-formed
+   */
+  static NodeBatch parse(final byte[] xml, final boolean skipRoot,
+      final boolean includeComments, final boolean includePIs) throws XMLStreamException {
+    final NodeBatch batch = new NodeBatch();
+    final XMLStreamReader reader =
+        FACTORY.get().createXMLStreamReader(new ByteArrayInputStream(xml));
+    try {
+      final TextBuffer text = new TextBuffer();
+      int level = 0;
+      while (reader.hasNext()) {
+        final int event = reader.next();
+        if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.CDATA
+            && event != XMLStreamConstants.SPACE && !text.isEmpty()) {
+          final String value = text.drain();
+          if (!value.isEmpty()) {
+            batch.add(TEXT, null, value);
+          }
+        }
+
+        switch (event) {
+          case XMLStreamConstants.START_ELEMENT:
+            level++;
+            if (level > 1 || !skipRoot) {
+              batch.add(START_ELEMENT, batch.mNameTable.intern(reader.getNamespaceURI(),
+                  reader.getPrefix(), reader.getLocalName()), null);
+              for (int i = 0, count = reader.getNamespaceCount(); i < count; i++) {
+                batch.add(NAMESPACE, new QNm(Strings.nullToEmpty(reader.getNamespaceURI(i)),
+                    Strings.nullToEmpty(reader.getNamespacePrefix(i)), ""), null);
+              }
+              for (int i = 0, count = reader.getAttributeCount(); i < count; i++) {
+                batch.add(ATTRIBUTE,
+                    batch.mNameTable.intern(reader.getAttributeNamespace(i),
+                        reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+              }
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            level--;
+            if (level > 0) {
+              batch.add(END_ELEMENT, batch.mNameTable.intern(reader.getNamespaceURI(),
+                  reader.getPrefix(), reader.getLocalName()), null);
+            }
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            text.append(reader.getTextCharacters(), reader.getTextStart(),
+                reader.getTextLength());
+            break;
+          case XMLStreamConstants.COMMENT:
+            if (includeComments) {
+              batch.add(COMMENT, null, reader.getText());
+            }
+            break;
+          case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            if (includePIs) {
+              batch.add(PROCESSING_INSTRUCTION, new QNm(reader.getPITarget()),
+                  reader.getPIData());
+            }
+            break;
+          default:
+            // Node kind not known.
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return batch;
+  }
+
+  /**
+   * Append a node.
+   *
+   * @param kind the node kind
+   * @param name the name or {@code null}
+   * @param value the value or {@code null}
+   */
+  private void add(final byte kind, final QNm name, final String value) {
+    if (mSize == mKinds.length) {
+      final int capacity = mSize << 1;
+      mKinds = Arrays.copyOf(mKinds, capacity);
+      mNames = Arrays.copyOf(mNames, capacity);
+      mValues = Arrays.copyOf(mValues, capacity);
+    }
+    mKinds[mSize] = kind;
+    mNames[mSize] = name;
+    mValues[mSize] = value;
+    mSize++;
+  }
+
+  /**
+   * Get the number of nodes.
+   *
+   * @return the number of nodes
+   */
+  int size() {
+    return mSize;
+  }
+
+  /**
+   * Get the kind of a node.
+   *
+   * @param index the index of the node
+   * @return the node kind
+   */
+  byte getKind(final int index) {
+    return mKinds[index];
+  }
+
+  /**
+   * Get the name of a node.
+   *
+   * @param index the index of the node
+   * @return the name or {@code null}, if the node doesn't have a name
+   */
+  QNm getName(final int index) {
+    return mNames[index];
+  }
+
+  /**
+   * Get the value of a node.
+   *
+   * @param index the index of the node
+   * @return the value or {@code null}, if the node doesn't have a value
+   */
+  String getValue(final int index) {
+    return mValues[index];
+  }
+}
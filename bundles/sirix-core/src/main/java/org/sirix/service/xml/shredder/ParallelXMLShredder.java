@@ -0,0 +1,355 @@
+package org.sirix.service.xml.shredder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import javax.xml.stream.XMLStreamException;
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.access.Databases;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shreds a large XML file in parallel. The file is split into chunks in front of the children of
+ * the root element (the records), the chunks are parsed concurrently into {@link NodeBatch}es and
+ * the batches are inserted in document order by the single {@link XdmNodeWriteTrx}. The result is
+ * the same as the one of the {@link XMLShredder}, except that attributes are inserted in document
+ * order and adjacent character data is trimmed as a whole.
+ *
+ * <p>
+ * Only encodings, in which the markup characters are encoded as single ASCII bytes (for instance
+ * UTF-8 or ISO-8859-1), are supported.
+ * </p>
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+public final class ParallelXMLShredder extends AbstractShredder implements Callable<Long> {
+
+  /** {@link LogWrapper} reference. */
+  private static final LogWrapper LOGWRAPPER =
+      new LogWrapper(LoggerFactory.getLogger(ParallelXMLShredder.class));
+
+  /** Default minimum number of bytes of a chunk. */
+  public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+  /** Maximum number of chunks, which are parsed ahead of the insertion. */
+  private static final int MAX_PENDING = 2 * Runtime.getRuntime().availableProcessors();
+
+  /** {@link XdmNodeWriteTrx}. */
+  private final XdmNodeWriteTrx mWtx;
+
+  /** The XML file. */
+  private final Path mFile;
+
+  /** Determines if changes are going to be commit right after shredding. */
+  private final ShredderCommit mCommit;
+
+  /** Determines if comments should be included. */
+  private final boolean mIncludeComments;
+
+  /** Determines if processing instructions should be included. */
+  private final boolean mIncludePIs;
+
+  /** Minimum number of bytes of a chunk. */
+  private final int mChunkSize;
+
+  /** Executor, which parses the chunks. */
+  private final ExecutorService mExecutor;
+
+  /** Node key of the inserted root element. */
+  private long mRootKey;
+
+  /** Name of the inserted root element. */
+  private QNm mRootName;
+
+  /**
+   * Builder to build a {@link ParallelXMLShredder} instance.
+   */
+  public static class Builder {
+
+    /** {@link XdmNodeWriteTrx} implementation. */
+    private final XdmNodeWriteTrx mWtx;
+
+    /** The XML file. */
+    private final Path mFile;
+
+    /** Insertion position. */
+    private final Insert mInsert;
+
+    /** Determines if comments should be included. */
+    private boolean mIncludeComments = true;
+
+    /** Determines if processing instructions should be included. */
+    private boolean mIncludePIs = true;
+
+    /** Minimum number of bytes of a chunk. */
+    private int mChunkSize = DEFAULT_CHUNK_SIZE;
+
+    /** Executor, which parses the chunks. */
+    private ExecutorService mExecutor = ForkJoinPool.commonPool();
+
+    /**
+     * Determines if after shredding the transaction should be immediately commited.
+     */
+    private ShredderCommit mCommit = ShredderCommit.NOCOMMIT;
+
+    /**
+     * Constructor.
+     *
+     * @param wtx {@link XdmNodeWriteTrx} implementation
+     * @param file the XML file
+     * @param insert insertion position
+     */
+    public Builder(final XdmNodeWriteTrx wtx, final Path file, final Insert insert) {
+      mWtx = checkNotNull(wtx);
+      mFile = checkNotNull(file);
+      mInsert = checkNotNull(insert);
+    }
+
+    /**
+     * Include comments or not (default: yes).
+     *
+     * @param include include comments
+     * @return this builder instance
+     */
+    public Builder includeComments(final boolean include) {
+      mIncludeComments = include;
+      return this;
+    }
+
+    /**
+     * Include processing instructions or not (default: yes).
+     *
+     * @param include include processing instructions
+     * @return this builder instance
+     */
+    public Builder includePIs(final boolean include) {
+      mIncludePIs = include;
+      return this;
+    }
+
+    /**
+     * Set the minimum number of bytes of a chunk (default: {@link #DEFAULT_CHUNK_SIZE}).
+     *
+     * @param chunkSize minimum number of bytes of a chunk
+     * @return this builder instance
+     * @throws IllegalArgumentException if {@code chunkSize} isn't positive
+     */
+    public Builder chunkSize(final int chunkSize) {
+      checkArgument(chunkSize > 0, "The chunk size must be positive!");
+      mChunkSize = chunkSize;
+      return this;
+    }
+
+    /**
+     * Set the executor, which parses the chunks (default: the common fork/join pool).
+     *
+     * @param executor the executor
+     * @return this builder instance
+     */
+    public Builder executor(final ExecutorService executor) {
+      mExecutor = checkNotNull(executor);
+      return this;
+    }
+
+    /**
+     * Commit afterwards.
+     *
+     * @return this builder instance
+     */
+    public Builder commitAfterwards() {
+      mCommit = ShredderCommit.COMMIT;
+      return this;
+    }
+
+    /**
+     * Build an instance.
+     *
+     * @return {@link ParallelXMLShredder} instance
+     */
+    public ParallelXMLShredder build() {
+      return new ParallelXMLShredder(this);
+    }
+  }
+
+  /**
+   * Private constructor.
+   *
+   * @param builder builder reference
+   */
+  private ParallelXMLShredder(final Builder builder) {
+    super(builder.mWtx, builder.mInsert);
+    mWtx = builder.mWtx;
+    mFile = builder.mFile;
+    mIncludeComments = builder.mIncludeComments;
+    mIncludePIs = builder.mIncludePIs;
+    mChunkSize = builder.mChunkSize;
+    mExecutor = builder.mExecutor;
+    mCommit = builder.mCommit;
+    mRootKey = -1;
+  }
+
+  /**
+   * Invoking the shredder.
+   *
+   * @throws SirixException if any kind of sirix exception which has occured
+   * @return revision of file
+   */
+  @Override
+  public Long call() throws SirixException {
+    final long revision = mWtx.getRevisionNumber();
+    insertNewContent();
+    mCommit.commit(mWtx);
+    return revision;
+  }
+
+  /**
+   * Split the file, parse the chunks concurrently and insert the batches in document order.
+   *
+   * @throws SirixException if something went wrong while inserting
+   */
+  private void insertNewContent() throws SirixException {
+    final Deque<Future<NodeBatch>> batches = new ArrayDeque<>();
+    try (final InputStream in = Files.newInputStream(mFile)) {
+      final XMLChunkSplitter splitter = new XMLChunkSplitter(in, mChunkSize);
+      boolean first = true;
+      for (byte[] chunk = splitter.next(); chunk != null; chunk = splitter.next()) {
+        final byte[] xml = chunk;
+        final boolean skipRoot = !first;
+        batches.add(mExecutor.submit(
+            () -> NodeBatch.parse(xml, skipRoot, mIncludeComments, mIncludePIs)));
+        first = false;
+        if (batches.size() == MAX_PENDING) {
+          insert(batches.poll());
+        }
+      }
+      while (!batches.isEmpty()) {
+        insert(batches.poll());
+      }
+    } catch (final IOException e) {
+      throw new SirixIOException(e);
+    } finally {
+      for (final Future<NodeBatch> batch : batches) {
+        batch.cancel(true);
+      }
+    }
+
+    processEndTag(mRootName);
+    mWtx.moveTo(mRootKey);
+  }
+
+  /**
+   * Insert the nodes of a batch.
+   *
+   * @param future the batch, which might still be parsed
+   * @throws SirixException if something went wrong while inserting
+   */
+  private void insert(final Future<NodeBatch> future) throws SirixException {
+    final NodeBatch batch;
+    try {
+      batch = future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SirixIOException(e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof XMLStreamException) {
+        throw new SirixIOException(e.getCause());
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new SirixIOException(e);
+    }
+
+    for (int i = 0, size = batch.size(); i < size; i++) {
+      switch (batch.getKind(i)) {
+        case NodeBatch.START_ELEMENT:
+          processStartTag(batch.getName(i));
+          if (mRootKey == -1) {
+            mRootKey = mWtx.getNodeKey();
+            mRootName = batch.getName(i);
+          }
+          break;
+        case NodeBatch.END_ELEMENT:
+          processEndTag(batch.getName(i));
+          break;
+        case NodeBatch.NAMESPACE:
+          mWtx.insertNamespace(batch.getName(i));
+          mWtx.moveToParent();
+          break;
+        case NodeBatch.ATTRIBUTE:
+          mWtx.insertAttribute(batch.getName(i), batch.getValue(i));
+          mWtx.moveToParent();
+          break;
+        case NodeBatch.TEXT:
+          processText(batch.getValue(i));
+          break;
+        case NodeBatch.COMMENT:
+          processComment(batch.getValue(i));
+          break;
+        case NodeBatch.PROCESSING_INSTRUCTION:
+          processPI(batch.getValue(i), batch.getName(i).getLocalName());
+          break;
+        default:
+          throw new AssertionError();
+      }
+    }
+  }
+
+  /**
+   * Main method.
+   *
+   * @param args input and output files
+   * @throws SirixException if a Sirix error occurs
+   */
+  public static void main(final String... args) throws SirixException {
+    if (args.length != 2 && args.length != 3) {
+      throw new IllegalArgumentException(
+          "Usage: ParallelXMLShredder XMLFile Database [true/false] (shredder comment|PI)");
+    }
+    LOGWRAPPER.info("Shredding '" + args[0] + "' to '" + args[1] + "' ... ");
+    final long time = System.nanoTime();
+    final Path target = Paths.get(args[1]);
+    final DatabaseConfiguration config = new DatabaseConfiguration(target);
+    Databases.removeDatabase(target);
+    Databases.createDatabase(config);
+
+    try (final Database db = Databases.openDatabase(target)) {
+      db.createResource(new ResourceConfiguration.Builder("shredded", config).build());
+      try (final ResourceManager resMgr = db.getResourceManager("shredded");
+          final XdmNodeWriteTrx wtx = resMgr.beginNodeWriteTrx()) {
+        final boolean includeCoPI = args.length == 3
+            ? Boolean.parseBoolean(args[2])
+            : false;
+        final ParallelXMLShredder shredder =
+            new ParallelXMLShredder.Builder(wtx, Paths.get(args[0]), Insert.ASFIRSTCHILD)
+                .commitAfterwards()
+                .includeComments(includeCoPI)
+                .includePIs(includeCoPI)
+                .build();
+        shredder.call();
+      }
+    }
+
+    LOGWRAPPER.info(" done [" + (System.nanoTime() - time) / 1000000 + " ms].");
+  }
+}
@@ -0,0 +1,72 @@
+package org.sirix.service.xml.shredder;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates adjacent character data, which a StAX parser passes as ranges of its internal
+ * buffer, such that the trimmed text is copied into a {@link String} only once.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+final class TextBuffer {
+
+  /** Initial capacity. */
+  private static final int CAPACITY = 1024;
+
+  /** The characters. */
+  private char[] mChars;
+
+  /** Number of characters. */
+  private int mLength;
+
+  /**
+   * Constructor.
+   */
+  TextBuffer() {
+    mChars = new char[CAPACITY];
+  }
+
+  /**
+   * Append a range of characters.
+   *
+   * @param chars the characters, which are copied
+   * @param start index of the first character
+   * @param length number of characters
+   */
+  void append(final char[] chars, final int start, final int length) {
+    if (mLength + length > mChars.length) {
+      mChars = Arrays.copyOf(mChars, Math.max(mChars.length << 1, mLength + length));
+    }
+    System.arraycopy(chars, start, mChars, mLength, length);
+    mLength += length;
+  }
+
+  /**
+   * Determines if no characters have been appended.
+   *
+   * @return {@code true}, if the buffer is empty, {@code false} otherwise
+   */
+  boolean isEmpty() {
+    return mLength == 0;
+  }
+
+  /**
+   * Get the characters without leading and trailing whitespace (as defined by
+   * {@link String#trim()}) and empty the buffer.
+   *
+   * @return the trimmed characters, which might be empty
+   */
+  String drain() {
+    int start = 0;
+    int end = mLength;
+    while (start < end && mChars[start] <= ' ') {
+      start++;
+    }
+    while (end > start && mChars[end - 1] <= ' ') {
+      end--;
+    }
+    mLength = 0;
+    return new String(mChars, start, end - start);
+  }
+}
@@ -0,0 +1,376 @@
+package org.sirix.service.xml.shredder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.sirix.exception.SirixIOException;
+
+/**
+ * Splits an XML document into chunks, which are well-formed documents on their own. The document
+ * is cut in front of the start tags of the children of the root element (the records), as soon as
+ * a chunk exceeds the chunk size. Every chunk but the first one starts with the XML declaration
+ * and the start tag of the root element, and every chunk but the last one ends with the end tag
+ * of the root element.
+ *
+ * <p>
+ * The document is scanned on the byte level, such that only encodings, in which the markup
+ * characters are encoded as single ASCII bytes (for instance UTF-8 or ISO-8859-1), are supported.
+ * </p>
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+final class XMLChunkSplitter {
+
+  /** Number of bytes read at once. */
+  private static final int BLOCK_SIZE = 64 * 1024;
+
+  /** Number of bytes, which must be available to recognize markup ({@code <![CDATA[}). */
+  private static final int LOOKAHEAD = 9;
+
+  /** Matches the encoding in the XML declaration. */
+  private static final Pattern ENCODING =
+      Pattern.compile("^<\\?xml[^>]*encoding\\s*=\\s*[\"']([A-Za-z0-9._-]+)[\"']");
+
+  /** Scanner states. */
+  private enum State {
+    /** Character data. */
+    TEXT,
+
+    /** Start tag. */
+    START_TAG,
+
+    /** End tag. */
+    END_TAG,
+
+    /** Comment. */
+    COMMENT,
+
+    /** CDATA section. */
+    CDATA,
+
+    /** Processing instruction or XML declaration. */
+    PI,
+
+    /** Document type declaration. */
+    DECLARATION
+  }
+
+  /** The input stream. */
+  private final InputStream mIn;
+
+  /** Minimum number of bytes of a chunk. */
+  private final int mChunkSize;
+
+  /** Buffer, which starts with the current chunk. */
+  private byte[] mBuffer;
+
+  /** Number of valid bytes in the buffer. */
+  private int mLength;
+
+  /** Current position in the buffer. */
+  private int mPos;
+
+  /** Determines if the input stream is exhausted. */
+  private boolean mEof;
+
+  /** The current state. */
+  private State mState;
+
+  /** The quote character of the current attribute value or {@code 0}. */
+  private byte mQuote;
+
+  /** Nesting level of brackets in the document type declaration. */
+  private int mBrackets;
+
+  /** Depth of the current element. */
+  private int mDepth;
+
+  /** Position of the current start tag in the buffer. */
+  private int mTagStart;
+
+  /** Prepended to every chunk but the first one, or {@code null}, if the root isn't known yet. */
+  private byte[] mHeader;
+
+  /** Appended to every chunk but the last one. */
+  private byte[] mFooter;
+
+  /** Determines if the next chunk is the first one. */
+  private boolean mFirst;
+
+  /** Determines if the end of the root element has been reached. */
+  private boolean mDone;
+
+  /**
+   * Constructor.
+   *
+   * @param in the input stream, which isn't closed by the splitter
+   * @param chunkSize minimum number of bytes of a chunk
+   * @throws IllegalArgumentException if {@code chunkSize} isn't positive
+   */
+  XMLChunkSplitter(final InputStream in, final int chunkSize) {
+    checkArgument(chunkSize > 0, "The chunk size must be positive!");
+    mIn = checkNotNull(in);
+    mChunkSize = chunkSize;
+    mBuffer = new byte[BLOCK_SIZE];
+    mState = State.TEXT;
+    mFirst = true;
+  }
+
+  /**
+   * Get the next chunk.
+   *
+   * @return the next chunk or {@code null}, if the document is exhausted
+   * @throws IOException if reading from the input stream fails
+   * @throws SirixIOException if the document ends before the root element is closed or the
+   *         encoding isn't supported
+   */
+  byte[] next() throws IOException {
+    if (mDone) {
+      return null;
+    }
+    while (true) {
+      if (mLength - mPos < LOOKAHEAD && !mEof) {
+        fill();
+        continue;
+      }
+      if (mPos == mLength) {
+        throw new SirixIOException("Unexpected end of the XML document!");
+      }
+      final byte b = mBuffer[mPos];
+      switch (mState) {
+        case TEXT:
+          if (b == '<' && startMarkup()) {
+            return chunk(mPos, false);
+          }
+          break;
+        case START_TAG:
+          if (mQuote != 0) {
+            if (b == mQuote) {
+              mQuote = 0;
+            }
+          } else if (b == '"' || b == '\'') {
+            mQuote = b;
+          } else if (b == '>') {
+            mState = State.TEXT;
+            final boolean empty = mBuffer[mPos - 1] == '/';
+            if (mHeader == null) {
+              rootStarted();
+              if (empty) {
+                return chunk(mPos + 1, true);
+              }
+            }
+            if (!empty) {
+              mDepth++;
+            }
+          }
+          break;
+        case END_TAG:
+          if (b == '>') {
+            mState = State.TEXT;
+            if (--mDepth == 0) {
+              return chunk(mPos + 1, true);
+            }
+          }
+          break;
+        case COMMENT:
+          if (b == '-' && matches("-->")) {
+            mState = State.TEXT;
+            mPos += 2;
+          }
+          break;
+        case CDATA:
+          if (b == ']' && matches("]]>")) {
+            mState = State.TEXT;
+            mPos += 2;
+          }
+          break;
+        case PI:
+          if (b == '?' && matches("?>")) {
+            mState = State.TEXT;
+            mPos++;
+          }
+          break;
+        case DECLARATION:
+          if (b == '[') {
+            mBrackets++;
+          } else if (b == ']') {
+            mBrackets--;
+          } else if (b == '>' && mBrackets == 0) {
+            mState = State.TEXT;
+          }
+          break;
+        default:
+          throw new AssertionError();
+      }
+      mPos++;
+    }
+  }
+
+  /**
+   * Switch to the state of the markup, which starts at the current position.
+   *
+   * @return {@code true}, if the chunk has to be cut in front of the markup, {@code false}
+   *         otherwise
+   */
+  private boolean startMarkup() {
+    if (matches("</")) {
+      mState = State.END_TAG;
+    } else if (matches("<?")) {
+      mState = State.PI;
+      mPos++;
+    } else if (matches("<!--")) {
+      mState = State.COMMENT;
+      mPos += 3;
+    } else if (matches("<![CDATA[")) {
+      mState = State.CDATA;
+      mPos += 8;
+    } else if (matches("<!")) {
+      mState = State.DECLARATION;
+      mBrackets = 0;
+    } else {
+      // Cut in front of a record, if the chunk is large enough.
+      if (mDepth == 1 && mPos >= mChunkSize) {
+        return true;
+      }
+      mState = State.START_TAG;
+      mTagStart = mPos;
+    }
+    return false;
+  }
+
+  /**
+   * Build the header and the footer of the chunks, once the start tag of the root element has been
+   * scanned completely.
+   */
+  private void rootStarted() {
+    int nameEnd = mTagStart + 1;
+    while (nameEnd < mPos && !isNameEnd(mBuffer[nameEnd])) {
+      nameEnd++;
+    }
+    final String encoding = encoding();
+    final byte[] declaration = ("<?xml version=\"1.0\" encoding=\"" + encoding + "\"?>")
+        .getBytes(StandardCharsets.US_ASCII);
+    mHeader = concat(declaration, Arrays.copyOfRange(mBuffer, mTagStart, mPos + 1));
+    if (mBuffer[mPos - 1] == '/') {
+      // An empty root element is the only chunk.
+      return;
+    }
+    mFooter = new byte[nameEnd - mTagStart + 2];
+    mFooter[0] = '<';
+    mFooter[1] = '/';
+    System.arraycopy(mBuffer, mTagStart + 1, mFooter, 2, nameEnd - mTagStart - 1);
+    mFooter[mFooter.length - 1] = '>';
+  }
+
+  /**
+   * Get the encoding of the document from the XML declaration.
+   *
+   * @return the encoding
+   * @throws SirixIOException if the encoding isn't supported
+   */
+  private String encoding() {
+    final String prolog = new String(mBuffer, 0, mTagStart, StandardCharsets.ISO_8859_1);
+    final Matcher matcher = ENCODING.matcher(prolog);
+    if (!matcher.find()) {
+      return StandardCharsets.UTF_8.name();
+    }
+    final String encoding = matcher.group(1);
+    final String name = encoding.toUpperCase(Locale.ENGLISH);
+    if (name.startsWith("UTF-16") || name.startsWith("UTF-32") || name.startsWith("UCS")) {
+      throw new SirixIOException("Encoding not supported: " + encoding);
+    }
+    return encoding;
+  }
+
+  /**
+   * Determines if a byte terminates the name of a tag.
+   *
+   * @param b the byte
+   * @return {@code true}, if the name ends, {@code false} otherwise
+   */
+  private static boolean isNameEnd(final byte b) {
+    return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '/' || b == '>';
+  }
+
+  /**
+   * Determines if the buffer contains a string at the current position.
+   *
+   * @param markup the string, which only consists of ASCII characters
+   * @return {@code true}, if it matches, {@code false} otherwise
+   */
+  private boolean matches(final String markup) {
+    if (mPos + markup.length() > mLength) {
+      return false;
+    }
+    for (int i = 0; i < markup.length(); i++) {
+      if (mBuffer[mPos + i] != markup.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Read the next block from the input stream.
+   *
+   * @throws IOException if reading fails
+   */
+  private void fill() throws IOException {
+    if (mBuffer.length - mLength < BLOCK_SIZE) {
+      mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mLength + BLOCK_SIZE));
+    }
+    final int read = mIn.read(mBuffer, mLength, BLOCK_SIZE);
+    if (read == -1) {
+      mEof = true;
+      return;
+    }
+    if (mLength == 0 && mFirst && read > 1 && (mBuffer[0] == 0 || mBuffer[1] == 0
+        || (mBuffer[0] & 0xFF) == 0xFE || (mBuffer[0] & 0xFF) == 0xFF)) {
+      throw new SirixIOException("Only ASCII-compatible encodings are supported!");
+    }
+    mLength += read;
+  }
+
+  /**
+   * Cut the current chunk and remove it from the buffer.
+   *
+   * @param end position after the last byte of the chunk
+   * @param last determines if the chunk is the last one
+   * @return the chunk including header and footer
+   */
+  private byte[] chunk(final int end, final boolean last) {
+    byte[] chunk = Arrays.copyOf(mBuffer, end);
+    if (!mFirst) {
+      chunk = concat(mHeader, chunk);
+    }
+    if (!last) {
+      chunk = concat(chunk, mFooter);
+    }
+    System.arraycopy(mBuffer, end, mBuffer, 0, mLength - end);
+    mLength -= end;
+    mPos -= end;
+    mFirst = false;
+    mDone = last;
+    return chunk;
+  }
+
+  /**
+   * Concatenate two byte arrays.
+   *
+   * @param first the first array
+   * @param second the second array
+   * @return the concatenated array
+   */
+  private static byte[] concat(final byte[] first, final byte[] second) {
+    final byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+}
@@ -361,7 +361,12 @@ public final class XMLShredder extends AbstractShredder implements Callable<Long
     }
   }
 
-  private static void setProperties(final XMLInputFactory factory) {
+  /**
+   * Set the properties of a factory of StAX readers.
+   *
+   * @param factory the factory
+   */
+  static void setProperties(final XMLInputFactory factory) {
     factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
     factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
     factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
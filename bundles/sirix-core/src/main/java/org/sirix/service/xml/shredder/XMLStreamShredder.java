@@ -0,0 +1,327 @@
+package org.sirix.service.xml.shredder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.access.Databases;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shreds an XML document based on the cursor API of StAX ({@link XMLStreamReader}) instead of
+ * the event objects of the {@link XMLShredder}. Names are interned in a {@link NameTable}, such
+ * that every distinct name is created only once, and character data is copied from the parser's
+ * buffer into a reused {@link TextBuffer}. The nodes are inserted through the same
+ * {@link AbstractShredder} callbacks as by the {@link XMLShredder}, except that attributes are
+ * inserted in document order and adjacent character data is trimmed as a whole.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+public final class XMLStreamShredder extends AbstractShredder implements Callable<Long> {
+
+  /** {@link LogWrapper} reference. */
+  private static final LogWrapper LOGWRAPPER =
+      new LogWrapper(LoggerFactory.getLogger(XMLStreamShredder.class));
+
+  /** {@link XdmNodeWriteTrx}. */
+  private final XdmNodeWriteTrx mWtx;
+
+  /** {@link XMLStreamReader}. */
+  private final XMLStreamReader mReader;
+
+  /** Determines if changes are going to be commit right after shredding. */
+  private final ShredderCommit mCommit;
+
+  /** Determines if comments should be included. */
+  private final boolean mIncludeComments;
+
+  /** Determines if processing instructions should be included. */
+  private final boolean mIncludePIs;
+
+  /** The interned names. */
+  private final NameTable mNames;
+
+  /** Adjacent character data. */
+  private final TextBuffer mText;
+
+  /**
+   * Builder to build an {@link XMLStreamShredder} instance.
+   */
+  public static class Builder {
+
+    /** {@link XdmNodeWriteTrx} implementation. */
+    private final XdmNodeWriteTrx mWtx;
+
+    /** {@link XMLStreamReader} implementation. */
+    private final XMLStreamReader mReader;
+
+    /** Insertion position. */
+    private final Insert mInsert;
+
+    /** Determines if comments should be included. */
+    private boolean mIncludeComments = true;
+
+    /** Determines if processing instructions should be included. */
+    private boolean mIncludePIs = true;
+
+    /**
+     * Determines if after shredding the transaction should be immediately commited.
+     */
+    private ShredderCommit mCommit = ShredderCommit.NOCOMMIT;
+
+    /**
+     * Constructor.
+     *
+     * @param wtx {@link XdmNodeWriteTrx} implementation
+     * @param reader {@link XMLStreamReader} implementation
+     * @param insert insertion position
+     */
+    public Builder(final XdmNodeWriteTrx wtx, final XMLStreamReader reader, final Insert insert) {
+      mWtx = checkNotNull(wtx);
+      mReader = checkNotNull(reader);
+      mInsert = checkNotNull(insert);
+    }
+
+    /**
+     * Include comments or not (default: yes).
+     *
+     * @param include include comments
+     * @return this builder instance
+     */
+    public Builder includeComments(final boolean include) {
+      mIncludeComments = include;
+      return this;
+    }
+
+    /**
+     * Include processing instructions or not (default: yes).
+     *
+     * @param include include processing instructions
+     * @return this builder instance
+     */
+    public Builder includePIs(final boolean include) {
+      mIncludePIs = include;
+      return this;
+    }
+
+    /**
+     * Commit afterwards.
+     *
+     * @return this builder instance
+     */
+    public Builder commitAfterwards() {
+      mCommit = ShredderCommit.COMMIT;
+      return this;
+    }
+
+    /**
+     * Build an instance.
+     *
+     * @return {@link XMLStreamShredder} instance
+     */
+    public XMLStreamShredder build() {
+      return new XMLStreamShredder(this);
+    }
+  }
+
+  /**
+   * Private constructor.
+   *
+   * @param builder builder reference
+   */
+  private XMLStreamShredder(final Builder builder) {
+    super(builder.mWtx, builder.mInsert);
+    mWtx = builder.mWtx;
+    mReader = builder.mReader;
+    mIncludeComments = builder.mIncludeComments;
+    mIncludePIs = builder.mIncludePIs;
+    mCommit = builder.mCommit;
+    mNames = new NameTable();
+    mText = new TextBuffer();
+  }
+
+  /**
+   * Invoking the shredder.
+   *
+   * @throws SirixException if any kind of sirix exception which has occured
+   * @return revision of file
+   */
+  @Override
+  public Long call() throws SirixException {
+    final long revision = mWtx.getRevisionNumber();
+    insertNewContent();
+    mCommit.commit(mWtx);
+    return revision;
+  }
+
+  /**
+   * Insert new content based on the {@link XMLStreamReader}.
+   *
+   * @throws SirixException if something went wrong while inserting
+   */
+  private void insertNewContent() throws SirixException {
+    try {
+      int level = 0;
+      long insertedRootNodeKey = -1;
+
+      // Iterate over all nodes until the end of the root element.
+      while (mReader.hasNext()) {
+        final int event = mReader.next();
+        if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.CDATA
+            && event != XMLStreamConstants.SPACE && !mText.isEmpty()) {
+          processText(mText.drain());
+        }
+
+        switch (event) {
+          case XMLStreamConstants.START_ELEMENT:
+            level++;
+            addNewElement();
+            if (insertedRootNodeKey == -1) {
+              insertedRootNodeKey = mWtx.getNodeKey();
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            level--;
+            processEndTag(name());
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.CDATA:
+          case XMLStreamConstants.SPACE:
+            mText.append(mReader.getTextCharacters(), mReader.getTextStart(),
+                mReader.getTextLength());
+            break;
+          case XMLStreamConstants.COMMENT:
+            if (mIncludeComments) {
+              processComment(mReader.getText());
+            }
+            break;
+          case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            if (mIncludePIs) {
+              processPI(mReader.getPIData(), mReader.getPITarget());
+            }
+            break;
+          default:
+            // Node kind not known.
+        }
+
+        if (level == 0 && insertedRootNodeKey != -1) {
+          break;
+        }
+      }
+
+      mWtx.moveTo(insertedRootNodeKey);
+    } catch (final XMLStreamException e) {
+      throw new SirixIOException(e);
+    }
+  }
+
+  /**
+   * Add a new element node with its namespaces and attributes.
+   *
+   * @throws SirixException if adding the element fails
+   */
+  private void addNewElement() throws SirixException {
+    processStartTag(name());
+
+    for (int i = 0, count = mReader.getNamespaceCount(); i < count; i++) {
+      mWtx.insertNamespace(mNames.intern(mReader.getNamespaceURI(i),
+          mReader.getNamespacePrefix(i), ""));
+      mWtx.moveToParent();
+    }
+
+    for (int i = 0, count = mReader.getAttributeCount(); i < count; i++) {
+      mWtx.insertAttribute(mNames.intern(mReader.getAttributeNamespace(i),
+          mReader.getAttributePrefix(i), mReader.getAttributeLocalName(i)),
+          mReader.getAttributeValue(i));
+      mWtx.moveToParent();
+    }
+  }
+
+  /**
+   * Get the interned name of the current element.
+   *
+   * @return the name
+   */
+  private QNm name() {
+    return mNames.intern(mReader.getNamespaceURI(), mReader.getPrefix(), mReader.getLocalName());
+  }
+
+  /**
+   * Main method.
+   *
+   * @param args input and output files
+   * @throws XMLStreamException if the XML stream isn't valid
+   * @throws IOException if an I/O error occurs
+   * @throws SirixException if a Sirix error occurs
+   */
+  public static void main(final String... args)
+      throws SirixException, IOException, XMLStreamException {
+    if (args.length != 2 && args.length != 3) {
+      throw new IllegalArgumentException(
+          "Usage: XMLStreamShredder XMLFile Database [true/false] (shredder comment|PI)");
+    }
+    LOGWRAPPER.info("Shredding '" + args[0] + "' to '" + args[1] + "' ... ");
+    final long time = System.nanoTime();
+    final Path target = Paths.get(args[1]);
+    final DatabaseConfiguration config = new DatabaseConfiguration(target);
+    Databases.removeDatabase(target);
+    Databases.createDatabase(config);
+
+    try (final Database db = Databases.openDatabase(target)) {
+      db.createResource(new ResourceConfiguration.Builder("shredded", config).build());
+      try (final ResourceManager resMgr = db.getResourceManager("shredded");
+          final XdmNodeWriteTrx wtx = resMgr.beginNodeWriteTrx();
+          final InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+        final XMLStreamReader reader = createFileReader(in);
+        final boolean includeCoPI = args.length == 3
+            ? Boolean.parseBoolean(args[2])
+            : false;
+        final XMLStreamShredder shredder =
+            new XMLStreamShredder.Builder(wtx, reader, Insert.ASFIRSTCHILD)
+                .commitAfterwards()
+                .includeComments(includeCoPI)
+                .includePIs(includeCoPI)
+                .build();
+        shredder.call();
+        reader.close();
+      }
+    }
+
+    LOGWRAPPER.info(" done [" + (System.nanoTime() - time) / 1000000 + " ms].");
+  }
+
+  /**
+   * Create a new {@link XMLStreamReader} instance on an input stream.
+   *
+   * @param in the input stream
+   * @return an {@link XMLStreamReader}
+   * @throws SirixException if creating the xml stream reader fails.
+   */
+  public static synchronized XMLStreamReader createFileReader(final InputStream in) {
+    checkNotNull(in);
+    final XMLInputFactory factory = XMLInputFactory.newInstance();
+    XMLShredder.setProperties(factory);
+    try {
+      return factory.createXMLStreamReader(in);
+    } catch (final XMLStreamException e) {
+      throw new SirixException(e.getMessage(), e);
+    }
+  }
+}
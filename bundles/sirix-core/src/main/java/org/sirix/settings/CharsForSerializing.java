@@ -83,6 +83,21 @@ public enum CharsForSerializing {
   /** "?&gt;". */
   CLOSEPI(new byte[] {63}, CLOSE.getBytes()),
 
+  /** "&amp;amp;". */
+  ESCAPED_AMPERSAND(new byte[] {38, 97, 109, 112, 59}),
+
+  /** "&amp;lt;". */
+  ESCAPED_LESS_THAN(new byte[] {38, 108, 116, 59}),
+
+  /** "&amp;gt;". */
+  ESCAPED_GREATER_THAN(new byte[] {38, 103, 116, 59}),
+
+  /** "&amp;quot;". */
+  ESCAPED_QUOTE(new byte[] {38, 113, 117, 111, 116, 59}),
+
+  /** "&amp;apos;". */
+  ESCAPED_APOSTROPHE(new byte[] {38, 97, 112, 111, 115, 59}),
+
   /** Newline. */
   NEWLINE(System.getProperty("line.separator").getBytes(Constants.DEFAULT_ENCODING));
 
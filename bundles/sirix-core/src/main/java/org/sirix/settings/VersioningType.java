@@ -22,16 +22,20 @@
 package org.sirix.settings;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import javax.annotation.Nonnegative;
 import org.sirix.api.PageReadTrx;
 import org.sirix.cache.PageContainer;
 import org.sirix.node.interfaces.Record;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.KeyValuePage;
+import com.google.common.collect.Iterables;
 
 /**
  * Different versioning algorithms.
@@ -50,6 +54,7 @@ public enum VersioningType {
     public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T combineRecordPages(
         final List<T> pages, final @Nonnegative int revToRestore, final PageReadTrx pageReadTrx) {
       assert pages.size() == 1 : "Only one version of the page!";
+      // The records are deserialized once they are read.
       return pages.get(0);
     }
 
@@ -68,7 +73,7 @@ public enum VersioningType {
           firstPage.<T>newInstance(
               recordPageKey, firstPage.getPageKind(), reference.getKey(), pageReadTrx));
 
-      for (final Map.Entry<K, V> entry : pages.get(0).entrySet()) {
+      for (final Entry<K, V> entry : records(pages.get(0))) {
         returnVal.get(0).setEntry(entry.getKey(), entry.getValue());
         returnVal.get(1).setEntry(entry.getKey(), entry.getValue());
       }
@@ -105,16 +110,16 @@ public enum VersioningType {
       assert latest.getPageKey() == recordPageKey;
       assert fullDump.getPageKey() == recordPageKey;
 
-      for (final Map.Entry<K, V> entry : latest.entrySet()) {
+      for (final Entry<K, V> entry : records(latest)) {
         returnVal.setEntry(entry.getKey(), entry.getValue());
       }
-      for (final Map.Entry<K, PageReference> entry : latest.referenceEntrySet()) {
+      for (final Entry<K, PageReference> entry : latest.referenceEntrySet()) {
         returnVal.setPageReference(entry.getKey(), entry.getValue());
       }
 
       // Skip full dump if not needed (fulldump equals latest page).
       if (pages.size() == 2) {
-        for (final Entry<K, V> entry : fullDump.entrySet()) {
+        for (final Entry<K, V> entry : records(fullDump)) {
           if (returnVal.getValue(entry.getKey()) == null) {
             returnVal.setEntry(entry.getKey(), entry.getValue());
             if (returnVal.size() == Constants.NDP_NODE_COUNT) {
@@ -157,12 +162,12 @@ public enum VersioningType {
       final boolean isFullDump = revision % revToRestore == 0;
 
       // Iterate through all nodes of the latest revision.
-      for (final Map.Entry<K, V> entry : latest.entrySet()) {
+      for (final Entry<K, V> entry : records(latest)) {
         returnVal.get(0).setEntry(entry.getKey(), entry.getValue());
         returnVal.get(1).setEntry(entry.getKey(), entry.getValue());
       }
       // Iterate through all nodes of the latest revision.
-      for (final Map.Entry<K, PageReference> entry : latest.referenceEntrySet()) {
+      for (final Entry<K, PageReference> entry : latest.referenceEntrySet()) {
         returnVal.get(0).setPageReference(entry.getKey(), entry.getValue());
         returnVal.get(1).setPageReference(entry.getKey(), entry.getValue());
       }
@@ -170,7 +175,7 @@ public enum VersioningType {
       // If not all entries are filled.
       if (latest.size() != Constants.NDP_NODE_COUNT) {
         // Iterate through the full dump.
-        for (final Map.Entry<K, V> entry : fullDump.entrySet()) {
+        for (final Entry<K, V> entry : records(fullDump)) {
           if (returnVal.get(0).getValue(entry.getKey()) == null) {
             returnVal.get(0).setEntry(entry.getKey(), entry.getValue());
           }
@@ -188,7 +193,7 @@ public enum VersioningType {
       // If not all entries are filled.
       if (latest.size() != Constants.NDP_NODE_COUNT) {
         // Iterate through the full dump.
-        for (final Map.Entry<K, PageReference> entry : fullDump.referenceEntrySet()) {
+        for (final Entry<K, PageReference> entry : fullDump.referenceEntrySet()) {
           if (returnVal.get(0).getPageReference(entry.getKey()) == null) {
             returnVal.get(0).setPageReference(entry.getKey(), entry.getValue());
           }
@@ -241,7 +246,7 @@ public enum VersioningType {
         if (filledPage) {
           break;
         }
-        for (final Entry<K, V> entry : page.entrySet()) {
+        for (final Entry<K, V> entry : records(page)) {
           final K recordKey = entry.getKey();
           if (returnVal.getValue(recordKey) == null) {
             returnVal.setEntry(recordKey, entry.getValue());
@@ -290,7 +295,7 @@ public enum VersioningType {
           break;
         }
 
-        for (final Entry<K, V> entry : page.entrySet()) {
+        for (final Entry<K, V> entry : records(page)) {
           // Caching the complete page.
           final K key = entry.getKey();
           assert key != null;
@@ -375,7 +380,7 @@ public enum VersioningType {
         if (filledPage) {
           break;
         }
-        for (final Entry<K, V> entry : page.entrySet()) {
+        for (final Entry<K, V> entry : records(page)) {
           final K recordKey = entry.getKey();
           if (returnVal.getValue(recordKey) == null) {
             returnVal.setEntry(recordKey, entry.getValue());
@@ -416,8 +421,9 @@ public enum VersioningType {
           firstPage.<T>newInstance(
               recordPageKey, firstPage.getPageKind(), reference.getKey(), pageReadTrx));
 
-      final T reconstructed = firstPage.<T>newInstance(
-          recordPageKey, firstPage.getPageKind(), reference.getKey(), pageReadTrx);
+      // Keys of the records and references of the revisions within the window.
+      final Set<K> reconstructed = new HashSet<>();
+      final Set<K> reconstructedReferences = new HashSet<>();
 
       boolean filledPage = false;
       for (int i = 0; i < pages.size() && !filledPage; i++) {
@@ -426,19 +432,20 @@ public enum VersioningType {
 
         final boolean pageToSerialize = (i == pages.size() - 1 && revToRestore == pages.size());
 
-        for (final Entry<K, V> entry : page.entrySet()) {
+        for (final Entry<K, V> entry : records(page)) {
           // Caching the complete page.
           final K key = entry.getKey();
           assert key != null;
           if (!pageToSerialize) {
-            reconstructed.setEntry(key, entry.getValue());
+            reconstructed.add(key);
           }
 
           if (returnVal.get(0).getValue(key) == null) {
             returnVal.get(0).setEntry(key, entry.getValue());
           }
 
-          if (pageToSerialize && reconstructed.getValue(key) == null) {
+          if (pageToSerialize && !reconstructed.contains(key)
+              && !reconstructedReferences.contains(key)) {
             returnVal.get(1).setEntry(key, entry.getValue());
           }
 
@@ -454,14 +461,14 @@ public enum VersioningType {
             assert key != null;
 
             if (!pageToSerialize) {
-              reconstructed.setPageReference(key, entry.getValue());
+              reconstructedReferences.add(key);
             }
 
             if (returnVal.get(0).getPageReference(key) == null) {
               returnVal.get(0).setPageReference(key, entry.getValue());
             }
 
-            if (pageToSerialize && reconstructed.getPageReference(key) == null) {
+            if (pageToSerialize && !reconstructedReferences.contains(key)) {
               returnVal.get(1).setPageReference(key, entry.getValue());
             }
 
@@ -497,8 +504,87 @@ public enum VersioningType {
       }
       return retVal;
     }
+  },
+
+  /**
+   * Adaptive versioning. Pages are reconstructed as with incremental versioning, but a record page
+   * is written as a full snapshot without a reference to the previous fragment, once reading its
+   * fragments gets expensive or once a large part of it has been changed.
+   */
+  ADAPTIVE {
+    @Override
+    public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T combineRecordPages(
+        final List<T> pages, final @Nonnegative int revToRestore, final PageReadTrx pageReadTrx) {
+      return INCREMENTAL.combineRecordPages(pages, revToRestore, pageReadTrx);
+    }
+
+    @Override
+    public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> PageContainer combineRecordPagesForModification(
+        final List<T> pages, final int revToRestore, final PageReadTrx pageReadTrx,
+        final PageReference reference) {
+      final PageContainer container =
+          INCREMENTAL.combineRecordPagesForModification(pages, revToRestore, pageReadTrx, reference);
+      @SuppressWarnings("unchecked")
+      final T completePage = (T) container.getComplete();
+
+      // The number of records and references read to reconstruct the page.
+      int readEntries = 0;
+      for (final T page : pages) {
+        readEntries += page.size();
+      }
+
+      if (pages.size() < revToRestore && readEntries <= READ_COST_FACTOR * completePage.size()) {
+        return container;
+      }
+      return PageContainer.getInstance(
+          completePage, snapshot(completePage, completePage, pageReadTrx));
+    }
+
+    @Override
+    public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T getPageToWrite(
+        final T completePage, final T modifiedPage, final PageReadTrx pageReadTrx) {
+      if (modifiedPage.getPreviousReferenceKey() == Constants.NULL_ID_LONG
+          || modifiedPage.size() * CHANGE_RATIO_DIVISOR < completePage.size()) {
+        return modifiedPage;
+      }
+      final T snapshot = snapshot(completePage, modifiedPage, pageReadTrx);
+      return modifiedPage.size() * CHANGE_RATIO_DIVISOR < snapshot.size()
+          ? modifiedPage
+          : snapshot;
+    }
+
+    @Override
+    public int[] getRevisionRoots(final @Nonnegative int previousRevision,
+        final @Nonnegative int revsToRestore) {
+      return INCREMENTAL.getRevisionRoots(previousRevision, revsToRestore);
+    }
   };
 
+  /**
+   * A record page is written as a full snapshot, if the number of entries read to reconstruct it
+   * exceeds its size by this factor.
+   */
+  private static final int READ_COST_FACTOR = 2;
+
+  /**
+   * A record page is written as a full snapshot, if at least the reciprocal of this divisor of its
+   * entries has been changed.
+   */
+  private static final int CHANGE_RATIO_DIVISOR = 2;
+
+  /**
+   * Get the record page to write during a commit.
+   *
+   * @param completePage the complete record page, as it has been reconstructed
+   * @param modifiedPage the record page with the modified records
+   * @param pageReadTrx the page read transaction
+   * @return the record page to write, the modified page by default
+   */
+  public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T getPageToWrite(
+      final T completePage, final T modifiedPage, final PageReadTrx pageReadTrx) {
+    return modifiedPage;
+  }
+
   /**
    * Method to reconstruct a complete {@link KeyValuePage} with the help of partly filled pages plus
    * a revision-delta which determines the necessary steps back.
@@ -532,4 +618,79 @@ public enum VersioningType {
    */
   public abstract int[] getRevisionRoots(final @Nonnegative int previousRevision,
       final @Nonnegative int revsToRestore);
+
+  /**
+   * Create a full snapshot of a record page, which doesn't reference a previous fragment.
+   *
+   * @param completePage the complete record page
+   * @param modifiedPage the record page with the modified records, which replace the records of the
+   *        complete page
+   * @param pageReadTrx the page read transaction
+   * @return the full snapshot
+   */
+  private static <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T snapshot(
+      final T completePage, final T modifiedPage, final PageReadTrx pageReadTrx) {
+    final T snapshot = completePage.newInstance(
+        completePage.getPageKey(), completePage.getPageKind(), Constants.NULL_ID_LONG, pageReadTrx);
+    for (final T page : modifiedPage == completePage
+        ? Collections.singletonList(completePage)
+        : Arrays.asList(completePage, modifiedPage)) {
+      for (final Entry<K, V> entry : records(page)) {
+        snapshot.setEntry(entry.getKey(), entry.getValue());
+      }
+      for (final Entry<K, PageReference> entry : page.referenceEntrySet()) {
+        snapshot.setPageReference(entry.getKey(), entry.getValue());
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * All records of a page fragment. Records, which are still serialized, are deserialized once
+   * their value is requested, that is only if they are not shadowed by a newer fragment.
+   *
+   * @param page the page fragment
+   * @return the records of the page fragment
+   */
+  private static <K extends Comparable<? super K>, V extends Record> Iterable<Entry<K, V>> records(
+      final KeyValuePage<K, V> page) {
+    final Set<K> serialized = page.serializedKeySet();
+    if (serialized.isEmpty()) {
+      return page.entrySet();
+    }
+    return Iterables.concat(
+        page.entrySet(), Iterables.transform(serialized, key -> new SerializedEntry<>(page, key)));
+  }
+
+  /**
+   * Entry of a serialized record, which is deserialized by the page once its value is requested.
+   */
+  private static final class SerializedEntry<K extends Comparable<? super K>, V extends Record>
+      implements Entry<K, V> {
+    /** The page fragment. */
+    private final KeyValuePage<K, V> mPage;
+
+    /** The record key. */
+    private final K mKey;
+
+    private SerializedEntry(final KeyValuePage<K, V> page, final K key) {
+      mPage = page;
+      mKey = key;
+    }
+
+    @Override
+    public K getKey() {
+      return mKey;
+    }
+
+    @Override
+    public V getValue() {
+      return mPage.getValue(mKey);
+    }
+
+    @Override
+    public V setValue(final V value) {
+      throw new UnsupportedOperationException();
+    }
+  }
 }
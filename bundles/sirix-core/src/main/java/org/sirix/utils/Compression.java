@@ -22,8 +22,7 @@ package org.sirix.utils;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.util.Arrays;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
@@ -33,6 +32,11 @@ import org.slf4j.LoggerFactory;
 /**
  * Compression/Decompression for text values or any other data.
  *
+ * <p>
+ * Every thread uses its own {@link Deflater} and {@link Inflater}, which are reused for all values
+ * the thread compresses or decompresses.
+ * </p>
+ *
  * @author Johannes Lichtenberger, University of Konstanz
  *
  */
@@ -44,11 +48,11 @@ public final class Compression {
   /** Buffer size. */
   public static final int BUFFER_SIZE = 1024;
 
-  /** Compressor. */
-  private static final Deflater mCompressor = new Deflater();
+  /** Compressor of the current thread. */
+  private static final ThreadLocal<Deflater> COMPRESSOR = ThreadLocal.withInitial(Deflater::new);
 
-  /** Decompressor. */
-  private static final Inflater mDecompressor = new Inflater();
+  /** Decompressor of the current thread. */
+  private static final ThreadLocal<Inflater> DECOMPRESSOR = ThreadLocal.withInitial(Inflater::new);
 
   /** Private constructor to prevent from instantiation. */
   private Compression() {
@@ -67,37 +71,29 @@ public final class Compression {
     checkNotNull(toCompress);
     checkArgument(pLevel >= -1 && pLevel <= 9, "pLevel must be between 0 and 9!");
 
-    // Compressed result.
-    byte[] compressed = new byte[] {};
-
-    // Set compression level.
-    mCompressor.setLevel(pLevel);
-
     // Give the compressor the data to compress.
-    mCompressor.reset();
-    mCompressor.setInput(toCompress);
-    mCompressor.finish();
+    final Deflater compressor = COMPRESSOR.get();
+    compressor.reset();
+    compressor.setLevel(pLevel);
+    compressor.setInput(toCompress);
+    compressor.finish();
 
     /*
-     * Create an expandable byte array to hold the compressed data. You cannot use an array that's
-     * the same size as the orginal because there is no guarantee that the compressed data will be
-     * smaller than the uncompressed data.
+     * There is no guarantee that the compressed data will be smaller than the uncompressed data,
+     * thus the buffer is expanded if needed.
      */
-    try (final ByteArrayOutputStream bos = new ByteArrayOutputStream(toCompress.length)) {
-      // Compress the data.
-      final byte[] buf = new byte[BUFFER_SIZE];
-      while (!mCompressor.finished()) {
-        final int count = mCompressor.deflate(buf);
-        bos.write(buf, 0, count);
+    byte[] compressed = new byte[toCompress.length + 16];
+    int length = 0;
+    while (!compressor.finished()) {
+      if (length == compressed.length) {
+        compressed = Arrays.copyOf(compressed, Math.max(compressed.length << 1, BUFFER_SIZE));
       }
-
-      // Get the compressed data.
-      compressed = bos.toByteArray();
-    } catch (final IOException e) {
-      LOGWRAPPER.error(e.getMessage(), e);
+      length += compressor.deflate(compressed, length, compressed.length - length);
     }
 
-    return compressed;
+    return length == compressed.length
+        ? compressed
+        : Arrays.copyOf(compressed, length);
   }
 
   /**
@@ -111,32 +107,31 @@ public final class Compression {
     checkNotNull(compressed);
 
     // Reset the decompressor and give it the data to compress.
-    mDecompressor.reset();
-    mDecompressor.setInput(compressed);
-
-    byte[] decompressed = new byte[] {};
-
-    // Create an expandable byte array to hold the decompressed data.
-    final ByteArrayOutputStream bos = new ByteArrayOutputStream(compressed.length);
-    // Decompress the data.
-    final byte[] buf = new byte[BUFFER_SIZE];
-    while (!mDecompressor.finished()) {
+    final Inflater decompressor = DECOMPRESSOR.get();
+    decompressor.reset();
+    decompressor.setInput(compressed);
+
+    // Text values usually are compressed by a factor of about two to four.
+    byte[] decompressed = new byte[Math.max(compressed.length << 2, BUFFER_SIZE)];
+    int length = 0;
+    while (!decompressor.finished()) {
+      if (length == decompressed.length) {
+        decompressed = Arrays.copyOf(decompressed, decompressed.length << 1);
+      }
       try {
-        final int count = mDecompressor.inflate(buf);
-        bos.write(buf, 0, count);
+        final int count =
+            decompressor.inflate(decompressed, length, decompressed.length - length);
+        if (count == 0 && !decompressor.finished()
+            && (decompressor.needsInput() || decompressor.needsDictionary())) {
+          throw new DataFormatException("Compressed data is truncated.");
+        }
+        length += count;
       } catch (final DataFormatException e) {
         LOGWRAPPER.error(e.getMessage(), e);
         throw new RuntimeException(e);
       }
     }
-    // Get the decompressed data.
-    decompressed = bos.toByteArray();
-    try {
-      bos.close();
-    } catch (final IOException e) {
-      LOGWRAPPER.error(e.getMessage(), e);
-    }
 
-    return decompressed;
+    return Arrays.copyOf(decompressed, length);
   }
 }
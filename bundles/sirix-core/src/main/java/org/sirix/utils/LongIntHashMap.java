@@ -0,0 +1,265 @@
+package org.sirix.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import java.util.Arrays;
+import javax.annotation.Nonnegative;
+
+/**
+ * Hash map with primitive {@code long} keys and {@code int} values based on open addressing with
+ * linear probing. Neither keys nor values are boxed and no entry objects are created, which keeps
+ * huge maps of record keys compact.
+ *
+ * @author Johannes Lichtenberger
+ */
+public final class LongIntHashMap {
+
+  /** The value returned for keys which are not mapped. */
+  public static final int NO_VALUE = -1;
+
+  /** Marks free slots. */
+  private static final long FREE_KEY = Long.MIN_VALUE;
+
+  /** Maximum load factor before the table is enlarged. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** The keys. */
+  private long[] mKeys;
+
+  /** The values. */
+  private int[] mValues;
+
+  /** Mask to map hashes to slots. */
+  private int mMask;
+
+  /** Number of mappings after which the table is enlarged. */
+  private int mThreshold;
+
+  /** Number of mappings (without the mapping of {@link #FREE_KEY}). */
+  private int mSize;
+
+  /** Determines if {@link #FREE_KEY} is mapped. */
+  private boolean mHasFreeKey;
+
+  /** Value of {@link #FREE_KEY}. */
+  private int mFreeKeyValue;
+
+  /**
+   * Constructor.
+   */
+  public LongIntHashMap() {
+    this(16);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param expectedSize the expected number of mappings
+   */
+  public LongIntHashMap(final @Nonnegative int expectedSize) {
+    checkArgument(expectedSize >= 0, "expectedSize must be >= 0!");
+    allocate(tableSize(expectedSize));
+  }
+
+  private static int tableSize(final int expectedSize) {
+    final long size = Math.max(2, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+    checkArgument(size <= 1 << 30, "Too many mappings!");
+    return Integer.highestOneBit((int) size - 1) << 1;
+  }
+
+  private void allocate(final int capacity) {
+    mKeys = new long[capacity];
+    Arrays.fill(mKeys, FREE_KEY);
+    mValues = new int[capacity];
+    mMask = capacity - 1;
+    mThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private int slot(final long key) {
+    final long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mMask;
+  }
+
+  /**
+   * Get the value of a key.
+   *
+   * @param key the key
+   * @return the value or {@link #NO_VALUE}, if the key is not mapped
+   */
+  public int get(final long key) {
+    if (key == FREE_KEY) {
+      return mHasFreeKey
+          ? mFreeKeyValue
+          : NO_VALUE;
+    }
+
+    for (int slot = slot(key);; slot = (slot + 1) & mMask) {
+      final long currentKey = mKeys[slot];
+      if (currentKey == key) {
+        return mValues[slot];
+      }
+      if (currentKey == FREE_KEY) {
+        return NO_VALUE;
+      }
+    }
+  }
+
+  /**
+   * Determines if a key is mapped.
+   *
+   * @param key the key
+   * @return {@code true}, if the key is mapped, {@code false} otherwise
+   */
+  public boolean containsKey(final long key) {
+    if (key == FREE_KEY) {
+      return mHasFreeKey;
+    }
+
+    for (int slot = slot(key);; slot = (slot + 1) & mMask) {
+      final long currentKey = mKeys[slot];
+      if (currentKey == key) {
+        return true;
+      }
+      if (currentKey == FREE_KEY) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Map a key to a value.
+   *
+   * @param key the key
+   * @param value the value
+   * @return the previous value or {@link #NO_VALUE}, if the key has not been mapped
+   */
+  public int put(final long key, final int value) {
+    if (key == FREE_KEY) {
+      final int oldValue = mHasFreeKey
+          ? mFreeKeyValue
+          : NO_VALUE;
+      mHasFreeKey = true;
+      mFreeKeyValue = value;
+      return oldValue;
+    }
+
+    for (int slot = slot(key);; slot = (slot + 1) & mMask) {
+      final long currentKey = mKeys[slot];
+      if (currentKey == key) {
+        final int oldValue = mValues[slot];
+        mValues[slot] = value;
+        return oldValue;
+      }
+      if (currentKey == FREE_KEY) {
+        mKeys[slot] = key;
+        mValues[slot] = value;
+        if (++mSize > mThreshold) {
+          rehash(mKeys.length << 1);
+        }
+        return NO_VALUE;
+      }
+    }
+  }
+
+  /**
+   * Remove the mapping of a key.
+   *
+   * @param key the key
+   * @return the removed value or {@link #NO_VALUE}, if the key has not been mapped
+   */
+  public int remove(final long key) {
+    if (key == FREE_KEY) {
+      final int oldValue = mHasFreeKey
+          ? mFreeKeyValue
+          : NO_VALUE;
+      mHasFreeKey = false;
+      return oldValue;
+    }
+
+    for (int slot = slot(key);; slot = (slot + 1) & mMask) {
+      final long currentKey = mKeys[slot];
+      if (currentKey == key) {
+        final int oldValue = mValues[slot];
+        mSize--;
+        shiftKeys(slot);
+        return oldValue;
+      }
+      if (currentKey == FREE_KEY) {
+        return NO_VALUE;
+      }
+    }
+  }
+
+  /**
+   * Close the gap of a removed mapping by moving subsequent keys of the probe sequence backwards.
+   *
+   * @param position the slot of the removed mapping
+   */
+  private void shiftKeys(int position) {
+    while (true) {
+      final int last = position;
+      long key;
+      while (true) {
+        position = (position + 1) & mMask;
+        key = mKeys[position];
+        if (key == FREE_KEY) {
+          mKeys[last] = FREE_KEY;
+          return;
+        }
+        final int slot = slot(key);
+        if (last <= position
+            ? last >= slot || slot > position
+            : last >= slot && slot > position) {
+          break;
+        }
+      }
+      mKeys[last] = key;
+      mValues[last] = mValues[position];
+    }
+  }
+
+  private void rehash(final int capacity) {
+    final long[] oldKeys = mKeys;
+    final int[] oldValues = mValues;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      final long key = oldKeys[i];
+      if (key != FREE_KEY) {
+        int slot = slot(key);
+        while (mKeys[slot] != FREE_KEY) {
+          slot = (slot + 1) & mMask;
+        }
+        mKeys[slot] = key;
+        mValues[slot] = oldValues[i];
+      }
+    }
+  }
+
+  /**
+   * Get the number of mappings.
+   *
+   * @return the number of mappings
+   */
+  public int size() {
+    return mHasFreeKey
+        ? mSize + 1
+        : mSize;
+  }
+
+  /**
+   * Determines if no key is mapped.
+   *
+   * @return {@code true}, if no key is mapped, {@code false} otherwise
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Remove all mappings.
+   */
+  public void clear() {
+    Arrays.fill(mKeys, FREE_KEY);
+    mSize = 0;
+    mHasFreeKey = false;
+  }
+}
@@ -0,0 +1,245 @@
+package org.sirix.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.settings.VersioningType;
+
+/**
+ * Test the compaction of a resource with {@link ResourceManager#compact}.
+ */
+public class CompactionTest {
+
+  /** Number of elements, which are renamed in each revision. */
+  private static final int ELEMENTS = 2_000;
+
+  /** Number of revisions, which are committed before the compaction. */
+  private static final int REVISIONS = 8;
+
+  /** Name of the resource. */
+  private static final String RESOURCE = "compaction";
+
+  private Database mDatabase;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mDatabase = TestHelper.getDatabase(PATHS.PATH1.getFile());
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testKeepLast() throws Exception {
+    final ResourceManager manager = createRevisions(VersioningType.INCREMENTAL);
+    final Path dataFile = dataFile(manager);
+    final long size = Files.size(dataFile);
+
+    // A read transaction, which is started before the compaction, keeps reading the old file.
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(1)) {
+      manager.compact(RevisionRetentions.keepLast(3));
+      assertNames(rtx, 1);
+    }
+
+    assertTrue(Files.size(dataFile) < size);
+    assertRevisions(manager);
+
+    // Further revisions are appended to the compacted file.
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      rename(wtx, REVISIONS + 1);
+      wtx.commit();
+    }
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      assertNames(rtx, REVISIONS + 1);
+    }
+  }
+
+  @Test
+  public void testReopen() throws InterruptedException {
+    final ResourceManager manager = createRevisions(VersioningType.SLIDING_SNAPSHOT);
+    manager.compact(RevisionRetentions.keepLast(3));
+    manager.close();
+
+    final ResourceManager reopened = mDatabase.getResourceManager(RESOURCE);
+    assertEquals(REVISIONS, reopened.getMostRecentRevisionNumber());
+    assertRevisions(reopened);
+  }
+
+  @Test
+  public void testRetainAll() throws InterruptedException {
+    final ResourceManager manager = createRevisions(VersioningType.DIFFERENTIAL);
+    manager.compact(RevisionRetentions.all());
+    for (int revision = 1; revision <= REVISIONS; revision++) {
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+        assertNames(rtx, revision);
+      }
+    }
+  }
+
+  @Test
+  public void testRevisionNumberByTime() throws InterruptedException {
+    final ResourceManager manager = createRevisions(VersioningType.INCREMENTAL);
+    final Instant[] timestamps = new Instant[REVISIONS + 1];
+    for (int revision = 0; revision <= REVISIONS; revision++) {
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+        timestamps[revision] = Instant.ofEpochMilli(rtx.getRevisionTimestamp());
+      }
+    }
+    manager.compact(RevisionRetentions.keepLast(3));
+
+    for (int revision = REVISIONS - 2; revision <= REVISIONS; revision++) {
+      assertEquals(revision, manager.getRevisionNumber(timestamps[revision]));
+    }
+    // The removed revisions are skipped.
+    for (int revision = 0; revision < REVISIONS - 2; revision++) {
+      assertEquals(REVISIONS - 2, manager.getRevisionNumber(timestamps[revision]));
+    }
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(timestamps[1])) {
+      assertNames(rtx, REVISIONS - 2);
+    }
+    assertEquals(REVISIONS, manager.getRevisionNumber(Instant.now()));
+  }
+
+  @Test
+  public void testTruncateTo() throws Exception {
+    final ResourceManager manager = createRevisions(VersioningType.INCREMENTAL);
+    manager.compact(RevisionRetentions.keepLast(3));
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      rename(wtx, REVISIONS + 1);
+      wtx.commit();
+    }
+
+    // The uber pages before the compaction have been removed, thus the file isn't truncated.
+    final Path dataFile = dataFile(manager);
+    final long size = Files.size(dataFile);
+    try (final Writer writer = StorageType.getStorage(manager.getResourceConfig()).createWriter()) {
+      writer.truncateTo(REVISIONS);
+      writer.truncateTo(1);
+    }
+    assertEquals(size, Files.size(dataFile));
+    assertRevisions(manager);
+  }
+
+  @Test
+  public void testOnePerDayOlderThan() throws InterruptedException {
+    final ResourceManager manager = createRevisions(VersioningType.INCREMENTAL);
+
+    // All revisions have been committed today, thus only the first and the most recent revision
+    // are retained.
+    manager.compact(RevisionRetentions.onePerDayOlderThan(Duration.ZERO));
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(0)) {
+      assertFalse(rtx.moveToFirstChild().hasMoved());
+    }
+    for (int revision = 1; revision < REVISIONS; revision++) {
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+        fail("The revision has been removed.");
+      } catch (final SirixIOException e) {
+      }
+    }
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(REVISIONS)) {
+      assertNames(rtx, REVISIONS);
+    }
+  }
+
+  @Test
+  public void testOnePerDayWithinPeriod() throws InterruptedException {
+    final ResourceManager manager = createRevisions(VersioningType.INCREMENTAL);
+
+    // All revisions have been committed within the period.
+    manager.compact(RevisionRetentions.onePerDayOlderThan(Duration.ofHours(1)));
+    for (int revision = 1; revision <= REVISIONS; revision++) {
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+        assertNames(rtx, revision);
+      }
+    }
+  }
+
+  private ResourceManager createRevisions(final VersioningType versioning)
+      throws InterruptedException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(RESOURCE, PATHS.PATH1.getConfig())
+            .versioningApproach(versioning)
+            .revisionsToRestore(3)
+            .build());
+    final ResourceManager manager = mDatabase.getResourceManager(RESOURCE);
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      wtx.insertElementAsFirstChild(new QNm("a1"));
+      for (int i = 1; i < ELEMENTS; i++) {
+        wtx.insertElementAsRightSibling(new QNm("a1"));
+      }
+      wtx.commit();
+
+      for (int revision = 2; revision <= REVISIONS; revision++) {
+        // Distinct timestamps, such that the revisions can be looked up by time.
+        TimeUnit.MILLISECONDS.sleep(2);
+        rename(wtx, revision);
+        wtx.commit();
+      }
+    }
+    return manager;
+  }
+
+  private static void rename(final XdmNodeWriteTrx wtx, final int revision) {
+    wtx.moveToDocumentRoot();
+    wtx.moveToFirstChild();
+    wtx.moveToFirstChild();
+    do {
+      wtx.setName(new QNm("a" + revision));
+    } while (wtx.moveToRightSibling().hasMoved());
+  }
+
+  private static void assertRevisions(final ResourceManager manager) {
+    for (int revision = REVISIONS - 2; revision <= REVISIONS; revision++) {
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(revision)) {
+        assertNames(rtx, revision);
+      }
+    }
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx(REVISIONS - 3)) {
+      fail("The revision has been removed.");
+    } catch (final SirixIOException e) {
+    }
+  }
+
+  private static void assertNames(final XdmNodeReadTrx rtx, final int revision) {
+    rtx.moveToDocumentRoot();
+    rtx.moveToFirstChild();
+    assertEquals(ELEMENTS, rtx.getChildCount());
+    rtx.moveToFirstChild();
+    int elements = 0;
+    do {
+      assertEquals("a" + revision, rtx.getName().getLocalName());
+      elements++;
+    } while (rtx.moveToRightSibling().hasMoved());
+    assertEquals(ELEMENTS, elements);
+  }
+
+  private static Path dataFile(final ResourceManager manager) {
+    return manager.getResourceConfig().resourcePath.resolve(
+        ResourceConfiguration.ResourcePaths.DATA.getPath()).resolve("sirix.data");
+  }
+}
@@ -23,6 +23,7 @@ package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
 import org.junit.Before;
@@ -31,10 +32,14 @@ import org.junit.Test;
 import org.sirix.TestHelper;
 import org.sirix.TestHelper.PATHS;
 import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.trx.node.HashFunctionType;
 import org.sirix.access.trx.node.HashType;
+import org.sirix.api.Axis;
 import org.sirix.api.Database;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
 import org.sirix.exception.SirixException;
 import org.sirix.settings.Fixed;
 
@@ -43,6 +48,12 @@ public class HashTest {
   private final static String NAME1 = "a";
   private final static String NAME2 = "b";
 
+  /**
+   * Name of the resource with a configured hash function, as {@link TestHelper#getDatabase}
+   * already creates the default resource with the default configuration.
+   */
+  private final static String RESOURCE = "hashes";
+
   @Before
   public void setUp() throws SirixException {
     TestHelper.deleteEverything();
@@ -84,6 +95,78 @@ public class HashTest {
     testSetter(wtx);
   }
 
+  @Test
+  public void testRollingInsertRemoveWithFastHashFunction() throws SirixException {
+    final XdmNodeWriteTrx wtx =
+        createWtx(PATHS.PATH1, HashFunctionType.FARMHASH_FINGERPRINT_64);
+    testHashTreeWithInsertAndRemove(wtx);
+  }
+
+  @Test
+  public void testConfiguredHashFunction() throws SirixException {
+    final XdmNodeWriteTrx wtx = createWtx(PATHS.PATH1);
+    final XdmNodeWriteTrx fastWtx =
+        createWtx(PATHS.PATH2, HashFunctionType.FARMHASH_FINGERPRINT_64);
+    modifyTree(wtx);
+    modifyTree(fastWtx);
+    wtx.commit();
+    fastWtx.commit();
+
+    wtx.moveToDocumentRoot();
+    fastWtx.moveToDocumentRoot();
+    assertFalse(wtx.getHash() == fastWtx.getHash());
+    wtx.close();
+    fastWtx.close();
+  }
+
+  @Test
+  public void testDeferredHashUpdates() throws SirixException {
+    final XdmNodeWriteTrx wtx = createWtx(HashType.ROLLING);
+    final XdmNodeWriteTrx deferredWtx = createWtx(PATHS.PATH2);
+    deferredWtx.deferHashUpdates(true);
+    modifyTree(wtx);
+    modifyTree(deferredWtx);
+    wtx.commit();
+    deferredWtx.commit();
+
+    wtx.moveToDocumentRoot();
+    deferredWtx.moveToDocumentRoot();
+    final Axis axis = new DescendantAxis(wtx, IncludeSelf.YES);
+    final Axis deferredAxis = new DescendantAxis(deferredWtx, IncludeSelf.YES);
+    while (axis.hasNext()) {
+      axis.next();
+      assertTrue(deferredAxis.hasNext());
+      deferredAxis.next();
+      assertEquals(wtx.getNodeKey(), deferredWtx.getNodeKey());
+      assertEquals(wtx.getHash(), deferredWtx.getHash());
+      assertEquals(wtx.getDescendantCount(), deferredWtx.getDescendantCount());
+    }
+    assertFalse(deferredAxis.hasNext());
+  }
+
+  @Ignore
+  private void modifyTree(final XdmNodeWriteTrx wtx) throws SirixException {
+    wtx.insertElementAsFirstChild(new QNm(NAME1));
+    final long rootKey = wtx.getNodeKey();
+    wtx.insertElementAsFirstChild(new QNm(NAME2));
+    wtx.insertElementAsRightSibling(new QNm(NAME1));
+    final long subtreeKey = wtx.getNodeKey();
+    wtx.insertElementAsFirstChild(new QNm(NAME2));
+    wtx.insertElementAsFirstChild(new QNm(NAME1));
+    wtx.moveTo(subtreeKey);
+    wtx.setName(new QNm(NAME2));
+    wtx.insertElementAsRightSibling(new QNm(NAME1));
+    wtx.insertElementAsFirstChild(new QNm(NAME1));
+    wtx.moveTo(subtreeKey);
+    wtx.moveToFirstChild();
+    wtx.remove();
+    wtx.moveTo(rootKey);
+    wtx.moveToFirstChild();
+    wtx.remove();
+    wtx.moveTo(rootKey);
+    wtx.setName(new QNm(NAME2));
+  }
+
   /**
    * Inserting nodes and removing them.
    *
@@ -219,14 +302,30 @@ public class HashTest {
   }
 
   private XdmNodeWriteTrx createWtx(final HashType kind) throws SirixException {
-    final Database database = TestHelper.getDatabase(TestHelper.PATHS.PATH1.getFile());
+    return createWtx(PATHS.PATH1);
+  }
+
+  private XdmNodeWriteTrx createWtx(final PATHS path) throws SirixException {
+    final Database database = TestHelper.getDatabase(path.getFile());
     database.createResource(
-        new ResourceConfiguration.Builder(TestHelper.RESOURCE, PATHS.PATH1.getConfig()).build());
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, path.getConfig()).build());
     final ResourceManager manager = database.getResourceManager(TestHelper.RESOURCE);
     final XdmNodeWriteTrx wTrx = manager.beginNodeWriteTrx();
     return wTrx;
   }
 
+  private XdmNodeWriteTrx createWtx(final PATHS path, final HashFunctionType hashFunction)
+      throws SirixException {
+    final Database database = TestHelper.getDatabase(path.getFile());
+    database.createResource(
+        new ResourceConfiguration.Builder(RESOURCE, path.getConfig())
+            .nodeHashFunction(hashFunction)
+            .build());
+    final ResourceManager manager = database.getResourceManager(RESOURCE);
+    final XdmNodeWriteTrx wTrx = manager.beginNodeWriteTrx();
+    return wTrx;
+  }
+
   @After
   public void tearDown() throws SirixException {
     TestHelper.closeEverything();
@@ -23,7 +23,9 @@ package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import java.nio.file.Files;
+import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -129,4 +131,15 @@ public final class NodeReadTrxImplTest {
     assertEquals(1L, holder.getXdmNodeReadTrx().getNodeKey());
   }
 
+  @Test
+  public void testSharedNames() throws SirixException {
+    final XdmNodeReadTrx rtx = holder.getXdmNodeReadTrx();
+    rtx.moveTo(5L);
+    final QNm name = rtx.getName();
+    assertEquals(new QNm("b"), name);
+    rtx.moveTo(9L);
+    assertEquals(new QNm("b"), rtx.getName());
+    assertSame(name, rtx.getName());
+  }
+
 }
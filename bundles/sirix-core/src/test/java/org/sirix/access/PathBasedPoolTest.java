@@ -0,0 +1,72 @@
+package org.sirix.access;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+/**
+ * Test the {@link PathBasedPool}.
+ *
+ * @author Johannes Lichtenberger
+ */
+public final class PathBasedPoolTest {
+
+  @Test
+  public void testPutAndRemove() {
+    final PathBasedPool<Object> pool = new PathBasedPool<>();
+    final Path path = Paths.get("foo");
+    final Object firstHandle = new Object();
+    final Object secondHandle = new Object();
+
+    assertFalse(pool.containsAny(path));
+    pool.put(path, firstHandle);
+    pool.put(path, secondHandle);
+    assertTrue(pool.containsAny(path));
+    pool.remove(path, firstHandle);
+    assertTrue(pool.containsAny(path));
+    pool.remove(path, secondHandle);
+    assertFalse(pool.containsAny(path));
+    pool.remove(path, secondHandle);
+    assertFalse(pool.containsAny(path));
+  }
+
+  @Test
+  public void testConcurrentPutAndRemove() throws Exception {
+    final PathBasedPool<Object> pool = new PathBasedPool<>();
+    final Path path = Paths.get("foo");
+    final Object handle = new Object();
+    pool.put(path, handle);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Callable<Void>> tasks = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        tasks.add(() -> {
+          for (int j = 0; j < 10_000; j++) {
+            final Object otherHandle = new Object();
+            pool.put(path, otherHandle);
+            pool.remove(path, otherHandle);
+          }
+          return null;
+        });
+      }
+      for (final Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertTrue(pool.containsAny(path));
+    pool.remove(path, handle);
+    assertFalse(pool.containsAny(path));
+  }
+}
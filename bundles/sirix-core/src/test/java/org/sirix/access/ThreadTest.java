@@ -22,16 +22,24 @@
 package org.sirix.access;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.api.Axis;
+import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.axis.DescendantAxis;
@@ -74,6 +82,70 @@ public class ThreadTest {
     taskExecutor.awaitTermination(1000000, TimeUnit.SECONDS);
   }
 
+  @Test
+  public void testConcurrentReaders() throws Exception {
+    final ExecutorService taskExecutor = Executors.newFixedThreadPool(WORKER_COUNT);
+    final List<Future<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < WORKER_COUNT; i++) {
+      // Readers are started concurrently, while the write transaction commits.
+      futures.add(taskExecutor.submit(
+          () -> new Task(holder.getResourceManager().beginNodeReadTrx()).call()));
+    }
+
+    try (final XdmNodeWriteTrx wtx = holder.getResourceManager().beginNodeWriteTrx()) {
+      for (int i = 0; i < WORKER_COUNT; i++) {
+        wtx.moveTo(1L);
+        wtx.insertElementAsFirstChild(new QNm("a"));
+        wtx.commit();
+      }
+    }
+
+    for (final Future<Void> future : futures) {
+      future.get();
+    }
+    taskExecutor.shutdown();
+    taskExecutor.awaitTermination(1000000, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testCloseWhileBeginningReaders() throws Exception {
+    final int threads = 4;
+    final ExecutorService taskExecutor = Executors.newFixedThreadPool(threads);
+    for (int round = 0; round < 50; round++) {
+      final ResourceManager manager =
+          holder.getDatabase().getResourceManager(TestHelper.RESOURCE);
+      final List<XdmNodeReadTrx> readers = new CopyOnWriteArrayList<>();
+      final CountDownLatch started = new CountDownLatch(threads);
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(taskExecutor.submit(() -> {
+          started.countDown();
+          for (int j = 0; j < 25; j++) {
+            try {
+              readers.add(manager.beginNodeReadTrx());
+            } catch (final IllegalStateException e) {
+              // The manager has been closed.
+              return;
+            }
+          }
+        }));
+      }
+
+      started.await();
+      manager.close();
+
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+      // The readers are closed either by the manager or by themselves.
+      for (final XdmNodeReadTrx reader : readers) {
+        assertTrue(reader.isClosed());
+      }
+    }
+    taskExecutor.shutdown();
+    taskExecutor.awaitTermination(1000000, TimeUnit.SECONDS);
+  }
+
   private class Task implements Callable<Void> {
 
     private XdmNodeReadTrx mRTX;
@@ -31,6 +31,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
+import org.sirix.access.trx.node.Commit;
 import org.sirix.access.trx.node.XdmNodeReadTrxImpl;
 import org.sirix.api.Axis;
 import org.sirix.api.XdmNodeReadTrx;
@@ -1237,6 +1238,29 @@ public class UpdateTest {
     assertEquals(20L, rtx.getDescendantCount());
   }
 
+  @Test
+  public void testSubtreeInsertWithoutCommit() {
+    final XdmNodeWriteTrx wtx = holder.getResourceManager().beginNodeWriteTrx(5);
+    DocumentCreator.create(wtx);
+    wtx.commit();
+    final int revision = wtx.getRevisionNumber();
+    wtx.moveTo(5);
+    wtx.insertSubtreeAsFirstChild(
+        XMLShredder.createStringReader(DocumentCreator.XML_WITHOUT_XMLDECL), Commit.NO);
+    testSubtreeInsertAsFirstChildFirst(wtx);
+    wtx.moveTo(11);
+    wtx.insertSubtreeAsFirstChild(
+        XMLShredder.createStringReader(DocumentCreator.XML_WITHOUT_XMLDECL), Commit.NO);
+    assertEquals(revision, wtx.getRevisionNumber());
+    wtx.commit();
+    assertEquals(revision + 1, wtx.getRevisionNumber());
+    wtx.close();
+    final XdmNodeReadTrx rtx = holder.getResourceManager().beginNodeReadTrx();
+    rtx.moveToDocumentRoot();
+    assertEquals(30L, rtx.getDescendantCount());
+    rtx.close();
+  }
+
   @Test
   public void testSubtreeInsertAsFirstChildSecond() {
     final XdmNodeWriteTrx wtx = holder.getResourceManager().beginNodeWriteTrx();
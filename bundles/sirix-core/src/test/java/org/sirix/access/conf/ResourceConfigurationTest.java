@@ -1,5 +1,55 @@
 package org.sirix.access.conf;
 
+import static org.testng.AssertJUnit.assertEquals;
+import org.sirix.TestHelper;
+import org.sirix.access.Databases;
+import org.sirix.access.trx.node.HashFunctionType;
+import org.sirix.api.Database;
+import org.sirix.exception.SirixException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test case for de-/serialization of {@link ResourceConfiguration}s.
+ */
 public class ResourceConfigurationTest {
 
+  @BeforeMethod
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @AfterMethod
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testDeSerialize() throws SirixException {
+    final DatabaseConfiguration dbConf =
+        new DatabaseConfiguration(TestHelper.PATHS.PATH1.getFile());
+    Databases.createDatabase(dbConf);
+    final Database database = Databases.openDatabase(TestHelper.PATHS.PATH1.getFile());
+    final ResourceConfiguration conf =
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE, dbConf)
+            .nodeHashFunction(HashFunctionType.FARMHASH_FINGERPRINT_64)
+            .pageHashFunction(HashFunctionType.CRC32C)
+            .build();
+    database.createResource(conf);
+    database.close();
+
+    final ResourceConfiguration serializedConf =
+        ResourceConfiguration.deserialize(conf.getResource());
+    assertEquals(conf.toString(), serializedConf.toString());
+    assertEquals(HashFunctionType.FARMHASH_FINGERPRINT_64, serializedConf.nodeHashFunction);
+    assertEquals(HashFunctionType.CRC32C, serializedConf.pageHashFunction);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testShortNodeHashFunction() {
+    new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+        new DatabaseConfiguration(TestHelper.PATHS.PATH1.getFile()))
+            .nodeHashFunction(HashFunctionType.CRC32C);
+  }
 }
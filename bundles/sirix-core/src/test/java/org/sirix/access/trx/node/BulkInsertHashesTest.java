@@ -0,0 +1,126 @@
+package org.sirix.access.trx.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.FileInputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.Axis;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
+import org.sirix.exception.SirixException;
+import org.sirix.node.Kind;
+import org.sirix.service.xml.shredder.XMLShredder;
+
+/**
+ * Test the computation of rolling hashes while inserting subtrees against the postorder traversal.
+ */
+public class BulkInsertHashesTest {
+
+  private static final Path XML = Paths.get("src", "test", "resources", "test.xml");
+
+  private static final String SUBTREE =
+      "<p:a xmlns:p=\"ns\" i=\"j\">oops1<b>foo<c/></b>oops2<b p:x=\"y\"><c/>bar</b>oops3</p:a>";
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testDocument() throws Exception {
+    final XdmNodeWriteTrx wtx = createWtx(PATHS.PATH1, true);
+    final XdmNodeWriteTrx postorderWtx = createWtx(PATHS.PATH2, false);
+    try (final FileInputStream fis = new FileInputStream(XML.toFile());
+        final FileInputStream postorderFis = new FileInputStream(XML.toFile())) {
+      wtx.insertSubtreeAsFirstChild(XMLShredder.createFileReader(fis));
+      postorderWtx.insertSubtreeAsFirstChild(XMLShredder.createFileReader(postorderFis));
+    }
+    assertEqualHashes(wtx, postorderWtx);
+    wtx.close();
+    postorderWtx.close();
+  }
+
+  @Test
+  public void testSubtrees() throws SirixException {
+    final XdmNodeWriteTrx wtx = createWtx(PATHS.PATH1, true);
+    final XdmNodeWriteTrx postorderWtx = createWtx(PATHS.PATH2, false);
+    for (final XdmNodeWriteTrx trx : new XdmNodeWriteTrx[] {wtx, postorderWtx}) {
+      trx.insertElementAsFirstChild(new QNm("root"));
+      trx.insertTextAsFirstChild("text");
+      trx.insertSubtreeAsRightSibling(XMLShredder.createStringReader(SUBTREE));
+      trx.insertSubtreeAsFirstChild(XMLShredder.createStringReader(SUBTREE));
+      trx.moveToParent();
+      trx.insertSubtreeAsLeftSibling(XMLShredder.createStringReader(SUBTREE));
+      trx.commit();
+    }
+    assertEqualHashes(wtx, postorderWtx);
+    wtx.close();
+    postorderWtx.close();
+  }
+
+  private static XdmNodeWriteTrx createWtx(final PATHS path, final boolean hashesWhileInserting) {
+    final XdmNodeWriteTrx wtx =
+        TestHelper.getDatabase(path.getFile()).getResourceManager(TestHelper.RESOURCE)
+                  .beginNodeWriteTrx();
+    ((XdmNodeWriteTrxImpl) wtx).setHashesWhileInserting(hashesWhileInserting);
+    return wtx;
+  }
+
+  /**
+   * Compare the hashes and descendant counts of all nodes, including attributes and namespaces.
+   *
+   * @param expected the transaction, which inserted the subtrees with the postorder traversal
+   * @param actual the other transaction
+   */
+  private static void assertEqualHashes(final XdmNodeReadTrx actual,
+      final XdmNodeReadTrx expected) {
+    expected.moveToDocumentRoot();
+    actual.moveToDocumentRoot();
+    final Axis expectedAxis = new DescendantAxis(expected, IncludeSelf.YES);
+    final Axis axis = new DescendantAxis(actual, IncludeSelf.YES);
+    while (expectedAxis.hasNext()) {
+      expectedAxis.next();
+      assertTrue(axis.hasNext());
+      axis.next();
+      assertNode(expected, actual);
+      if (expected.getKind() == Kind.ELEMENT) {
+        for (int i = 0, count = expected.getNamespaceCount(); i < count; i++) {
+          expected.moveToNamespace(i);
+          actual.moveToNamespace(i);
+          assertNode(expected, actual);
+          expected.moveToParent();
+          actual.moveToParent();
+        }
+        for (int i = 0, count = expected.getAttributeCount(); i < count; i++) {
+          expected.moveToAttribute(i);
+          actual.moveToAttribute(i);
+          assertNode(expected, actual);
+          expected.moveToParent();
+          actual.moveToParent();
+        }
+      }
+    }
+    assertFalse(axis.hasNext());
+  }
+
+  private static void assertNode(final XdmNodeReadTrx expected, final XdmNodeReadTrx actual) {
+    assertEquals(expected.getNodeKey(), actual.getNodeKey());
+    assertEquals(expected.getHash(), actual.getHash());
+    assertEquals(expected.getDescendantCount(), actual.getDescendantCount());
+  }
+}
@@ -0,0 +1,128 @@
+package org.sirix.access.trx.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.index.IndexType;
+import org.sirix.index.SearchMode;
+import org.sirix.index.avltree.AVLTreeReader;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test that the index listeners of a write transaction are bound to the current page transaction
+ * after commits and after reopening the resource.
+ */
+public class IndexListenerTest {
+
+  private static final QNm NAME = new QNm("a");
+
+  private ResourceManager mManager;
+
+  /** Node keys of the attributes named {@link #NAME}. */
+  private final Set<Long> mKeys = new HashSet<>();
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mManager =
+        TestHelper.getDatabase(PATHS.PATH1.getFile()).getResourceManager(TestHelper.RESOURCE);
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testSeveralCommits() {
+    try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+      final IndexController controller =
+          mManager.getWtxIndexController(wtx.getRevisionNumber() - 1);
+      final IndexDef indexDef = IndexDefs.createNameIdxDef(0);
+      controller.createIndexes(ImmutableSet.of(indexDef), wtx);
+
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      for (int i = 0; i < 3; i++) {
+        insert(wtx);
+        wtx.commit();
+        assertEquals(1, controller.getListenerCount());
+        assertIndex(indexDef);
+      }
+    }
+  }
+
+  @Test
+  public void testReopen() {
+    final IndexDef indexDef = IndexDefs.createNameIdxDef(0);
+    try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+      mManager.getWtxIndexController(wtx.getRevisionNumber() - 1)
+              .createIndexes(ImmutableSet.of(indexDef), wtx);
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      insert(wtx);
+      wtx.commit();
+    }
+
+    for (int i = 0; i < 2; i++) {
+      try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+        final IndexController controller =
+            mManager.getWtxIndexController(wtx.getRevisionNumber() - 1);
+        // The listener is created for the index definition of the last revision.
+        assertEquals(1, controller.getListenerCount());
+        wtx.moveToDocumentRoot();
+        wtx.moveToFirstChild();
+        insert(wtx);
+        wtx.commit();
+        insert(wtx);
+        wtx.commit();
+        assertEquals(1, controller.getListenerCount());
+      }
+      assertIndex(indexDef);
+    }
+  }
+
+  /**
+   * Insert an element with an attribute named {@link #NAME} and another attribute as the first
+   * child of the current node.
+   *
+   * @param wtx the write transaction
+   */
+  private void insert(final XdmNodeWriteTrx wtx) {
+    wtx.insertElementAsFirstChild(new QNm("b"));
+    wtx.insertAttribute(NAME, "value");
+    mKeys.add(wtx.getNodeKey());
+    wtx.moveToParent();
+    wtx.insertAttribute(new QNm("c"), "value", Movement.TOPARENT);
+    wtx.moveToParent();
+  }
+
+  /**
+   * Assert that the index of the most recent revision references all attributes named
+   * {@link #NAME}.
+   *
+   * @param indexDef the definition of the name index
+   */
+  private void assertIndex(final IndexDef indexDef) {
+    try (final XdmNodeReadTrx rtx = mManager.beginNodeReadTrx()) {
+      final AVLTreeReader<QNm, NodeReferences> reader =
+          AVLTreeReader.getInstance(rtx.getPageTrx(), IndexType.NAME, indexDef.getID());
+      final Optional<NodeReferences> references = reader.get(NAME, SearchMode.EQUAL);
+      assertTrue(references.isPresent());
+      assertEquals(mKeys, references.get().getNodeKeys());
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package org.sirix.access.trx.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.settings.Constants;
+
+/**
+ * Test that a read-only transaction, which keeps the record page of the last record, reads the
+ * records of other pages and of the current page transaction.
+ */
+public class XdmNodeReadTrxImplTest {
+
+  /** Number of elements, which are inserted into the first three record pages. */
+  private static final int ELEMENTS = Constants.NDP_NODE_COUNT * 3 - 1;
+
+  private ResourceManager mManager;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    mManager =
+        TestHelper.getDatabase(PATHS.PATH1.getFile()).getResourceManager(TestHelper.RESOURCE);
+    try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+      // The element with the node key i is the i-th descendant of the document root.
+      for (int i = 1; i <= ELEMENTS; i++) {
+        wtx.insertElementAsFirstChild(new QNm("e" + i));
+      }
+      wtx.commit();
+    }
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testPageBoundaries() {
+    final long last = Constants.NDP_NODE_COUNT - 1;
+    try (final XdmNodeReadTrx rtx = mManager.beginNodeReadTrx()) {
+      for (final long nodeKey : new long[] {1, last, last + 1, 1, ELEMENTS, last, ELEMENTS,
+          last + Constants.NDP_NODE_COUNT, 2}) {
+        assertTrue(rtx.moveTo(nodeKey).hasMoved());
+        assertElement(rtx, nodeKey);
+      }
+
+      // Move to the parent and to the first child across the boundary of the first two pages.
+      assertTrue(rtx.moveTo(last + 1).hasMoved());
+      assertTrue(rtx.moveToParent().hasMoved());
+      assertElement(rtx, last);
+      assertTrue(rtx.moveToFirstChild().hasMoved());
+      assertElement(rtx, last + 1);
+      assertTrue(rtx.moveToParent().hasMoved());
+      assertElement(rtx, last);
+
+      // A missing record of the current page doesn't affect the next move.
+      assertTrue(rtx.moveTo(ELEMENTS).hasMoved());
+      assertFalse(rtx.moveToFirstChild().hasMoved());
+      assertElement(rtx, ELEMENTS);
+      assertFalse(rtx.moveTo(ELEMENTS + Constants.NDP_NODE_COUNT).hasMoved());
+      assertElement(rtx, ELEMENTS);
+      assertTrue(rtx.moveToDocumentRoot().hasMoved());
+      assertTrue(rtx.moveToFirstChild().hasMoved());
+      assertElement(rtx, 1);
+    }
+  }
+
+  @Test
+  public void testSetPageReadTransaction() {
+    try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+      wtx.moveTo(1);
+      wtx.setName(new QNm("renamed"));
+      wtx.commit();
+    }
+
+    try (final XdmNodeReadTrx rtx = mManager.beginNodeReadTrx(1)) {
+      // Keep the first record page of the first revision.
+      assertTrue(rtx.moveTo(1).hasMoved());
+      assertElement(rtx, 1);
+
+      // The kept record page belongs to the replaced page transaction.
+      final PageReadTrx pageTrx = rtx.getPageTrx();
+      ((XdmNodeReadTrxImpl) rtx).setPageReadTransaction(mManager.beginPageReadTrx(2));
+      pageTrx.close();
+      assertTrue(rtx.moveTo(1).hasMoved());
+      assertEquals(new QNm("renamed"), rtx.getName());
+      assertTrue(rtx.moveTo(2).hasMoved());
+      assertElement(rtx, 2);
+    }
+  }
+
+  @Test
+  public void testCommit() {
+    try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+      for (int revision = 0; revision < 2; revision++) {
+        final QNm name = new QNm("renamed" + revision);
+        wtx.moveTo(Constants.NDP_NODE_COUNT);
+        wtx.setName(name);
+        assertEquals(name, wtx.getName());
+        wtx.moveTo(1);
+        wtx.commit();
+
+        // Move within and across the record pages with the new page transaction.
+        assertTrue(wtx.moveTo(Constants.NDP_NODE_COUNT).hasMoved());
+        assertEquals(name, wtx.getName());
+        assertTrue(wtx.moveToParent().hasMoved());
+        assertElement(wtx, Constants.NDP_NODE_COUNT - 1);
+        assertTrue(wtx.moveToFirstChild().hasMoved());
+        assertEquals(name, wtx.getName());
+      }
+    }
+
+    try (final XdmNodeReadTrx rtx = mManager.beginNodeReadTrx()) {
+      assertTrue(rtx.moveTo(Constants.NDP_NODE_COUNT).hasMoved());
+      assertEquals(new QNm("renamed1"), rtx.getName());
+    }
+  }
+
+  /**
+   * Assert that the transaction is located at an element, which hasn't been renamed.
+   *
+   * @param rtx the transaction
+   * @param nodeKey the node key of the element
+   */
+  private static void assertElement(final XdmNodeReadTrx rtx, final long nodeKey) {
+    assertEquals(nodeKey, rtx.getNodeKey());
+    assertEquals(new QNm("e" + nodeKey), rtx.getName());
+  }
+}
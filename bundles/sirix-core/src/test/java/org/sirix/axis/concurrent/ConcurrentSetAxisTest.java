@@ -0,0 +1,211 @@
+package org.sirix.axis.concurrent;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Axis;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.axis.AbstractAxis;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.filter.FilterAxis;
+import org.sirix.axis.filter.NameFilter;
+import org.sirix.exception.SirixException;
+
+public class ConcurrentSetAxisTest {
+
+  /** Number of elements, which are children of the root element. */
+  private static final int ELEMENTS = 5_000;
+
+  /** Name of the resource. */
+  private static final String RESOURCE = "setoperations";
+
+  private ResourceManager mManager;
+
+  /** Transaction to read the names of the elements. */
+  private XdmNodeReadTrx mRtx;
+
+  private final List<XdmNodeReadTrx> mTrxs = new ArrayList<>();
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    database.createResource(
+        new ResourceConfiguration.Builder(RESOURCE, PATHS.PATH1.getConfig()).build());
+    mManager = database.getResourceManager(RESOURCE);
+    try (final XdmNodeWriteTrx wtx = mManager.beginNodeWriteTrx()) {
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      wtx.insertElementAsFirstChild(new QNm("a"));
+      for (int i = 1; i < ELEMENTS; i++) {
+        wtx.insertElementAsRightSibling(new QNm(i % 3 == 0 ? "a" : "b"));
+      }
+      wtx.commit();
+    }
+    mRtx = rtx();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    for (final XdmNodeReadTrx rtx : mTrxs) {
+      rtx.close();
+    }
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testUnion() {
+    assertArrayEquals(expected(key -> true),
+        keys(new ConcurrentUnionAxis(rtx(), elements("a"), elements("b"))));
+    assertArrayEquals(expected(key -> isA(key)),
+        keys(new ConcurrentUnionAxis(rtx(), elements("a"), elements("a"))));
+  }
+
+  @Test
+  public void testIntersect() {
+    assertArrayEquals(expected(key -> isA(key)),
+        keys(new ConcurrentIntersectAxis(rtx(), elements(null), elements("a"))));
+    assertArrayEquals(expected(key -> false),
+        keys(new ConcurrentIntersectAxis(rtx(), elements("a"), elements("b"))));
+  }
+
+  @Test
+  public void testExcept() {
+    assertArrayEquals(expected(key -> !isA(key)),
+        keys(new ConcurrentExceptAxis(rtx(), elements(null), elements("a"))));
+    assertArrayEquals(expected(key -> isA(key)),
+        keys(new ConcurrentExceptAxis(rtx(), elements("a"), elements("b"))));
+  }
+
+  @Test
+  public void testReset() {
+    final XdmNodeReadTrx rtx = rtx();
+    final Axis axis = new ConcurrentUnionAxis(rtx, elements("a"), elements("b"));
+    for (int i = 0; i < 2 * OperandBuffer.CHUNK_SIZE; i++) {
+      axis.next();
+    }
+    // The operands are reset to the root element.
+    mRtx.moveToDocumentRoot();
+    mRtx.moveToFirstChild();
+    axis.reset(mRtx.getNodeKey());
+    assertArrayEquals(expected(key -> true), keys(axis));
+  }
+
+  @Test(timeout = 60_000)
+  public void testClose() throws InterruptedException {
+    final AtomicLong computed = new AtomicLong();
+    final ConcurrentUnionAxis axis =
+        new ConcurrentUnionAxis(rtx(), endless(computed), elements("a"));
+    for (int i = 0; i < 2 * OperandBuffer.CHUNK_SIZE; i++) {
+      axis.next();
+    }
+    // Wait until the producer of the endless operand waits for space in the queue.
+    long count;
+    do {
+      count = computed.get();
+      Thread.sleep(100);
+    } while (count != computed.get());
+
+    axis.close();
+    assertStopped(computed);
+    assertFalse(axis.hasNext());
+  }
+
+  @Test(timeout = 60_000)
+  public void testCloseWhenDone() throws InterruptedException {
+    final AtomicLong computed = new AtomicLong();
+    assertArrayEquals(expected(key -> isA(key)),
+        keys(new ConcurrentIntersectAxis(rtx(), endless(computed), elements("a"))));
+    assertStopped(computed);
+  }
+
+  /**
+   * Assert that an operand isn't computed anymore.
+   *
+   * @param computed number of node keys computed by the operand
+   */
+  private static void assertStopped(final AtomicLong computed) throws InterruptedException {
+    final long count = computed.get();
+    Thread.sleep(100);
+    assertEquals(count, computed.get());
+  }
+
+  /**
+   * An operand, which never runs out of results. It returns the children of the root element and
+   * afterwards the last child over and over again.
+   *
+   * @param computed number of node keys computed by the operand
+   * @return the axis
+   */
+  private Axis endless(final AtomicLong computed) {
+    mRtx.moveToDocumentRoot();
+    mRtx.moveToFirstChild();
+    final long rootKey = mRtx.getNodeKey();
+    mRtx.moveToLastChild();
+    final long lastKey = mRtx.getNodeKey();
+    return new AbstractAxis(rtx()) {
+      @Override
+      protected long nextKey() {
+        return Math.min(rootKey + computed.incrementAndGet(), lastKey);
+      }
+    };
+  }
+
+  private XdmNodeReadTrx rtx() {
+    final XdmNodeReadTrx rtx = mManager.beginNodeReadTrx();
+    mTrxs.add(rtx);
+    return rtx;
+  }
+
+  /**
+   * The children of the root element, which are bound to a new transaction.
+   *
+   * @param name name of the elements or {@code null} for all elements
+   * @return the axis
+   */
+  private Axis elements(final String name) {
+    final XdmNodeReadTrx rtx = rtx();
+    rtx.moveToDocumentRoot();
+    rtx.moveToFirstChild();
+    return name == null
+        ? new DescendantAxis(rtx)
+        : new FilterAxis(new DescendantAxis(rtx), new NameFilter(rtx, name));
+  }
+
+  private boolean isA(final long key) {
+    mRtx.moveTo(key);
+    return mRtx.getName().getLocalName().equals("a");
+  }
+
+  private long[] expected(final LongPredicate predicate) {
+    final XdmNodeReadTrx rtx = rtx();
+    rtx.moveToDocumentRoot();
+    rtx.moveToFirstChild();
+    final List<Long> keys = new ArrayList<>();
+    for (final long key : new DescendantAxis(rtx)) {
+      keys.add(key);
+    }
+    return keys.stream().mapToLong(Long::longValue).filter(predicate).toArray();
+  }
+
+  private static long[] keys(final Axis axis) {
+    final List<Long> keys = new ArrayList<>();
+    while (axis.hasNext()) {
+      keys.add(axis.next());
+    }
+    return keys.stream().mapToLong(Long::longValue).toArray();
+  }
+}
@@ -0,0 +1,119 @@
+package org.sirix.axis.concurrent;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Axis;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.axis.AbsAxisTest;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
+import org.sirix.axis.concurrent.ParallelDescendantAxis.Order;
+import org.sirix.exception.SirixException;
+
+public class ParallelDescendantAxisTest {
+
+  /** Name of the resource with a large document. */
+  private static final String RESOURCE = "parallel";
+
+  private Holder holder;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    TestHelper.createTestDocument();
+    holder = Holder.generateRtx();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    holder.close();
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testIterate() {
+    final XdmNodeReadTrx rtx = holder.getXdmNodeReadTrx();
+
+    rtx.moveToDocumentRoot();
+    AbsAxisTest.testIAxisConventions(new ParallelDescendantAxis(rtx),
+        new long[] {1L, 4L, 5L, 6L, 7L, 8L, 9L, 11L, 12L, 13L});
+
+    rtx.moveTo(1L);
+    AbsAxisTest.testIAxisConventions(new ParallelDescendantAxis(rtx, IncludeSelf.YES),
+        new long[] {1L, 4L, 5L, 6L, 7L, 8L, 9L, 11L, 12L, 13L});
+
+    rtx.moveTo(4L);
+    AbsAxisTest.testIAxisConventions(new ParallelDescendantAxis(rtx), new long[] {});
+  }
+
+  @Test
+  public void testLargeDocument() {
+    final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    database.createResource(
+        new ResourceConfiguration.Builder(RESOURCE, PATHS.PATH1.getConfig()).build());
+    final ResourceManager manager = database.getResourceManager(RESOURCE);
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      for (int i = 0; i < 40; i++) {
+        wtx.moveToDocumentRoot();
+        wtx.moveToFirstChild();
+        wtx.insertElementAsFirstChild(new QNm("a"));
+        for (int j = 0; j < 100; j++) {
+          wtx.insertElementAsFirstChild(new QNm("b"));
+          wtx.insertTextAsFirstChild("text");
+          wtx.moveToParent();
+          wtx.moveToParent();
+        }
+      }
+      wtx.commit();
+    }
+
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      final long[] expected = keys(new DescendantAxis(rtx, IncludeSelf.YES));
+      assertEquals(1 + 1 + 40 * 201, expected.length);
+
+      try (final ParallelDescendantAxis axis =
+          new ParallelDescendantAxis(rtx, IncludeSelf.YES, Order.DOCUMENT)) {
+        assertArrayEquals(expected, keys(axis));
+        assertFalse(axis.hasNext());
+      }
+
+      try (final ParallelDescendantAxis axis =
+          new ParallelDescendantAxis(rtx, IncludeSelf.YES, Order.UNORDERED)) {
+        final long[] keys = keys(axis);
+        Arrays.sort(keys);
+        final long[] sortedExpected = expected.clone();
+        Arrays.sort(sortedExpected);
+        assertArrayEquals(sortedExpected, keys);
+      }
+
+      // An axis, which isn't exhausted, closes its worker transactions.
+      try (final ParallelDescendantAxis axis = new ParallelDescendantAxis(rtx)) {
+        assertEquals(expected[1], axis.next().longValue());
+      }
+    }
+  }
+
+  private static long[] keys(final Axis axis) {
+    final List<Long> keys = new ArrayList<>();
+    while (axis.hasNext()) {
+      keys.add(axis.next());
+    }
+    return keys.stream().mapToLong(Long::longValue).toArray();
+  }
+}
@@ -0,0 +1,127 @@
+package org.sirix.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test the eviction of pages from the {@link TransactionIntentLog}.
+ */
+public class TransactionIntentLogTest {
+
+  /** Number of inserted elements per revision, such that the log evicts pages. */
+  private static final int ELEMENTS = 20_000;
+
+  /** Name of the resource, which uses a small transaction intent log. */
+  private static final String RESOURCE = "intentlog";
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testSpillToFile() {
+    testEviction(0);
+  }
+
+  @Test
+  public void testSerializedPages() {
+    testEviction(1 << 20);
+  }
+
+  @Test
+  public void testSlotReuse() {
+    final ResourceManager manager = createResource(0);
+
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      insertElements(wtx);
+      final TransactionIntentLog log = wtx.getPageTransaction().getLog();
+      assertChildren(wtx, ELEMENTS);
+      final int slots = log.allocatedSlots();
+      assertTrue(slots > 0);
+
+      // Reading the pages back frees their slots, which are reused by the next evictions.
+      for (int i = 0; i < 3; i++) {
+        assertChildren(wtx, ELEMENTS);
+        assertEquals(slots, log.allocatedSlots());
+      }
+
+      wtx.commit();
+      assertEquals(0, log.allocatedSlots());
+    }
+
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      assertChildren(rtx, ELEMENTS);
+    }
+  }
+
+  private void testEviction(final long memory) {
+    final ResourceManager manager = createResource(memory);
+
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      wtx.insertElementAsFirstChild(new QNm("root"));
+      insertElements(wtx);
+      // Evicted pages have to be read back.
+      assertChildren(wtx, ELEMENTS);
+      wtx.commit();
+
+      // Modify pages of the first revision.
+      wtx.moveToDocumentRoot();
+      wtx.moveToFirstChild();
+      insertElements(wtx);
+      assertChildren(wtx, 2 * ELEMENTS);
+      wtx.commit();
+    }
+
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      assertChildren(rtx, 2 * ELEMENTS);
+    }
+  }
+
+  private static ResourceManager createResource(final long memory) {
+    final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    database.createResource(
+        new ResourceConfiguration.Builder(RESOURCE, PATHS.PATH1.getConfig())
+            .transactionIntentLogMemory(memory)
+            .build());
+    return database.getResourceManager(RESOURCE);
+  }
+
+  private static void insertElements(final XdmNodeWriteTrx wtx) {
+    wtx.insertElementAsFirstChild(new QNm("a"));
+    for (int i = 1; i < ELEMENTS; i++) {
+      wtx.insertElementAsRightSibling(new QNm("a"));
+    }
+  }
+
+  private static void assertChildren(final XdmNodeReadTrx rtx, final long expected) {
+    rtx.moveToDocumentRoot();
+    rtx.moveToFirstChild();
+    assertEquals(expected, rtx.getChildCount());
+    assertEquals(expected, rtx.getDescendantCount());
+    assertTrue(rtx.moveToFirstChild().hasMoved());
+    long children = 1;
+    while (rtx.moveToRightSibling().hasMoved()) {
+      children++;
+    }
+    assertEquals(expected, children);
+  }
+}
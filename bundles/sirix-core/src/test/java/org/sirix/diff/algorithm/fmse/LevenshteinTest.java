@@ -0,0 +1,99 @@
+package org.sirix.diff.algorithm.fmse;
+
+import static org.junit.Assert.assertEquals;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test the {@link Levenshtein} distance against the dynamic programming definition.
+ */
+public class LevenshteinTest {
+
+  @Test
+  public void testEmpty() {
+    assertDistance(0, "", "");
+    assertDistance(3, "", "abc");
+    assertDistance(3, "abc", "");
+  }
+
+  @Test
+  public void testIdentical() {
+    assertDistance(0, "a", "a");
+    assertDistance(0, "äöü", "äöü");
+    final String text = repeat("sirix", 30);
+    assertDistance(0, text, text);
+    assertEquals(1f, Levenshtein.getSimilarity("sirix", "sirix"), 0f);
+    assertEquals(1f, Levenshtein.getSimilarity(text, new String(text)), 0f);
+  }
+
+  @Test
+  public void testNothingInCommon() {
+    assertDistance(4, "abcd", "wxyz");
+    assertDistance(6, "aaaa", "bbbbbb");
+    assertDistance(70, repeat("a", 70), repeat("b", 70));
+    assertEquals(0f, Levenshtein.getSimilarity("abcd", "wxyz"), 0f);
+  }
+
+  @Test
+  public void testLongStrings() {
+    assertDistance(1, repeat("a", 64), repeat("a", 65));
+    assertDistance(1, repeat("a", 100) + "b", repeat("a", 100) + "c");
+    assertDistance(2, "x" + repeat("ab", 40), repeat("ab", 40) + "y");
+
+    // Strings, which are longer than the maximum length, are compared for equality.
+    assertEquals(0f, Levenshtein.getSimilarity(repeat("a", 70), repeat("a", 69) + "b"), 0f);
+  }
+
+  @Test
+  public void testRandom() {
+    final Random random = new Random(42);
+    final char[] alphabet = {'a', 'b', 'c', 'ä', '中'};
+    for (int i = 0; i < 1_000; i++) {
+      final String first = randomString(random, alphabet, random.nextInt(140));
+      final String second = randomString(random, alphabet, random.nextInt(140));
+      assertDistance(distance(first, second), first, second);
+    }
+  }
+
+  private static void assertDistance(final int expected, final String first,
+      final String second) {
+    assertEquals(first + " / " + second, expected,
+        Levenshtein.getUnNormalisedSimilarity(first, second), 0f);
+  }
+
+  private static String randomString(final Random random, final char[] alphabet,
+      final int length) {
+    final StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append(alphabet[random.nextInt(alphabet.length)]);
+    }
+    return builder.toString();
+  }
+
+  private static String repeat(final String string, final int count) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(string);
+    }
+    return builder.toString();
+  }
+
+  /** The distance based on the full dynamic programming matrix. */
+  private static int distance(final String first, final String second) {
+    final int[][] distances = new int[first.length() + 1][second.length() + 1];
+    for (int i = 0; i <= first.length(); i++) {
+      for (int j = 0; j <= second.length(); j++) {
+        if (i == 0 || j == 0) {
+          distances[i][j] = i + j;
+        } else {
+          final int cost = first.charAt(i - 1) == second.charAt(j - 1)
+              ? 0
+              : 1;
+          distances[i][j] = Math.min(Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1),
+              distances[i - 1][j - 1] + cost);
+        }
+      }
+    }
+    return distances[first.length()][second.length()];
+  }
+}
@@ -0,0 +1,119 @@
+package org.sirix.diff.algorithm.fmse;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Test the longest common subsequence of {@link Util} against the dynamic programming definition.
+ */
+public class UtilTest {
+
+  /** Compares the items themselves, which are no node keys in this test. */
+  private static final NodeComparator EQUALS = (first, second) -> first == second;
+
+  @Test
+  public void testEmpty() {
+    assertArrayEquals(new int[0], lcs(new long[0], new long[0]));
+    assertArrayEquals(new int[0], lcs(new long[0], new long[] {1, 2}));
+    assertArrayEquals(new int[] {-1, -1}, lcs(new long[] {1, 2}, new long[0]));
+  }
+
+  @Test
+  public void testIdentical() {
+    final long[] items = new long[100];
+    final int[] expected = new int[items.length];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = i % 7;
+      expected[i] = i;
+    }
+    assertArrayEquals(expected, lcs(items, items.clone()));
+  }
+
+  @Test
+  public void testNothingInCommon() {
+    assertArrayEquals(new int[] {-1, -1, -1}, lcs(new long[] {1, 2, 3}, new long[] {4, 5, 6}));
+    final long[] first = new long[100];
+    final long[] second = new long[80];
+    for (int i = 0; i < first.length; i++) {
+      first[i] = i;
+    }
+    for (int i = 0; i < second.length; i++) {
+      second[i] = -i - 1;
+    }
+    for (final int match : lcs(first, second)) {
+      assertEquals(-1, match);
+    }
+  }
+
+  @Test
+  public void testLongSequences() {
+    // Sequences, which are longer than 64 items, with changes at both ends and in the middle.
+    final long[] first = new long[200];
+    final long[] second = new long[200];
+    for (int i = 0; i < first.length; i++) {
+      first[i] = i;
+      second[i] = i;
+    }
+    first[0] = -1;
+    second[100] = -2;
+    second[199] = -3;
+    assertLcs(first, second, lcs(first, second));
+  }
+
+  @Test
+  public void testRandom() {
+    final Random random = new Random(42);
+    for (int i = 0; i < 1_000; i++) {
+      final long[] first = randomItems(random, random.nextInt(150));
+      final long[] second = randomItems(random, random.nextInt(150));
+      assertLcs(first, second, lcs(first, second));
+    }
+  }
+
+  private static int[] lcs(final long[] first, final long[] second) {
+    return Util.longestCommonSubsequence(first, second, EQUALS);
+  }
+
+  /**
+   * Check that the matches are a common subsequence, whose length is the length of a longest common
+   * subsequence.
+   */
+  private static void assertLcs(final long[] first, final long[] second, final int[] matches) {
+    assertEquals(first.length, matches.length);
+    int length = 0;
+    int previous = -1;
+    for (int i = 0; i < matches.length; i++) {
+      if (matches[i] != -1) {
+        assertTrue(matches[i] > previous);
+        assertEquals(first[i], second[matches[i]]);
+        previous = matches[i];
+        length++;
+      }
+    }
+    assertEquals(length(first, second), length);
+  }
+
+  private static long[] randomItems(final Random random, final int length) {
+    final long[] items = new long[length];
+    for (int i = 0; i < length; i++) {
+      items[i] = random.nextInt(4);
+    }
+    return items;
+  }
+
+  /** The length of a longest common subsequence based on the dynamic programming matrix. */
+  private static int length(final long[] first, final long[] second) {
+    final int[][] lengths = new int[first.length + 1][second.length + 1];
+    for (int i = 1; i <= first.length; i++) {
+      for (int j = 1; j <= second.length; j++) {
+        lengths[i][j] = first[i - 1] == second[j - 1]
+            ? lengths[i - 1][j - 1] + 1
+            : Math.max(lengths[i - 1][j], lengths[i][j - 1]);
+      }
+    }
+    return lengths[first.length][second.length];
+  }
+}
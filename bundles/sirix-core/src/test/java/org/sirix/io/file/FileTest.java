@@ -28,8 +28,14 @@ import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
 import org.sirix.io.IOTestHelper;
+import org.sirix.io.Reader;
+import org.sirix.io.Storage;
 import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
 
 public class FileTest {
   private ResourceConfiguration resourceConf;
@@ -46,6 +52,20 @@ public class FileTest {
     IOTestHelper.testReadWriteFirstRef(resourceConf);
   }
 
+  @Test(expected = SirixIOException.class)
+  public void testReadAfterClose() throws SirixException {
+    final Storage storage = StorageType.getStorage(resourceConf);
+    final PageReference pageRef = new PageReference();
+    pageRef.setPage(new UberPage());
+    try (final Writer writer = storage.createWriter()) {
+      writer.writeUberPageReference(pageRef);
+    }
+
+    final Reader reader = storage.createReader();
+    storage.close();
+    reader.readUberPageReference();
+  }
+
   @After
   public void tearDown() throws SirixException {
     IOTestHelper.clean();
@@ -22,6 +22,7 @@
 package org.sirix.page;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
@@ -119,4 +120,50 @@ public final class NodePageTest {
     assertEquals(7, ((NameNode) page2.getValue(0l)).getLocalNameKey());
     assertEquals(NamePageHash.generateHashForString("xs:untyped"), element.getTypeKey());
   }
+
+  @Test
+  public void testLazyRecords() throws IOException {
+    final UnorderedKeyValuePage page1 =
+        new UnorderedKeyValuePage(0L, PageKind.RECORDPAGE, Constants.NULL_ID_LONG, mPageReadTrx);
+    for (long key = 0; key < 10; key++) {
+      final NodeDelegate del = new NodeDelegate(key, key + 1, 0, 0, Optional.empty());
+      final StructNodeDelegate strucDel = new StructNodeDelegate(del, key + 2, key + 3, 0, 1, 1);
+      final NameNodeDelegate nameDel = new NameNodeDelegate(del, 5, 6, 7, 1);
+      page1.setEntry(key, new ElementNode(strucDel, nameDel, new ArrayList<Long>(),
+          HashBiMap.<Long, Long>create(), new ArrayList<Long>(), new QNm("a", "b", "c")));
+    }
+
+    // The records are deserialized once they are read.
+    final UnorderedKeyValuePage page2 = serializeDeserialize(page1);
+    assertEquals(10, page2.serializedKeySet().size());
+    assertTrue(page2.entrySet().isEmpty());
+    assertEquals(10, page2.size());
+    for (long key = 0; key < 5; key++) {
+      assertEquals(page1.getValue(key), page2.getValue(key));
+    }
+    assertEquals(page1, page2);
+    assertEquals(page1.hashCode(), page2.hashCode());
+
+    // Records, which are read lazily, are serialized again, as they might have been modified.
+    ((ElementNode) page1.getValue(0L)).setParentKey(42);
+    ((ElementNode) page2.getValue(0L)).setParentKey(42);
+    final UnorderedKeyValuePage page3 = serializeDeserialize(page2);
+    assertEquals(42L, ((ElementNode) page3.getValue(0L)).getParentKey());
+    assertEquals(page1, page3);
+
+    // Records, which are set, replace the serialized records.
+    page3.setEntry(9L, page1.getValue(9L));
+    assertEquals(9, page3.serializedKeySet().size());
+    assertEquals(10, page3.size());
+  }
+
+  private UnorderedKeyValuePage serializeDeserialize(final UnorderedKeyValuePage page)
+      throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final PagePersister pagePersister = new PagePersister();
+    pagePersister.serializePage(new DataOutputStream(out), page, SerializationType.DATA);
+    final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    return (UnorderedKeyValuePage) pagePersister.deserializePage(
+        new DataInputStream(in), mPageReadTrx, SerializationType.DATA);
+  }
 }
@@ -153,6 +153,44 @@ public class XMLSerializerTest {
     }
   }
 
+  @Test
+  public void testParallelSerializer() throws Exception {
+    final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+    try (final ResourceManager manager = database.getResourceManager(TestHelper.RESOURCE);
+        final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+
+      // generate serialize all from this session
+      DocumentCreator.createVersioned(wtx);
+
+      XMLSerializer serializerall =
+          new XMLSerializerBuilder(manager, out, -1).emitXMLDeclaration()
+                                                    .serializeTimestamp(false)
+                                                    .maxParallelism(2)
+                                                    .build();
+      serializerall.call();
+      assertEquals(
+          DocumentCreator.VERSIONEDXML, out.toString(Constants.DEFAULT_ENCODING.toString()));
+      out.reset();
+
+      serializerall = new XMLSerializerBuilder(manager, out, 1, 2, 3).emitXMLDeclaration()
+                                                                     .serializeTimestamp(false)
+                                                                     .prettyPrint()
+                                                                     .build();
+      serializerall.call();
+      final String expected = out.toString(Constants.DEFAULT_ENCODING.toString());
+      out.reset();
+
+      serializerall = new XMLSerializerBuilder(manager, out, 1, 2, 3).emitXMLDeclaration()
+                                                                     .serializeTimestamp(false)
+                                                                     .prettyPrint()
+                                                                     .maxParallelism(3)
+                                                                     .build();
+      serializerall.call();
+      assertEquals(expected, out.toString(Constants.DEFAULT_ENCODING.toString()));
+    }
+  }
+
   /**
    * This test check the XPath //books expression and expects 6 books as result. But the failure is,
    * that only the children of the books will be serialized and NOT the book node itself.
@@ -0,0 +1,161 @@
+package org.sirix.service.xml.shredder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.Axis;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
+import org.sirix.exception.SirixException;
+import org.sirix.node.Kind;
+
+public class ParallelXMLShredderTest {
+
+  private static final Path FACTBOOK = Paths.get("src", "test", "resources", "factbook.xml");
+
+  private static final Path AUCTION = Paths.get("src", "test", "resources", "auction.xml");
+
+  /** Document with all node kinds and markup, which must not be mistaken for tags. */
+  private static final String DOCUMENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+      + "<!DOCTYPE root [<!ELEMENT root ANY>]><!-- prolog -->"
+      + "<root xmlns=\"urn:default\" xmlns:p=\"urn:p\" p:id=\"1\">text"
+      + "<a x=\"&gt;b/>\" y='\"'>a&amp;b<![CDATA[<c></c>]]>äöü</a><!-- <d> -->"
+      + "<p:e><?pi <f>?><g/></p:e>  <h/>tail<h><i>1</i><i>2</i></h></root>";
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testFactbook() throws Exception {
+    test(FACTBOOK, 16 * 1024);
+  }
+
+  @Test
+  public void testAuction() throws Exception {
+    test(AUCTION, 1024);
+  }
+
+  @Test
+  public void testMarkup() throws Exception {
+    final Path file = Files.createTempFile("parallel", ".xml");
+    try {
+      Files.write(file, DOCUMENT.getBytes(StandardCharsets.UTF_8));
+      for (final int chunkSize : new int[] {1, 64, 1024}) {
+        TestHelper.deleteEverything();
+        test(file, chunkSize);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testEmptyRoot() throws Exception {
+    final Path file = Files.createTempFile("parallel", ".xml");
+    try {
+      Files.write(file, "<root a=\"/\"/>".getBytes(StandardCharsets.UTF_8));
+      test(file, 1);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Shred a file with the {@link XMLShredder} and the {@link ParallelXMLShredder} and compare the
+   * resulting trees.
+   *
+   * @param file the XML file
+   * @param chunkSize minimum number of bytes of a chunk
+   */
+  private static void test(final Path file, final int chunkSize) throws Exception {
+    final ResourceManager expectedManager = getResourceManager(PATHS.PATH1);
+    try (final XdmNodeWriteTrx wtx = expectedManager.beginNodeWriteTrx();
+        final FileInputStream fis = new FileInputStream(file.toFile())) {
+      new XMLShredder.Builder(wtx, XMLShredder.createFileReader(fis), Insert.ASFIRSTCHILD)
+          .commitAfterwards()
+          .build()
+          .call();
+    }
+
+    final ResourceManager manager = getResourceManager(PATHS.PATH2);
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+      new ParallelXMLShredder.Builder(wtx, file, Insert.ASFIRSTCHILD).chunkSize(chunkSize)
+                                                                     .commitAfterwards()
+                                                                     .build()
+                                                                     .call();
+    }
+
+    assertEqualTrees(expectedManager, manager);
+  }
+
+  /**
+   * Compare the trees of two resources, which are shredded from the same document.
+   *
+   * @param expectedManager resource shredded by the {@link XMLShredder}
+   * @param manager resource shredded by another shredder
+   */
+  static void assertEqualTrees(final ResourceManager expectedManager,
+      final ResourceManager manager) {
+    try (final XdmNodeReadTrx expectedRtx = expectedManager.beginNodeReadTrx();
+        final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      final Axis expected = new DescendantAxis(expectedRtx, IncludeSelf.YES);
+      final Axis actual = new DescendantAxis(rtx, IncludeSelf.YES);
+      while (expected.hasNext()) {
+        assertEquals(expected.next(), actual.next());
+        assertNode(expectedRtx, rtx);
+        if (expectedRtx.getKind() == Kind.ELEMENT) {
+          assertEquals(expectedRtx.getNamespaceCount(), rtx.getNamespaceCount());
+          for (int i = 0; i < expectedRtx.getNamespaceCount(); i++) {
+            expectedRtx.moveToNamespace(i);
+            rtx.moveToNamespace(i);
+            assertNode(expectedRtx, rtx);
+            expectedRtx.moveToParent();
+            rtx.moveToParent();
+          }
+          // The attributes are inserted in document order, which the XMLShredder doesn't preserve.
+          assertEquals(expectedRtx.getAttributeCount(), rtx.getAttributeCount());
+          for (int i = 0; i < expectedRtx.getAttributeCount(); i++) {
+            expectedRtx.moveToAttribute(i);
+            rtx.moveToAttributeByName(expectedRtx.getName());
+            assertEquals(expectedRtx.getValue(), rtx.getValue());
+            expectedRtx.moveToParent();
+            rtx.moveToParent();
+          }
+        }
+      }
+      assertFalse(actual.hasNext());
+    }
+  }
+
+  static ResourceManager getResourceManager(final PATHS path) {
+    return TestHelper.getDatabase(path.getFile()).getResourceManager(TestHelper.RESOURCE);
+  }
+
+  private static void assertNode(final XdmNodeReadTrx expected, final XdmNodeReadTrx actual) {
+    assertEquals(expected.getNodeKey(), actual.getNodeKey());
+    assertEquals(expected.getKind(), actual.getKind());
+    assertEquals(expected.getParentKey(), actual.getParentKey());
+    assertEquals(expected.getChildCount(), actual.getChildCount());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getValue(), actual.getValue());
+  }
+}
@@ -0,0 +1,101 @@
+package org.sirix.service.xml.shredder;
+
+import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.xml.stream.XMLStreamReader;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+
+public class XMLStreamShredderTest {
+
+  private static final Path XML = Paths.get("src", "test", "resources", "test.xml");
+
+  private static final Path FACTBOOK = Paths.get("src", "test", "resources", "factbook.xml");
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testShredder() throws Exception {
+    test(XML);
+  }
+
+  @Test
+  public void testFactbook() throws Exception {
+    test(FACTBOOK);
+  }
+
+  @Test
+  public void testText() throws Exception {
+    final String xml = "<a> x &amp; y <![CDATA[<b>]]> <!-- c --> z </a>";
+    final ResourceManager manager = ParallelXMLShredderTest.getResourceManager(PATHS.PATH1);
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx();
+        final InputStream in = new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))) {
+      final XMLStreamReader reader = XMLStreamShredder.createFileReader(in);
+      new XMLStreamShredder.Builder(wtx, reader, Insert.ASFIRSTCHILD).commitAfterwards()
+                                                                     .build()
+                                                                     .call();
+      reader.close();
+    }
+
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      rtx.moveToFirstChild();
+      assertEquals(new QNm("a"), rtx.getName());
+      rtx.moveToFirstChild();
+      assertEquals("x & y <b>", rtx.getValue());
+      rtx.moveToRightSibling();
+      assertEquals(" c ", rtx.getValue());
+      rtx.moveToRightSibling();
+      assertEquals("z", rtx.getValue());
+    }
+  }
+
+  /**
+   * Shred a file with the {@link XMLShredder} and the {@link XMLStreamShredder} and compare the
+   * resulting trees.
+   *
+   * @param file the XML file
+   */
+  private static void test(final Path file) throws Exception {
+    final ResourceManager expectedManager = ParallelXMLShredderTest.getResourceManager(PATHS.PATH1);
+    try (final XdmNodeWriteTrx wtx = expectedManager.beginNodeWriteTrx();
+        final FileInputStream fis = new FileInputStream(file.toFile())) {
+      new XMLShredder.Builder(wtx, XMLShredder.createFileReader(fis), Insert.ASFIRSTCHILD)
+          .commitAfterwards()
+          .build()
+          .call();
+    }
+
+    final ResourceManager manager = ParallelXMLShredderTest.getResourceManager(PATHS.PATH2);
+    try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx();
+        final FileInputStream fis = new FileInputStream(file.toFile())) {
+      final XMLStreamReader reader = XMLStreamShredder.createFileReader(fis);
+      new XMLStreamShredder.Builder(wtx, reader, Insert.ASFIRSTCHILD).commitAfterwards()
+                                                                     .build()
+                                                                     .call();
+      reader.close();
+    }
+
+    ParallelXMLShredderTest.assertEqualTrees(expectedManager, manager);
+  }
+}
@@ -22,6 +22,7 @@
 package org.sirix.settings;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
@@ -33,10 +34,14 @@ import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.trx.node.HashType;
 import org.sirix.api.Database;
+import org.sirix.api.PageReadTrx;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.exception.SirixException;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
 
 /** Test revisioning. */
 public class VersioningTest {
@@ -144,6 +149,35 @@ public class VersioningTest {
     test1();
   }
 
+  @Test
+  public void testFullSharedPages() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.FULL)
+                                          .hashKind(HashType.NONE)
+                                          .build());
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        for (int i = 0; i < Constants.NDP_NODE_COUNT - 1; i++) {
+          wtx.insertElementAsFirstChild(new QNm("foo" + i));
+        }
+        wtx.commit();
+      }
+
+      // The cached pages are read by the second transaction, once the first one has been closed.
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+        assertTrue(rtx.moveToFirstChild().hasMoved());
+        assertEquals(new QNm("foo0"), rtx.getName());
+      }
+      try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+        for (int i = 0; i < Constants.NDP_NODE_COUNT - 1; i++) {
+          assertTrue(rtx.moveToFirstChild().hasMoved());
+          assertEquals(new QNm("foo" + i), rtx.getName());
+        }
+      }
+    }
+  }
+
   @Test
   public void testSlidingSnapshot() throws SirixException {
     mDatabase.createResource(
@@ -177,6 +211,182 @@ public class VersioningTest {
     test2();
   }
 
+  @Test
+  public void testAdaptive() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.ADAPTIVE)
+                                          .hashKind(HashType.NONE)
+                                          .revisionsToRestore(3)
+                                          .build());
+    test();
+  }
+
+  @Test
+  public void testAdaptive1() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.ADAPTIVE)
+                                          .hashKind(HashType.NONE)
+                                          .revisionsToRestore(3)
+                                          .build());
+    test1();
+  }
+
+  @Test
+  public void testAdaptive2() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.ADAPTIVE)
+                                          .hashKind(HashType.NONE)
+                                          .revisionsToRestore(3)
+                                          .build());
+    test2();
+  }
+
+  @Test
+  public void testAdaptiveSnapshotAboveChangeRatio() throws SirixException {
+    createAdaptiveResource();
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        fillFirstNodePage(wtx);
+        // Half of the records of the page are changed.
+        wtx.moveToDocumentRoot();
+        for (int i = 0; i < Constants.NDP_NODE_COUNT >> 1; i++) {
+          wtx.moveToFirstChild();
+          wtx.setName(new QNm("bar"));
+        }
+        wtx.commit();
+      }
+      assertEquals(
+          Constants.NULL_ID_LONG, getFirstRecordPage(manager, 2).getPreviousReferenceKey());
+      assertNames(manager, Constants.NDP_NODE_COUNT >> 1);
+    }
+  }
+
+  @Test
+  public void testAdaptiveDeltaBelowChangeRatio() throws SirixException {
+    createAdaptiveResource();
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        fillFirstNodePage(wtx);
+        wtx.moveToDocumentRoot();
+        wtx.moveToFirstChild();
+        wtx.setName(new QNm("bar"));
+        wtx.commit();
+      }
+      final UnorderedKeyValuePage page = getFirstRecordPage(manager, 2);
+      assertEquals(getFirstRecordPageKey(manager, 1), page.getPreviousReferenceKey());
+      assertEquals(1, page.size());
+      assertNames(manager, 1);
+    }
+  }
+
+  @Test
+  public void testAdaptiveSnapshotAboveReadCost() throws SirixException {
+    createAdaptiveResource();
+    try (final ResourceManager manager = mDatabase.getResourceManager(TestHelper.RESOURCE)) {
+      try (final XdmNodeWriteTrx wtx = manager.beginNodeWriteTrx()) {
+        fillFirstNodePage(wtx);
+        for (int revision = 2; revision <= 4; revision++) {
+          wtx.moveToDocumentRoot();
+          wtx.moveToFirstChild();
+          wtx.setName(new QNm("bar"));
+          wtx.commit();
+        }
+      }
+      // Fewer fragments than the number of revisions to restore are read.
+      for (int revision = 2; revision <= 3; revision++) {
+        assertEquals(getFirstRecordPageKey(manager, revision - 1),
+            getFirstRecordPage(manager, revision).getPreviousReferenceKey());
+      }
+      // As many fragments as the number of revisions to restore are read.
+      final UnorderedKeyValuePage page = getFirstRecordPage(manager, 4);
+      assertEquals(Constants.NULL_ID_LONG, page.getPreviousReferenceKey());
+      assertNotEquals(1, page.size());
+      assertNames(manager, 1);
+    }
+  }
+
+  /**
+   * Create the resource with adaptive versioning.
+   *
+   * @throws SirixException if the resource can't be created
+   */
+  private void createAdaptiveResource() throws SirixException {
+    mDatabase.createResource(
+        new ResourceConfiguration.Builder(TestHelper.RESOURCE,
+            mDatabase.getDatabaseConfig()).versioningApproach(VersioningType.ADAPTIVE)
+                                          .hashKind(HashType.NONE)
+                                          .revisionsToRestore(3)
+                                          .build());
+  }
+
+  /**
+   * Fill the first node page with elements and commit them in the first revision.
+   *
+   * @param wtx {@link XdmNodeWriteTrx} instance
+   * @throws SirixException if inserting elements fails
+   */
+  private void fillFirstNodePage(final XdmNodeWriteTrx wtx) throws SirixException {
+    for (int i = 0; i < Constants.NDP_NODE_COUNT - 1; i++) {
+      wtx.insertElementAsFirstChild(new QNm("foo"));
+    }
+    wtx.commit();
+  }
+
+  /**
+   * Assert the names of the elements in the first node page of the most recent revision.
+   *
+   * @param manager the resource manager
+   * @param renamed the number of elements, which have been renamed
+   */
+  private void assertNames(final ResourceManager manager, final int renamed) {
+    try (final XdmNodeReadTrx rtx = manager.beginNodeReadTrx()) {
+      for (int i = 0; i < Constants.NDP_NODE_COUNT - 1; i++) {
+        assertTrue(rtx.moveToFirstChild().hasMoved());
+        assertEquals(new QNm(i < renamed
+            ? "bar"
+            : "foo"), rtx.getName());
+      }
+    }
+  }
+
+  /**
+   * Get the storage key of the fragment of the first record page, which has been written in a
+   * revision.
+   *
+   * @param manager the resource manager
+   * @param revision the revision
+   * @return the storage key of the fragment
+   */
+  private long getFirstRecordPageKey(final ResourceManager manager, final int revision) {
+    try (final PageReadTrx pageTrx = manager.beginPageReadTrx(revision)) {
+      return getFirstRecordPageReference(pageTrx).getKey();
+    }
+  }
+
+  /**
+   * Read the fragment of the first record page, which has been written in a revision.
+   *
+   * @param manager the resource manager
+   * @param revision the revision
+   * @return the fragment
+   */
+  private UnorderedKeyValuePage getFirstRecordPage(final ResourceManager manager,
+      final int revision) {
+    try (final PageReadTrx pageTrx = manager.beginPageReadTrx(revision)) {
+      return (UnorderedKeyValuePage) pageTrx.getReader()
+                                            .read(getFirstRecordPageReference(pageTrx), pageTrx);
+    }
+  }
+
+  private PageReference getFirstRecordPageReference(final PageReadTrx pageTrx) {
+    return pageTrx.getPageReferenceForPage(
+        pageTrx.getActualRevisionRootPage().getIndirectPageReference(), 0, -1,
+        PageKind.RECORDPAGE);
+  }
+
   /**
    * Test revisioning.
    *
@@ -0,0 +1,59 @@
+package org.sirix.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import org.junit.Test;
+
+public class CompressionTest {
+
+  @Test
+  public void testRoundTrip() {
+    final Random random = new Random(42);
+    for (final int length : new int[] {0, 1, 11, 1023, 1024, 1025, 100_000}) {
+      // Text compresses well, random bytes don't.
+      final byte[] text = new byte[length];
+      final byte[] bytes = new byte[length];
+      for (int i = 0; i < length; i++) {
+        text[i] = (byte) ('a' + i % 7);
+      }
+      random.nextBytes(bytes);
+
+      for (final int level : new int[] {Deflater.DEFAULT_COMPRESSION, Deflater.NO_COMPRESSION,
+          Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION}) {
+        assertArrayEquals(text, Compression.decompress(Compression.compress(text, level)));
+        assertArrayEquals(bytes, Compression.decompress(Compression.compress(bytes, level)));
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentRoundTrips() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    final List<Future<?>> futures = new ArrayList<>();
+    for (int task = 0; task < 8; task++) {
+      final int seed = task;
+      futures.add(executor.submit(() -> {
+        final Random random = new Random(seed);
+        for (int i = 0; i < 1_000; i++) {
+          final byte[] value = new byte[random.nextInt(2_000)];
+          for (int j = 0; j < value.length; j++) {
+            value[j] = (byte) ('a' + random.nextInt(4));
+          }
+          assertArrayEquals(value,
+              Compression.decompress(Compression.compress(value, Deflater.DEFAULT_COMPRESSION)));
+        }
+      }));
+    }
+
+    for (final Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,64 @@
+package org.sirix.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class LongIntHashMapTest {
+
+  @Test
+  public void testPutGetRemove() {
+    final LongIntHashMap map = new LongIntHashMap();
+    assertTrue(map.isEmpty());
+    assertEquals(LongIntHashMap.NO_VALUE, map.put(5, 1));
+    assertEquals(1, map.put(5, 2));
+    assertEquals(LongIntHashMap.NO_VALUE, map.put(Long.MIN_VALUE, 3));
+    assertEquals(2, map.size());
+    assertEquals(2, map.get(5));
+    assertEquals(3, map.get(Long.MIN_VALUE));
+    assertEquals(LongIntHashMap.NO_VALUE, map.get(6));
+    assertEquals(2, map.remove(5));
+    assertEquals(3, map.remove(Long.MIN_VALUE));
+    assertFalse(map.containsKey(5));
+    assertFalse(map.containsKey(Long.MIN_VALUE));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testAgainstHashMap() {
+    final LongIntHashMap map = new LongIntHashMap(4);
+    final Map<Long, Integer> expected = new HashMap<>();
+    final Random random = new Random(42);
+
+    for (int i = 0; i < 100_000; i++) {
+      final long key = random.nextInt(5_000);
+      if (random.nextInt(3) == 0) {
+        final Integer value = expected.remove(key);
+        assertEquals(value == null
+            ? LongIntHashMap.NO_VALUE
+            : value, map.remove(key));
+      } else {
+        final Integer value = expected.put(key, i);
+        assertEquals(value == null
+            ? LongIntHashMap.NO_VALUE
+            : value, map.put(key, i));
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+    for (long key = 0; key < 5_000; key++) {
+      final Integer value = expected.get(key);
+      assertEquals(value == null
+          ? LongIntHashMap.NO_VALUE
+          : value, map.get(key));
+    }
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertFalse(map.containsKey(0));
+  }
+}
@@ -0,0 +1,185 @@
+package org.sirix.fs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Folds bursts of filesystem events per {@link Path} before they are applied, such that for
+ * instance a series of modifications of a file results in a single update and a file, which is
+ * created and deleted again, isn't stored at all. The paths are applied in the order in which
+ * they have been changed first, such that directories are inserted before their contents.
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+@Nonnull
+final class EventCoalescer {
+
+  /** The folded change of a path. */
+  private enum Change {
+    /** The path has been created. */
+    CREATED(OperationType.INSERT),
+
+    /** The path has been modified. */
+    MODIFIED(OperationType.UPDATE),
+
+    /** The path has been deleted. */
+    DELETED(OperationType.DELETE),
+
+    /** The path has been deleted and created again. */
+    REPLACED(OperationType.DELETE, OperationType.INSERT);
+
+    /** The operations to apply. */
+    private final List<OperationType> mOperations;
+
+    /**
+     * Constructor.
+     *
+     * @param operations the operations to apply
+     */
+    Change(final OperationType... operations) {
+      mOperations = ImmutableList.copyOf(operations);
+    }
+
+    /**
+     * Fold a subsequent operation into this change.
+     *
+     * @param operation the subsequent operation
+     * @return the folded change or {@code null}, if nothing has to be applied
+     */
+    private Change fold(final OperationType operation) {
+      switch (operation) {
+        case INSERT:
+          return this == CREATED
+              ? CREATED
+              : REPLACED;
+        case UPDATE:
+          return this;
+        case DELETE:
+          return this == CREATED
+              ? null
+              : DELETED;
+        default:
+          throw new AssertionError();
+      }
+    }
+
+    /**
+     * Get the change of a single operation.
+     *
+     * @param operation the operation
+     * @return the change
+     */
+    private static Change of(final OperationType operation) {
+      switch (operation) {
+        case INSERT:
+          return CREATED;
+        case UPDATE:
+          return MODIFIED;
+        case DELETE:
+          return DELETED;
+        default:
+          throw new AssertionError();
+      }
+    }
+  }
+
+  /** Pending changes in the order of the first change of each path. */
+  private final Map<Path, Change> mChanges;
+
+  /** Time in nanoseconds of the oldest pending change. */
+  private long mOldestChange;
+
+  /** Constructor. */
+  EventCoalescer() {
+    mChanges = new LinkedHashMap<>();
+  }
+
+  /**
+   * Add an operation on a path.
+   *
+   * @param operation the operation
+   * @param path the path
+   * @throws NullPointerException if one of the arguments is {@code null}
+   */
+  void add(final OperationType operation, final Path path) {
+    checkNotNull(operation);
+    checkNotNull(path);
+    if (mChanges.isEmpty()) {
+      mOldestChange = System.nanoTime();
+    }
+
+    final Change change = mChanges.get(path);
+    if (change == null) {
+      mChanges.put(path, Change.of(operation));
+    } else {
+      final Change folded = change.fold(operation);
+      if (folded == null) {
+        mChanges.remove(path);
+      } else {
+        mChanges.put(path, folded);
+      }
+    }
+
+    if (operation == OperationType.DELETE) {
+      removeDescendants(path);
+    }
+  }
+
+  /**
+   * Remove the pending changes of the descendants of a deleted path, which are removed together
+   * with the path.
+   *
+   * @param path the deleted path
+   */
+  private void removeDescendants(final Path path) {
+    for (final Iterator<Path> paths = mChanges.keySet().iterator(); paths.hasNext();) {
+      final Path pending = paths.next();
+      if (!pending.equals(path) && pending.startsWith(path)) {
+        paths.remove();
+      }
+    }
+  }
+
+  /**
+   * Get the number of paths with pending changes.
+   *
+   * @return the number of paths
+   */
+  int size() {
+    return mChanges.size();
+  }
+
+  /**
+   * Get the time in nanoseconds, since the oldest pending change has been added.
+   *
+   * @return the age of the oldest pending change or {@code 0}, if no changes are pending
+   */
+  long getAge() {
+    return mChanges.isEmpty()
+        ? 0
+        : System.nanoTime() - mOldestChange;
+  }
+
+  /**
+   * Pass all pending operations to a consumer and remove them.
+   *
+   * @param consumer consumer of the operations and the paths
+   */
+  void drain(final BiConsumer<OperationType, Path> consumer) {
+    checkNotNull(consumer);
+    for (final Map.Entry<Path, Change> entry : mChanges.entrySet()) {
+      for (final OperationType operation : entry.getValue().mOperations) {
+        consumer.accept(operation, entry.getKey());
+      }
+    }
+    mChanges.clear();
+  }
+}
@@ -5,9 +5,7 @@ import java.io.IOException;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collections;
 import java.util.EnumSet;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import org.sirix.api.Database;
 import org.sirix.api.ResourceManager;
@@ -27,7 +25,8 @@ import com.google.common.base.Optional;
 public class FileHierarchyWalker {
 
   /**
-   * Parse a directory and create a simple XML representation.
+   * Parse a directory and create a simple XML representation. The {@link PathIndex} is created
+   * before, such that the paths are indexed while parsing.
    *
    * @param path path to directory from which to shredder all content into sirix
    * @param database sirix {@IDatabase} to shred into
@@ -36,9 +35,8 @@ public class FileHierarchyWalker {
    * @throws IOException if an I/O error occurs
    * @throws NullPointerException if one of the arguments is {@code null}
    */
-  public static Map<Path, org.sirix.fs.FileSystemPath> parseDir(final Path path,
-      final Database database, Optional<Visitor<XdmNodeWriteTrx>> visitor)
-      throws SirixException, IOException {
+  public static void parseDir(final Path path, final Database database,
+      Optional<Visitor<XdmNodeWriteTrx>> visitor) throws SirixException, IOException {
     checkNotNull(visitor);
     checkNotNull(path);
     try (final ResourceManager resource = checkNotNull(database).getResourceManager("shredded");
@@ -47,14 +45,11 @@ public class FileHierarchyWalker {
       if (visitor.isPresent()) {
         builder.setVisitor(visitor.get());
       }
-      Map<Path, org.sirix.fs.FileSystemPath> index = Collections.emptyMap();
+      PathIndex.create(wtx);
       try (final HierarchyFileVisitor fileVisitor = HierarchyFileVisitor.getInstance(builder)) {
         Files.walkFileTree(
             path, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, fileVisitor);
-        index = fileVisitor.getIndex();
       }
-
-      return index;
     }
   }
 }
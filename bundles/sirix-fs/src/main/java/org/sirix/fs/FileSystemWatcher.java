@@ -20,6 +20,7 @@
  */
 package org.sirix.fs;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
@@ -39,24 +40,18 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.sirix.access.Databases;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
-import org.sirix.api.Axis;
 import org.sirix.api.Database;
 import org.sirix.api.ResourceManager;
 import org.sirix.api.XdmNodeWriteTrx;
 import org.sirix.exception.SirixException;
-import org.sirix.exception.SirixXPathException;
-import org.sirix.service.xml.xpath.XPathAxis;
-import org.sirix.settings.Fixed;
 import org.sirix.utils.LogWrapper;
-import org.sirix.utils.XMLToken;
 import org.slf4j.LoggerFactory;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
@@ -72,16 +67,23 @@ import com.google.common.base.Optional;
  * creation of the database. Subsequent notifications currently don't use any extractors.
  * </p>
  *
+ * <p>
+ * Events are folded per path by an {@link EventCoalescer}. The pending changes are applied and
+ * committed as soon as either the number of changed paths exceeds the batch size or the oldest
+ * change exceeds the latency bound. The nodes of the changed paths are looked up in the persistent
+ * {@link PathIndex}.
+ * </p>
+ *
  * @author Johannes Lichtenberger, University of Konstanz
  *
  */
 public class FileSystemWatcher implements AutoCloseable {
 
-  /**
-   * Pool to handle transactional time, that is to commit changes after a specific time interval.
-   * One thread in the pool is sufficient.
-   */
-  public final ScheduledExecutorService mPool = Executors.newSingleThreadScheduledExecutor();
+  /** Default maximum number of changed paths, which are applied and committed at once. */
+  public static final int DEFAULT_BATCH_SIZE = 1_000;
+
+  /** Default maximum time in milliseconds, after which a change is committed. */
+  public static final long DEFAULT_LATENCY = 1_000;
 
   /**
    * Mapping of {@code {@link Path}/{@link Database} to {@link FileSystemWatcher} shared among all
@@ -109,6 +111,18 @@ public class FileSystemWatcher implements AutoCloseable {
   /** sirix {@link XdmNodeWriteTrx}. */
   private XdmNodeWriteTrx mWtx;
 
+  /** Persistent index of the paths. */
+  private final PathIndex mIndex;
+
+  /** Pending changes. */
+  private final EventCoalescer mCoalescer;
+
+  /** Maximum number of changed paths, which are applied and committed at once. */
+  private int mBatchSize;
+
+  /** Maximum time in nanoseconds, after which a change is committed. */
+  private long mLatency;
+
   /** Possible states. */
   public enum State {
     /** Loops and waits for events. */
@@ -131,7 +145,13 @@ public class FileSystemWatcher implements AutoCloseable {
     mResource = mDatabase.getResourceManager("shredded");
     mWtx = mResource.beginNodeWriteTrx();
     mState = State.LOOP;
-    mPool.scheduleAtFixedRate(() -> mWtx.commit(), 60, 60, TimeUnit.SECONDS);
+    mIndex = new PathIndex(mPath);
+    mCoalescer = new EventCoalescer();
+    mBatchSize = DEFAULT_BATCH_SIZE;
+    mLatency = TimeUnit.MILLISECONDS.toNanos(DEFAULT_LATENCY);
+
+    // Index databases, which have been created without the path index.
+    PathIndex.create(mWtx);
   }
 
   /**
@@ -156,30 +176,53 @@ public class FileSystemWatcher implements AutoCloseable {
     return watcher;
   }
 
+  /**
+   * Set the bounds, which trigger applying and committing the pending changes.
+   *
+   * @param batchSize maximum number of changed paths, which are applied and committed at once
+   * @param latency maximum time, after which a change is committed
+   * @param unit the unit of {@code latency}
+   * @return this {@link FileSystemWatcher} instance
+   * @throws IllegalArgumentException if {@code batchSize} or {@code latency} isn't positive
+   * @throws NullPointerException if {@code unit} is {@code null}
+   */
+  public FileSystemWatcher setCommitBounds(final int batchSize, final long latency,
+      final TimeUnit unit) {
+    checkArgument(batchSize > 0, "batchSize must be > 0!");
+    checkArgument(latency > 0, "latency must be > 0!");
+    mBatchSize = batchSize;
+    mLatency = checkNotNull(unit).toNanos(latency);
+    return this;
+  }
+
   /**
    * Watch the directory for changes.
    *
    * @param visitor optional visitor
-   * @param index an index of the directory paths to watch
    * @throws IOException if an I/O error occurs
-   * @throws NullPointerException if {@code pIndex} is {@code null}
    */
-  public void watch(final Visitor<XdmNodeWriteTrx> visitor, final Map<Path, FileSystemPath> index)
-      throws IOException {
+  public void watch(final Visitor<XdmNodeWriteTrx> visitor) throws IOException {
     final WatchService watcher = FileSystems.getDefault().newWatchService();
     final WatchRecursivelyVisitor fileVisitor = WatchRecursivelyVisitor.getInstance(watcher);
     Files.walkFileTree(mPath, fileVisitor);
-    checkNotNull(index);
 
     for (; mState == State.LOOP;) {
-      // Wait for key to be signaled.
+      // Wait for key to be signaled or until the oldest pending change has to be committed.
       WatchKey key;
       try {
-        key = watcher.take();
+        key = mCoalescer.size() == 0
+            ? watcher.take()
+            : watcher.poll(Math.max(mLatency - mCoalescer.getAge(), 0), TimeUnit.NANOSECONDS);
       } catch (InterruptedException x) {
+        flush(visitor);
         return;
       }
 
+      if (key == null) {
+        flush(visitor);
+        continue;
+      }
+
       final Map<WatchKey, Path> keys = fileVisitor.getKeys();
       final Path dir = keys.get(key);
       if (dir == null) {
@@ -218,7 +261,7 @@ public class FileSystemWatcher implements AutoCloseable {
                 final WatchKey key =
                     dir.register(watcher, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
                 keys.put(key, dir);
-                entryCreated(visitor, index, dir);
+                mCoalescer.add(OperationType.INSERT, dir);
                 return FileVisitResult.CONTINUE;
               }
 
@@ -227,16 +270,20 @@ public class FileSystemWatcher implements AutoCloseable {
                   throws IOException {
                 checkNotNull(pFile);
                 checkNotNull(pAttrs);
-                entryCreated(visitor, index, pFile);
+                mCoalescer.add(OperationType.INSERT, pFile);
                 return FileVisitResult.CONTINUE;
               }
             });
           } else {
-            processEvent(ev, visitor, index, watcher, child);
+            processEvent(ev, child);
           }
         }
       }
 
+      if (mCoalescer.size() >= mBatchSize || mCoalescer.getAge() >= mLatency) {
+        flush(visitor);
+      }
+
       /*
        * Reset the key -- this step is critical if you want to receive further watch events. If the
        * key is no longer valid, the directory is inaccessible so exit the loop.
@@ -252,6 +299,7 @@ public class FileSystemWatcher implements AutoCloseable {
       }
     }
 
+    flush(visitor);
     watcher.close();
   }
 
@@ -269,24 +317,20 @@ public class FileSystemWatcher implements AutoCloseable {
    * Process an event if the {@link Path} context is available.
    *
    * @param event {@link WatchEvent<Path>} reference
-   * @param visitor optional visitor
-   * @param index simple path index
-   * @throws IOException if an I/O error occurs
+   * @param path the changed path
    */
-  private void processEvent(final WatchEvent<?> event, final Visitor<XdmNodeWriteTrx> visitor,
-      final Map<Path, FileSystemPath> index, final WatchService watcher, final Path path)
-      throws IOException {
+  private void processEvent(final WatchEvent<?> event, final Path path) {
     assert event != null;
     final Kind<?> type = event.kind();
 
     Optional<?> optional = Optional.fromNullable(event.context());
     if (optional.isPresent()) {
       if (type == ENTRY_CREATE) {
-        entryCreated(visitor, index, path);
+        mCoalescer.add(OperationType.INSERT, path);
       } else if (type == ENTRY_DELETE && !Files.exists(path)) {
-        entryDeletes(visitor, index, path);
+        mCoalescer.add(OperationType.DELETE, path);
       } else if (type == ENTRY_MODIFY) {
-        entryModified(visitor, index, path);
+        mCoalescer.add(OperationType.UPDATE, path);
       }
     } else {
       LOGWRAPPER.info("no path associated with the context!");
@@ -294,59 +338,42 @@ public class FileSystemWatcher implements AutoCloseable {
   }
 
   /**
-   * Find node corresponding to the path. The {@link XdmNodeWriteTrx} globally used is moved to the
-   * found node.
+   * Apply and commit the pending changes.
    *
-   * @param query xpath expression
-   * @throws SirixXPathException if expression isn't valid
-   * @throws NullPointerException if {@code pXPath} is {@code null}
-   */
-  private void findNode(final String query) throws SirixXPathException {
-    final Axis axis = new XPathAxis(mWtx, checkNotNull(query));
-    int countResults = 0;
-    long resultNodeKey = Fixed.NULL_NODE_KEY.getStandardProperty();
-    while (axis.hasNext()) {
-      resultNodeKey = axis.next();
-      countResults++;
-      assert countResults == 1 : "At maximum one item should be found!";
-    }
-    mWtx.moveTo(resultNodeKey);
-  }
-
-  /**
-   * Process an {@link java.nio.file.StandardWatchEventKinds#ENTRY_MODIFY ENTRY_MODIFY} event.
-   */
-  private void entryModified(final Visitor<XdmNodeWriteTrx> visitor,
-      final Map<Path, FileSystemPath> pIndex, final Path pPath) {
-    try {
-      execute(OperationType.UPDATE, visitor, pIndex, pPath);
-    } catch (final SirixException e) {
-      LOGWRAPPER.error(e.getMessage(), e);
-    }
-  }
-
-  /**
-   * Process an {@link java.nio.file.StandardWatchEventKinds#ENTRY_DELETE ENTRY_DELETE} event.
+   * @param visitor optional visitor
    */
-  private void entryDeletes(final Visitor<XdmNodeWriteTrx> visitor,
-      final Map<Path, FileSystemPath> index, final Path pPath) {
-    try {
-      execute(OperationType.DELETE, visitor, index, pPath);
-    } catch (final SirixException e) {
-      LOGWRAPPER.error(e.getMessage(), e);
+  private void flush(final Visitor<XdmNodeWriteTrx> visitor) {
+    if (mCoalescer.size() > 0) {
+      mCoalescer.drain((operation, path) -> {
+        try {
+          execute(operation, visitor, path);
+        } catch (final SirixException e) {
+          LOGWRAPPER.error(e.getMessage(), e);
+        }
+      });
+      mWtx.commit();
     }
   }
 
   /**
-   * Process an {@link java.nio.file.StandardWatchEventKinds#ENTRY_CREATE ENTRY_CREATE} event.
+   * Find the node corresponding to the path. The {@link XdmNodeWriteTrx} globally used is moved to
+   * the found node.
+   *
+   * @param path the path
+   * @return the node key, if the node is found
    */
-  private void entryCreated(final Visitor<XdmNodeWriteTrx> visitor,
-      final Map<Path, FileSystemPath> pIndex, final Path pPath) {
-    try {
-      execute(OperationType.INSERT, visitor, pIndex, pPath);
-    } catch (final SirixException e) {
-      LOGWRAPPER.error(e.getMessage(), e);
+  private OptionalLong findNode(final Path path) {
+    final FileSystemPath kind = Files.isDirectory(path)
+        ? FileSystemPath.ISDIRECTORY
+        : FileSystemPath.ISFILE;
+    final OptionalLong nodeKey = mIndex.find(mWtx, path, kind);
+    if (nodeKey.isPresent()) {
+      return nodeKey;
     }
+    // Deleted or replaced paths may have been of the other kind.
+    return mIndex.find(mWtx, path, kind == FileSystemPath.ISDIRECTORY
+        ? FileSystemPath.ISFILE
+        : FileSystemPath.ISDIRECTORY);
   }
 
   /**
@@ -354,54 +381,30 @@ public class FileSystemWatcher implements AutoCloseable {
    *
    * @param operation {@link OperationType} value
    * @param visitor optional visitor
-   * @param index simple path index
+   * @param pathToWatch the changed path
    * @throws SirixException if operation in sirix fails
    */
   private void execute(final Operation<XdmNodeWriteTrx> operation,
-      final Visitor<XdmNodeWriteTrx> visitor, final Map<Path, FileSystemPath> index,
-      final Path pathToWatch) throws SirixException {
+      final Visitor<XdmNodeWriteTrx> visitor, final Path pathToWatch) throws SirixException {
     assert operation != null;
-    assert index != null;
-
-    final Path path = operation == OperationType.INSERT
-        ? mPath.resolve(pathToWatch).getParent().normalize()
-        : mPath.resolve(pathToWatch).normalize();
-
-    if (path != null) {
-      final StringBuilder queryBuilder = new StringBuilder("/fsml/");
-      queryBuilder.append("dir[@name=\"")
-                  .append(XMLToken.escapeAttribute(mPath.getFileName().toString()))
-                  .append("\"]");
-      final Path relativized = mPath.relativize(path);
-      Path buildPath = mPath;
-
-      for (final Path element : relativized) {
-        if (!element.getFileName().toString().isEmpty()) {
-          if (Files.exists(buildPath.resolve(element))) {
-            if (Files.isDirectory(buildPath.resolve(element))) {
-              queryBuilder.append("/dir");
-            } else if (Files.isSymbolicLink(buildPath.resolve(element))
-                || Files.isRegularFile(buildPath.resolve(element))) {
-              queryBuilder.append("/file");
-            }
-          } else {
-            // DELETED.
-            LOGWRAPPER.debug("path: " + path);
-            final FileSystemPath kind = index.remove(path);
-            assert kind != null;
-            kind.append(queryBuilder);
-          }
-          queryBuilder.append("[@name=\"")
-                      .append(XMLToken.escapeAttribute(element.getFileName().toString()))
-                      .append("\"]");
-          buildPath = buildPath.resolve(element);
-        }
+
+    final Path path = mPath.resolve(pathToWatch).normalize();
+    final OptionalLong nodeKey;
+    if (operation == OperationType.INSERT) {
+      // Created and deleted again, before the deletion has been reported.
+      if (!Files.exists(path)) {
+        return;
       }
+      nodeKey = mIndex.find(mWtx, path.getParent(), FileSystemPath.ISDIRECTORY);
+    } else {
+      nodeKey = findNode(path);
+    }
 
-      final String query = queryBuilder.toString();
-      LOGWRAPPER.debug("[execute] path: " + query);
-      findNode(query);
-      operation.execute(mWtx, visitor, index, path);
+    if (nodeKey.isPresent()) {
+      LOGWRAPPER.debug("[execute] path: " + path);
+      operation.execute(mWtx, visitor, path);
+    } else {
+      LOGWRAPPER.error("No node found for path: " + path);
     }
   }
 
@@ -410,7 +413,6 @@ public class FileSystemWatcher implements AutoCloseable {
     mWtx.commit();
     mWtx.close();
     mResource.close();
-    mPool.shutdown();
   }
 
   @Override
@@ -442,7 +444,6 @@ public class FileSystemWatcher implements AutoCloseable {
     }
     final Path databasePath = Paths.get(args[1]);
     final DatabaseConfiguration conf = new DatabaseConfiguration(databasePath);
-    Map<Path, FileSystemPath> index = null;
     if (Files.exists(Paths.get(args[1]))) {
       Databases.removeDatabase(databasePath);
     }
@@ -450,13 +451,12 @@ public class FileSystemWatcher implements AutoCloseable {
     Databases.createDatabase(conf);
     try (final Database database = Databases.openDatabase(databasePath)) {
       database.createResource(new ResourceConfiguration.Builder("shredded", conf).build());
-      index = FileHierarchyWalker.parseDir(
+      FileHierarchyWalker.parseDir(
           Paths.get(args[0]), database, Optional.of(new ProcessFileSystemAttributes()));
-      assert index != null;
 
       try (final FileSystemWatcher watcher =
           FileSystemWatcher.getInstance(Paths.get(args[0]), Databases.openDatabase(databasePath))) {
-        watcher.watch(null, index);
+        watcher.watch(null);
       }
     }
   }
@@ -7,7 +7,6 @@ import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import javax.annotation.Nonnull;
@@ -22,7 +21,6 @@ import org.sirix.utils.LogWrapper;
 import org.slf4j.LoggerFactory;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
-import com.google.common.collect.Maps;
 
 /**
  * Implements the {@link FileVisitor} interface and shredders an XML representation of
@@ -57,9 +55,6 @@ public class HierarchyFileVisitor extends AbstractShredder
    */
   private final Optional<Visitor<XdmNodeWriteTrx>> mVisitor;
 
-  /** Index entries {@code String} representation to {@link Path} value. */
-  private final Map<Path, org.sirix.fs.FileSystemPath> mIndex;
-
   /** Simple Builder. */
   public static class Builder {
 
@@ -113,7 +108,6 @@ public class HierarchyFileVisitor extends AbstractShredder
     mVisitor = builder.mVisitor;
     mWtx = builder.mWtx;
     mWtx.insertElementAsFirstChild(new QNm("fsml"));
-    mIndex = Maps.newHashMap();
   }
 
   /**
@@ -157,7 +151,6 @@ public class HierarchyFileVisitor extends AbstractShredder
     checkNotNull(dir);
     checkNotNull(attrs);
     try {
-      mIndex.put(dir, org.sirix.fs.FileSystemPath.ISDIRECTORY);
       processStartTag(new QNm("dir"));
       mWtx.insertAttribute(new QNm("name"), dir.getFileName().toString());
       mWtx.moveToParent();
@@ -200,7 +193,6 @@ public class HierarchyFileVisitor extends AbstractShredder
     checkNotNull(pAttrs);
     try {
       if (Files.isRegularFile(pFile) | Files.isSymbolicLink(pFile)) {
-        mIndex.put(pFile, org.sirix.fs.FileSystemPath.ISFILE);
         processEmptyElement(new QNm("file"));
         mWtx.insertAttribute(new QNm("name"), pFile.getFileName().toString());
         mWtx.moveToParent();
@@ -257,15 +249,6 @@ public class HierarchyFileVisitor extends AbstractShredder
     return MoreObjects.toStringHelper(this).add("instances", INSTANCES).add("wtx", mWtx).toString();
   }
 
-  /**
-   * Get the path index.
-   *
-   * @return path index
-   */
-  public Map<Path, org.sirix.fs.FileSystemPath> getIndex() {
-    return mIndex;
-  }
-
   @Override
   public FileVisitResult visitFileFailed(final Path pFile, final IOException pExc)
       throws IOException {
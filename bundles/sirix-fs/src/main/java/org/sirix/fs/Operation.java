@@ -1,7 +1,6 @@
 package org.sirix.fs;
 
 import java.nio.file.Path;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import org.sirix.api.XdmNodeReadTrx;
 import org.sirix.exception.SirixException;
@@ -22,11 +21,9 @@ public interface Operation<S extends XdmNodeReadTrx> {
    *
    * @param transaction the sirix transaction
    * @param visitor a visitor which can be used to plugin further metadata
-   * @param index simple index structure
    * @param child the {@link Path} instance for which a new node element should be inserted into
    *        sirix
    * @throws SirixException if any operation in sirix fails
    */
-  void execute(S transaction, Visitor<S> visitor, Map<Path, org.sirix.fs.FileSystemPath> index,
-      Path child) throws SirixException;
+  void execute(S transaction, Visitor<S> visitor, Path child) throws SirixException;
 }
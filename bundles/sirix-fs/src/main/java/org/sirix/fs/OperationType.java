@@ -5,7 +5,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.XdmNodeWriteTrx;
@@ -24,19 +23,14 @@ enum OperationType implements Operation<XdmNodeWriteTrx> {
   INSERT {
     @Override
     public void execute(final XdmNodeWriteTrx wtx, final Visitor<XdmNodeWriteTrx> visitor,
-        final Map<Path, org.sirix.fs.FileSystemPath> index, final Path child)
-        throws SirixException {
+        final Path child) throws SirixException {
       checkNotNull(wtx);
       checkNotNull(child);
-      checkNotNull(visitor);
-      checkNotNull(index);
       checkArgument(
           wtx.getKind() == Kind.ELEMENT, "Transaction must be located at an element node!");
       if (Files.isDirectory(child)) {
-        index.put(child, org.sirix.fs.FileSystemPath.ISDIRECTORY);
         wtx.insertElementAsFirstChild(new QNm("dir"));
       } else if (Files.isRegularFile(child) | Files.isSymbolicLink(child)) {
-        index.put(child, org.sirix.fs.FileSystemPath.ISFILE);
         wtx.insertElementAsFirstChild(new QNm("file"));
       }
       wtx.insertAttribute(new QNm("name"), child.getFileName().toString());
@@ -50,12 +44,9 @@ enum OperationType implements Operation<XdmNodeWriteTrx> {
   UPDATE {
     @Override
     public void execute(final XdmNodeWriteTrx wtx, final Visitor<XdmNodeWriteTrx> visitor,
-        final Map<Path, org.sirix.fs.FileSystemPath> index, final Path child)
-        throws SirixException {
+        final Path child) throws SirixException {
       checkNotNull(wtx);
       checkNotNull(child);
-      checkNotNull(visitor);
-      checkNotNull(index);
       checkArgument(
           wtx.getKind() == Kind.ELEMENT, "Transaction must be located at an element node!");
       final long nodeKey = wtx.getNodeKey();
@@ -67,12 +58,9 @@ enum OperationType implements Operation<XdmNodeWriteTrx> {
   DELETE {
     @Override
     public void execute(final XdmNodeWriteTrx wtx, final Visitor<XdmNodeWriteTrx> visitor,
-        final Map<Path, org.sirix.fs.FileSystemPath> index, final Path child)
-        throws SirixException {
+        final Path child) throws SirixException {
       checkNotNull(wtx);
       checkNotNull(child);
-      checkNotNull(visitor);
-      checkNotNull(index);
       checkArgument(
           wtx.getKind() == Kind.ELEMENT, "Transaction must be located at an element node!");
       wtx.remove();
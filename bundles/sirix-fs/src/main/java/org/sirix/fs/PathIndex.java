@@ -0,0 +1,202 @@
+package org.sirix.fs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.Type;
+import org.sirix.access.trx.node.IndexController;
+import org.sirix.api.XdmNodeReadTrx;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.index.IndexType;
+import org.sirix.index.SearchMode;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.index.cas.CASFilter;
+import org.sirix.index.path.PCRCollectorImpl;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Persistent index, which maps the {@link Path}s of the watched directory to the node keys of the
+ * corresponding {@code dir}- and {@code file}-elements.
+ *
+ * <p>
+ * The index is backed by a CAS index over the {@code name} attributes. As sirix maintains the CAS
+ * index on every modification and stores it with each revision, it doesn't have to be rebuilt
+ * when the watcher is started. A path is looked up by its file name on the path class record of
+ * its depth, and the candidates are verified against the names of their ancestors.
+ * </p>
+ *
+ * @author Johannes Lichtenberger <lichtenberger.johannes@gmail.com>
+ *
+ */
+@Nonnull
+public final class PathIndex {
+
+  /** Number of the CAS index definition. */
+  static final int INDEX_DEF_NO = 0;
+
+  /** Paths of the indexed attributes. */
+  private static final String[] INDEXED_PATHS = {"//dir/@name", "//file/@name"};
+
+  /** Name of the attribute, which stores the file name. */
+  private static final QNm NAME = new QNm("name");
+
+  /** The watched directory. */
+  private final Path mRoot;
+
+  /**
+   * Constructor.
+   *
+   * @param root the watched directory
+   */
+  public PathIndex(final Path root) {
+    mRoot = checkNotNull(root);
+  }
+
+  /**
+   * Create the CAS index over the {@code name} attributes, if it doesn't exist yet. Subsequent
+   * modifications through the transaction are indexed, too.
+   *
+   * @param wtx the {@link XdmNodeWriteTrx}
+   * @throws SirixIOException if the index couldn't be created
+   * @throws NullPointerException if {@code wtx} is {@code null}
+   */
+  public static void create(final XdmNodeWriteTrx wtx) throws SirixIOException {
+    final IndexController controller = getIndexController(checkNotNull(wtx));
+    if (controller.getIndexes().getIndexDef(INDEX_DEF_NO, IndexType.CAS) == null) {
+      final Set<org.brackit.xquery.util.path.Path<QNm>> paths = new HashSet<>();
+      try {
+        for (final String path : INDEXED_PATHS) {
+          paths.add(org.brackit.xquery.util.path.Path.parse(path));
+        }
+      } catch (final PathException e) {
+        throw new IllegalStateException(e);
+      }
+      controller.createIndexes(
+          ImmutableSet.of(
+              IndexDefs.createCASIdxDef(false, Optional.of(Type.STR), paths, INDEX_DEF_NO)),
+          wtx);
+    }
+  }
+
+  /**
+   * Find the node, which corresponds to a path. The transaction is moved to the node, if it is
+   * found.
+   *
+   * @param wtx the {@link XdmNodeWriteTrx}
+   * @param path the path, which must be located in the watched directory
+   * @param kind determines if the path denotes a directory or a file
+   * @return the node key of the {@code dir}- or {@code file}-element, if it is found
+   * @throws NullPointerException if one of the arguments is {@code null}
+   * @throws IllegalStateException if the index doesn't exist
+   */
+  public OptionalLong find(final XdmNodeWriteTrx wtx, final Path path, final FileSystemPath kind) {
+    checkNotNull(wtx);
+    checkNotNull(kind);
+    final Path relativized = mRoot.relativize(checkNotNull(path));
+    final int depth = relativized.toString().isEmpty()
+        ? 0
+        : relativized.getNameCount();
+
+    // The watched directory itself is the dir-element of the fsml-element.
+    if (depth == 0 && kind == FileSystemPath.ISFILE) {
+      return OptionalLong.empty();
+    }
+    final StringBuilder query = new StringBuilder("/fsml/dir");
+    for (int i = 1; i < depth; i++) {
+      query.append("/dir");
+    }
+    if (depth > 0) {
+      kind.append(query);
+    }
+    query.append("/@").append(NAME.getLocalName());
+
+    final IndexController controller = getIndexController(wtx);
+    final IndexDef indexDef = controller.getIndexes().getIndexDef(INDEX_DEF_NO, IndexType.CAS);
+    if (indexDef == null) {
+      throw new IllegalStateException("The path index doesn't exist!");
+    }
+    final CASFilter filter;
+    try {
+      filter = controller.createCASFilter(
+          new String[] {query.toString()}, new Str(fileName(relativized, depth)), SearchMode.EQUAL,
+          new PCRCollectorImpl(wtx));
+    } catch (final PathException e) {
+      throw new IllegalStateException(e);
+    }
+
+    // No node has been stored on this path so far.
+    if (filter.getPCRs().isEmpty()) {
+      return OptionalLong.empty();
+    }
+
+    // All attributes with the same value and path class record share one entry.
+    final Iterator<NodeReferences> references =
+        controller.openCASIndex(wtx.getPageTrx(), indexDef, filter);
+    if (references.hasNext()) {
+      for (final long attributeKey : references.next().getNodeKeys()) {
+        wtx.moveTo(attributeKey);
+        wtx.moveToParent();
+        final long nodeKey = wtx.getNodeKey();
+        if (matches(wtx, relativized, depth)) {
+          wtx.moveTo(nodeKey);
+          return OptionalLong.of(nodeKey);
+        }
+      }
+    }
+    return OptionalLong.empty();
+  }
+
+  /**
+   * Determines if the names of the ancestors of the current node match the path.
+   *
+   * @param rtx the {@link XdmNodeReadTrx}, which is located at the element of the path
+   * @param relativized the path relative to the watched directory
+   * @param depth number of name elements of the relative path
+   * @return {@code true}, if the names match, {@code false} otherwise
+   */
+  private boolean matches(final XdmNodeReadTrx rtx, final Path relativized, final int depth) {
+    for (int i = depth; i >= 0; i--) {
+      if (!rtx.moveToAttributeByName(NAME).hasMoved()
+          || !rtx.getValue().equals(fileName(relativized, i))) {
+        return false;
+      }
+      rtx.moveToParent();
+      rtx.moveToParent();
+    }
+    return true;
+  }
+
+  /**
+   * Get the file name at the given depth.
+   *
+   * @param relativized the path relative to the watched directory
+   * @param depth the depth, where {@code 0} denotes the watched directory
+   * @return the file name
+   */
+  private String fileName(final Path relativized, final int depth) {
+    return depth == 0
+        ? mRoot.getFileName().toString()
+        : relativized.getName(depth - 1).toString();
+  }
+
+  /**
+   * Get the {@link IndexController} of the transaction.
+   *
+   * @param wtx the {@link XdmNodeWriteTrx}
+   * @return the {@link IndexController}
+   */
+  private static IndexController getIndexController(final XdmNodeWriteTrx wtx) {
+    return wtx.getResourceManager().getWtxIndexController(wtx.getRevisionNumber() - 1);
+  }
+}
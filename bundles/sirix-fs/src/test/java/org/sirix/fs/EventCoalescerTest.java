@@ -0,0 +1,117 @@
+package org.sirix.fs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Test the folding of filesystem events by the {@link EventCoalescer}.
+ */
+public class EventCoalescerTest {
+
+  private static final Path DIR = Paths.get("/watched/dir");
+
+  private static final Path FILE = DIR.resolve("file");
+
+  private EventCoalescer mCoalescer;
+
+  @Before
+  public void setUp() {
+    mCoalescer = new EventCoalescer();
+  }
+
+  @Test
+  public void testModifications() {
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    assertEquals(ImmutableList.of("UPDATE " + FILE), drain());
+  }
+
+  @Test
+  public void testCreateModifyDelete() {
+    mCoalescer.add(OperationType.INSERT, FILE);
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    mCoalescer.add(OperationType.DELETE, FILE);
+    assertEquals(0, mCoalescer.size());
+    assertEquals(ImmutableList.of(), drain());
+  }
+
+  @Test
+  public void testDeleteCreate() {
+    mCoalescer.add(OperationType.DELETE, FILE);
+    mCoalescer.add(OperationType.INSERT, FILE);
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    assertEquals(ImmutableList.of("DELETE " + FILE, "INSERT " + FILE), drain());
+  }
+
+  @Test
+  public void testModifyDelete() {
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    mCoalescer.add(OperationType.DELETE, FILE);
+    assertEquals(ImmutableList.of("DELETE " + FILE), drain());
+  }
+
+  @Test
+  public void testDeleteDescendants() {
+    final Path sibling = Paths.get("/watched/dir2");
+    mCoalescer.add(OperationType.INSERT, DIR);
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    mCoalescer.add(OperationType.INSERT, DIR.resolve("sub").resolve("file"));
+    mCoalescer.add(OperationType.INSERT, sibling);
+    mCoalescer.add(OperationType.UPDATE, DIR);
+    mCoalescer.add(OperationType.DELETE, DIR);
+    // The directory has been created and deleted, the sibling only shares a prefix of its name.
+    assertEquals(ImmutableList.of("INSERT " + sibling), drain());
+  }
+
+  @Test
+  public void testDrainOrder() {
+    final Path other = DIR.resolve("other");
+    mCoalescer.add(OperationType.INSERT, DIR);
+    mCoalescer.add(OperationType.INSERT, FILE);
+    mCoalescer.add(OperationType.UPDATE, other);
+    mCoalescer.add(OperationType.UPDATE, DIR);
+    mCoalescer.add(OperationType.UPDATE, FILE);
+    assertEquals(3, mCoalescer.size());
+    // The paths are drained in the order of their first change.
+    assertEquals(ImmutableList.of("INSERT " + DIR, "INSERT " + FILE, "UPDATE " + other), drain());
+    assertEquals(0, mCoalescer.size());
+    assertEquals(ImmutableList.of(), drain());
+  }
+
+  @Test
+  public void testAge() throws InterruptedException {
+    assertEquals(0, mCoalescer.getAge());
+    mCoalescer.add(OperationType.INSERT, DIR);
+    TimeUnit.MILLISECONDS.sleep(10);
+    mCoalescer.add(OperationType.INSERT, FILE);
+    // The age is the one of the oldest pending change.
+    assertTrue(mCoalescer.getAge() >= TimeUnit.MILLISECONDS.toNanos(10));
+    drain();
+    assertEquals(0, mCoalescer.getAge());
+
+    // Changes, which cancel each other out, don't leave an age behind.
+    mCoalescer.add(OperationType.INSERT, FILE);
+    mCoalescer.add(OperationType.DELETE, FILE);
+    assertEquals(0, mCoalescer.getAge());
+  }
+
+  /**
+   * Drain the pending operations of the coalescer.
+   *
+   * @return the operations and paths in the order in which they are passed to the consumer
+   */
+  private List<String> drain() {
+    final List<String> operations = new ArrayList<>();
+    mCoalescer.drain((operation, path) -> operations.add(operation + " " + path));
+    return operations;
+  }
+}
@@ -0,0 +1,168 @@
+package org.sirix.fs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.OptionalLong;
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.trx.node.Movement;
+import org.sirix.api.ResourceManager;
+import org.sirix.api.XdmNodeWriteTrx;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test the lookup of paths in the {@link PathIndex} of a shredded directory tree.
+ */
+public class PathIndexTest {
+
+  /** The watched directory. */
+  private static final Path ROOT = Paths.get("/watched");
+
+  private XdmNodeWriteTrx mWtx;
+
+  private PathIndex mIndex;
+
+  @Before
+  public void setUp() throws SirixException {
+    TestHelper.deleteEverything();
+    final ResourceManager manager =
+        TestHelper.getDatabase(PATHS.PATH1.getFile()).getResourceManager(TestHelper.RESOURCE);
+    mWtx = manager.beginNodeWriteTrx();
+    PathIndex.create(mWtx);
+
+    // watched/{a/{b/{f.txt}, f}, b/, f.txt}
+    mWtx.insertElementAsFirstChild(new QNm("fsml"));
+    insert(true, "dir", "watched");
+    insert(true, "dir", "a");
+    insert(true, "dir", "b");
+    insert(true, "file", "f.txt");
+    mWtx.moveToParent();
+    insert(false, "file", "f");
+    mWtx.moveToParent();
+    insert(false, "dir", "b");
+    insert(false, "file", "f.txt");
+    mWtx.commit();
+
+    mIndex = new PathIndex(ROOT);
+  }
+
+  @After
+  public void tearDown() throws SirixException {
+    mWtx.close();
+    TestHelper.closeEverything();
+  }
+
+  @Test
+  public void testRoot() {
+    final OptionalLong root = mIndex.find(mWtx, ROOT, FileSystemPath.ISDIRECTORY);
+    assertNode(root, "dir", "watched");
+    mWtx.moveToParent();
+    assertEquals(new QNm("fsml"), mWtx.getName());
+
+    assertFalse(mIndex.find(mWtx, ROOT, FileSystemPath.ISFILE).isPresent());
+  }
+
+  @Test
+  public void testNestedDirectory() {
+    final OptionalLong nested =
+        mIndex.find(mWtx, ROOT.resolve("a").resolve("b"), FileSystemPath.ISDIRECTORY);
+    assertNode(nested, "dir", "b");
+    mWtx.moveToParent();
+    assertNode(OptionalLong.of(mWtx.getNodeKey()), "dir", "a");
+
+    final OptionalLong directory =
+        mIndex.find(mWtx, ROOT.resolve("b"), FileSystemPath.ISDIRECTORY);
+    assertNode(directory, "dir", "b");
+    assertNotEquals(nested, directory);
+  }
+
+  @Test
+  public void testFile() {
+    final OptionalLong nested = mIndex.find(
+        mWtx, ROOT.resolve("a").resolve("b").resolve("f.txt"), FileSystemPath.ISFILE);
+    assertNode(nested, "file", "f.txt");
+
+    final OptionalLong file = mIndex.find(mWtx, ROOT.resolve("f.txt"), FileSystemPath.ISFILE);
+    assertNode(file, "file", "f.txt");
+    assertNotEquals(nested, file);
+
+    assertNode(mIndex.find(mWtx, ROOT.resolve("a").resolve("f"), FileSystemPath.ISFILE), "file",
+        "f");
+  }
+
+  @Test
+  public void testWrongKind() {
+    assertFalse(mIndex.find(mWtx, ROOT.resolve("a"), FileSystemPath.ISFILE).isPresent());
+    assertFalse(mIndex.find(mWtx, ROOT.resolve("f.txt"), FileSystemPath.ISDIRECTORY).isPresent());
+    assertFalse(
+        mIndex.find(mWtx, ROOT.resolve("a").resolve("f"), FileSystemPath.ISDIRECTORY).isPresent());
+  }
+
+  @Test
+  public void testOtherDepth() {
+    // The names exist, but only at other depths or below other directories.
+    assertFalse(
+        mIndex.find(mWtx, ROOT.resolve("a").resolve("f.txt"), FileSystemPath.ISFILE).isPresent());
+    assertFalse(mIndex.find(mWtx, ROOT.resolve("f"), FileSystemPath.ISFILE).isPresent());
+    assertFalse(mIndex.find(mWtx, ROOT.resolve("b").resolve("b"), FileSystemPath.ISDIRECTORY)
+                      .isPresent());
+  }
+
+  @Test
+  public void testModification() {
+    final Path directory = ROOT.resolve("a").resolve("b").resolve("c");
+    assertFalse(mIndex.find(mWtx, directory, FileSystemPath.ISDIRECTORY).isPresent());
+
+    // Insert a directory on a new path, which the transaction has to find before and after
+    // committing.
+    mIndex.find(mWtx, ROOT.resolve("a").resolve("b"), FileSystemPath.ISDIRECTORY);
+    insert(true, "dir", "c");
+    final long nodeKey = mWtx.getNodeKey();
+    assertNode(mIndex.find(mWtx, directory, FileSystemPath.ISDIRECTORY), "dir", "c");
+    assertEquals(nodeKey, mWtx.getNodeKey());
+    mWtx.commit();
+    assertNode(mIndex.find(mWtx, directory, FileSystemPath.ISDIRECTORY), "dir", "c");
+    assertEquals(nodeKey, mWtx.getNodeKey());
+  }
+
+  /**
+   * Insert an element with a {@code name} attribute like the {@link HierarchyFileVisitor}.
+   *
+   * @param firstChild determines if the element is inserted as the first child or as the right
+   *        sibling of the current node
+   * @param element the name of the element
+   * @param name the value of the {@code name} attribute
+   */
+  private void insert(final boolean firstChild, final String element, final String name) {
+    if (firstChild) {
+      mWtx.insertElementAsFirstChild(new QNm(element));
+    } else {
+      mWtx.insertElementAsRightSibling(new QNm(element));
+    }
+    mWtx.insertAttribute(new QNm("name"), name, Movement.TOPARENT);
+  }
+
+  /**
+   * Assert that a node has been found and that the transaction is located at it.
+   *
+   * @param nodeKey the node key, which has been found
+   * @param element the expected name of the element
+   * @param name the expected value of the {@code name} attribute
+   */
+  private void assertNode(final OptionalLong nodeKey, final String element, final String name) {
+    assertTrue(nodeKey.isPresent());
+    assertEquals(nodeKey.getAsLong(), mWtx.getNodeKey());
+    assertEquals(new QNm(element), mWtx.getName());
+    mWtx.moveToAttributeByName(new QNm("name"));
+    assertEquals(name, mWtx.getValue());
+    mWtx.moveToParent();
+  }
+}
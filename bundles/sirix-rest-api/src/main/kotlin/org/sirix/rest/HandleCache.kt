@@ -0,0 +1,111 @@
+package org.sirix.rest
+
+import org.sirix.access.Databases
+import org.sirix.api.Database
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps databases open across requests, such that their resource managers and buffer managers stay warm.
+ * Handles are reference counted and only closed once no request uses them and they have been idle for at
+ * least [idleTimeout].
+ *
+ * Resource managers are cached by the database itself, thus handlers should not close them.
+ */
+class HandleCache(private val idleTimeout: Duration) : AutoCloseable {
+    private class Handle(val database: Database) {
+        /** Number of requests currently using the database. Only modified within `compute`. */
+        var references = 0
+
+        /** Last time the database has been released. */
+        var lastAccess = System.nanoTime()
+    }
+
+    private val handles = ConcurrentHashMap<Path, Handle>()
+
+    /**
+     * Acquire the database at [dbFile] and release it after [action] has been executed.
+     */
+    inline fun <R> withDatabase(dbFile: Path, action: (Database) -> R): R {
+        val database = acquire(dbFile)
+        try {
+            return action(database)
+        } finally {
+            release(dbFile)
+        }
+    }
+
+    /**
+     * Get the cached database at [dbFile] or open it. Every call has to be followed by [release].
+     */
+    fun acquire(dbFile: Path): Database {
+        return handles.compute(dbFile) { _, handle ->
+            (handle ?: Handle(Databases.openDatabase(dbFile))).apply { references++ }
+        }!!.database
+    }
+
+    /**
+     * Release the database at [dbFile] acquired through [acquire].
+     */
+    fun release(dbFile: Path) {
+        handles.computeIfPresent(dbFile) { _, handle ->
+            handle.references--
+            handle.lastAccess = System.nanoTime()
+            handle
+        }
+    }
+
+    /**
+     * Close the database at [dbFile] if it is not used by any request, for instance before it is removed.
+     *
+     * @return `true`, if the database is not cached anymore, `false` otherwise
+     */
+    fun evict(dbFile: Path): Boolean {
+        return handles.computeIfPresent(dbFile) { _, handle ->
+            if (handle.references == 0) {
+                handle.database.close()
+                null
+            } else {
+                handle
+            }
+        } == null
+    }
+
+    /**
+     * Close all databases, which are not used by any request and have been idle for at least the idle timeout.
+     */
+    fun evictIdle() {
+        val timeout = idleTimeout.toNanos()
+
+        handles.keys.forEach { dbFile ->
+            handles.computeIfPresent(dbFile) { _, handle ->
+                if (handle.references == 0 && System.nanoTime() - handle.lastAccess >= timeout) {
+                    handle.database.close()
+                    null
+                } else {
+                    handle
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the resource [resourceName] of the cached [database], closing its resource manager beforehand.
+     */
+    fun removeResource(database: Database, resourceName: String) {
+        if (database.existsResource(resourceName))
+            database.getResourceManager(resourceName).close()
+
+        database.removeResource(resourceName)
+    }
+
+    override fun close() {
+        handles.keys.forEach { dbFile ->
+            handles.computeIfPresent(dbFile) { _, handle ->
+                handle.database.close()
+                null
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.sirix.rest
+
+import io.vertx.core.buffer.Buffer
+import io.vertx.core.http.HttpServerResponse
+import java.io.OutputStream
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Streams the bytes written to a chunked [HttpServerResponse]. Writes are collected into chunks of
+ * [chunkSize] bytes. If the write queue of the response is full, the writing thread blocks until the response
+ * has been drained, thus the stream must not be used on an event loop thread.
+ */
+class ResponseOutputStream(private val response: HttpServerResponse,
+                           private val chunkSize: Int = DEFAULT_CHUNK_SIZE) : OutputStream() {
+    companion object {
+        /** Default size of the chunks written to the response. */
+        const val DEFAULT_CHUNK_SIZE = 64 * 1024
+
+        /** Interval in milliseconds in which the response is checked if it has been drained or closed. */
+        private const val DRAIN_CHECK_INTERVAL = 100L
+    }
+
+    private var chunk = Buffer.buffer(chunkSize)
+
+    private var closed = false
+
+    override fun write(b: Int) {
+        chunk.appendByte(b.toByte())
+
+        if (chunk.length() >= chunkSize)
+            writeChunk()
+    }
+
+    override fun write(b: ByteArray, off: Int, len: Int) {
+        chunk.appendBytes(b, off, len)
+
+        if (chunk.length() >= chunkSize)
+            writeChunk()
+    }
+
+    override fun flush() {
+        if (chunk.length() > 0)
+            writeChunk()
+    }
+
+    /**
+     * Write the remaining bytes and end the response.
+     */
+    override fun close() {
+        if (closed)
+            return
+
+        closed = true
+        flush()
+        response.end()
+    }
+
+    private fun writeChunk() {
+        awaitDrain()
+        response.write(chunk)
+        chunk = Buffer.buffer(chunkSize)
+    }
+
+    private fun awaitDrain() {
+        if (!response.writeQueueFull())
+            return
+
+        val drained = CountDownLatch(1)
+        response.drainHandler { drained.countDown() }
+
+        while (response.writeQueueFull() && !response.closed())
+            drained.await(DRAIN_CHECK_INTERVAL, TimeUnit.MILLISECONDS)
+    }
+}
@@ -1,19 +1,41 @@
 package org.sirix.rest
 
+import io.vertx.core.http.HttpServerResponse
 import io.vertx.ext.web.RoutingContext
 import org.sirix.service.xml.serialize.XMLSerializer
-import java.io.ByteArrayOutputStream
-import java.nio.charset.StandardCharsets
+import java.io.OutputStream
 
 class Serialize {
-    fun serializeXml(serializer: XMLSerializer, out: ByteArrayOutputStream, ctx: RoutingContext) {
-        serializer.call()
-        val body = String(out.toByteArray(), StandardCharsets.UTF_8)
+    /**
+     * Streams the output of the serializer created by [createSerializer] as a chunked response. Must not be
+     * called on an event loop thread.
+     */
+    fun serializeXml(ctx: RoutingContext, createSerializer: (OutputStream) -> XMLSerializer) {
+        stream(ctx) { out -> createSerializer(out).call() }
+    }
 
-        ctx.response().setStatusCode(200)
+    /**
+     * Streams everything [write] writes to the given output stream as a chunked XML response. Must not be
+     * called on an event loop thread.
+     */
+    fun stream(ctx: RoutingContext, write: (OutputStream) -> Unit) {
+        val response = ctx.response().setStatusCode(200)
+                .setChunked(true)
                 .putHeader("Content-Type", "application/xml")
-                .putHeader("Content-Length", body.length.toString())
-                .write(body)
-                .end()
+
+        try {
+            val out = ResponseOutputStream(response)
+            write(out)
+            out.close()
+        } catch (e: Exception) {
+            abort(response)
+            throw e
+        }
+    }
+
+    private fun abort(response: HttpServerResponse) {
+        // The status code has already been sent, thus signal the client that the response is incomplete.
+        if (response.headWritten() && !response.closed())
+            response.close()
     }
-}
\ No newline at end of file
+}
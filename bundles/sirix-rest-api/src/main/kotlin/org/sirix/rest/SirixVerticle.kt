@@ -22,6 +22,7 @@ import org.sirix.rest.crud.Delete
 import org.sirix.rest.crud.Get
 import org.sirix.rest.crud.Update
 import java.nio.file.Paths
+import java.time.Duration
 
 
 class SirixVerticle : CoroutineVerticle() {
@@ -31,7 +32,21 @@ class SirixVerticle : CoroutineVerticle() {
     /** Storage for databases: Sirix data in home directory. */
     private val location = Paths.get(userHome, "sirix-data")
 
+    /** Open databases and resource managers, shared between requests. */
+    private lateinit var handleCache: HandleCache
+
     override suspend fun start() {
+        val idleTimeout = config.getLong("handles.idle-timeout", 60_000L)
+
+        handleCache = HandleCache(Duration.ofMillis(idleTimeout))
+
+        vertx.setPeriodic(idleTimeout) {
+            vertx.executeBlocking<Unit>({ future ->
+                handleCache.evictIdle()
+                future.complete()
+            }, false, null)
+        }
+
         val router = createRouter()
 
         // Start an HTTP/2 server
@@ -47,6 +62,10 @@ class SirixVerticle : CoroutineVerticle() {
                 .listenAwait(config.getInteger("https.port", 9443))
     }
 
+    override suspend fun stop() {
+        handleCache.close()
+    }
+
     private suspend fun createRouter() = Router.router(vertx).apply {
         route().handler(BodyHandler.create())
 
@@ -66,23 +85,23 @@ class SirixVerticle : CoroutineVerticle() {
         }
 
         // Create.
-        put("/:database").coroutineHandler { Create(location, keycloak).handle(it) }
-        put("/:database/:resource").coroutineHandler { Create(location, keycloak).handle(it) }
+        put("/:database").coroutineHandler { Create(location, keycloak, handleCache).handle(it) }
+        put("/:database/:resource").coroutineHandler { Create(location, keycloak, handleCache).handle(it) }
 
         // Update.
-        post("/:database/:resource").coroutineHandler { Update(location, keycloak).handle(it) }
+        post("/:database/:resource").coroutineHandler { Update(location, keycloak, handleCache).handle(it) }
 
         // Get.
-        get("/").coroutineHandler { Get(location, keycloak).handle(it) }
-        get("/:database/:resource").coroutineHandler { Get(location, keycloak).handle(it) }
-        get("/:database").coroutineHandler { Get(location, keycloak).handle(it) }
-        post("/").coroutineHandler { Get(location, keycloak).handle(it) }
-        post("/:database/:resource").coroutineHandler { Get(location, keycloak).handle(it) }
+        get("/").coroutineHandler { Get(location, keycloak, handleCache).handle(it) }
+        get("/:database/:resource").coroutineHandler { Get(location, keycloak, handleCache).handle(it) }
+        get("/:database").coroutineHandler { Get(location, keycloak, handleCache).handle(it) }
+        post("/").coroutineHandler { Get(location, keycloak, handleCache).handle(it) }
+        post("/:database/:resource").coroutineHandler { Get(location, keycloak, handleCache).handle(it) }
 
         // Delete.
-        delete("/").coroutineHandler { Delete(location, keycloak).handle(it) }
-        delete("/:database/:resource").coroutineHandler { Delete(location, keycloak).handle(it) }
-        delete("/:database").coroutineHandler { Delete(location, keycloak).handle(it) }
+        delete("/").coroutineHandler { Delete(location, keycloak, handleCache).handle(it) }
+        delete("/:database/:resource").coroutineHandler { Delete(location, keycloak, handleCache).handle(it) }
+        delete("/:database").coroutineHandler { Delete(location, keycloak, handleCache).handle(it) }
 
         // Exception with status code
         route().handler { ctx ->
@@ -18,15 +18,15 @@ import org.sirix.api.Database
 import org.sirix.api.ResourceManager
 import org.sirix.api.XdmNodeWriteTrx
 import org.sirix.rest.Auth
+import org.sirix.rest.HandleCache
 import org.sirix.rest.Serialize
 import org.sirix.service.xml.serialize.XMLSerializer
 import org.sirix.service.xml.shredder.XMLShredder
-import java.io.ByteArrayOutputStream
 import java.nio.file.Files
 import java.nio.file.Path
 
 // For instance: curl -k -X POST -d "<xml/>" -u admin https://localhost:8443/database/resource1
-class Create(private val location: Path, private val keycloak: OAuth2Auth) {
+class Create(private val location: Path, private val keycloak: OAuth2Auth, private val handleCache: HandleCache) {
     suspend fun handle(ctx: RoutingContext) {
         val databaseName = ctx.pathParam("database")
 
@@ -56,30 +56,26 @@ class Create(private val location: Path, private val keycloak: OAuth2Auth) {
         val context = ctx.vertx().orCreateContext
         val dispatcher = ctx.vertx().dispatcher()
         val dbConfig = createDatabaseIfNotExists(dbFile, dispatcher)
-        val database = Databases.openDatabase(dbFile)
 
-        database.use {
+        handleCache.withDatabase(dbFile) { database ->
             val resConfig = ResourceConfiguration.Builder(resPathName, dbConfig).build()
 
             createOrRemoveAndCreateResource(database, resConfig, resPathName, dispatcher)
 
             val manager = database.getResourceManager(resPathName)
 
-            manager.use {
-                val wtx = manager.beginNodeWriteTrx()
-                insertSubtreeAsFirstChild(wtx, resFileToStore, context)
-                serialize(manager, context, ctx)
-            }
+            val wtx = manager.beginNodeWriteTrx()
+            insertSubtreeAsFirstChild(wtx, resFileToStore, context)
+            serialize(manager, context, ctx)
         }
     }
 
     private suspend fun serialize(manager: ResourceManager?, vertxContext: Context, routingCtx: RoutingContext) {
         vertxContext.executeBlockingAwait(Handler<Future<Nothing>> {
-            val out = ByteArrayOutputStream()
-            val serializerBuilder = XMLSerializer.XMLSerializerBuilder(manager, out)
-            val serializer = serializerBuilder.emitIDs().emitRESTful().emitRESTSequence().prettyPrint().build()
-
-            Serialize().serializeXml(serializer, out, routingCtx)
+            Serialize().serializeXml(routingCtx) { out ->
+                XMLSerializer.XMLSerializerBuilder(manager, out).emitIDs().emitRESTful().emitRESTSequence()
+                        .prettyPrint().build()
+            }
 
             it.complete(null)
         })
@@ -107,7 +103,7 @@ class Create(private val location: Path, private val keycloak: OAuth2Auth) {
                                                         resPathName: String, dispatcher: CoroutineDispatcher) {
         withContext(dispatcher) {
             if (!database.createResource(resConfig)) {
-                database.removeResource(resPathName)
+                handleCache.removeResource(database, resPathName)
                 database.createResource(resConfig)
             }
         }
@@ -6,6 +6,7 @@ import io.vertx.core.Future
 import io.vertx.core.Handler
 import io.vertx.ext.auth.oauth2.OAuth2Auth
 import io.vertx.ext.web.RoutingContext
+import io.vertx.ext.web.handler.impl.HttpStatusException
 import io.vertx.kotlin.core.executeBlockingAwait
 import io.vertx.kotlin.coroutines.dispatcher
 import io.vertx.kotlin.ext.auth.isAuthorizedAwait
@@ -16,12 +17,13 @@ import org.sirix.api.Database
 import org.sirix.api.ResourceManager
 import org.sirix.api.XdmNodeWriteTrx
 import org.sirix.rest.Auth
+import org.sirix.rest.HandleCache
 import org.sirix.rest.SessionDBStore
 import org.sirix.xquery.node.BasicDBStore
 import java.nio.file.Files
 import java.nio.file.Path
 
-class Delete(private val location: Path, private val keycloak: OAuth2Auth) {
+class Delete(private val location: Path, private val keycloak: OAuth2Auth, private val handleCache: HandleCache) {
     suspend fun handle(ctx: RoutingContext) {
         val dbName = ctx.pathParam("database")
 
@@ -43,11 +45,20 @@ class Delete(private val location: Path, private val keycloak: OAuth2Auth) {
 
             val databases = Files.list(location)
 
-            databases.use {
-                databases.filter { Files.isDirectory(it) }.forEach {
-                    dbStore.drop(it.fileName.toString())
-                }
+            val databasesInUse = databases.use {
+                databases.filter { Files.isDirectory(it) }.filter {
+                    if (handleCache.evict(it)) {
+                        dbStore.drop(it.fileName.toString())
+                        false
+                    } else {
+                        true
+                    }
+                }.count()
             }
+
+            if (databasesInUse > 0)
+                ctx.fail(HttpStatusException(HttpResponseStatus.CONFLICT.code(),
+                        IllegalStateException("$databasesInUse databases are in use.")))
         } else {
             delete(dbName, resName, nodeId?.toLongOrNull(), ctx)
         }
@@ -59,14 +70,15 @@ class Delete(private val location: Path, private val keycloak: OAuth2Auth) {
         val dispatcher = ctx.vertx().dispatcher()
 
         if (resPathName == null) {
-            removeDatabase(dbFile, dispatcher)
-            ctx.response().setStatusCode(200).end()
+            if (removeDatabase(dbFile, dispatcher))
+                ctx.response().setStatusCode(200).end()
+            else
+                ctx.fail(HttpStatusException(HttpResponseStatus.CONFLICT.code(),
+                        IllegalStateException("Database is in use.")))
             return
         }
 
-        val database = Databases.openDatabase(dbFile)
-
-        database.use {
+        handleCache.withDatabase(dbFile) { database ->
             if (nodeId == null) {
                 removeResource(dispatcher, database, resPathName, ctx)
             } else {
@@ -80,17 +92,27 @@ class Delete(private val location: Path, private val keycloak: OAuth2Auth) {
             ctx.response().setStatusCode(200).end()
     }
 
-    private suspend fun removeDatabase(dbFile: Path?, dispatcher: CoroutineDispatcher) {
-        withContext(dispatcher) {
-            Databases.removeDatabase(dbFile)
+    /**
+     * Remove the database at [dbFile], unless it is used by another request.
+     *
+     * @return `true`, if the database has been removed, `false` otherwise
+     */
+    private suspend fun removeDatabase(dbFile: Path, dispatcher: CoroutineDispatcher): Boolean {
+        return withContext(dispatcher) {
+            if (handleCache.evict(dbFile)) {
+                Databases.removeDatabase(dbFile)
+                true
+            } else {
+                false
+            }
         }
     }
 
-    private suspend fun removeResource(dispatcher: CoroutineDispatcher, database: Database, resPathName: String?,
+    private suspend fun removeResource(dispatcher: CoroutineDispatcher, database: Database, resPathName: String,
                                        ctx: RoutingContext): Any? {
         return try {
             withContext(dispatcher) {
-                database.removeResource(resPathName)
+                handleCache.removeResource(database, resPathName)
             }
         } catch (e: IllegalStateException) {
             ctx.fail(IllegalStateException("Open resource managers found."))
@@ -99,16 +121,16 @@ class Delete(private val location: Path, private val keycloak: OAuth2Auth) {
 
     private suspend fun removeSubtree(manager: ResourceManager, nodeId: Long, context: Context): XdmNodeWriteTrx? {
         return context.executeBlockingAwait(Handler<Future<XdmNodeWriteTrx>> {
-            manager.use { resourceManager ->
-                val wtx = resourceManager.beginNodeWriteTrx()
+            val wtx = manager.beginNodeWriteTrx()
 
+            wtx.use {
                 wtx.moveTo(nodeId)
 
                 wtx.remove()
                 wtx.commit()
-
-                it.complete(wtx)
             }
+
+            it.complete(wtx)
         })
     }
 }
\ No newline at end of file
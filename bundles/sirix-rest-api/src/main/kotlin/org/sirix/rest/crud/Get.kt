@@ -13,12 +13,12 @@ import io.vertx.kotlin.coroutines.dispatcher
 import io.vertx.kotlin.ext.auth.isAuthorizedAwait
 import kotlinx.coroutines.withContext
 import org.brackit.xquery.XQuery
-import org.sirix.access.Databases
 import org.sirix.api.Database
 import org.sirix.api.ResourceManager
 import org.sirix.api.XdmNodeReadTrx
 import org.sirix.exception.SirixUsageException
 import org.sirix.rest.Auth
+import org.sirix.rest.HandleCache
 import org.sirix.rest.Serialize
 import org.sirix.rest.SessionDBStore
 import org.sirix.service.xml.serialize.XMLSerializer
@@ -28,15 +28,13 @@ import org.sirix.xquery.SirixQueryContext
 import org.sirix.xquery.node.BasicDBStore
 import org.sirix.xquery.node.DBCollection
 import org.sirix.xquery.node.DBNode
-import java.io.ByteArrayOutputStream
 import java.io.PrintStream
-import java.nio.charset.StandardCharsets
 import java.nio.file.Files
 import java.nio.file.Path
 import java.time.LocalDateTime
 import java.time.ZoneId
 
-class Get(private val location: Path, private val keycloak: OAuth2Auth) {
+class Get(private val location: Path, private val keycloak: OAuth2Auth, private val handleCache: HandleCache) {
     suspend fun handle(ctx: RoutingContext) {
         val vertxContext = ctx.vertx().orCreateContext
         val dbName: String? = ctx.pathParam("database")
@@ -98,22 +96,24 @@ class Get(private val location: Path, private val keycloak: OAuth2Auth) {
 
         val nodeId: String? = ctx.queryParam("nodeId").getOrNull(0)
 
+        val dbFile = location.resolve(dbName)
+
         val database: Database
         try {
-            database = Databases.openDatabase(location.resolve(dbName))
+            database = handleCache.acquire(dbFile)
         } catch (e: SirixUsageException) {
             ctx.fail(HttpStatusException(HttpResponseStatus.NOT_FOUND.code(), e))
             return
         }
 
-        database.use {
+        try {
             val manager: ResourceManager
             try {
                 if (resName == null) {
                     val buffer = StringBuilder()
                     buffer.appendln("<rest:sequence xmlns:rest=\"https://sirix.io/rest\">")
 
-                    for (resource in it.listResources()) {
+                    for (resource in database.listResources()) {
                         buffer.appendln("  <rest:item resource-name=\"${resource.fileName}\"/>")
                     }
 
@@ -121,23 +121,22 @@ class Get(private val location: Path, private val keycloak: OAuth2Auth) {
                 } else {
                     manager = database.getResourceManager(resName)
 
-                    manager.use {
-                        if (query != null && query.isNotEmpty()) {
-                            queryResource(dbName, database, revision, revisionTimestamp, manager, ctx, nodeId, query,
-                                    vertxContext, user)
-                        } else {
-                            val revisions: Array<Int> =
-                                    getRevisionsToSerialize(startRevision, endRevision, startRevisionTimestamp,
-                                            endRevisionTimestamp, manager, revision, revisionTimestamp)
-                            serializeResource(manager, revisions, nodeId?.toLongOrNull(), ctx)
-                        }
+                    if (query != null && query.isNotEmpty()) {
+                        queryResource(dbName, database, revision, revisionTimestamp, manager, ctx, nodeId, query,
+                                vertxContext, user)
+                    } else {
+                        val revisions: Array<Int> =
+                                getRevisionsToSerialize(startRevision, endRevision, startRevisionTimestamp,
+                                        endRevisionTimestamp, manager, revision, revisionTimestamp)
+                        serializeResource(manager, revisions, nodeId?.toLongOrNull(), ctx, vertxContext)
                     }
                 }
             } catch (e: SirixUsageException) {
                 ctx.fail(HttpStatusException(HttpResponseStatus.NOT_FOUND.code(), e))
                 return
             }
-
+        } finally {
+            handleCache.release(dbFile)
         }
     }
 
@@ -158,28 +157,27 @@ class Get(private val location: Path, private val keycloak: OAuth2Auth) {
                                       revisionTimestamp: String?, manager: ResourceManager, ctx: RoutingContext,
                                       nodeId: String?, query: String, vertxContext: Context, user: User) {
         withContext(vertxContext.dispatcher()) {
+            // Not closed, as closing the collection closes the database, which is owned by the handle cache.
             val dbCollection = DBCollection(dbName, database)
 
-            dbCollection.use {
-                val revisionNumber = getRevisionNumber(revision, revisionTimestamp, manager)
+            val revisionNumber = getRevisionNumber(revision, revisionTimestamp, manager)
 
-                val trx: XdmNodeReadTrx
-                try {
-                    trx = manager.beginNodeReadTrx(revisionNumber[0])
+            val trx: XdmNodeReadTrx
+            try {
+                trx = manager.beginNodeReadTrx(revisionNumber[0])
 
-                    trx.use {
-                        if (nodeId == null)
-                            trx.moveToFirstChild()
-                        else
-                            trx.moveTo(nodeId.toLong())
+                trx.use {
+                    if (nodeId == null)
+                        trx.moveToFirstChild()
+                    else
+                        trx.moveTo(nodeId.toLong())
 
-                        val dbNode = DBNode(trx, dbCollection)
+                    val dbNode = DBNode(trx, dbCollection)
 
-                        xquery(query, dbNode, ctx, vertxContext, user)
-                    }
-                } catch (e: SirixUsageException) {
-                    ctx.fail(HttpStatusException(HttpResponseStatus.NOT_FOUND.code(), e))
+                    xquery(query, dbNode, ctx, vertxContext, user)
                 }
+            } catch (e: SirixUsageException) {
+                ctx.fail(HttpStatusException(HttpResponseStatus.NOT_FOUND.code(), e))
             }
         }
     }
@@ -209,21 +207,11 @@ class Get(private val location: Path, private val keycloak: OAuth2Auth) {
 
                 node.let { queryCtx.contextItem = node }
 
-                val out = ByteArrayOutputStream()
-
-                out.use {
-                    PrintStream(out).use {
-                        XQuery(SirixCompileChain(dbStore), query).prettyPrint().serialize(queryCtx,
-                                DBSerializer(it, true, true))
-                    }
-
-                    val body = String(out.toByteArray(), StandardCharsets.UTF_8)
-
-                    routingContext.response().setStatusCode(200)
-                            .putHeader("Content-Type", "application/xml")
-                            .putHeader("Content-Length", body.length.toString())
-                            .write(body)
-                            .end()
+                Serialize().stream(routingContext) { out ->
+                    val printStream = PrintStream(out)
+                    XQuery(SirixCompileChain(dbStore), query).prettyPrint().serialize(queryCtx,
+                            DBSerializer(printStream, true, true))
+                    printStream.flush()
                 }
             }
 
@@ -250,16 +238,23 @@ class Get(private val location: Path, private val keycloak: OAuth2Auth) {
         return (firstRevisionNumber..lastRevisionNumber).toSet().toTypedArray()
     }
 
-    private fun serializeResource(manager: ResourceManager, revisions: Array<Int>, nodeId: Long?, ctx: RoutingContext) {
-        val out = ByteArrayOutputStream()
+    private suspend fun serializeResource(manager: ResourceManager, revisions: Array<Int>, nodeId: Long?,
+                                          ctx: RoutingContext, vertxContext: Context) {
+        vertxContext.executeBlockingAwait(Handler<Future<Nothing>> {
+            Serialize().serializeXml(ctx) { out ->
+                val serializerBuilder =
+                        XMLSerializer.XMLSerializerBuilder(manager, out).revisions(revisions.toIntArray())
 
-        val serializerBuilder = XMLSerializer.XMLSerializerBuilder(manager, out).revisions(revisions.toIntArray())
+                nodeId?.let { serializerBuilder.startNodeKey(nodeId) }
 
-        nodeId?.let { serializerBuilder.startNodeKey(nodeId) }
+                if (revisions.size > 1)
+                    serializerBuilder.maxParallelism(Runtime.getRuntime().availableProcessors())
 
-        val serializer = serializerBuilder.emitIDs().emitRESTful().emitRESTSequence().prettyPrint().build()
+                serializerBuilder.emitIDs().emitRESTful().emitRESTSequence().prettyPrint().build()
+            }
 
-        Serialize().serializeXml(serializer, out, ctx)
+            it.complete(null)
+        })
     }
 
     private fun parseIntRevisions(startRevision: String, endRevision: String): Array<Int> {
@@ -7,13 +7,12 @@ import io.vertx.ext.auth.oauth2.OAuth2Auth
 import io.vertx.ext.web.RoutingContext
 import io.vertx.kotlin.core.executeBlockingAwait
 import io.vertx.kotlin.ext.auth.isAuthorizedAwait
-import org.sirix.access.Databases
 import org.sirix.api.XdmNodeWriteTrx
 import org.sirix.rest.Auth
+import org.sirix.rest.HandleCache
 import org.sirix.rest.Serialize
 import org.sirix.service.xml.serialize.XMLSerializer
 import org.sirix.service.xml.shredder.XMLShredder
-import java.io.ByteArrayOutputStream
 import java.nio.file.Path
 import javax.xml.stream.XMLEventReader
 
@@ -46,7 +45,7 @@ private enum class InsertionMode {
     }
 }
 
-class Update(private val location: Path, private val keycloak: OAuth2Auth) {
+class Update(private val location: Path, private val keycloak: OAuth2Auth, private val handleCache: HandleCache) {
     suspend fun handle(ctx: RoutingContext) {
         val dbName = ctx.pathParam("database")
 
@@ -80,9 +79,7 @@ class Update(private val location: Path, private val keycloak: OAuth2Auth) {
         vertxContext.executeBlockingAwait(Handler<Future<Nothing>> {
             val dbFile = location.resolve(dbPathName)
 
-            val database = Databases.openDatabase(dbFile)
-
-            database.use {
+            handleCache.withDatabase(dbFile) { database ->
                 val manager = database.getResourceManager(resPathName)
 
                 val wtx = manager.beginNodeWriteTrx()
@@ -101,11 +98,10 @@ class Update(private val location: Path, private val keycloak: OAuth2Auth) {
                         wtx.replaceNode(xmlReader)
                 }
 
-                val out = ByteArrayOutputStream()
-                val serializerBuilder = XMLSerializer.XMLSerializerBuilder(manager, out)
-                val serializer = serializerBuilder.emitIDs().emitRESTful().emitRESTSequence().prettyPrint().build()
-
-                Serialize().serializeXml(serializer, out, ctx)
+                Serialize().serializeXml(ctx) { out ->
+                    XMLSerializer.XMLSerializerBuilder(manager, out).emitIDs().emitRESTful().emitRESTSequence()
+                            .prettyPrint().build()
+                }
             }
 
             it.complete(null)
@@ -541,6 +541,61 @@ class SirixVerticleTest {
         }
     }
 
+    @Test
+    @Timeout(value = 10, timeUnit = TimeUnit.SECONDS)
+    @DisplayName("Testing two queries of the same database, which is cached in between")
+    fun testQueryGetTwice(vertx: Vertx, testContext: VertxTestContext) {
+        GlobalScope.launch(vertx.dispatcher()) {
+            testContext.verifyCoroutine {
+                val xml = """
+                    <xml>
+                      foo
+                      <bar/>
+                    </xml>
+                """.trimIndent()
+
+                val expectedResult = """
+                    <rest:sequence xmlns:rest="https://sirix.io/rest">
+                      <rest:item rest:revision="1">
+                        <bar rest:id="3"/>
+                      </rest:item>
+                    </rest:sequence>
+                """.trimIndent()
+
+                val credentials = json {
+                    obj("username" to "admin",
+                            "password" to "admin")
+                }
+
+                val response = client.postAbs("$server/login").sendJsonAwait(credentials)
+
+                if (200 == response.statusCode()) {
+                    val user = response.bodyAsJsonObject()
+                    val accessToken = user.getString("access_token")
+
+                    client.putAbs("$server$serverPath").putHeader(HttpHeaders.AUTHORIZATION
+                            .toString(), "Bearer $accessToken").sendBufferAwait(Buffer.buffer(xml))
+
+                    for (i in 1..2) {
+                        val httpResponse = client.getAbs("$server$serverPath?query=//bar").putHeader(HttpHeaders
+                                .AUTHORIZATION
+                                .toString(), "Bearer $accessToken").sendAwait()
+
+                        testContext.verify {
+                            assertEquals(200, httpResponse.statusCode())
+                            val result =
+                                    httpResponse.bodyAsString().replace("\r\n", System.getProperty("line.separator"))
+                                            .replace(" rest:revisionTimestamp=\"(?!\").*\"".toRegex(), "")
+                            assertEquals(expectedResult.replace("\n", System.getProperty("line.separator")), result)
+                        }
+                    }
+
+                    testContext.completeNow()
+                }
+            }
+        }
+    }
+
     @Test
     @Timeout(value = 10, timeUnit = TimeUnit.SECONDS)
     @DisplayName("Testing the update of a resource")
@@ -32,6 +32,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnegative;
 
@@ -47,6 +49,7 @@ import net.sf.saxon.tree.iter.AxisIterator;
 import net.sf.saxon.tree.util.FastStringBuffer;
 import net.sf.saxon.value.Value;
 
+import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.Axis;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.Session;
@@ -91,6 +94,12 @@ public final class DocumentWrapper implements DocumentInfo {
 	/** Unique document number. */
 	long mDocumentNumber;
 
+	/**
+	 * Name codes of the {@link NamePool}, which have been allocated for names,
+	 * per prefix (names are equal regardless of their prefixes).
+	 */
+	private final ConcurrentMap<String, ConcurrentMap<QNm, Integer>> mNameCodes;
+
 	/**
 	 * Instance of {@link NodeWrapper}-implementation
 	 */
@@ -116,6 +125,7 @@ public final class DocumentWrapper implements DocumentInfo {
 		mRevision = revision;
 		mBaseURI = session.getResourceConfig().getResource().getAbsolutePath();
 		mConfig = checkNotNull(config);
+		mNameCodes = new ConcurrentHashMap<>();
 		mNodeWrapper = new NodeWrapper(this, 0);
 	}
 
@@ -200,6 +210,7 @@ public final class DocumentWrapper implements DocumentInfo {
 	 */
 	public void setConfiguration(final Configuration config) {
 		mConfig = config;
+		mNameCodes.clear();
 		mDocumentNumber = config.getDocumentNumberAllocator()
 				.allocateDocumentNumber();
 	}
@@ -209,6 +220,33 @@ public final class DocumentWrapper implements DocumentInfo {
 		return mConfig;
 	}
 
+	/**
+	 * Get the name code of the name of an element or attribute, which is
+	 * allocated in the {@link NamePool} only once per document.
+	 * 
+	 * @param name
+	 *          the name
+	 * @return the name code
+	 */
+	int getNameCode(final QNm name) {
+		// The same prefix is used for the cache and the name pool.
+		final String prefix = name.getPrefix() == null ? "" : name.getPrefix();
+		ConcurrentMap<QNm, Integer> nameCodes = mNameCodes.get(prefix);
+		if (nameCodes == null) {
+			mNameCodes.putIfAbsent(prefix, new ConcurrentHashMap<QNm, Integer>());
+			nameCodes = mNameCodes.get(prefix);
+		}
+		final Integer nameCode = nameCodes.get(name);
+		if (nameCode != null) {
+			return nameCode;
+		}
+		// The namespace URI is only taken into account for prefixed names.
+		final String uri = prefix.isEmpty() ? "" : name.getNamespaceURI();
+		final int code = getNamePool().allocate(prefix, uri, name.getLocalName());
+		final Integer previous = nameCodes.putIfAbsent(name, code);
+		return previous == null ? code : previous;
+	}
+
 	@Override
 	public String getBaseURI() {
 		return mBaseURI;
@@ -149,6 +149,28 @@ public final class NodeWrapper implements SiblingCountingNode {
 		rtx.close();
 	}
 
+	/**
+	 * Wrap the node, on which a transaction is located, without opening a new
+	 * transaction.
+	 * 
+	 * @param docWrapper
+	 *          document wrapper
+	 * @param rtx
+	 *          transaction, which is located at the node to wrap
+	 */
+	NodeWrapper(final DocumentWrapper docWrapper, final NodeReadTrx rtx) {
+		mDocWrapper = checkNotNull(docWrapper);
+		mNodeKind = rtx.getKind();
+		mKey = rtx.getNodeKey();
+		mRevision = docWrapper.mRevision;
+
+		if (mNodeKind == Kind.ELEMENT || mNodeKind == Kind.ATTRIBUTE) {
+			mQName = rtx.getName();
+		} else {
+			mQName = null;
+		}
+	}
+
 	@Override
 	public Value atomize() throws XPathException {
 		Value value = null;
@@ -358,6 +380,8 @@ public final class NodeWrapper implements SiblingCountingNode {
 		switch (mNodeKind) {
 		case ELEMENT:
 		case ATTRIBUTE:
+			nameCode = mDocWrapper.getNameCode(mQName);
+			break;
 		case PROCESSING_INSTRUCTION:
 			// case NAMESPACE_KIND:
 			nameCode = mDocWrapper.getNamePool().allocate(getPrefix(), getURI(),
@@ -592,49 +616,49 @@ public final class NodeWrapper implements SiblingCountingNode {
 				if (getNodeKind() == Kind.DOCUMENT.getId()) {
 					returnVal = EmptyIterator.getInstance();
 				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new AncestorAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new AncestorAxis(rtx),
+							axisNumber, nodeTest);
 				}
 				break;
 			case Axis.ANCESTOR_OR_SELF:
 				if (getNodeKind() == Kind.DOCUMENT.getId()) {
 					returnVal = Navigator.filteredSingleton(this, nodeTest);
 				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new AncestorAxis(rtx, IncludeSelf.YES)), nodeTest);
+					returnVal = new FilteredEnumeration(new AncestorAxis(rtx,
+							IncludeSelf.YES), axisNumber, nodeTest);
 				}
 				break;
 			case Axis.ATTRIBUTE:
 				if (getNodeKind() != Kind.ELEMENT.getId()) {
 					returnVal = EmptyIterator.getInstance();
 				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new AttributeAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new AttributeAxis(rtx),
+							axisNumber, nodeTest);
 				}
 				break;
 			case Axis.CHILD:
 				if (rtx.hasFirstChild()) {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new ChildAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new ChildAxis(rtx),
+							axisNumber, nodeTest);
 				} else {
 					returnVal = EmptyIterator.getInstance();
 				}
 				break;
 			case Axis.DESCENDANT:
 				if (hasChildNodes()) {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new DescendantAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new DescendantAxis(rtx),
+							axisNumber, nodeTest);
 				} else {
 					returnVal = EmptyIterator.getInstance();
 				}
 				break;
 			case Axis.DESCENDANT_OR_SELF:
-				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-						new DescendantAxis(rtx, IncludeSelf.YES)), nodeTest);
+				returnVal = new FilteredEnumeration(new DescendantAxis(rtx,
+						IncludeSelf.YES), axisNumber, nodeTest);
 				break;
 			case Axis.FOLLOWING:
-				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-						new FollowingAxis(rtx)), nodeTest);
+				returnVal = new FilteredEnumeration(new FollowingAxis(rtx),
+						axisNumber, nodeTest);
 				break;
 			case Axis.FOLLOWING_SIBLING:
 				switch (mNodeKind) {
@@ -644,11 +668,11 @@ public final class NodeWrapper implements SiblingCountingNode {
 					returnVal = EmptyIterator.getInstance();
 					break;
 				default:
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new FollowingSiblingAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new FollowingSiblingAxis(rtx),
+							axisNumber, nodeTest);
 					break;
 				}
-
+				break;
 			case Axis.NAMESPACE:
 				if (getNodeKind() != Kind.ELEMENT.getId()) {
 					returnVal = EmptyIterator.getInstance();
@@ -657,15 +681,16 @@ public final class NodeWrapper implements SiblingCountingNode {
 				}
 				break;
 			case Axis.PARENT:
-				if (rtx.getParentKey() == Kind.DOCUMENT.getId()) {
+				if (!rtx.hasParent()) {
 					returnVal = EmptyIterator.getInstance();
 				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new ParentAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new ParentAxis(rtx),
+							axisNumber, nodeTest);
 				}
+				break;
 			case Axis.PRECEDING:
-				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-						new PrecedingAxis(rtx)), nodeTest);
+				returnVal = new FilteredEnumeration(new PrecedingAxis(rtx),
+						axisNumber, nodeTest);
 				break;
 			case Axis.PRECEDING_SIBLING:
 				switch (mNodeKind) {
@@ -675,11 +700,11 @@ public final class NodeWrapper implements SiblingCountingNode {
 					returnVal = EmptyIterator.getInstance();
 					break;
 				default:
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new PrecedingSiblingAxis(rtx)), nodeTest);
+					returnVal = new FilteredEnumeration(new PrecedingSiblingAxis(rtx),
+							axisNumber, nodeTest);
 					break;
 				}
-
+				break;
 			case Axis.SELF:
 				returnVal = Navigator.filteredSingleton(this, nodeTest);
 				break;
@@ -799,6 +824,88 @@ public final class NodeWrapper implements SiblingCountingNode {
 		}
 	}
 
+	/**
+	 * <h1>FilteredEnumeration</h1>
+	 * 
+	 * <p>
+	 * Saxon adaptor for axis iterations, which applies the node test to the kind
+	 * and the name of the node the cursor of the axis is located at, such that
+	 * only matching nodes are wrapped and no transaction is opened per node.
+	 * </p>
+	 */
+	private final class FilteredEnumeration extends Navigator.BaseEnumeration {
+
+		/** Sirix {@link Axis} iterator. */
+		private final org.sirix.api.Axis mAxis;
+
+		/** Saxon axis number. */
+		private final byte mAxisNumber;
+
+		/** Saxon node test. */
+		private final NodeTest mNodeTest;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param axis
+		 *          Sirix {@link Axis}
+		 * @param axisNumber
+		 *          the Saxon axis number
+		 * @param nodeTest
+		 *          the node test
+		 */
+		FilteredEnumeration(final org.sirix.api.Axis axis, final byte axisNumber,
+				final NodeTest nodeTest) {
+			mAxis = checkNotNull(axis);
+			mAxisNumber = axisNumber;
+			mNodeTest = checkNotNull(nodeTest);
+		}
+
+		@Override
+		public void advance() {
+			final NodeReadTrx rtx = mAxis.getTrx();
+			while (mAxis.hasNext()) {
+				mAxis.next();
+				if (matches(rtx)) {
+					current = new NodeWrapper(mDocWrapper, rtx);
+					return;
+				}
+			}
+			current = null;
+			try {
+				rtx.close();
+			} catch (final SirixException exc) {
+				LOGGER.error(exc.toString());
+			}
+		}
+
+		/**
+		 * Determines if the current node of the axis matches the node test.
+		 * 
+		 * @param rtx
+		 *          the transaction of the axis
+		 * @return {@code true}, if the node matches, {@code false} otherwise
+		 */
+		private boolean matches(final NodeReadTrx rtx) {
+			if (mNodeTest == AnyNodeTest.getInstance()) {
+				return true;
+			}
+			final Kind kind = rtx.getKind();
+			int fingerprint = -1;
+			if (kind == Kind.ELEMENT || kind == Kind.ATTRIBUTE) {
+				fingerprint = mDocWrapper.getNameCode(rtx.getName()) & 0xfffff;
+			}
+			return mNodeTest.matches(kind.getId(), fingerprint,
+					kind == Kind.ATTRIBUTE ? StandardNames.XS_UNTYPED_ATOMIC
+							: StandardNames.XS_UNTYPED);
+		}
+
+		@Override
+		public SequenceIterator getAnother() {
+			return iterateAxis(mAxisNumber, mNodeTest);
+		}
+	}
+
 	/**
 	 * Get current nodeKey.
 	 * 
@@ -38,8 +38,10 @@ import javax.xml.stream.XMLEventReader;
 
 import net.sf.saxon.Configuration;
 import net.sf.saxon.om.Axis;
+import net.sf.saxon.om.NamePool;
 import net.sf.saxon.om.NodeInfo;
 import net.sf.saxon.pattern.NameTest;
+import net.sf.saxon.pattern.NodeKindTest;
 import net.sf.saxon.s9api.Processor;
 import net.sf.saxon.trans.XPathException;
 import net.sf.saxon.tree.iter.AxisIterator;
@@ -295,6 +297,174 @@ public class TestNodeWrapper {
 		assertEquals(4, node.getSiblingPosition());
 	}
 
+	@Test
+	public void testFollowingSiblingAxis() throws SirixException {
+		// First b element.
+		assertKeys(wrapper(5).iterateAxis(Axis.FOLLOWING_SIBLING), 8, 9, 13);
+		assertKeys(wrapper(13).iterateAxis(Axis.FOLLOWING_SIBLING));
+	}
+
+	@Test
+	public void testParentAxis() throws SirixException {
+		// Text node "foo".
+		assertKeys(wrapper(6).iterateAxis(Axis.PARENT), 5);
+		// Second b element.
+		assertKeys(wrapper(9).iterateAxis(Axis.PARENT), 1);
+		// The parent's node key equals the kind of document nodes.
+		assertKeys(wrapper(11).iterateAxis(Axis.PARENT), 9);
+		assertKeys(wrapper(0).iterateAxis(Axis.PARENT));
+	}
+
+	@Test
+	public void testPrecedingSiblingAxis() throws SirixException {
+		// Second b element.
+		assertKeys(wrapper(9).iterateAxis(Axis.PRECEDING_SIBLING), 4, 5, 8);
+		assertKeys(wrapper(4).iterateAxis(Axis.PRECEDING_SIBLING));
+	}
+
+	@Test
+	public void testChildAxisNameTest() throws SirixException {
+		final NodeWrapper a = wrapper(1);
+		final NamePool pool = a.getNamePool();
+		assertKeys(a.iterateAxis(Axis.CHILD, new NameTest(Type.ELEMENT, "", "b",
+				pool)), 5, 9);
+		assertKeys(a.iterateAxis(Axis.CHILD, new NameTest(Type.ELEMENT, "", "c",
+				pool)));
+		// The name matches, but not the kind.
+		assertKeys(a.iterateAxis(Axis.CHILD, new NameTest(Type.ATTRIBUTE, "", "b",
+				pool)));
+		assertKeys(wrapper(9).iterateAxis(Axis.ATTRIBUTE, new NameTest(
+				Type.ATTRIBUTE, "ns", "x", pool)), 10);
+	}
+
+	@Test
+	public void testDescendantAxisNameTest() throws SirixException {
+		final NodeWrapper document = wrapper(0);
+		final NamePool pool = document.getNamePool();
+		assertKeys(document.iterateAxis(Axis.DESCENDANT, new NameTest(
+				Type.ELEMENT, "", "c", pool)), 7, 11);
+		// The root element is bound to the namespace "ns".
+		assertKeys(document.iterateAxis(Axis.DESCENDANT, new NameTest(
+				Type.ELEMENT, "ns", "a", pool)), 1);
+		assertKeys(document.iterateAxis(Axis.DESCENDANT, new NameTest(
+				Type.ELEMENT, "", "a", pool)));
+	}
+
+	@Test
+	public void testChildAxisNodeKindTest() throws SirixException {
+		assertKeys(wrapper(1).iterateAxis(Axis.CHILD,
+				NodeKindTest.makeNodeKindTest(Type.TEXT)), 4, 8, 13);
+		assertKeys(wrapper(1).iterateAxis(Axis.CHILD,
+				NodeKindTest.makeNodeKindTest(Type.ELEMENT)), 5, 9);
+		assertKeys(wrapper(5).iterateAxis(Axis.CHILD,
+				NodeKindTest.makeNodeKindTest(Type.COMMENT)));
+	}
+
+	@Test
+	public void testDescendantAxisNodeKindTest() throws SirixException {
+		assertKeys(wrapper(0).iterateAxis(Axis.DESCENDANT,
+				NodeKindTest.makeNodeKindTest(Type.ELEMENT)), 1, 5, 7, 9, 11);
+		assertKeys(wrapper(9).iterateAxis(Axis.DESCENDANT,
+				NodeKindTest.makeNodeKindTest(Type.TEXT)), 12);
+	}
+
+	@Test
+	public void testGetFingerprint() throws SirixException {
+		// Prefixed element and attribute.
+		assertFingerprint(wrapper(1), "p", "ns", "a");
+		assertFingerprint(wrapper(10), "p", "ns", "x");
+		// Unprefixed element and attribute.
+		assertFingerprint(wrapper(5), "", "", "b");
+		assertFingerprint(wrapper(2), "", "", "i");
+		// Text nodes have no name.
+		assertEquals(-1, wrapper(4).getFingerprint());
+	}
+
+	@Test
+	public void testGetFingerprintAfterSetConfiguration() throws SirixException {
+		final Configuration config = new Processor(false)
+				.getUnderlyingConfiguration();
+		final DocumentWrapper document = new DocumentWrapper(
+				mHolder.getSession(), config);
+		final NodeWrapper a = new NodeWrapper(document, 1);
+		final int fingerprint = a.getFingerprint();
+
+		document.setConfiguration(config);
+		assertEquals(fingerprint, a.getFingerprint());
+		assertEquals(fingerprint, new NodeWrapper(document, 1).getFingerprint());
+
+		// The cached name codes of the previous name pool aren't used anymore.
+		final Configuration other = new Processor(false)
+				.getUnderlyingConfiguration();
+		document.setConfiguration(other);
+		final NamePool pool = other.getNamePool();
+		assertEquals(pool.allocate("p", "ns", "a") & 0xfffff, a.getFingerprint());
+		assertKeys(new NodeWrapper(document, 0).iterateAxis(Axis.DESCENDANT,
+				new NameTest(Type.ELEMENT, "ns", "a", pool)), 1);
+	}
+
+	@Test
+	public void testGetAnother() throws SirixException {
+		final NodeWrapper a = wrapper(1);
+		final NameTest test = new NameTest(Type.ELEMENT, "", "b", a.getNamePool());
+		final AxisIterator iterator = a.iterateAxis(Axis.CHILD, test);
+		assertEquals(5, ((NodeWrapper) iterator.next()).getKey());
+
+		// The other iterator starts at the beginning of the axis.
+		assertKeys((AxisIterator) iterator.getAnother(), 5, 9);
+		assertKeys(iterator, 9);
+	}
+
+	/**
+	 * Wrap a node of the test document.
+	 * 
+	 * @param nodeKey
+	 *          the key of the node
+	 * @return the wrapped node
+	 */
+	private NodeWrapper wrapper(final long nodeKey) throws SirixException {
+		final Processor proc = new Processor(false);
+		return new NodeWrapper(new DocumentWrapper(mHolder.getSession(),
+				proc.getUnderlyingConfiguration()), nodeKey);
+	}
+
+	/**
+	 * Assert that the fingerprint of a node is the one allocated for its name in
+	 * the name pool.
+	 * 
+	 * @param node
+	 *          the node
+	 * @param prefix
+	 *          the expected prefix
+	 * @param uri
+	 *          the expected namespace URI
+	 * @param localName
+	 *          the expected local name
+	 */
+	private static void assertFingerprint(final NodeWrapper node,
+			final String prefix, final String uri, final String localName) {
+		final int nameCode = node.getNamePool().allocate(prefix, uri, localName);
+		assertEquals(nameCode & 0xfffff, node.getFingerprint());
+	}
+
+	/**
+	 * Assert that an iterator returns exactly the nodes with the given keys.
+	 * 
+	 * @param iterator
+	 *          the iterator
+	 * @param keys
+	 *          the expected node keys
+	 */
+	private static void assertKeys(final AxisIterator iterator,
+			final long... keys) {
+		for (final long key : keys) {
+			final NodeInfo node = (NodeInfo) iterator.next();
+			assertTrue(node instanceof NodeWrapper);
+			assertEquals(key, ((NodeWrapper) node).getKey());
+		}
+		assertNull(iterator.next());
+	}
+
 	@Ignore
 	public Session generateSession() throws SirixException {
 		final DatabaseConfiguration dbConfig = new DatabaseConfiguration(